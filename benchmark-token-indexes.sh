@@ -0,0 +1,114 @@
+#!/bin/bash
+
+# Verification token index benchmark
+# Compares the original index layout on verification_token (token, user_id, token_type)
+# with the layout from changeset 07 (composite user_id + token_type, partial live-token index)
+# at 10M rows: bulk insert throughput, lookups by user + type and consumption by token.
+#
+# Usage:
+#   ./benchmark-token-indexes.sh                       # against the docker-compose db service
+#   PSQL="psql -h localhost -U postgres" ./benchmark-token-indexes.sh
+#   ROWS=1000000 OPS=20000 ./benchmark-token-indexes.sh
+
+PSQL=${PSQL:-"docker compose exec -T db psql -U postgres -d postgres"}
+ROWS=${ROWS:-10000000}
+OPS=${OPS:-50000}
+USERS=$((ROWS / 10))
+
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+echo -e "${BLUE}=== Verification token index benchmark (${ROWS} rows, ${OPS} ops) ===${NC}"
+
+$PSQL -v ON_ERROR_STOP=1 -q <<SQL
+DROP SCHEMA IF EXISTS token_index_bench CASCADE;
+CREATE SCHEMA token_index_bench;
+
+CREATE TABLE token_index_bench.baseline (
+    id BIGSERIAL PRIMARY KEY,
+    token VARCHAR(255) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL,
+    token_type VARCHAR(50) NOT NULL,
+    expiry_date TIMESTAMP NOT NULL,
+    used BOOLEAN NOT NULL DEFAULT FALSE,
+    created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE TABLE token_index_bench.optimized (LIKE token_index_bench.baseline INCLUDING DEFAULTS INCLUDING CONSTRAINTS);
+ALTER TABLE token_index_bench.optimized ADD PRIMARY KEY (id);
+ALTER TABLE token_index_bench.optimized ADD UNIQUE (token);
+
+CREATE INDEX ON token_index_bench.baseline (token);
+CREATE INDEX ON token_index_bench.baseline (user_id);
+CREATE INDEX ON token_index_bench.baseline (token_type);
+
+CREATE INDEX ON token_index_bench.optimized (user_id, token_type);
+CREATE INDEX ON token_index_bench.optimized (user_id, token_type, expiry_date) WHERE used = FALSE;
+SQL
+
+for layout in baseline optimized; do
+    echo -e "${BLUE}--- ${layout} ---${NC}"
+    $PSQL -v ON_ERROR_STOP=1 -q <<SQL
+\timing off
+DO \$\$
+DECLARE
+    started TIMESTAMPTZ;
+    elapsed NUMERIC;
+BEGIN
+    started := clock_timestamp();
+    INSERT INTO token_index_bench.${layout} (token, user_id, token_type, expiry_date, used, created_date)
+    SELECT md5(g::text) || md5((g * 7)::text),
+           g % ${USERS},
+           CASE WHEN g % 3 = 0 THEN 'PASSWORD_RESET' ELSE 'EMAIL_VERIFICATION' END,
+           now() + ((g % 48) - 24) * INTERVAL '1 hour',
+           g % 4 = 0,
+           now() - (g % 48) * INTERVAL '1 hour'
+    FROM generate_series(1, ${ROWS}) g;
+    elapsed := EXTRACT(EPOCH FROM clock_timestamp() - started);
+    RAISE NOTICE 'bulk insert:       % rows/s', round(${ROWS} / elapsed);
+END
+\$\$;
+
+VACUUM ANALYZE token_index_bench.${layout};
+
+DO \$\$
+DECLARE
+    started TIMESTAMPTZ;
+    elapsed NUMERIC;
+    g BIGINT;
+BEGIN
+    started := clock_timestamp();
+    FOR i IN 1..${OPS} LOOP
+        INSERT INTO token_index_bench.${layout} (token, user_id, token_type, expiry_date)
+        VALUES (md5(random()::text) || md5(random()::text), (random() * ${USERS})::BIGINT,
+                'PASSWORD_RESET', now() + INTERVAL '1 hour');
+    END LOOP;
+    elapsed := EXTRACT(EPOCH FROM clock_timestamp() - started);
+    RAISE NOTICE 'single inserts:    % ops/s', round(${OPS} / elapsed);
+
+    started := clock_timestamp();
+    FOR i IN 1..${OPS} LOOP
+        PERFORM id FROM token_index_bench.${layout}
+        WHERE user_id = (random() * ${USERS})::BIGINT AND token_type = 'PASSWORD_RESET'
+          AND used = FALSE AND expiry_date > now();
+    END LOOP;
+    elapsed := EXTRACT(EPOCH FROM clock_timestamp() - started);
+    RAISE NOTICE 'live user lookups: % ops/s', round(${OPS} / elapsed);
+
+    started := clock_timestamp();
+    FOR i IN 1..${OPS} LOOP
+        g := (random() * (${ROWS} - 1))::BIGINT + 1;
+        UPDATE token_index_bench.${layout} SET used = TRUE
+        WHERE token = md5(g::text) || md5((g * 7)::text)
+          AND token_type = 'EMAIL_VERIFICATION' AND used = FALSE AND expiry_date > now();
+    END LOOP;
+    elapsed := EXTRACT(EPOCH FROM clock_timestamp() - started);
+    RAISE NOTICE 'token consumption: % ops/s', round(${OPS} / elapsed);
+END
+\$\$;
+
+SELECT pg_size_pretty(pg_indexes_size('token_index_bench.${layout}')) AS index_size;
+SQL
+done
+
+$PSQL -q -c "DROP SCHEMA token_index_bench CASCADE;"
+echo -e "${BLUE}=== Done ===${NC}"
@@ -0,0 +1,65 @@
+#!/bin/bash
+
+# Virtual thread load comparison
+# Starts the packaged application once with platform threads and once with virtual threads
+# (VIRTUAL_THREADS_ENABLED), runs k6-virtual-threads.js against each at VUS concurrent
+# connections and prints throughput, latency percentiles and error rate side by side.
+# Expects a migrated database (see Database Migrations in the README) and k6 and jq on the PATH.
+#
+# Usage:
+#   mvn -B package -DskipTests && ./benchmark-virtual-threads.sh
+#   VUS=500 DURATION=1m ./benchmark-virtual-threads.sh
+#   JAVA_OPTS="-Djdk.tracePinnedThreads=short" ./benchmark-virtual-threads.sh   # also log pinned threads
+
+set -e
+
+JAR=${JAR:-$(ls target/*.jar 2>/dev/null | grep -v original | head -1)}
+PORT=${PORT:-8080}
+VUS=${VUS:-2000}
+DURATION=${DURATION:-2m}
+OUT=${OUT:-target/virtual-threads}
+
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+if [ -z "$JAR" ]; then
+    echo "No application jar in target/, run 'mvn -B package -DskipTests' first" >&2
+    exit 1
+fi
+mkdir -p "$OUT"
+
+echo -e "${BLUE}=== Virtual thread comparison (${VUS} connections, ${DURATION}) ===${NC}"
+
+for mode in platform virtual; do
+    enabled=$([ "$mode" = "virtual" ] && echo true || echo false)
+    echo -e "${BLUE}--- ${mode} threads ---${NC}"
+
+    VIRTUAL_THREADS_ENABLED=$enabled java $JAVA_OPTS -jar "$JAR" --server.port="$PORT" \
+        > "$OUT/app-${mode}.log" 2>&1 &
+    app=$!
+    trap 'kill $app 2>/dev/null' EXIT
+
+    for attempt in $(seq 1 60); do
+        curl -sf "http://localhost:${PORT}/swagger-ui/index.html" > /dev/null && break
+        sleep 2
+    done
+
+    k6 run --quiet -e MODE="$mode" -e VUS="$VUS" -e DURATION="$DURATION" -e BASE_URL="http://localhost:${PORT}" \
+        --summary-export "$OUT/summary-${mode}.json" k6-virtual-threads.js
+
+    kill $app
+    wait $app 2>/dev/null || true
+done
+trap - EXIT
+
+echo -e "${BLUE}=== Results ===${NC}"
+printf "%-10s %12s %10s %10s %10s %10s\n" "mode" "req/s" "med ms" "p95 ms" "p99 ms" "failed"
+for mode in platform virtual; do
+    jq -r --arg mode "$mode" '[$mode,
+            (.metrics.http_reqs.rate | floor),
+            (.metrics.http_req_duration.med | floor),
+            (.metrics.http_req_duration["p(95)"] | floor),
+            (.metrics.http_req_duration["p(99)"] | floor),
+            ((.metrics.http_req_failed.value * 100 | floor | tostring) + "%")] | @tsv' \
+        "$OUT/summary-${mode}.json" | awk -F'\t' '{ printf "%-10s %12s %10s %10s %10s %10s\n", $1, $2, $3, $4, $5, $6 }'
+done
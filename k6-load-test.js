@@ -23,6 +23,9 @@ export const options = {
 };
 
 const BASE_URL = 'http://localhost:8080';
+// Set CAPTURE_EMAILS=true when the app runs with app.email.mock.mode=sink and
+// app.email.mock.capture-endpoint.enabled=true to also verify every signed up account
+const CAPTURE_EMAILS = __ENV.CAPTURE_EMAILS === 'true';
 
 // Test data
 const testUsers = [
@@ -65,9 +68,10 @@ export default function () {
   }
 
   // Test 3: Signup endpoint stress test
+  const signupEmail = `test_${Math.random().toString(36).substring(7)}@example.com`;
   const signupPayload = JSON.stringify({
     username: `user_${Math.random().toString(36).substring(7)}`,
-    email: `test_${Math.random().toString(36).substring(7)}@example.com`,
+    email: signupEmail,
     firstName: 'Load',
     lastName: 'Test',
     password: 'TestPass123!',
@@ -87,6 +91,10 @@ export default function () {
     'signup response time < 1000ms': (r) => r.timings.duration < 1000,
   }) || errorRate.add(1);
 
+  if (CAPTURE_EMAILS && signupResponse.status === 200) {
+    verifyCapturedEmail(signupEmail);
+  }
+
   // Test 4: Forgot password endpoint
   const forgotPasswordPayload = JSON.stringify({
     email: 'test@example.com'
@@ -130,6 +138,28 @@ export default function () {
   sleep(0.1);
 }
 
+// Pulls the verification token from the mock email sink and verifies the account
+function verifyCapturedEmail(email) {
+  // The verification email is relayed from the outbox asynchronously
+  for (let attempt = 0; attempt < 20; attempt++) {
+    const captured = http.get(
+      `${BASE_URL}/api/test/emails/latest?to=${encodeURIComponent(email)}&operation=EMAIL_VERIFICATION`,
+      { tags: { name: 'captured-email' } }
+    );
+    if (captured.status === 200) {
+      const verifyResponse = http.post(
+        `${BASE_URL}/api/auth/verify-email?token=${captured.json('token')}`
+      );
+      check(verifyResponse, {
+        'verify email succeeds': (r) => r.status === 200,
+      }) || errorRate.add(1);
+      return;
+    }
+    sleep(0.25);
+  }
+  errorRate.add(1);
+}
+
 // Setup function - runs once before the test
 export function setup() {
   console.log('Starting load test for Informasyx Web Architecture API');
@@ -0,0 +1,96 @@
+// k6 scenario comparing the MVC person reads (Tomcat, JDBC) with the reactive ones (Netty, R2DBC)
+// Runs the same person lookups against each stack in turn, with VUS concurrent connections
+// (2000 by default), and tags every request with its stack. Both stacks authenticate the same bearer
+// token, and setup stops the run unless each of them answers the lookup with 200:
+//   k6 run k6-person-reads.js
+//   k6 run -e PERSON_ID=42 -e DURATION=5m k6-person-reads.js
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { Rate } from 'k6/metrics';
+
+const errorRate = new Rate('errors');
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const REACTIVE_URL = __ENV.REACTIVE_URL || 'http://localhost:8081';
+const VUS = parseInt(__ENV.VUS || '2000');
+const DURATION = __ENV.DURATION || '2m';
+const PERSON_ID = __ENV.PERSON_ID || '1';
+const THINK_TIME = parseFloat(__ENV.THINK_TIME || '0.1');
+
+function stackScenario(stack, startTime) {
+  return {
+    executor: 'constant-vus',
+    exec: 'readPersons',
+    vus: VUS,
+    duration: DURATION,
+    startTime: startTime,
+    gracefulStop: '30s',
+    env: { STACK_URL: stack === 'mvc' ? BASE_URL : REACTIVE_URL },
+    tags: { stack: stack },
+  };
+}
+
+export const options = {
+  scenarios: {
+    mvc: stackScenario('mvc', '0s'),
+    // Starts once the MVC run and its graceful stop are over
+    reactive: stackScenario('reactive', addSeconds(DURATION, 40)),
+  },
+  summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+  // Per-stack submetrics, so the summary reports each stack separately
+  thresholds: {
+    'http_req_duration{stack:mvc}': ['max>=0'],
+    'http_req_duration{stack:reactive}': ['max>=0'],
+    'http_reqs{stack:mvc}': ['count>=0'],
+    'http_reqs{stack:reactive}': ['count>=0'],
+    'errors{stack:mvc}': ['rate>=0'],
+    'errors{stack:reactive}': ['rate>=0'],
+  },
+};
+
+function addSeconds(duration, seconds) {
+  const match = /^(\d+)([smh])$/.exec(duration);
+  if (!match) {
+    throw new Error(`DURATION must look like 90s, 2m or 1h, got ${duration}`);
+  }
+  const factor = { s: 1, m: 60, h: 3600 }[match[2]];
+  return `${parseInt(match[1]) * factor + seconds}s`;
+}
+
+export function setup() {
+  // Tokens come from the MVC login; the reactive server checks them itself
+  const loginResponse = http.post(
+    `${BASE_URL}/api/auth/login`,
+    JSON.stringify({ username: __ENV.USERNAME || 'admin', password: __ENV.PASSWORD || 'admin' }),
+    { headers: { 'Content-Type': 'application/json' } }
+  );
+  if (loginResponse.status !== 200) {
+    throw new Error(`Login for the benchmark failed with status ${loginResponse.status}`);
+  }
+  const token = loginResponse.json('token');
+  // A stack rejecting the token would be measured answering 403s, not reading persons
+  for (const url of [BASE_URL, REACTIVE_URL]) {
+    const probe = http.get(`${url}/api/persons/${PERSON_ID}`, { headers: { Authorization: `Bearer ${token}` } });
+    if (probe.status !== 200) {
+      throw new Error(`GET ${url}/api/persons/${PERSON_ID} answered ${probe.status}, expected 200`);
+    }
+  }
+  return { token: token };
+}
+
+export function readPersons(data) {
+  const url = __ENV.STACK_URL;
+  const params = (name) => ({ headers: { Authorization: `Bearer ${data.token}` }, tags: { name: name } });
+
+  const byIdResponse = http.get(`${url}/api/persons/${PERSON_ID}`, params('person-by-id'));
+  check(byIdResponse, {
+    'person by id succeeds': (r) => r.status === 200,
+  }) ? errorRate.add(0) : errorRate.add(1);
+
+  const searchResponse = http.get(`${url}/api/persons/search/email?email=example.com`, params('search-email'));
+  check(searchResponse, {
+    'email search succeeds': (r) => r.status === 200,
+  }) ? errorRate.add(0) : errorRate.add(1);
+
+  sleep(THINK_TIME);
+}
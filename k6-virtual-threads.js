@@ -0,0 +1,69 @@
+// k6 scenario comparing platform and virtual thread request execution
+// Holds VUS concurrent connections (2000 by default) against endpoints that block on JDBC.
+// Run it once per mode, or use benchmark-virtual-threads.sh to run both and compare:
+//   k6 run -e MODE=virtual k6-virtual-threads.js
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { Rate } from 'k6/metrics';
+
+const errorRate = new Rate('errors');
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '2000');
+const DURATION = __ENV.DURATION || '2m';
+// Think time between iterations; every VU keeps its keep-alive connection open meanwhile
+const THINK_TIME = parseFloat(__ENV.THINK_TIME || '0.5');
+
+export const options = {
+  scenarios: {
+    concurrent_connections: {
+      executor: 'constant-vus',
+      vus: VUS,
+      duration: DURATION,
+      gracefulStop: '30s',
+    },
+  },
+  summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+  tags: { mode: __ENV.MODE || 'unknown' },
+};
+
+export function setup() {
+  const loginResponse = http.post(
+    `${BASE_URL}/api/auth/login`,
+    JSON.stringify({ username: __ENV.USERNAME || 'admin', password: __ENV.PASSWORD || 'admin' }),
+    { headers: { 'Content-Type': 'application/json' } }
+  );
+  if (loginResponse.status !== 200) {
+    throw new Error(`Login for the benchmark failed with status ${loginResponse.status}`);
+  }
+  const token = loginResponse.json('token');
+  // A rejected token would answer before any query runs and measure nothing
+  const probe = http.get(`${BASE_URL}/api/persons`, { headers: { Authorization: `Bearer ${token}` } });
+  if (probe.status !== 200) {
+    throw new Error(`GET /api/persons answered ${probe.status}, expected 200; log in as an ADMIN or SUPER_ADMIN`);
+  }
+  return { token: token };
+}
+
+export default function (data) {
+  // Read path: the role check's user lookup and the person list, two JDBC queries per request
+  const personsResponse = http.get(`${BASE_URL}/api/persons`, {
+    headers: { Authorization: `Bearer ${data.token}` },
+    tags: { name: 'list-persons' },
+  });
+  check(personsResponse, {
+    'list persons succeeds': (r) => r.status === 200,
+  }) || errorRate.add(1);
+
+  // Write path: a user lookup and, for known addresses, a token insert and an outbox message
+  const forgotPasswordResponse = http.post(
+    `${BASE_URL}/api/auth/forgot-password`,
+    JSON.stringify({ email: `vt_${__VU % 100}@example.com` }),
+    { headers: { 'Content-Type': 'application/json' }, tags: { name: 'forgot-password' } }
+  );
+  check(forgotPasswordResponse, {
+    'forgot password succeeds': (r) => r.status === 200,
+  }) || errorRate.add(1);
+
+  sleep(THINK_TIME);
+}
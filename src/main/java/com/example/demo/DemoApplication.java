@@ -2,14 +2,34 @@ package com.example.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 
-@SpringBootApplication
+import java.util.Arrays;
+import java.util.List;
+
+// R2DBC is only used by the reactive person reads, through their own pool; an R2DBC connection factory
+// bean would replace the JDBC data source everything else runs on
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @EnableAspectJAutoProxy
 public class DemoApplication {
 
+	// Run as "java -jar app.jar migrate" to apply Liquibase migrations and exit
+	static final String MIGRATE_COMMAND = "migrate";
+
+	// Run as "java -jar app.jar backfill-user-state" to publish every user to the user-state topic and exit
+	static final String BACKFILL_USER_STATE_COMMAND = "backfill-user-state";
+
 	public static void main(String[] args) {
-		SpringApplication.run(DemoApplication.class, args);
+		SpringApplication application = new SpringApplication(DemoApplication.class);
+		for (String command : List.of(MIGRATE_COMMAND, BACKFILL_USER_STATE_COMMAND)) {
+			if (Arrays.asList(args).contains(command)) {
+				// Each command has a profile of the same name that turns off what it doesn't need
+				application.setAdditionalProfiles(command);
+				System.exit(SpringApplication.exit(application.run(args)));
+			}
+		}
+		application.run(args);
 	}
 
 }
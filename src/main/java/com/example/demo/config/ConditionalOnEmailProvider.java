@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Conditional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Matches when the named email provider is in use: either it is {@code app.email.provider}
+ * (which defaults to {@code mock}), or the provider is {@code routing} and it is listed in
+ * {@code app.email.routing.providers}.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Conditional(OnEmailProviderCondition.class)
+public @interface ConditionalOnEmailProvider {
+
+    /**
+     * The provider name: {@code mock}, {@code smtp} or {@code ses}.
+     */
+    String value();
+}
@@ -14,7 +14,7 @@ import org.springframework.stereotype.Component;
 @Component
 @RequiredArgsConstructor
 @Slf4j
-@org.springframework.context.annotation.Profile("!test & !h2")
+@org.springframework.context.annotation.Profile("!test & !h2 & !migrate & !backfill-user-state")
 public class DataInitializer implements CommandLineRunner {
 
     private final UserRepository userRepository;
@@ -0,0 +1,92 @@
+package com.example.demo.config;
+
+import com.example.demo.exception.EmailConfigurationException;
+import com.example.demo.exception.EmailServiceException;
+import com.example.demo.service.EmailService;
+import com.example.demo.service.email.EmailRateGovernor;
+import com.example.demo.service.impl.EmailServiceImpl;
+import com.example.demo.service.impl.MockEmailServiceImpl;
+import com.example.demo.service.impl.RateLimitedEmailService;
+import com.example.demo.service.impl.RoutingEmailServiceImpl;
+import com.example.demo.service.impl.SesEmailServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code emailProvider} that the async queue and the outbox relay send through: the provider
+ * named by {@code app.email.provider}, or a {@link RoutingEmailServiceImpl} over
+ * {@code app.email.routing.providers}. Each concrete provider is wrapped in a
+ * {@link RateLimitedEmailService} with its own {@link EmailRateGovernor}, configured under
+ * {@code app.email.rate.<provider>.*}, so it is held to its own quota whichever path a send takes.
+ * With {@code app.email.async.enabled=false} there is no queue in front of it, so it is made the
+ * primary {@link EmailService} in place of the concrete providers it wraps.
+ */
+@Configuration
+public class EmailProviderConfig {
+
+    // Routing manages its executor through @PreDestroy; no inferred shutdown() on top
+    @Bean(destroyMethod = "")
+    @Qualifier("emailProvider")
+    public EmailService emailProvider(@Value("${app.email.provider:mock}") String provider,
+                                      @Value("${app.email.routing.providers:}") List<String> routedProviders,
+                                      ObjectProvider<MockEmailServiceImpl> mockProvider,
+                                      ObjectProvider<EmailServiceImpl> smtpProvider,
+                                      ObjectProvider<SesEmailServiceImpl> sesProvider,
+                                      Environment environment,
+                                      MeterRegistry meterRegistry) {
+        Map<String, ObjectProvider<? extends EmailService>> available =
+                Map.of("mock", mockProvider, "smtp", smtpProvider, "ses", sesProvider);
+        if (!OnEmailProviderCondition.ROUTING.equals(provider)) {
+            return rateLimited(provider, available, "app.email.provider", environment, meterRegistry);
+        }
+
+        Map<String, EmailService> providers = new LinkedHashMap<>();
+        for (String name : routedProviders) {
+            providers.put(name, rateLimited(name, available, "app.email.routing.providers", environment, meterRegistry));
+        }
+        if (providers.isEmpty()) {
+            throw new EmailServiceException(new EmailConfigurationException(
+                    "No email providers to route to", "app.email.routing.providers"));
+        }
+        return new RoutingEmailServiceImpl(providers, meterRegistry);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "app.email.async.enabled", havingValue = "false")
+    static class SynchronousEmailConfig {
+
+        @Bean
+        static BeanFactoryPostProcessor emailProviderAsPrimary() {
+            return beanFactory -> beanFactory.getBeanDefinition("emailProvider").setPrimary(true);
+        }
+    }
+
+    private EmailService rateLimited(String name, Map<String, ObjectProvider<? extends EmailService>> available,
+                                     String property, Environment environment, MeterRegistry meterRegistry) {
+        ObjectProvider<? extends EmailService> candidate = available.get(name);
+        EmailService service = candidate != null ? candidate.getIfAvailable() : null;
+        if (service == null) {
+            throw new EmailServiceException(new EmailConfigurationException(
+                    "Unknown email provider '" + name + "'", property));
+        }
+        EmailRateGovernor rateGovernor = new EmailRateGovernor(name,
+                environment.getProperty("app.email.rate." + name + ".max-per-second", Double.class, 0.0),
+                environment.getProperty("app.email.rate." + name + ".burst", Double.class, 0.0),
+                environment.getProperty("app.email.rate.min-per-second", Double.class, 1.0),
+                environment.getProperty("app.email.rate.decrease-factor", Double.class, 0.5),
+                environment.getProperty("app.email.rate.increase-per-second", Double.class, 1.0),
+                meterRegistry);
+        return new RateLimitedEmailService(service, rateGovernor);
+    }
+}
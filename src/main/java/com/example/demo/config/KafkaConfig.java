@@ -1,10 +1,15 @@
 package com.example.demo.config;
 
+import com.example.demo.event.DeliveryTier;
+import com.example.demo.event.serialization.BinaryEventSerializer;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
@@ -13,29 +18,149 @@ import org.springframework.kafka.support.serializer.JsonSerializer;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Event producer. Batching and compression follow {@code app.kafka.producer.profile}
+ * ({@link KafkaProducerProfile}); {@code app.kafka.producer.linger-ms}, {@code batch-size},
+ * {@code compression-type} and {@code buffer-memory} override single settings of the profile.
+ * Events are written as JSON unless {@code app.kafka.producer.format=binary} selects
+ * {@link BinaryEventSerializer}; consumers read both with {@code BinaryEventDeserializer}.
+ *
+ * <p>Each {@link DeliveryTier} has its own producer and buffer. The standard one is the primary
+ * {@link KafkaTemplate}; the critical one doesn't linger, since the outbox relay waits on every send,
+ * and the best-effort one batches for {@code app.kafka.producer.best-effort.linger-ms}, asks for
+ * the leader's acknowledgement only, doesn't retry, and gives up after {@code best-effort.max-block-ms}
+ * when its smaller {@code best-effort.buffer-memory} is full.
+ */
 @Configuration
 public class KafkaConfig {
 
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${app.kafka.producer.max-block-ms:1000}")
+    private long maxBlockMs;
+
+    @Value("${app.kafka.producer.best-effort.max-block-ms:50}")
+    private long bestEffortMaxBlockMs;
+
+    @Value("${app.kafka.producer.best-effort.buffer-memory:8388608}")
+    private long bestEffortBufferMemory;
+
+    @Value("${app.kafka.producer.best-effort.linger-ms:20}")
+    private int bestEffortLingerMs;
+
+    @Value("${app.kafka.producer.format:json}")
+    private String format;
+
+    @Value("${app.kafka.producer.profile:default}")
+    private String profile;
+
+    @Value("${app.kafka.topics.user-state:user-state}")
+    private String userStateTopicName;
+
+    @Value("${app.kafka.user-state.partitions:3}")
+    private int userStatePartitions;
+
+    @Value("${app.kafka.user-state.replicas:1}")
+    private int userStateReplicas;
+
+    @Value("${app.kafka.producer.linger-ms:#{null}}")
+    private Integer lingerMs;
+
+    @Value("${app.kafka.producer.batch-size:#{null}}")
+    private Integer batchSize;
+
+    @Value("${app.kafka.producer.compression-type:#{null}}")
+    private String compressionType;
+
+    @Value("${app.kafka.producer.buffer-memory:#{null}}")
+    private Long bufferMemory;
+
     @Bean
+    @Primary
     public ProducerFactory<String, Object> producerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerProperties(DeliveryTier.STANDARD));
+    }
+
+    @Bean
+    public ProducerFactory<String, Object> criticalProducerFactory() {
+        Map<String, Object> configProps = producerProperties(DeliveryTier.CRITICAL);
+        // The caller waits on every send, so don't hold it back to fill a batch
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    @Bean
+    public ProducerFactory<String, Object> bestEffortProducerFactory() {
+        Map<String, Object> configProps = producerProperties(DeliveryTier.BEST_EFFORT);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "1");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false);
+        configProps.put(ProducerConfig.RETRIES_CONFIG, 0);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, bestEffortMaxBlockMs);
+        configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bestEffortBufferMemory);
+        // Nobody waits on these, so send them in batches
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, bestEffortLingerMs);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    private Map<String, Object> producerProperties(DeliveryTier tier) {
         Map<String, Object> configProps = new HashMap<>();
+        // Tells the tiers apart in the producer's own metrics
+        configProps.put(ProducerConfig.CLIENT_ID_CONFIG, "event-publisher-" + tier.name().toLowerCase().replace('_', '-'));
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+                "binary".equalsIgnoreCase(format) ? BinaryEventSerializer.class : JsonSerializer.class);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.RETRY_BACKOFF_MS_CONFIG, 1000);
         configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 30000);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        
-        return new DefaultKafkaProducerFactory<>(configProps);
+        // Fail fast instead of holding the caller for 60 s when the broker can't be reached
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+
+        KafkaProducerProfile producerProfile = KafkaProducerProfile.valueOf(profile.trim().toUpperCase().replace('-', '_'));
+        putIfSet(configProps, ProducerConfig.LINGER_MS_CONFIG, lingerMs != null ? lingerMs : producerProfile.getLingerMs());
+        putIfSet(configProps, ProducerConfig.BATCH_SIZE_CONFIG, batchSize != null ? batchSize : producerProfile.getBatchSize());
+        putIfSet(configProps, ProducerConfig.COMPRESSION_TYPE_CONFIG,
+                compressionType != null ? compressionType : producerProfile.getCompressionType());
+        putIfSet(configProps, ProducerConfig.BUFFER_MEMORY_CONFIG,
+                bufferMemory != null ? bufferMemory : producerProfile.getBufferMemory());
+        return configProps;
+    }
+
+    /**
+     * The compacted topic holding the latest {@code UserStateSnapshot} per user, created on
+     * startup when it doesn't exist yet.
+     */
+    @Bean
+    public NewTopic userStateTopic() {
+        return TopicBuilder.name(userStateTopicName)
+                .partitions(userStatePartitions)
+                .replicas(userStateReplicas)
+                .compact()
+                .build();
     }
 
     @Bean
+    @Primary
     public KafkaTemplate<String, Object> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    @Bean
+    public KafkaTemplate<String, Object> criticalKafkaTemplate() {
+        return new KafkaTemplate<>(criticalProducerFactory());
+    }
+
+    @Bean
+    public KafkaTemplate<String, Object> bestEffortKafkaTemplate() {
+        return new KafkaTemplate<>(bestEffortProducerFactory());
+    }
+
+    private static void putIfSet(Map<String, Object> configProps, String key, Object value) {
+        if (value != null) {
+            configProps.put(key, value);
+        }
+    }
 }
\ No newline at end of file
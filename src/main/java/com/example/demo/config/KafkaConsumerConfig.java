@@ -0,0 +1,102 @@
+package com.example.demo.config;
+
+import com.example.demo.event.serialization.BinaryEventDeserializer;
+import com.example.demo.service.event.EventDeduplicationInterceptor;
+import com.example.demo.service.event.EventDeduplicator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Consumers of the service's own events, enabled with {@code app.kafka.consumers.enabled}.
+ * Values are read with {@link BinaryEventDeserializer}, so either producer format works; records
+ * that can't be read reach the listener as {@code null} instead of stopping the container.
+ * Events a listener already processed recently are skipped by their event id
+ * ({@code app.kafka.consumers.dedup.*}, see {@link EventDeduplicator}).
+ */
+@Configuration
+@EnableKafka
+@ConditionalOnProperty(name = "app.kafka.consumers.enabled", havingValue = "true")
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${app.kafka.consumers.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${app.kafka.consumers.dedup.window-minutes:60}")
+    private long dedupWindowMinutes;
+
+    @Value("${app.kafka.consumers.dedup.buckets:6}")
+    private int dedupBuckets;
+
+    @Value("${app.kafka.consumers.dedup.max-entries:100000}")
+    private int dedupMaxEntries;
+
+    @Bean
+    public ConsumerFactory<String, Object> eventConsumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, BinaryEventDeserializer.class);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+
+    @Bean
+    public EventDeduplicator userDirectoryDeduplicator(MeterRegistry meterRegistry) {
+        return deduplicator("user-directory", meterRegistry);
+    }
+
+    @Bean
+    public EventDeduplicator loginActivityDeduplicator(MeterRegistry meterRegistry) {
+        return deduplicator("login-activity", meterRegistry);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> userDirectoryListenerContainerFactory(
+            EventDeduplicator userDirectoryDeduplicator) {
+        return batchListenerContainerFactory(userDirectoryDeduplicator);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> loginActivityListenerContainerFactory(
+            EventDeduplicator loginActivityDeduplicator) {
+        return batchListenerContainerFactory(loginActivityDeduplicator);
+    }
+
+    private EventDeduplicator deduplicator(String listener, MeterRegistry meterRegistry) {
+        return new EventDeduplicator(listener, Duration.ofMinutes(dedupWindowMinutes), dedupBuckets,
+                dedupMaxEntries, meterRegistry);
+    }
+
+    private ConcurrentKafkaListenerContainerFactory<String, Object> batchListenerContainerFactory(
+            EventDeduplicator deduplicator) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(eventConsumerFactory());
+        factory.setBatchListener(true);
+        // A single consumer applies events to the in-memory view one batch at a time
+        factory.setConcurrency(1);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setBatchInterceptor(new EventDeduplicationInterceptor(deduplicator));
+        return factory;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.config;
+
+import com.example.demo.service.email.PooledJavaMailSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * Replaces Spring Boot's per-message {@code JavaMailSender} with {@link PooledJavaMailSender}
+ * for the {@code smtp} provider. Connection settings still come from {@code spring.mail.*};
+ * pool sizing and connection lifetime come from {@code app.email.smtp.pool.*}.
+ */
+@Configuration
+@ConditionalOnEmailProvider("smtp")
+@EnableConfigurationProperties(MailProperties.class)
+public class MailConfig {
+
+    @Bean
+    public PooledJavaMailSender mailSender(MailProperties mailProperties,
+                                           @Value("${app.email.smtp.pool.size:4}") int poolSize,
+                                           @Value("${app.email.smtp.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                                           @Value("${app.email.smtp.pool.validate-after-idle-ms:5000}") long validateAfterIdleMs,
+                                           @Value("${app.email.smtp.pool.max-idle-ms:60000}") long maxIdleMs,
+                                           @Value("${app.email.smtp.pool.borrow-timeout-ms:10000}") long borrowTimeoutMs) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(poolSize, maxMessagesPerConnection,
+                validateAfterIdleMs, maxIdleMs, borrowTimeoutMs);
+        sender.setHost(mailProperties.getHost());
+        if (mailProperties.getPort() != null) {
+            sender.setPort(mailProperties.getPort());
+        }
+        sender.setUsername(mailProperties.getUsername());
+        sender.setPassword(mailProperties.getPassword());
+        sender.setProtocol(mailProperties.getProtocol());
+        sender.setDefaultEncoding(mailProperties.getDefaultEncoding() != null
+                ? mailProperties.getDefaultEncoding().name() : StandardCharsets.UTF_8.name());
+
+        Properties javaMailProperties = new Properties();
+        javaMailProperties.putAll(mailProperties.getProperties());
+        sender.setJavaMailProperties(javaMailProperties);
+        return sender;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.List;
+
+class OnEmailProviderCondition extends SpringBootCondition {
+
+    static final String ROUTING = "routing";
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        String required = (String) metadata.getAnnotationAttributes(ConditionalOnEmailProvider.class.getName())
+                .get("value");
+        String provider = context.getEnvironment().getProperty("app.email.provider", "mock");
+        if (provider.equals(required)) {
+            return ConditionOutcome.match("app.email.provider is " + required);
+        }
+        if (ROUTING.equals(provider)) {
+            List<String> routed = Binder.get(context.getEnvironment())
+                    .bind("app.email.routing.providers", Bindable.listOf(String.class))
+                    .orElse(List.of());
+            if (routed.contains(required)) {
+                return ConditionOutcome.match("app.email.routing.providers includes " + required);
+            }
+        }
+        return ConditionOutcome.noMatch("email provider " + required + " is not in use");
+    }
+}
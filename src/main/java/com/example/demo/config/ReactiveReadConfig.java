@@ -0,0 +1,198 @@
+package com.example.demo.config;
+
+import com.example.demo.controller.PersonReadHandler;
+import com.example.demo.domain.Role;
+import com.example.demo.domain.mapper.PersonMapper;
+import com.example.demo.domain.repository.ReactivePersonRepository;
+import com.example.demo.domain.repository.ReactiveUserRepository;
+import com.example.demo.security.ReactiveRoleAuthorization;
+import com.example.demo.service.impl.AuthServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.LoopResources;
+import reactor.pool.PoolAcquirePendingLimitException;
+
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Non-blocking read API for persons, enabled with {@code app.reactive.persons.enabled}. The GETs of
+ * {@code /api/persons} are also served by a Netty server on {@code app.reactive.persons.port}, running on
+ * {@code event-loop-threads} threads and reading through an R2DBC pool ({@code app.reactive.r2dbc.*}).
+ * Writes stay on the MVC API.
+ *
+ * <p>Requests wait for a pooled connection without holding a thread. Once {@code max-pending-acquire}
+ * requests are waiting, or one has waited {@code max-acquire-time-ms}, further requests are answered with
+ * 503 and counted in {@code person.reads.rejected}. {@code person.reads.connections} shows the pool by
+ * {@code state}. The R2DBC pool is not exposed as a {@code ConnectionFactory} bean, which would turn off
+ * the JDBC data source auto-configuration.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.reactive.persons.enabled", havingValue = "true")
+@Profile("!migrate & !backfill-user-state")
+public class ReactiveReadConfig {
+
+    // Lets the PostgreSQL driver share the server's event loops instead of starting its own
+    private static final Option<LoopResources> POSTGRES_LOOP_RESOURCES = Option.valueOf("loopResources");
+
+    @Value("${app.reactive.persons.port:8081}")
+    private int port;
+
+    @Value("${app.reactive.persons.event-loop-threads:2}")
+    private int eventLoopThreads;
+
+    @Value("${app.reactive.persons.fetch-size:250}")
+    private int fetchSize;
+
+    @Value("${app.reactive.r2dbc.url}")
+    private String url;
+
+    @Value("${app.reactive.r2dbc.username:}")
+    private String username;
+
+    @Value("${app.reactive.r2dbc.password:}")
+    private String password;
+
+    @Value("${app.reactive.r2dbc.pool.max-size:10}")
+    private int poolMaxSize;
+
+    @Value("${app.reactive.r2dbc.pool.max-pending-acquire:1000}")
+    private int poolMaxPendingAcquire;
+
+    @Value("${app.reactive.r2dbc.pool.max-acquire-time-ms:2000}")
+    private long poolMaxAcquireTimeMs;
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources reactiveReadLoopResources() {
+        return LoopResources.create("person-read", 1, eventLoopThreads, true);
+    }
+
+    @Bean
+    public DatabaseClient reactiveReadDatabaseClient(LoopResources reactiveReadLoopResources,
+                                                     MeterRegistry meterRegistry) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (!password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        if ("postgresql".equals(ConnectionFactoryOptions.parse(url).getValue(ConnectionFactoryOptions.DRIVER))) {
+            options.option(POSTGRES_LOOP_RESOURCES, reactiveReadLoopResources);
+        }
+
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name("person-read")
+                .maxSize(poolMaxSize)
+                .maxAcquireTime(Duration.ofMillis(poolMaxAcquireTimeMs))
+                .customizer(builder -> builder.maxPendingAcquire(poolMaxPendingAcquire))
+                .build());
+        poolGauge(meterRegistry, pool, "acquired", PoolMetrics::acquiredSize);
+        poolGauge(meterRegistry, pool, "idle", PoolMetrics::idleSize);
+        poolGauge(meterRegistry, pool, "pending", PoolMetrics::pendingAcquireSize);
+        return DatabaseClient.create(pool);
+    }
+
+    @Bean
+    public ReactivePersonRepository reactivePersonRepository(DatabaseClient reactiveReadDatabaseClient) {
+        return new ReactivePersonRepository(reactiveReadDatabaseClient, fetchSize);
+    }
+
+    @Bean
+    public ReactiveUserRepository reactiveUserRepository(DatabaseClient reactiveReadDatabaseClient) {
+        return new ReactiveUserRepository(reactiveReadDatabaseClient);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> personReadRoutes(ReactivePersonRepository reactivePersonRepository,
+                                                           ReactiveUserRepository reactiveUserRepository,
+                                                           PersonMapper personMapper,
+                                                           AuthServiceImpl authService) {
+        PersonReadHandler handler = new PersonReadHandler(reactivePersonRepository, personMapper);
+        ReactiveRoleAuthorization authorization = new ReactiveRoleAuthorization(authService, reactiveUserRepository);
+        // Same paths and roles as PersonController
+        return RouterFunctions.route()
+                .GET("/api/persons", handler::getAllPersons)
+                .GET("/api/persons/search/lastName", handler::findByLastName)
+                .GET("/api/persons/search/name", handler::findByFullName)
+                .GET("/api/persons/search/email", handler::findByEmailContaining)
+                .filter(authorization.requireRole(Role.ADMIN, Role.SUPER_ADMIN))
+                .build()
+                .and(RouterFunctions.route()
+                        .GET("/api/persons/{id}", handler::getPersonById)
+                        .filter(authorization.requireRole(Role.USER, Role.ADMIN, Role.SUPER_ADMIN))
+                        .build());
+    }
+
+    @Bean
+    public ReactiveReadServer reactiveReadServer(RouterFunction<ServerResponse> personReadRoutes,
+                                                 DatabaseClient reactiveReadDatabaseClient,
+                                                 LoopResources reactiveReadLoopResources,
+                                                 ObjectMapper objectMapper,
+                                                 MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("person.reads.rejected")
+                .description("Reactive person reads refused because no database connection was available in time")
+                .register(meterRegistry);
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .exceptionHandler(poolExhaustedHandler(rejected))
+                .build();
+        return new ReactiveReadServer(RouterFunctions.toHttpHandler(personReadRoutes, strategies), port,
+                reactiveReadLoopResources, (ConnectionPool) reactiveReadDatabaseClient.getConnectionFactory());
+    }
+
+    private static WebExceptionHandler poolExhaustedHandler(Counter rejected) {
+        return (exchange, ex) -> {
+            if (!isPoolExhausted(ex) || exchange.getResponse().isCommitted()) {
+                return Mono.error(ex);
+            }
+            rejected.increment();
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return exchange.getResponse().setComplete();
+        };
+    }
+
+    private static boolean isPoolExhausted(Throwable ex) {
+        // DatabaseClient wraps the pool's failure to hand out a connection
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PoolAcquirePendingLimitException || cause instanceof R2dbcTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void poolGauge(MeterRegistry meterRegistry, ConnectionPool pool, String state,
+                                  ToDoubleFunction<PoolMetrics> value) {
+        Gauge.builder("person.reads.connections", pool,
+                        p -> p.getMetrics().map(value::applyAsDouble).orElse(0.0))
+                .description("Connections of the reactive person read pool")
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+}
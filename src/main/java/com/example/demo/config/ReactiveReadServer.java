@@ -0,0 +1,80 @@
+package com.example.demo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.core.Disposable;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Netty server for the reactive read routes, next to Tomcat on its own port and event loops.
+ * Stopping it closes the server and then the R2DBC connection pool behind the routes.
+ * Requests are timed as {@code reactor.netty.http.server.*}, tagged with the route.
+ */
+@Slf4j
+public class ReactiveReadServer implements SmartLifecycle {
+
+    private static final Pattern PERSON_BY_ID = Pattern.compile("/api/persons/\\d+");
+    private static final Set<String> ROUTES = Set.of("/api/persons", "/api/persons/search/lastName",
+            "/api/persons/search/name", "/api/persons/search/email");
+
+    private final HttpHandler httpHandler;
+    private final int port;
+    private final LoopResources loopResources;
+    private final Disposable connectionPool;
+    private volatile DisposableServer server;
+
+    public ReactiveReadServer(HttpHandler httpHandler, int port, LoopResources loopResources,
+                              Disposable connectionPool) {
+        this.httpHandler = httpHandler;
+        this.port = port;
+        this.loopResources = loopResources;
+        this.connectionPool = connectionPool;
+    }
+
+    @Override
+    public void start() {
+        server = HttpServer.create()
+                .port(port)
+                .runOn(loopResources)
+                .metrics(true, ReactiveReadServer::route)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive person reads listening on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+        connectionPool.dispose();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * The port the server is bound to, which differs from the configured one when that is 0.
+     */
+    public int getPort() {
+        return server != null ? server.port() : port;
+    }
+
+    static String route(String uri) {
+        if (PERSON_BY_ID.matcher(uri).matches()) {
+            return "/api/persons/{id}";
+        }
+        // Paths without a route are 404s, tagging each would let clients create meters
+        return ROUTES.contains(uri) ? uri : "UNKNOWN";
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.config;
+
+import liquibase.ChecksumVersion;
+import liquibase.change.CheckSum;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.DatabaseList;
+import liquibase.parser.ChangeLogParser;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Refuses to start the application when the database schema does not match the Liquibase
+ * changelog packaged with it. Migrations are applied out of band by the {@code migrate} run
+ * mode, so normal startup only reads {@code DATABASECHANGELOG} and compares checksums without
+ * taking the changelog lock.
+ */
+@Component
+@ConditionalOnProperty(name = "app.schema.verify-on-startup", havingValue = "true")
+@Slf4j
+public class SchemaVersionVerifier implements InitializingBean {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String changeLogPath;
+
+    public SchemaVersionVerifier(JdbcTemplate jdbcTemplate,
+                                 @Value("${spring.liquibase.change-log:classpath:db/changelog/db.changelog-master.xml}")
+                                 String changeLogPath) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeLogPath = changeLogPath.replaceFirst("^classpath:/?", "");
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        long start = System.currentTimeMillis();
+        List<String> problems = verify();
+        if (!problems.isEmpty()) {
+            problems.forEach(problem -> log.error("Schema verification failed: {}", problem));
+            throw new IllegalStateException("Database schema does not match the packaged changelog ("
+                    + problems.size() + " problem(s)); run the application with the 'migrate' argument first");
+        }
+        log.info("Schema verified against {} in {} ms", changeLogPath, System.currentTimeMillis() - start);
+    }
+
+    List<String> verify() throws Exception {
+        Map<String, String> applied = loadAppliedChecksums();
+        String databaseShortName = databaseShortName();
+
+        List<String> problems = new ArrayList<>();
+        for (ChangeSet changeSet : parseChangeLog().getChangeSets()) {
+            if (!DatabaseList.definitionMatches(changeSet.getDbmsSet(), databaseShortName, true)) {
+                continue;
+            }
+            String key = key(changeSet.getId(), changeSet.getAuthor(), changeSet.getFilePath());
+            if (!applied.containsKey(key)) {
+                problems.add("changeset " + key + " has not been applied");
+                continue;
+            }
+            String stored = applied.remove(key);
+            if (stored == null) {
+                // A cleared checksum is recomputed by the next migrate run
+                continue;
+            }
+            CheckSum storedCheckSum = CheckSum.parse(stored);
+            CheckSum current = changeSet.generateCheckSum(
+                    ChecksumVersion.enumFromChecksumVersion(storedCheckSum.getVersion()));
+            if (!storedCheckSum.equals(current) && !changeSet.isCheckSumValid(storedCheckSum)) {
+                problems.add("changeset " + key + " was modified after it was applied");
+            }
+        }
+        // Changesets from a newer release are expected while a rolling deploy is in progress
+        applied.keySet().forEach(key -> log.warn("Database contains changeset {} unknown to this build", key));
+        return problems;
+    }
+
+    private DatabaseChangeLog parseChangeLog() throws Exception {
+        ResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor(getClass().getClassLoader());
+        ChangeLogParser parser = ChangeLogParserFactory.getInstance().getParser(changeLogPath, resourceAccessor);
+        return parser.parse(changeLogPath, new ChangeLogParameters(), resourceAccessor);
+    }
+
+    private Map<String, String> loadAppliedChecksums() {
+        Map<String, String> applied = new HashMap<>();
+        try {
+            jdbcTemplate.query("SELECT ID, AUTHOR, FILENAME, MD5SUM FROM DATABASECHANGELOG", rs -> {
+                applied.put(key(rs.getString(1), rs.getString(2), rs.getString(3)), rs.getString(4));
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException(
+                    "DATABASECHANGELOG is not readable; run the application with the 'migrate' argument first", e);
+        }
+        return applied;
+    }
+
+    private String databaseShortName() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product) ? "postgresql" : String.valueOf(product).toLowerCase();
+    }
+
+    private static String key(String id, String author, String filePath) {
+        return filePath + "::" + id + "::" + author;
+    }
+}
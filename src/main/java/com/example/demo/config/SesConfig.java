@@ -0,0 +1,74 @@
+package com.example.demo.config;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
+import com.amazonaws.regions.Regions;
+import com.amazonaws.services.simpleemail.AmazonSimpleEmailServiceAsync;
+import com.amazonaws.services.simpleemail.AmazonSimpleEmailServiceAsyncClientBuilder;
+import com.example.demo.exception.EmailConfigurationException;
+import com.example.demo.exception.EmailServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+
+import java.util.concurrent.Executors;
+
+/**
+ * SES client for the {@code ses} provider. The client keeps up to {@code aws.ses.max-connections}
+ * keep-alive HTTPS connections and runs requests on a pool of the same size, so every request
+ * thread always has a connection. {@code aws.ses.endpoint} points the client at another SES
+ * compatible endpoint, such as a local fake for load tests. SDK retries are off by default so
+ * throttling reaches the email rate governor instead of being retried against the quota.
+ */
+@Configuration
+@ConditionalOnEmailProvider("ses")
+@Slf4j
+public class SesConfig {
+
+    @Bean
+    public AmazonSimpleEmailServiceAsync sesClient(@Value("${aws.ses.access-key}") String accessKey,
+                                                   @Value("${aws.ses.secret-key}") String secretKey,
+                                                   @Value("${aws.ses.region:us-east-1}") String region,
+                                                   @Value("${aws.ses.endpoint:}") String endpoint,
+                                                   @Value("${aws.ses.max-connections:50}") int maxConnections,
+                                                   @Value("${aws.ses.connection-timeout-ms:2000}") int connectionTimeoutMs,
+                                                   @Value("${aws.ses.socket-timeout-ms:10000}") int socketTimeoutMs,
+                                                   @Value("${aws.ses.connection-ttl-ms:60000}") long connectionTtlMs,
+                                                   @Value("${aws.ses.max-error-retry:0}") int maxErrorRetry) {
+        try {
+            ClientConfiguration clientConfiguration = new ClientConfiguration()
+                    .withMaxConnections(maxConnections)
+                    .withConnectionTimeout(connectionTimeoutMs)
+                    .withSocketTimeout(socketTimeoutMs)
+                    .withConnectionTTL(connectionTtlMs)
+                    .withTcpKeepAlive(true)
+                    .withMaxErrorRetry(maxErrorRetry);
+
+            AmazonSimpleEmailServiceAsyncClientBuilder builder = AmazonSimpleEmailServiceAsyncClientBuilder.standard()
+                    .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials(accessKey, secretKey)))
+                    .withClientConfiguration(clientConfiguration)
+                    .withExecutorFactory(() -> Executors.newFixedThreadPool(maxConnections,
+                            new CustomizableThreadFactory("ses-client-")));
+            if (StringUtils.hasText(endpoint)) {
+                builder.withEndpointConfiguration(new EndpointConfiguration(endpoint, region));
+            } else {
+                builder.withRegion(Regions.fromName(region));
+            }
+
+            AmazonSimpleEmailServiceAsync client = builder.build();
+            log.info("AWS SES client initialized for region: {} with {} connections", region, maxConnections);
+            return client;
+        } catch (Exception e) {
+            log.error("Failed to initialize AWS SES client", e);
+            throw new EmailServiceException(new EmailConfigurationException(
+                "Failed to initialize AWS SES client. Check your AWS credentials and region configuration.",
+                "aws.ses",
+                e));
+        }
+    }
+}
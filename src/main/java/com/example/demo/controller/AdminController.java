@@ -4,8 +4,12 @@ import com.example.demo.domain.Role;
 import com.example.demo.domain.dto.AdminCreateUserRequest;
 import com.example.demo.domain.dto.AuthResponse;
 import com.example.demo.domain.dto.ChangeRoleRequest;
+import com.example.demo.domain.dto.DirectoryUserDTO;
+import com.example.demo.domain.dto.LoginActivityDTO;
 import com.example.demo.security.RequiredRole;
 import com.example.demo.service.AdminService;
+import com.example.demo.service.LoginActivityService;
+import com.example.demo.service.UserDirectoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,6 +18,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
@@ -22,6 +29,38 @@ import org.springframework.web.bind.annotation.*;
 public class AdminController {
 
     private final AdminService adminService;
+    private final UserDirectoryService userDirectoryService;
+    private final LoginActivityService loginActivityService;
+
+    @GetMapping("/users")
+    @Operation(summary = "List users", description = "Admin and Super Admin can list users, optionally by role")
+    @RequiredRole({Role.ADMIN, Role.SUPER_ADMIN})
+    public ResponseEntity<List<DirectoryUserDTO>> listUsers(@RequestParam(required = false) Role role,
+                                                            @RequestParam(defaultValue = "0") int page,
+                                                            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(userDirectoryService.listUsers(role, page, size));
+    }
+
+    @GetMapping("/users/count")
+    @Operation(summary = "Count users", description = "Admin and Super Admin can count users by role")
+    @RequiredRole({Role.ADMIN, Role.SUPER_ADMIN})
+    public ResponseEntity<Map<Role, Long>> countUsers() {
+        return ResponseEntity.ok(userDirectoryService.countUsersByRole());
+    }
+
+    @PostMapping("/users/directory/rebuild")
+    @Operation(summary = "Rebuild user directory", description = "Only Super Admin can replay the user events into the directory")
+    @RequiredRole({Role.SUPER_ADMIN})
+    public ResponseEntity<Void> rebuildUserDirectory() {
+        return userDirectoryService.rebuild() ? ResponseEntity.accepted().build() : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/activity/logins")
+    @Operation(summary = "Login activity", description = "Admin and Super Admin can see login and failure rates and approximate active users per minute")
+    @RequiredRole({Role.ADMIN, Role.SUPER_ADMIN})
+    public ResponseEntity<LoginActivityDTO> getLoginActivity(@RequestParam(defaultValue = "15") int minutes) {
+        return ResponseEntity.of(loginActivityService.getLoginActivity(minutes));
+    }
 
     @PostMapping("/users")
     @Operation(summary = "Create user", description = "Admin and Super Admin can create users")
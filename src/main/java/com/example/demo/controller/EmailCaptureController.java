@@ -0,0 +1,63 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.ConditionalOnEmailProvider;
+import com.example.demo.exception.EmailException.EmailOperation;
+import com.example.demo.service.email.CapturedEmail;
+import com.example.demo.service.email.EmailCaptureSink;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test access to the emails captured by the mock provider, e.g. to pull the verification
+ * token after a signup. Only registered with the mock provider and
+ * {@code app.email.mock.capture-endpoint.enabled=true}; never enable it in production.
+ */
+@RestController
+@RequestMapping("/api/test/emails")
+@ConditionalOnEmailProvider("mock")
+@ConditionalOnProperty(name = "app.email.mock.capture-endpoint.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Tag(name = "Test Emails", description = "Captured mock emails for load and end-to-end tests")
+public class EmailCaptureController {
+
+    private final EmailCaptureSink captureSink;
+
+    @GetMapping
+    @Operation(summary = "Recent emails", description = "Returns the most recently captured emails, newest first")
+    public List<CapturedEmail> recent(@RequestParam(defaultValue = "100") int limit) {
+        return captureSink.recent(limit);
+    }
+
+    @PostMapping("/drain")
+    @Operation(summary = "Drain emails", description = "Returns the emails captured since the previous drain")
+    public List<CapturedEmail> drain() {
+        return captureSink.drain();
+    }
+
+    @GetMapping("/latest")
+    @Operation(summary = "Latest email", description = "Returns the newest captured email of a type for a recipient")
+    public ResponseEntity<CapturedEmail> latest(@RequestParam String to,
+                                                @RequestParam(defaultValue = "EMAIL_VERIFICATION") EmailOperation operation) {
+        return captureSink.latest(to, operation)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Capture statistics", description = "Returns capture counts per email type")
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("captured", captureSink.captured());
+        stats.put("capacity", captureSink.capacity());
+        stats.put("byOperation", captureSink.counts());
+        return stats;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.controller;
+
+import com.example.demo.domain.Person;
+import com.example.demo.domain.dto.PersonDTO;
+import com.example.demo.domain.mapper.PersonMapper;
+import com.example.demo.domain.repository.ReactivePersonRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Handler functions for the reactive person reads, answering the same GETs as {@link PersonController}
+ * from {@link ReactivePersonRepository}. Lists are streamed: rows are fetched as the response is written,
+ * so a slow client holds back the query instead of buffering it.
+ */
+@RequiredArgsConstructor
+public class PersonReadHandler {
+
+    private final ReactivePersonRepository personRepository;
+    private final PersonMapper personMapper;
+
+    public Mono<ServerResponse> getAllPersons(ServerRequest request) {
+        return list(personRepository.findAll());
+    }
+
+    public Mono<ServerResponse> getPersonById(ServerRequest request) {
+        Long id;
+        try {
+            id = Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().build();
+        }
+        return personRepository.findById(id)
+                .flatMap(person -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(personMapper.toDto(person)))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+    }
+
+    public Mono<ServerResponse> findByLastName(ServerRequest request) {
+        return request.queryParam("lastName")
+                .map(lastName -> list(personRepository.findByLastName(lastName)))
+                .orElseGet(() -> ServerResponse.badRequest().build());
+    }
+
+    public Mono<ServerResponse> findByFullName(ServerRequest request) {
+        Optional<String> firstName = request.queryParam("firstName");
+        Optional<String> lastName = request.queryParam("lastName");
+        if (firstName.isEmpty() || lastName.isEmpty()) {
+            return ServerResponse.badRequest().build();
+        }
+        return list(personRepository.findByFirstNameAndLastName(firstName.get(), lastName.get()));
+    }
+
+    public Mono<ServerResponse> findByEmailContaining(ServerRequest request) {
+        return request.queryParam("email")
+                .map(email -> list(personRepository.findByEmailContaining(email)))
+                .orElseGet(() -> ServerResponse.badRequest().build());
+    }
+
+    private Mono<ServerResponse> list(Flux<Person> persons) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(persons.map(personMapper::toDto), PersonDTO.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox", indexes = {
+        @Index(name = "idx_outbox_pending", columnList = "processed_at, available_at"),
+        @Index(name = "idx_outbox_key", columnList = "destination, message_key, processed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "message_type", nullable = false, length = 30)
+    private MessageType messageType;
+
+    // Kafka topic, or the email operation for EMAIL messages
+    @Column(nullable = false, length = 100)
+    private String destination;
+
+    @Column(name = "message_key", length = 100)
+    private String messageKey;
+
+    // Both null for a Kafka tombstone
+    @Column(name = "payload_type")
+    private String payloadType;
+
+    @Column(length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt = LocalDateTime.now();
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    public enum MessageType {
+        KAFKA_EVENT,
+        EMAIL
+    }
+}
@@ -8,7 +8,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "verification_token")
+@Table(name = "verification_token", indexes = {
+        @Index(name = "idx_verification_token_user_type", columnList = "user_id, token_type")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,20 @@
+package com.example.demo.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginActivityDTO {
+    private int minutes;
+    private long logins;
+    private long failedLogins;
+    private long logouts;
+    private double failureRate;
+    private long activeUsers;
+    private List<LoginActivityMinuteDTO> perMinute;
+}
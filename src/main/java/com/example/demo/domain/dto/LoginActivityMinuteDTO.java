@@ -0,0 +1,19 @@
+package com.example.demo.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginActivityMinuteDTO {
+    private LocalDateTime minute;
+    private long logins;
+    private long failedLogins;
+    private long logouts;
+    private double failureRate;
+    private long activeUsers;
+}
@@ -0,0 +1,52 @@
+package com.example.demo.domain.repository;
+
+import com.example.demo.domain.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // Rows locked by another relay are skipped rather than waited on, so nodes never share a batch. A Kafka
+    // event waits while an earlier event with the same topic and key is still pending, claimed or not, so
+    // events for a key are never delivered out of order by a retry or by two relays.
+    @Query(value = "SELECT * FROM outbox m WHERE m.processed_at IS NULL AND m.available_at <= :now " +
+                   "AND (m.message_type <> 'KAFKA_EVENT' OR NOT EXISTS (SELECT 1 FROM outbox e " +
+                   "WHERE e.processed_at IS NULL AND e.message_type = m.message_type " +
+                   "AND e.destination = m.destination AND e.message_key = m.message_key AND e.id < m.id)) " +
+                   "ORDER BY m.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxMessage> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Claimed rows are leased by pushing them out of the relay's view until they are delivered or the lease runs out
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE OutboxMessage m SET m.availableAt = :leasedUntil WHERE m.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leasedUntil") LocalDateTime leasedUntil);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE OutboxMessage m SET m.attempts = :attempts, m.lastError = :lastError, " +
+           "m.availableAt = :availableAt, m.processedAt = :processedAt WHERE m.id = :id")
+    int updateDeliveryState(@Param("id") Long id,
+                            @Param("attempts") int attempts,
+                            @Param("lastError") String lastError,
+                            @Param("availableAt") LocalDateTime availableAt,
+                            @Param("processedAt") LocalDateTime processedAt);
+
+    @Query("SELECT MIN(m.createdAt) FROM OutboxMessage m WHERE m.processedAt IS NULL")
+    Optional<LocalDateTime> findOldestPendingCreatedAt();
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM OutboxMessage m WHERE m.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,70 @@
+package com.example.demo.domain.repository;
+
+import com.example.demo.domain.Person;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the {@link PersonRepository} lookups, read over R2DBC for the reactive
+ * person API. Lists are fetched from the database {@code fetchSize} rows at a time as the client
+ * consumes them. The persons are detached, their user is not loaded.
+ */
+public class ReactivePersonRepository {
+
+    private static final String SELECT_PERSON =
+            "SELECT id, first_name, last_name, email, phone_number, address FROM person";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public ReactivePersonRepository(DatabaseClient databaseClient, int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    public Mono<Person> findById(Long id) {
+        return databaseClient.sql(SELECT_PERSON + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactivePersonRepository::toPerson)
+                .one();
+    }
+
+    public Flux<Person> findAll() {
+        return query(databaseClient.sql(SELECT_PERSON + " ORDER BY id"));
+    }
+
+    public Flux<Person> findByLastName(String lastName) {
+        return query(databaseClient.sql(SELECT_PERSON + " WHERE last_name = :lastName ORDER BY id")
+                .bind("lastName", lastName));
+    }
+
+    public Flux<Person> findByFirstNameAndLastName(String firstName, String lastName) {
+        return query(databaseClient.sql(SELECT_PERSON + " WHERE first_name = :firstName AND last_name = :lastName ORDER BY id")
+                .bind("firstName", firstName)
+                .bind("lastName", lastName));
+    }
+
+    public Flux<Person> findByEmailContaining(String email) {
+        return query(databaseClient.sql(SELECT_PERSON + " WHERE LOWER(email) LIKE LOWER(:email) ORDER BY id")
+                .bind("email", "%" + email + "%"));
+    }
+
+    private Flux<Person> query(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)))
+                .map(ReactivePersonRepository::toPerson)
+                .all();
+    }
+
+    private static Person toPerson(Readable row) {
+        Person person = new Person();
+        person.setId(row.get("id", Long.class));
+        person.setFirstName(row.get("first_name", String.class));
+        person.setLastName(row.get("last_name", String.class));
+        person.setEmail(row.get("email", String.class));
+        person.setPhoneNumber(row.get("phone_number", String.class));
+        person.setAddress(row.get("address", String.class));
+        return person;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.domain.repository;
+
+import com.example.demo.domain.Role;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the role of a user over R2DBC, to authorize reactive requests without blocking.
+ */
+public class ReactiveUserRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * The user's role, or empty when there is no such user or the user has no role.
+     */
+    public Mono<Role> findRoleByUsername(String username) {
+        return databaseClient.sql("SELECT role FROM app_user WHERE username = :username AND role IS NOT NULL")
+                .bind("username", username)
+                .map(row -> Role.valueOf(row.get("role", String.class)))
+                .one();
+    }
+}
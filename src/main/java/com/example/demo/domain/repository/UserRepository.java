@@ -1,13 +1,38 @@
 package com.example.demo.domain.repository;
 
+import com.example.demo.domain.Role;
 import com.example.demo.domain.User;
+import com.example.demo.event.UserStateSnapshot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+    Optional<User> findByPersonId(Long personId);
     boolean existsByUsername(String username);
+    Page<User> findByRole(Role role, Pageable pageable);
+
+    @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
+    List<Object[]> countGroupedByRole();
+
+    // Only the snapshot's columns, so the backfill doesn't load each user and person as entities
+    @Query("SELECT new com.example.demo.event.UserStateSnapshot(u.id, u.username, p.email, p.firstName, p.lastName, "
+            + "u.role, u.active, u.emailVerified) FROM User u LEFT JOIN u.person p WHERE u.id > :afterId ORDER BY u.id")
+    List<UserStateSnapshot> findStateSnapshotsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.emailVerified = true WHERE u.id = :id")
+    int markEmailVerified(@Param("id") Long id);
 } 
\ No newline at end of file
@@ -2,21 +2,54 @@ package com.example.demo.domain.repository;
 
 import com.example.demo.domain.User;
 import com.example.demo.domain.VerificationToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface VerificationTokenRepository extends JpaRepository<VerificationToken, Long> {
-    
+
     Optional<VerificationToken> findByToken(String token);
-    
+
     List<VerificationToken> findByUserAndTokenType(User user, VerificationToken.TokenType tokenType);
-    
-    void deleteByExpiryDateBeforeAndUsedTrue(LocalDateTime date);
-    
-    void deleteByUserAndTokenType(User user, VerificationToken.TokenType tokenType);
-}
\ No newline at end of file
+
+    @Query("SELECT t.user.id FROM VerificationToken t WHERE t.token = :token")
+    Optional<Long> findUserIdByToken(@Param("token") String token);
+
+    // Validation and consumption in one statement: of two concurrent requests only one can flip used
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE VerificationToken t SET t.used = true " +
+           "WHERE t.token = :token AND t.tokenType = :tokenType AND t.used = false AND t.expiryDate > :now")
+    int consumeToken(@Param("token") String token,
+                     @Param("tokenType") VerificationToken.TokenType tokenType,
+                     @Param("now") LocalDateTime now);
+
+    @Query("SELECT t.id FROM VerificationToken t WHERE t.expiryDate < :cutoff")
+    List<Long> findExpiredTokenIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Each chunk commits on its own so a purge never holds row locks for longer than one batch
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM VerificationToken t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM VerificationToken t WHERE t.expiryDate < :date AND t.used = true")
+    void deleteByExpiryDateBeforeAndUsedTrue(@Param("date") LocalDateTime date);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM VerificationToken t WHERE t.user = :user AND t.tokenType = :tokenType")
+    void deleteByUserAndTokenType(@Param("user") User user, @Param("tokenType") VerificationToken.TokenType tokenType);
+}
@@ -0,0 +1,28 @@
+package com.example.demo.event;
+
+/**
+ * How much delivery guarantee an event type gets, chosen per event type with
+ * {@code app.kafka.delivery.critical-event-types} and {@code best-effort-event-types}. Each tier
+ * is published through its own producer, so a burst in one tier can't fill the buffer another
+ * tier is waiting on.
+ */
+public enum DeliveryTier {
+
+    /**
+     * Replicated to all in-sync replicas and sent without lingering. These types go through the
+     * outbox, whose relay waits for the broker to confirm each one before marking it delivered.
+     */
+    CRITICAL,
+
+    /**
+     * Replicated to all in-sync replicas without the caller waiting; events the broker can't take
+     * are spooled locally and replayed.
+     */
+    STANDARD,
+
+    /**
+     * Acknowledged by the partition leader only and never retried or spooled. Dropped when the
+     * producer's buffer is full or the broker can't be reached.
+     */
+    BEST_EFFORT
+}
@@ -0,0 +1,38 @@
+package com.example.demo.event;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * A login, logout or failed login attempt, published best-effort and aggregated into the login
+ * activity figures. The username of a failed attempt is whatever was typed in.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class UserActivityEvent extends BaseEvent {
+
+    public static final String LOGGED_IN = "USER_LOGGED_IN";
+    public static final String LOGGED_OUT = "USER_LOGGED_OUT";
+    public static final String LOGIN_FAILED = "USER_LOGIN_FAILED";
+
+    private String username;
+
+    public UserActivityEvent(String eventType, String username) {
+        super(eventType);
+        this.username = username;
+    }
+
+    public static UserActivityEvent loggedIn(String username) {
+        return new UserActivityEvent(LOGGED_IN, username);
+    }
+
+    public static UserActivityEvent loggedOut(String username) {
+        return new UserActivityEvent(LOGGED_OUT, username);
+    }
+
+    public static UserActivityEvent loginFailed(String username) {
+        return new UserActivityEvent(LOGIN_FAILED, username);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.event;
+
+import com.example.demo.domain.Person;
+import com.example.demo.domain.Role;
+import com.example.demo.domain.User;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * The current state of a user, published to the compacted user-state topic keyed by user id
+ * whenever the user changes. Compaction keeps the latest snapshot per user, so a consumer reading
+ * the topic from the beginning ends up with every user without replaying the event history.
+ * A deleted user is published as a tombstone, a record with the user's key and no value.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class UserStateSnapshot extends BaseEvent {
+
+    private Long userId;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private Role role;
+    private boolean active;
+    private boolean emailVerified;
+
+    public UserStateSnapshot(Long userId, String username, String email, String firstName, String lastName,
+                             Role role, boolean active, boolean emailVerified) {
+        super("USER_STATE");
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.role = role;
+        this.active = active;
+        this.emailVerified = emailVerified;
+    }
+
+    public static UserStateSnapshot of(User user) {
+        Person person = user.getPerson();
+        return new UserStateSnapshot(user.getId(), user.getUsername(),
+                person != null ? person.getEmail() : null,
+                person != null ? person.getFirstName() : null,
+                person != null ? person.getLastName() : null,
+                user.getRole(), user.isActive(), user.isEmailVerified());
+    }
+}
@@ -0,0 +1,378 @@
+package com.example.demo.event.serialization;
+
+import com.example.demo.domain.Role;
+import com.example.demo.event.AdminCreatedEvent;
+import com.example.demo.event.BaseEvent;
+import com.example.demo.event.UserCreatedEvent;
+import com.example.demo.event.UserRoleChangedEvent;
+import com.example.demo.event.UserStateSnapshot;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Compact binary layout of the {@link BaseEvent} subclasses. A record starts with {@link #MAGIC}
+ * (never the first byte of a JSON document), the schema version and the event type code, followed
+ * by the event's fields in declaration order:
+ * <ul>
+ *     <li>integers and timestamps (epoch millis, UTC) as zigzag varints, 0 for {@code null};</li>
+ *     <li>strings as a varint UTF-8 length plus one, 0 for {@code null};</li>
+ *     <li>{@link Role} as its ordinal plus one, so new roles must be appended to the enum;</li>
+ *     <li>the event id as 16 bytes when it is a UUID;</li>
+ *     <li>the source as a single byte when it is the service's own name;</li>
+ *     <li>a user state's active and email verified flags together in one byte.</li>
+ * </ul>
+ * Schema version 1 carries events with {@code version} "1.0". Schema version 2 adds the user's email
+ * and names after the username in a user state; the other types are unchanged and still written as
+ * version 1. A new event version needs a new schema version here, and the old ones must stay readable
+ * for as long as their records are retained, which on the compacted user-state topic is indefinitely.
+ * Timestamps keep millisecond precision, as in the JSON encoding.
+ */
+final class BinaryEventCodec {
+
+    static final byte MAGIC = (byte) 0xE7;
+    static final int SCHEMA_V1 = 1;
+    static final int SCHEMA_V2 = 2;
+
+    private static final String EVENT_VERSION_V1 = "1.0";
+    private static final String DEFAULT_SOURCE = "user-management-service";
+
+    private static final int USER_CREATED = 1;
+    private static final int ADMIN_CREATED = 2;
+    private static final int USER_ROLE_CHANGED = 3;
+    private static final int USER_STATE = 4;
+
+    private static final int FLAG_ACTIVE = 1;
+    private static final int FLAG_EMAIL_VERIFIED = 2;
+
+    private static final int EVENT_ID_NULL = 0;
+    private static final int EVENT_ID_UUID = 1;
+    private static final int EVENT_ID_STRING = 2;
+
+    private static final int SOURCE_NULL = 0;
+    private static final int SOURCE_DEFAULT = 1;
+    private static final int SOURCE_STRING = 2;
+
+    private static final Role[] ROLES = Role.values();
+
+    private BinaryEventCodec() {
+    }
+
+    /**
+     * Whether the event can be written in the binary layout; others are left to JSON.
+     */
+    static boolean supports(Object event) {
+        return (event instanceof UserCreatedEvent || event instanceof AdminCreatedEvent
+                || event instanceof UserRoleChangedEvent || event instanceof UserStateSnapshot)
+                && EVENT_VERSION_V1.equals(((BaseEvent) event).getVersion());
+    }
+
+    static byte[] encode(BaseEvent event) {
+        Writer out = new Writer();
+        out.writeByte(MAGIC);
+        out.writeVarint(event instanceof UserStateSnapshot ? SCHEMA_V2 : SCHEMA_V1);
+        if (event instanceof UserCreatedEvent e) {
+            out.writeVarint(USER_CREATED);
+            writeHeader(out, e);
+            out.writeLong(e.getUserId());
+            out.writeString(e.getUsername());
+            out.writeString(e.getEmail());
+            out.writeString(e.getFirstName());
+            out.writeString(e.getLastName());
+            out.writeRole(e.getRole());
+            out.writeString(e.getCreatedBy());
+            out.writeTimestamp(e.getCreatedAt());
+        } else if (event instanceof AdminCreatedEvent e) {
+            out.writeVarint(ADMIN_CREATED);
+            writeHeader(out, e);
+            out.writeLong(e.getAdminId());
+            out.writeString(e.getUsername());
+            out.writeString(e.getEmail());
+            out.writeString(e.getFirstName());
+            out.writeString(e.getLastName());
+            out.writeRole(e.getRole());
+            out.writeString(e.getCreatedBy());
+            out.writeString(e.getCreatedByRole());
+            out.writeTimestamp(e.getCreatedAt());
+        } else if (event instanceof UserRoleChangedEvent e) {
+            out.writeVarint(USER_ROLE_CHANGED);
+            writeHeader(out, e);
+            out.writeLong(e.getUserId());
+            out.writeString(e.getUsername());
+            out.writeRole(e.getPreviousRole());
+            out.writeRole(e.getNewRole());
+            out.writeString(e.getChangedBy());
+            out.writeString(e.getChangedByRole());
+            out.writeTimestamp(e.getChangedAt());
+        } else if (event instanceof UserStateSnapshot e) {
+            out.writeVarint(USER_STATE);
+            writeHeader(out, e);
+            out.writeLong(e.getUserId());
+            out.writeString(e.getUsername());
+            out.writeString(e.getEmail());
+            out.writeString(e.getFirstName());
+            out.writeString(e.getLastName());
+            out.writeRole(e.getRole());
+            out.writeByte((byte) ((e.isActive() ? FLAG_ACTIVE : 0) | (e.isEmailVerified() ? FLAG_EMAIL_VERIFIED : 0)));
+        } else {
+            throw new IllegalArgumentException("No binary layout for " + event.getClass().getName());
+        }
+        return out.toByteArray();
+    }
+
+    static BaseEvent decode(byte[] data) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            if (in.get() != MAGIC) {
+                throw new IllegalArgumentException("Not a binary event");
+            }
+            int schema = readVarint(in);
+            if (schema != SCHEMA_V1 && schema != SCHEMA_V2) {
+                throw new IllegalArgumentException("Unknown binary event schema version " + schema);
+            }
+            int type = readVarint(in);
+            BaseEvent event;
+            switch (type) {
+                case USER_CREATED -> {
+                    UserCreatedEvent e = new UserCreatedEvent();
+                    e.setEventType("USER_CREATED");
+                    readHeader(in, e);
+                    e.setUserId(readLong(in));
+                    e.setUsername(readString(in));
+                    e.setEmail(readString(in));
+                    e.setFirstName(readString(in));
+                    e.setLastName(readString(in));
+                    e.setRole(readRole(in));
+                    e.setCreatedBy(readString(in));
+                    e.setCreatedAt(readTimestamp(in));
+                    event = e;
+                }
+                case ADMIN_CREATED -> {
+                    AdminCreatedEvent e = new AdminCreatedEvent();
+                    e.setEventType("ADMIN_CREATED");
+                    readHeader(in, e);
+                    e.setAdminId(readLong(in));
+                    e.setUsername(readString(in));
+                    e.setEmail(readString(in));
+                    e.setFirstName(readString(in));
+                    e.setLastName(readString(in));
+                    e.setRole(readRole(in));
+                    e.setCreatedBy(readString(in));
+                    e.setCreatedByRole(readString(in));
+                    e.setCreatedAt(readTimestamp(in));
+                    event = e;
+                }
+                case USER_ROLE_CHANGED -> {
+                    UserRoleChangedEvent e = new UserRoleChangedEvent();
+                    e.setEventType("USER_ROLE_CHANGED");
+                    readHeader(in, e);
+                    e.setUserId(readLong(in));
+                    e.setUsername(readString(in));
+                    e.setPreviousRole(readRole(in));
+                    e.setNewRole(readRole(in));
+                    e.setChangedBy(readString(in));
+                    e.setChangedByRole(readString(in));
+                    e.setChangedAt(readTimestamp(in));
+                    event = e;
+                }
+                case USER_STATE -> {
+                    UserStateSnapshot e = new UserStateSnapshot();
+                    e.setEventType("USER_STATE");
+                    readHeader(in, e);
+                    e.setUserId(readLong(in));
+                    e.setUsername(readString(in));
+                    if (schema >= SCHEMA_V2) {
+                        e.setEmail(readString(in));
+                        e.setFirstName(readString(in));
+                        e.setLastName(readString(in));
+                    }
+                    e.setRole(readRole(in));
+                    int flags = in.get();
+                    e.setActive((flags & FLAG_ACTIVE) != 0);
+                    e.setEmailVerified((flags & FLAG_EMAIL_VERIFIED) != 0);
+                    event = e;
+                }
+                default -> throw new IllegalArgumentException("Unknown binary event type " + type);
+            }
+            event.setVersion(EVENT_VERSION_V1);
+            return event;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated binary event", e);
+        }
+    }
+
+    private static void writeHeader(Writer out, BaseEvent event) {
+        UUID uuid = asUuid(event.getEventId());
+        if (uuid != null) {
+            out.writeVarint(EVENT_ID_UUID);
+            out.writeRawLong(uuid.getMostSignificantBits());
+            out.writeRawLong(uuid.getLeastSignificantBits());
+        } else if (event.getEventId() == null) {
+            out.writeVarint(EVENT_ID_NULL);
+        } else {
+            out.writeVarint(EVENT_ID_STRING);
+            out.writeString(event.getEventId());
+        }
+        out.writeTimestamp(event.getTimestamp());
+        if (event.getSource() == null) {
+            out.writeVarint(SOURCE_NULL);
+        } else if (DEFAULT_SOURCE.equals(event.getSource())) {
+            out.writeVarint(SOURCE_DEFAULT);
+        } else {
+            out.writeVarint(SOURCE_STRING);
+            out.writeString(event.getSource());
+        }
+    }
+
+    private static void readHeader(ByteBuffer in, BaseEvent event) {
+        switch (readVarint(in)) {
+            case EVENT_ID_NULL -> event.setEventId(null);
+            case EVENT_ID_UUID -> event.setEventId(new UUID(in.getLong(), in.getLong()).toString());
+            case EVENT_ID_STRING -> event.setEventId(readString(in));
+            default -> throw new IllegalArgumentException("Unknown event id encoding");
+        }
+        event.setTimestamp(readTimestamp(in));
+        switch (readVarint(in)) {
+            case SOURCE_NULL -> event.setSource(null);
+            case SOURCE_DEFAULT -> event.setSource(DEFAULT_SOURCE);
+            case SOURCE_STRING -> event.setSource(readString(in));
+            default -> throw new IllegalArgumentException("Unknown source encoding");
+        }
+    }
+
+    private static UUID asUuid(String eventId) {
+        // Only the canonical lower-case form survives the round trip unchanged
+        if (eventId == null || eventId.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(eventId);
+            return uuid.toString().equals(eventId) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long readRawVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        return (int) readRawVarint(in);
+    }
+
+    private static Long readLong(ByteBuffer in) {
+        long raw = readRawVarint(in);
+        if (raw == 0) {
+            return null;
+        }
+        long zigzag = raw - 1;
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private static LocalDateTime readTimestamp(ByteBuffer in) {
+        Long epochMillis = readLong(in);
+        return epochMillis == null ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarint(in);
+        if (length == 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length - 1, StandardCharsets.UTF_8);
+        in.position(in.position() + length - 1);
+        return value;
+    }
+
+    private static Role readRole(ByteBuffer in) {
+        int code = readVarint(in);
+        if (code > ROLES.length) {
+            throw new IllegalArgumentException("Unknown role ordinal " + (code - 1));
+        }
+        return code == 0 ? null : ROLES[code - 1];
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer = new byte[128];
+        private int size;
+
+        void writeByte(byte b) {
+            ensureCapacity(1);
+            buffer[size++] = b;
+        }
+
+        void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeRawLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeLong(Long value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            if (value == Long.MIN_VALUE) {
+                // Its zigzag form is all ones, which leaves no room for the null marker
+                throw new IllegalArgumentException("Long.MIN_VALUE has no binary encoding");
+            }
+            writeVarint(((value << 1) ^ (value >> 63)) + 1);
+        }
+
+        void writeTimestamp(LocalDateTime value) {
+            writeLong(value == null ? null : value.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length + 1L);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeRole(Role role) {
+            writeVarint(role == null ? 0 : role.ordinal() + 1);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+}
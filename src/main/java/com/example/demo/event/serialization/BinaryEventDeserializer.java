@@ -0,0 +1,66 @@
+package com.example.demo.event.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads records written by {@link BinaryEventSerializer}, and JSON records (from the JSON fallback
+ * or from producers still on {@code app.kafka.producer.format=json}) through a
+ * {@link JsonDeserializer} that trusts the event package.
+ */
+public class BinaryEventDeserializer implements Deserializer<Object> {
+
+    static final String EVENT_PACKAGE = "com.example.demo.event";
+
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+    private volatile boolean configured;
+
+    @Override
+    public synchronized void configure(Map<String, ?> configs, boolean isKey) {
+        Map<String, Object> jsonConfigs = new HashMap<>(configs);
+        jsonConfigs.putIfAbsent(JsonDeserializer.TRUSTED_PACKAGES, EVENT_PACKAGE);
+        jsonDeserializer.configure(jsonConfigs, isKey);
+        configured = true;
+    }
+
+    // Used directly rather than by a Kafka client, which always configures it first
+    private synchronized void configureDefaults() {
+        if (!configured) {
+            configure(Map.of(), false);
+        }
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0 || data[0] != BinaryEventCodec.MAGIC) {
+            if (!configured) {
+                configureDefaults();
+            }
+            return headers != null ? jsonDeserializer.deserialize(topic, headers, data)
+                    : jsonDeserializer.deserialize(topic, data);
+        }
+        try {
+            return BinaryEventCodec.decode(data);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Can't deserialize binary event from topic " + topic, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.event.serialization;
+
+import com.example.demo.event.BaseEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Writes events in the {@link BinaryEventCodec} layout, selected with
+ * {@code app.kafka.producer.format=binary}. Anything without a binary layout, such as an event
+ * version the codec does not know yet, is written as JSON with its type header, so
+ * {@link BinaryEventDeserializer} still reads it.
+ */
+public class BinaryEventSerializer implements Serializer<Object> {
+
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (!BinaryEventCodec.supports(data)) {
+            return headers != null ? jsonSerializer.serialize(topic, headers, data) : jsonSerializer.serialize(topic, data);
+        }
+        try {
+            return BinaryEventCodec.encode((BaseEvent) data);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Can't serialize " + data.getClass().getSimpleName() + " for topic " + topic, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.job;
+
+import com.example.demo.service.EventPublisherService;
+import com.example.demo.service.event.EventSpool;
+import com.example.demo.service.event.EventSpool.SpooledEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Sends spooled events to Kafka in the order they were spooled, one at a time, and stops at the
+ * first one the broker still can't take. Events the broker rejects, or that can't be read back,
+ * are dropped with an error so they don't hold up the rest.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.spool.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class EventSpoolReplayJob {
+
+    private final EventSpool eventSpool;
+    private final EventPublisherService eventPublisherService;
+
+    @Value("${app.kafka.spool.replay-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.kafka.spool.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    public EventSpoolReplayJob(EventSpool eventSpool, EventPublisherService eventPublisherService) {
+        this.eventSpool = eventSpool;
+        this.eventPublisherService = eventPublisherService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.kafka.spool.replay-interval-ms:1000}")
+    public void replay() {
+        int replayed = 0;
+        try {
+            while (replayed < batchSize) {
+                Optional<SpooledEvent> next;
+                try {
+                    next = eventSpool.peek();
+                } catch (IOException e) {
+                    log.error("Dropping spooled event that can't be read", e);
+                    eventSpool.discard();
+                    continue;
+                }
+                if (next.isEmpty()) {
+                    break;
+                }
+
+                SpooledEvent spooled = next.get();
+                try {
+                    eventPublisherService.publishEventAndWait(
+                            spooled.topic(), spooled.key(), spooled.event(), sendTimeoutMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    if (EventPublisherService.isBrokerUnavailable(e)) {
+                        log.debug("Kafka still unavailable, {} events stay spooled", eventSpool.depth());
+                        return;
+                    }
+                    log.error("Dropping spooled event {} {} for topic {}", spooled.event().getEventType(),
+                            spooled.event().getEventId(), spooled.topic(), e);
+                    eventSpool.discard();
+                    continue;
+                }
+                eventSpool.remove();
+                replayed++;
+            }
+        } catch (Exception e) {
+            log.error("Event spool replay failed", e);
+        } finally {
+            if (replayed > 0) {
+                log.info("Replayed {} spooled events to Kafka, {} left", replayed, eventSpool.depth());
+            }
+        }
+    }
+}
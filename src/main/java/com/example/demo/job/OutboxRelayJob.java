@@ -0,0 +1,79 @@
+package com.example.demo.job;
+
+import com.example.demo.service.OutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox messages to Kafka and the email provider. Every node runs the relay; batches
+ * are claimed with {@code FOR UPDATE SKIP LOCKED} and leased before delivery, so concurrent relays
+ * never pick the same rows.
+ * Exposes {@code outbox.relay.messages}, and {@code outbox.relay.lag} as the age in seconds of
+ * the oldest undelivered message.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelayJob {
+
+    private final OutboxService outboxService;
+    private final Counter relayedCounter;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    @Value("${app.outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.relay.max-batches-per-poll:10}")
+    private int maxBatchesPerPoll;
+
+    @Value("${app.outbox.retention-hours:24}")
+    private int retentionHours;
+
+    public OutboxRelayJob(OutboxService outboxService, MeterRegistry meterRegistry) {
+        this.outboxService = outboxService;
+        this.relayedCounter = Counter.builder("outbox.relay.messages")
+                .description("Outbox messages handled by the relay")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.lag", lagSeconds, AtomicLong::get)
+                .description("Age in seconds of the oldest undelivered outbox message")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.poll-interval-ms:500}")
+    public void relay() {
+        try {
+            int batches = 0;
+            int relayed;
+            do {
+                relayed = outboxService.relayPendingMessages(batchSize);
+                relayedCounter.increment(relayed);
+            } while (relayed == batchSize && ++batches < maxBatchesPerPoll);
+
+            lagSeconds.set(outboxService.findOldestPendingMessage()
+                    .map(oldest -> Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()))
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.error("Outbox relay failed", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.cleanup.cron:0 30 * * * *}")
+    public void purgeProcessedMessages() {
+        try {
+            outboxService.purgeProcessedMessages(LocalDateTime.now().minusHours(retentionHours));
+        } catch (Exception e) {
+            log.error("Outbox cleanup failed", e);
+        }
+    }
+}
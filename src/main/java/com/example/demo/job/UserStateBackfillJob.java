@@ -0,0 +1,70 @@
+package com.example.demo.job;
+
+import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.event.UserStateSnapshot;
+import com.example.demo.service.OutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+
+/**
+ * Loads the current state of every user into the compacted user-state topic, in batches by id.
+ * Runs once when the application is started with the {@code backfill-user-state} argument, after
+ * which the application exits. Each batch is written to the outbox like any other change, and the
+ * relay publishes it behind any change already pending for those users, reading each user again as
+ * it does, so a user changed while the backfill runs never ends up with an older snapshot. Running
+ * it again is harmless, compaction keeps only the latest snapshot per user.
+ */
+@Component
+@Profile("backfill-user-state")
+@Slf4j
+public class UserStateBackfillJob implements ApplicationRunner {
+
+    private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    private final TransactionOperations transactionOperations;
+
+    @Value("${app.kafka.topics.user-state:user-state}")
+    private String userStateTopicName;
+
+    @Value("${app.kafka.user-state.backfill.batch-size:1000}")
+    private int batchSize;
+
+    public UserStateBackfillJob(UserRepository userRepository, OutboxService outboxService,
+                                TransactionOperations transactionOperations) {
+        this.userRepository = userRepository;
+        this.outboxService = outboxService;
+        this.transactionOperations = transactionOperations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Backfilling user state to topic {}", userStateTopicName);
+        long start = System.currentTimeMillis();
+        long recorded = 0;
+        long afterId = 0;
+        List<UserStateSnapshot> batch;
+        do {
+            long lastId = afterId;
+            batch = transactionOperations.execute(status -> {
+                List<UserStateSnapshot> snapshots = userRepository.findStateSnapshotsAfter(lastId, Limit.of(batchSize));
+                outboxService.publishUserStates(snapshots);
+                return snapshots;
+            });
+            recorded += batch.size();
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getUserId();
+                log.info("Recorded state of {} users in the outbox, up to id {}", recorded, afterId);
+            }
+        } while (batch.size() == batchSize);
+        log.info("Recorded state of {} users for topic {} in {} ms", recorded, userStateTopicName,
+                System.currentTimeMillis() - start);
+    }
+}
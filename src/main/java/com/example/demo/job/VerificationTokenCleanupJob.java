@@ -0,0 +1,84 @@
+package com.example.demo.job;
+
+import com.example.demo.service.VerificationTokenService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Periodically removes expired verification tokens. On a partitioned PostgreSQL table whole
+ * days are dropped and the default partition is purged in chunks; everywhere else (e.g. H2)
+ * expired rows are purged in bounded chunks. Each step runs even when an earlier one failed.
+ * Exposes {@code verification.tokens.purged}, {@code verification.tokens.partitions.dropped}
+ * and {@code verification.tokens.purge.duration}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.tokens.cleanup.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class VerificationTokenCleanupJob {
+
+    private final VerificationTokenService verificationTokenService;
+    private final VerificationTokenPartitionManager partitionManager;
+    private final Counter purgedCounter;
+    private final Counter partitionsDroppedCounter;
+    private final Timer purgeTimer;
+
+    @Value("${app.tokens.cleanup.batch-size:5000}")
+    private int batchSize;
+
+    public VerificationTokenCleanupJob(VerificationTokenService verificationTokenService,
+                                       VerificationTokenPartitionManager partitionManager,
+                                       MeterRegistry meterRegistry) {
+        this.verificationTokenService = verificationTokenService;
+        this.partitionManager = partitionManager;
+        this.purgedCounter = Counter.builder("verification.tokens.purged")
+                .description("Expired verification tokens deleted by the cleanup job")
+                .register(meterRegistry);
+        this.partitionsDroppedCounter = Counter.builder("verification.tokens.partitions.dropped")
+                .description("Expired verification token partitions dropped by the cleanup job")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("verification.tokens.purge.duration")
+                .description("Time taken by one run of the verification token cleanup job")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.tokens.cleanup.cron:0 */15 * * * *}")
+    public void purgeExpiredTokens() {
+        purgeTimer.record(() -> {
+            boolean partitioned;
+            try {
+                partitioned = partitionManager.isPartitioned();
+            } catch (Exception e) {
+                log.error("Verification token cleanup failed", e);
+                return;
+            }
+            if (partitioned) {
+                runStep("Creating verification token partitions",
+                        () -> partitionManager.createFuturePartitions(LocalDate.now()));
+                runStep("Dropping expired verification token partitions", () -> partitionsDroppedCounter.increment(
+                        partitionManager.dropExpiredPartitions(LocalDateTime.now())));
+                runStep("Purging the default verification token partition", () -> purgedCounter.increment(
+                        partitionManager.purgeDefaultPartition(LocalDateTime.now(), batchSize)));
+            } else {
+                runStep("Verification token cleanup", () -> purgedCounter.increment(
+                        verificationTokenService.purgeExpiredTokens(LocalDateTime.now(), batchSize)));
+            }
+        });
+    }
+
+    private void runStep(String description, Runnable step) {
+        try {
+            step.run();
+        } catch (Exception e) {
+            log.error("{} failed", description, e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.demo.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the daily partitions of {@code verification_token} on PostgreSQL.
+ * Partitions are created ahead of time and whole days are detached and dropped once every
+ * token in them has expired, which avoids row-level DELETEs and the VACUUM work they cause.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VerificationTokenPartitionManager {
+
+    static final String PARENT_TABLE = "verification_token";
+    static final String DEFAULT_PARTITION = PARENT_TABLE + "_p_default";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.tokens.partitioning.days-ahead:7}")
+    private int daysAhead;
+
+    @Value("${app.tokens.partitioning.retention-hours:48}")
+    private int retentionHours;
+
+    private volatile Boolean partitioned;
+
+    public boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            result = detectPartitionedTable();
+            partitioned = result;
+        }
+        return result;
+    }
+
+    public int createFuturePartitions(LocalDate today) {
+        int created = 0;
+        for (int i = 0; i <= daysAhead; i++) {
+            LocalDate day = today.plusDays(i);
+            String partition = partitionName(day);
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_class WHERE relname = ?", Integer.class, partition);
+            if (existing != null && existing > 0) {
+                continue;
+            }
+            try {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        partition, PARENT_TABLE, day, day.plusDays(1)));
+                log.info("Created verification token partition {}", partition);
+                created++;
+            } catch (DataAccessException e) {
+                // Fails once the default partition holds rows of that day; they stay there and are purged by row
+                log.warn("Could not create verification token partition {}: {}", partition, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    public int dropExpiredPartitions(LocalDateTime now) {
+        LocalDateTime cutoff = now.minusHours(retentionHours);
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound " +
+                "FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ?", PARENT_TABLE);
+
+        int dropped = 0;
+        for (Map<String, Object> partition : partitions) {
+            String name = (String) partition.get("name");
+            LocalDateTime upperBound = parseUpperBound((String) partition.get("bound"));
+            // The default partition has no bound and is never dropped
+            if (upperBound == null || upperBound.isAfter(cutoff)) {
+                continue;
+            }
+            jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION \"%s\"", PARENT_TABLE, name));
+            jdbcTemplate.execute(String.format("DROP TABLE \"%s\"", name));
+            log.info("Dropped expired verification token partition {}", name);
+            dropped++;
+        }
+        return dropped;
+    }
+
+    /**
+     * Deletes expired tokens from the default partition in chunks of at most {@code batchSize} rows,
+     * each committed on its own.
+     */
+    public int purgeDefaultPartition(LocalDateTime now, int batchSize) {
+        String sql = String.format("DELETE FROM %1$s WHERE ctid IN " +
+                "(SELECT ctid FROM %1$s WHERE expiry_date < ? LIMIT ?)", DEFAULT_PARTITION);
+        Timestamp cutoff = Timestamp.valueOf(now);
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(sql, cutoff, batchSize);
+            purged += deleted;
+        } while (deleted == batchSize);
+        return purged;
+    }
+
+    static String partitionName(LocalDate day) {
+        return PARENT_TABLE + "_p" + day.format(PARTITION_SUFFIX);
+    }
+
+    static LocalDateTime parseUpperBound(String bound) {
+        if (bound == null) {
+            return null;
+        }
+        Matcher matcher = UPPER_BOUND.matcher(bound);
+        if (!matcher.find()) {
+            return null;
+        }
+        return Timestamp.valueOf(matcher.group(1)).toLocalDateTime();
+    }
+
+    private boolean detectPartitionedTable() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            log.info("{} does not partition {}, expired tokens will be purged in chunks", product, PARENT_TABLE);
+            return false;
+        }
+        Boolean result = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt " +
+                "JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = ?)", Boolean.class, PARENT_TABLE);
+        return Boolean.TRUE.equals(result);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.security;
+
+import com.example.demo.domain.Role;
+import com.example.demo.domain.repository.ReactiveUserRepository;
+import com.example.demo.service.impl.AuthServiceImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reactive counterpart of {@link RoleAuthorizationAspect} for functional endpoints: the bearer token
+ * must belong to a logged in user whose role is one of the required ones. The role is read without
+ * blocking, so the check runs on the event loop.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveRoleAuthorization {
+
+    private final AuthServiceImpl authService;
+    private final ReactiveUserRepository userRepository;
+
+    public HandlerFilterFunction<ServerResponse, ServerResponse> requireRole(Role... roles) {
+        List<Role> requiredRoles = Arrays.asList(roles);
+        return (request, next) -> {
+            String authHeader = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return reject(HttpStatus.UNAUTHORIZED, "Authorization header missing or invalid");
+            }
+
+            String token = authHeader.substring(7);
+            String username = authService.getUsernameFromToken(token);
+            if (username == null) {
+                return reject(HttpStatus.UNAUTHORIZED, "Invalid or expired token");
+            }
+
+            return userRepository.findRoleByUsername(username)
+                    .flatMap(role -> {
+                        if (!requiredRoles.contains(role)) {
+                            log.warn("User {} with role {} attempted to access endpoint requiring roles: {}",
+                                    username, role, requiredRoles);
+                            return reject(HttpStatus.FORBIDDEN, "Insufficient permissions");
+                        }
+                        return next.handle(request);
+                    })
+                    .switchIfEmpty(Mono.defer(() -> reject(HttpStatus.UNAUTHORIZED, "User not found")));
+        };
+    }
+
+    private static Mono<ServerResponse> reject(HttpStatus status, String message) {
+        return ServerResponse.status(status).bodyValue(message);
+    }
+}
@@ -2,23 +2,52 @@ package com.example.demo.service;
 
 import com.example.demo.event.AdminCreatedEvent;
 import com.example.demo.event.BaseEvent;
+import com.example.demo.event.DeliveryTier;
+import com.example.demo.event.UserActivityEvent;
 import com.example.demo.event.UserCreatedEvent;
 import com.example.demo.event.UserRoleChangedEvent;
-import lombok.RequiredArgsConstructor;
+import com.example.demo.service.event.EventSpool;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Publishes events to Kafka. The fire-and-forget methods never wait on the broker for longer than
+ * the producer's {@code max.block.ms}: events the producer can't take in time are handed to the
+ * {@link EventSpool}, and while it holds events new ones are spooled behind them without trying the
+ * broker. {@link #publishEventAndWait} reports every failure to its caller instead.
+ *
+ * <p>Each event type has a {@link DeliveryTier}, sent through that tier's producer. Publishing a
+ * critical event types are written to the outbox by their services, whose relay waits for the
+ * broker's confirmation on the critical producer; published here they are sent and spooled like
+ * standard ones. Best-effort events are dropped rather than spooled when the broker can't take them. {@code kafka.events.published} counts events by {@code tier} and
+ * {@code outcome}.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class EventPublisherService {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Map<DeliveryTier, KafkaTemplate<String, Object>> kafkaTemplates = new EnumMap<>(DeliveryTier.class);
+    private final EventSpool eventSpool;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.kafka.delivery.critical-event-types:}")
+    private Set<String> criticalEventTypes = Set.of();
+
+    @Value("${app.kafka.delivery.best-effort-event-types:}")
+    private Set<String> bestEffortEventTypes = Set.of();
 
     @Value("${app.kafka.topics.user-events:user-events}")
     private String userEventsTopicName;
@@ -26,6 +55,31 @@ public class EventPublisherService {
     @Value("${app.kafka.topics.admin-events:admin-events}")
     private String adminEventsTopicName;
 
+    @Value("${app.kafka.topics.activity-events:activity-events}")
+    private String activityEventsTopicName;
+
+    @Value("${app.kafka.activity-events.enabled:true}")
+    private boolean activityEventsEnabled = true;
+
+    public EventPublisherService(KafkaTemplate<String, Object> kafkaTemplate,
+                                 @Qualifier("criticalKafkaTemplate") KafkaTemplate<String, Object> criticalKafkaTemplate,
+                                 @Qualifier("bestEffortKafkaTemplate") KafkaTemplate<String, Object> bestEffortKafkaTemplate,
+                                 EventSpool eventSpool,
+                                 MeterRegistry meterRegistry) {
+        kafkaTemplates.put(DeliveryTier.CRITICAL, criticalKafkaTemplate);
+        kafkaTemplates.put(DeliveryTier.STANDARD, kafkaTemplate);
+        kafkaTemplates.put(DeliveryTier.BEST_EFFORT, bestEffortKafkaTemplate);
+        this.eventSpool = eventSpool;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public DeliveryTier tierOf(BaseEvent event) {
+        if (criticalEventTypes.contains(event.getEventType())) {
+            return DeliveryTier.CRITICAL;
+        }
+        return bestEffortEventTypes.contains(event.getEventType()) ? DeliveryTier.BEST_EFFORT : DeliveryTier.STANDARD;
+    }
+
     public void publishUserCreatedEvent(UserCreatedEvent event) {
         try {
             log.info("Publishing user created event for user: {}", event.getUsername());
@@ -58,20 +112,151 @@ public class EventPublisherService {
         }
     }
 
+    /**
+     * Publishes a login, logout or failed login without ever failing or holding up the caller,
+     * keyed by username.
+     */
+    public void publishUserActivityEvent(UserActivityEvent event) {
+        if (activityEventsEnabled && event.getUsername() != null) {
+            publishEventAsync(activityEventsTopicName, event.getUsername(), event);
+        }
+    }
+
     private void publishEvent(String topic, String key, BaseEvent event) {
-        CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(topic, key, event);
-        
+        DeliveryTier tier = tierOf(event);
+        if (tier == DeliveryTier.BEST_EFFORT) {
+            sendOrDrop(topic, key, event);
+        } else {
+            sendOrSpool(tier, topic, key, event);
+        }
+    }
+
+    private void sendOrSpool(DeliveryTier tier, String topic, String key, BaseEvent event) {
+        if (eventSpool.hasBacklog()) {
+            // Earlier events are still waiting for the broker, this one goes behind them
+            spool(tier, topic, key, event);
+            return;
+        }
+
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplates.get(tier).send(topic, key, event);
+        } catch (RuntimeException e) {
+            if (!isBrokerUnavailable(e)) {
+                throw e;
+            }
+            spool(tier, topic, key, event, e);
+            return;
+        }
+
         future.whenComplete((result, ex) -> {
-            if (ex != null) {
+            if (ex != null && isBrokerUnavailable(ex)) {
+                spool(tier, topic, key, event, ex);
+            } else if (ex != null) {
+                count(tier, "failed");
                 log.error("Failed to publish event {} to topic {}: {}", 
                         event.getEventType(), topic, ex.getMessage(), ex);
             } else {
+                count(tier, "acked");
                 log.debug("Successfully published event {} to topic {} with offset: {}", 
                         event.getEventType(), topic, result.getRecordMetadata().offset());
             }
         });
     }
 
+    private void sendOrDrop(String topic, String key, BaseEvent event) {
+        if (eventSpool.hasBacklog()) {
+            // The broker was just unreachable, not worth waiting on for this one
+            drop(topic, event, "earlier events are spooled");
+            return;
+        }
+
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplates.get(DeliveryTier.BEST_EFFORT).send(topic, key, event);
+        } catch (RuntimeException e) {
+            if (!isBrokerUnavailable(e)) {
+                throw e;
+            }
+            drop(topic, event, e.getMessage());
+            return;
+        }
+
+        future.whenComplete((result, ex) -> {
+            if (ex != null) {
+                drop(topic, event, ex.getMessage());
+            } else {
+                count(DeliveryTier.BEST_EFFORT, "acked");
+            }
+        });
+    }
+
+    private void drop(String topic, BaseEvent event, String reason) {
+        count(DeliveryTier.BEST_EFFORT, "dropped");
+        log.debug("Dropped best-effort event {} to topic {}: {}", event.getEventType(), topic, reason);
+    }
+
+    private void spool(DeliveryTier tier, String topic, String key, BaseEvent event) {
+        count(tier, "spooled");
+        eventSpool.append(topic, key, event);
+    }
+
+    private void count(DeliveryTier tier, String outcome) {
+        meterRegistry.counter("kafka.events.published", "tier", tier.name(), "outcome", outcome).increment();
+    }
+
+    private void spool(DeliveryTier tier, String topic, String key, BaseEvent event, Throwable failure) {
+        log.warn("Kafka unavailable for event {} to topic {}, spooling it locally: {}",
+                event.getEventType(), topic, failure.getMessage());
+        spool(tier, topic, key, event);
+    }
+
+    /**
+     * Whether the failure means the producer could not reach the broker in time (no metadata,
+     * full buffer or delivery timeout), as opposed to the broker rejecting the event.
+     */
+    public static boolean isBrokerUnavailable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof org.apache.kafka.common.errors.TimeoutException
+                    || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Publishes an event through its tier's producer and waits for the broker acknowledgement, so
+     * callers such as the outbox relay only mark the event as delivered once Kafka has accepted it.
+     */
+    public void publishEventAndWait(String topic, String key, BaseEvent event, long timeoutMs)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        DeliveryTier tier = tierOf(event);
+        SendResult<String, Object> result;
+        try {
+            result = kafkaTemplates.get(tier).send(topic, key, event).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            count(tier, "failed");
+            throw e;
+        }
+        count(tier, "acked");
+        log.debug("Successfully published event {} to topic {} with offset: {}",
+                event.getEventType(), topic, result.getRecordMetadata().offset());
+    }
+
+    /**
+     * Publishes a tombstone, a record with the key and no value, which makes compaction drop the
+     * earlier records with that key, and waits for the broker acknowledgement.
+     */
+    public void publishTombstoneAndWait(String topic, String key, long timeoutMs)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        SendResult<String, Object> result = kafkaTemplates.get(DeliveryTier.STANDARD).send(topic, key, null)
+                .get(timeoutMs, TimeUnit.MILLISECONDS);
+        count(DeliveryTier.STANDARD, "acked");
+        log.debug("Successfully published tombstone for key {} to topic {} with offset: {}",
+                key, topic, result.getRecordMetadata().offset());
+    }
+
     public void publishEventAsync(String topic, String key, BaseEvent event) {
         // Validate parameters
         if (topic == null) {
@@ -85,16 +270,7 @@ public class EventPublisherService {
         }
         
         try {
-            kafkaTemplate.send(topic, key, event)
-                    .whenComplete((result, ex) -> {
-                        if (ex != null) {
-                            log.error("Failed to publish async event {} to topic {}: {}", 
-                                    event.getEventType(), topic, ex.getMessage());
-                        } else {
-                            log.debug("Successfully published async event {} to topic {} with offset: {}", 
-                                    event.getEventType(), topic, result.getRecordMetadata().offset());
-                        }
-                    });
+            publishEvent(topic, key, event);
         } catch (Exception e) {
             log.error("Exception occurred while publishing async event: ", e);
             // For async operations, we don't want to throw exceptions to the caller
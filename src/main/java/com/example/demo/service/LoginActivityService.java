@@ -0,0 +1,9 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.dto.LoginActivityDTO;
+
+import java.util.Optional;
+
+public interface LoginActivityService {
+    Optional<LoginActivityDTO> getLoginActivity(int minutes);
+}
@@ -0,0 +1,30 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.User;
+import com.example.demo.event.AdminCreatedEvent;
+import com.example.demo.event.UserCreatedEvent;
+import com.example.demo.event.UserRoleChangedEvent;
+import com.example.demo.event.UserStateSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Records Kafka events and emails in the {@code outbox} table. The record methods must be called
+ * inside the transaction that writes the rows they describe; delivery happens later through
+ * {@link #relayPendingMessages(int)}.
+ */
+public interface OutboxService {
+    void publishUserCreatedEvent(UserCreatedEvent event);
+    void publishAdminCreatedEvent(AdminCreatedEvent event);
+    void publishUserRoleChangedEvent(UserRoleChangedEvent event);
+    void publishUserState(User user);
+    void publishUserStates(Collection<UserStateSnapshot> snapshots);
+    void publishUserDeleted(Long userId);
+    void sendEmailVerification(User user, String token);
+    void sendPasswordResetEmail(User user, String token);
+    int relayPendingMessages(int batchSize);
+    Optional<LocalDateTime> findOldestPendingMessage();
+    int purgeProcessedMessages(LocalDateTime cutoff);
+}
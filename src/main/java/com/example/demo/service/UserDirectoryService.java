@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Role;
+import com.example.demo.domain.dto.DirectoryUserDTO;
+
+import java.util.List;
+import java.util.Map;
+
+public interface UserDirectoryService {
+    List<DirectoryUserDTO> listUsers(Role role, int page, int size);
+    Map<Role, Long> countUsersByRole();
+    boolean rebuild();
+}
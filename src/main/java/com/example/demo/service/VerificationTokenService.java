@@ -3,12 +3,17 @@ package com.example.demo.service;
 import com.example.demo.domain.User;
 import com.example.demo.domain.VerificationToken;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 public interface VerificationTokenService {
     String generateEmailVerificationToken(User user);
     String generatePasswordResetToken(User user);
     VerificationToken findByToken(String token);
-    boolean verifyEmailToken(String token);
+    Optional<Long> consumeToken(String token, VerificationToken.TokenType tokenType);
+    Optional<Long> consumeEmailVerificationToken(String token);
     boolean verifyPasswordResetToken(String token);
     void markTokenAsUsed(VerificationToken token);
-    void cleanupExpiredTokens();
+    int cleanupExpiredTokens();
+    int purgeExpiredTokens(LocalDateTime cutoff, int batchSize);
 }
\ No newline at end of file
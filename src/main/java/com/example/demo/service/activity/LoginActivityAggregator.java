@@ -0,0 +1,150 @@
+package com.example.demo.service.activity;
+
+import com.example.demo.domain.dto.LoginActivityDTO;
+import com.example.demo.domain.dto.LoginActivityMinuteDTO;
+import com.example.demo.event.UserActivityEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Login activity per minute, aggregated from the user activity events by
+ * {@link LoginActivityProjector}: logins, failed logins and logouts, and a {@link HyperLogLog}
+ * of the users who logged in. Minutes are kept in a ring covering
+ * {@code app.activity.retention-minutes}, so memory is fixed (about 4 KiB a minute) and the
+ * distinct users of any window are estimated by merging its minutes' sketches.
+ *
+ * <p>Minutes follow the events' timestamps. Events older than the ring are ignored; events
+ * stamped after the current minute, from a node whose clock runs ahead, count towards the
+ * current one.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.consumers.enabled", havingValue = "true")
+public class LoginActivityAggregator {
+
+    private static final int PRECISION = 12;
+
+    private final Minute[] minutes;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    @Autowired
+    public LoginActivityAggregator(@Value("${app.activity.retention-minutes:60}") int retentionMinutes,
+                                   MeterRegistry meterRegistry) {
+        this(retentionMinutes, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    LoginActivityAggregator(int retentionMinutes, MeterRegistry meterRegistry, Clock clock) {
+        if (retentionMinutes < 1) {
+            throw new IllegalArgumentException("Retention must be at least one minute");
+        }
+        this.minutes = new Minute[retentionMinutes];
+        for (int i = 0; i < retentionMinutes; i++) {
+            minutes[i] = new Minute();
+        }
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    public synchronized void apply(UserActivityEvent event) {
+        long now = currentMinute();
+        long minute = Math.min(event.getTimestamp().atZone(clock.getZone()).toEpochSecond() / 60, now);
+        if (minute <= now - minutes.length) {
+            return;
+        }
+        Minute bucket = minutes[(int) Math.floorMod(minute, (long) minutes.length)];
+        if (bucket.epochMinute != minute) {
+            bucket.reset(minute);
+        }
+        switch (event.getEventType()) {
+            case UserActivityEvent.LOGGED_IN -> {
+                bucket.logins++;
+                if (event.getUsername() != null) {
+                    bucket.users.add(event.getUsername());
+                }
+            }
+            case UserActivityEvent.LOGIN_FAILED -> bucket.failedLogins++;
+            case UserActivityEvent.LOGGED_OUT -> bucket.logouts++;
+            default -> {
+                return;
+            }
+        }
+        meterRegistry.counter("login.activity.events", "type", event.getEventType()).increment();
+    }
+
+    /**
+     * Totals and per-minute figures for the last {@code window} minutes, the current one included.
+     */
+    public synchronized LoginActivityDTO summarize(int window) {
+        if (window < 1 || window > minutes.length) {
+            throw new IllegalArgumentException("Minutes must be between 1 and " + minutes.length);
+        }
+        long now = currentMinute();
+        HyperLogLog users = new HyperLogLog(PRECISION);
+        List<LoginActivityMinuteDTO> perMinute = new ArrayList<>(window);
+        long logins = 0;
+        long failedLogins = 0;
+        long logouts = 0;
+        for (long minute = now - window + 1; minute <= now; minute++) {
+            Minute bucket = minutes[(int) Math.floorMod(minute, (long) minutes.length)];
+            LocalDateTime start = LocalDateTime.ofInstant(Instant.ofEpochSecond(minute * 60), clock.getZone());
+            if (bucket.epochMinute != minute) {
+                perMinute.add(new LoginActivityMinuteDTO(start, 0, 0, 0, 0, 0));
+                continue;
+            }
+            perMinute.add(new LoginActivityMinuteDTO(start, bucket.logins, bucket.failedLogins, bucket.logouts,
+                    failureRate(bucket.logins, bucket.failedLogins), bucket.users.estimate()));
+            users.merge(bucket.users);
+            logins += bucket.logins;
+            failedLogins += bucket.failedLogins;
+            logouts += bucket.logouts;
+        }
+        return new LoginActivityDTO(window, logins, failedLogins, logouts, failureRate(logins, failedLogins),
+                users.estimate(), perMinute);
+    }
+
+    public int getRetentionMinutes() {
+        return minutes.length;
+    }
+
+    /**
+     * Start of the oldest minute kept, in epoch milliseconds, from which the events are replayed.
+     */
+    public long windowStartMillis() {
+        return (currentMinute() - minutes.length + 1) * 60_000;
+    }
+
+    private long currentMinute() {
+        return Math.floorDiv(clock.millis(), 60_000L);
+    }
+
+    private static double failureRate(long logins, long failedLogins) {
+        long attempts = logins + failedLogins;
+        return attempts == 0 ? 0 : (double) failedLogins / attempts;
+    }
+
+    private static final class Minute {
+
+        private final HyperLogLog users = new HyperLogLog(PRECISION);
+        private long epochMinute = Long.MIN_VALUE;
+        private long logins;
+        private long failedLogins;
+        private long logouts;
+
+        void reset(long epochMinute) {
+            this.epochMinute = epochMinute;
+            logins = 0;
+            failedLogins = 0;
+            logouts = 0;
+            users.clear();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.service.activity;
+
+import com.example.demo.event.UserActivityEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds the user activity events into the {@link LoginActivityAggregator}, a batch at a time.
+ * Like the user directory, each instance consumes in its own group; when its partitions are
+ * assigned it seeks back to the start of the retained window, so a restarted instance reports
+ * the same figures as one that kept running.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.consumers.enabled", havingValue = "true")
+@Slf4j
+public class LoginActivityProjector extends AbstractConsumerSeekAware {
+
+    private final LoginActivityAggregator loginActivityAggregator;
+
+    public LoginActivityProjector(LoginActivityAggregator loginActivityAggregator) {
+        this.loginActivityAggregator = loginActivityAggregator;
+    }
+
+    @KafkaListener(id = "login-activity", idIsGroup = false,
+            groupId = "${app.kafka.consumers.login-activity.group-id:login-activity}-${random.uuid}",
+            topics = "${app.kafka.topics.activity-events:activity-events}",
+            containerFactory = "loginActivityListenerContainerFactory")
+    public void aggregate(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        for (ConsumerRecord<String, Object> record : records) {
+            if (record.value() instanceof UserActivityEvent event) {
+                loginActivityAggregator.apply(event);
+            } else {
+                log.warn("Skipping record {}-{}@{} that is not a readable activity event",
+                        record.topic(), record.partition(), record.offset());
+            }
+        }
+        acknowledgment.acknowledge();
+        log.debug("Aggregated {} activity events", records.size());
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        callback.seekToTimestamp(assignments.keySet(), loginActivityAggregator.windowStartMillis());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.service.directory;
+
+import com.example.demo.domain.Role;
+import com.example.demo.domain.dto.DirectoryUserDTO;
+import com.example.demo.event.UserStateSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory user directory projected from the compacted user-state topic by
+ * {@link UserDirectoryProjector}, indexed by id and by role so listings and counts never touch
+ * the database. Snapshots and tombstones are applied by the single consumer thread; reads run
+ * concurrently.
+ *
+ * <p>Every change to a user, deletion included, is published to that topic keyed by the user's id,
+ * so a user's records arrive in order and each one replaces whatever the directory held before.
+ * Applying a record twice leaves the directory unchanged, which lets it be rebuilt by replaying
+ * the topic.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.consumers.enabled", havingValue = "true")
+public class UserDirectory {
+
+    private final ConcurrentSkipListMap<Long, DirectoryUser> usersById = new ConcurrentSkipListMap<>();
+    private final Map<Role, ConcurrentSkipListMap<Long, DirectoryUser>> usersByRole = new EnumMap<>(Role.class);
+    private final Map<Role, AtomicLong> countsByRole = new EnumMap<>(Role.class);
+    private final MeterRegistry meterRegistry;
+
+    public UserDirectory(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (Role role : Role.values()) {
+            usersByRole.put(role, new ConcurrentSkipListMap<>());
+            AtomicLong count = new AtomicLong();
+            countsByRole.put(role, count);
+            Gauge.builder("user.directory.users", count, AtomicLong::get)
+                    .description("Users in the projected user directory")
+                    .tag("role", role.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    public synchronized void apply(UserStateSnapshot snapshot) {
+        if (snapshot.getUserId() == null) {
+            return;
+        }
+        DirectoryUser user = new DirectoryUser(snapshot.getUserId(), snapshot.getUsername(), snapshot.getEmail(),
+                snapshot.getFirstName(), snapshot.getLastName(), snapshot.getRole());
+        unindex(usersById.put(user.id(), user));
+        if (user.role() != null) {
+            usersByRole.get(user.role()).put(user.id(), user);
+            countsByRole.get(user.role()).incrementAndGet();
+        }
+        meterRegistry.counter("user.directory.events", "type", snapshot.getEventType()).increment();
+    }
+
+    /**
+     * Applies a tombstone: the user was deleted.
+     */
+    public synchronized void remove(Long userId) {
+        unindex(usersById.remove(userId));
+        meterRegistry.counter("user.directory.events", "type", "TOMBSTONE").increment();
+    }
+
+    public List<DirectoryUserDTO> list(Role role, int page, int size) {
+        Collection<DirectoryUser> users = role != null ? usersByRole.get(role).values() : usersById.values();
+        return users.stream()
+                .skip((long) page * size)
+                .limit(size)
+                .map(DirectoryUser::toDto)
+                .toList();
+    }
+
+    public Map<Role, Long> countByRole() {
+        Map<Role, Long> counts = new EnumMap<>(Role.class);
+        countsByRole.forEach((role, count) -> counts.put(role, count.get()));
+        return counts;
+    }
+
+    public synchronized void clear() {
+        usersById.clear();
+        usersByRole.values().forEach(Map::clear);
+        countsByRole.values().forEach(count -> count.set(0));
+    }
+
+    private void unindex(DirectoryUser previous) {
+        if (previous != null && previous.role() != null) {
+            usersByRole.get(previous.role()).remove(previous.id());
+            countsByRole.get(previous.role()).decrementAndGet();
+        }
+    }
+
+    private record DirectoryUser(Long id, String username, String email, String firstName, String lastName,
+                                 Role role) {
+
+        DirectoryUserDTO toDto() {
+            return new DirectoryUserDTO(id, username, email, firstName, lastName, role);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.service.directory;
+
+import com.example.demo.event.UserStateSnapshot;
+import com.example.demo.service.event.EventDeduplicator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Projects the compacted user-state topic into the {@link UserDirectory}, a batch at a time:
+ * snapshots replace a user's entry and tombstones, records with no value, remove it.
+ *
+ * <p>The directory lives in memory, so every instance needs all of the topic and reads it from the
+ * beginning whenever its partitions are assigned; {@link #rebuild()} does the same on demand.
+ * Offsets are never committed, since no instance could resume from them. Each instance therefore
+ * joins a group of its own, which the broker drops once the instance leaves because it holds no
+ * offsets.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.consumers.enabled", havingValue = "true")
+@Slf4j
+public class UserDirectoryProjector extends AbstractConsumerSeekAware {
+
+    private final UserDirectory userDirectory;
+    private final EventDeduplicator userDirectoryDeduplicator;
+
+    public UserDirectoryProjector(UserDirectory userDirectory, EventDeduplicator userDirectoryDeduplicator) {
+        this.userDirectory = userDirectory;
+        this.userDirectoryDeduplicator = userDirectoryDeduplicator;
+    }
+
+    @KafkaListener(id = "user-directory", idIsGroup = false,
+            groupId = "${app.kafka.consumers.user-directory.group-id:user-directory}-${random.uuid}",
+            topics = "${app.kafka.topics.user-state:user-state}",
+            containerFactory = "userDirectoryListenerContainerFactory")
+    public void project(List<ConsumerRecord<String, Object>> records) {
+        for (ConsumerRecord<String, Object> record : records) {
+            if (record.value() instanceof UserStateSnapshot snapshot) {
+                userDirectory.apply(snapshot);
+            } else if (isTombstone(record)) {
+                userDirectory.remove(Long.valueOf(record.key()));
+            } else {
+                log.warn("Skipping record {}-{}@{} that is not a readable user state",
+                        record.topic(), record.partition(), record.offset());
+            }
+        }
+        log.debug("Projected {} user states into the user directory", records.size());
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        callback.seekToBeginning(assignments.keySet());
+    }
+
+    /**
+     * Clears the directory and replays the topic into it, forgetting which snapshots were
+     * already applied.
+     */
+    public void rebuild() {
+        log.info("Rebuilding the user directory from {}", getSeekCallbacks().keySet());
+        userDirectory.clear();
+        // After the directory, so a snapshot claimed in between is either kept or replayed
+        userDirectoryDeduplicator.clear();
+        seekToBeginning();
+    }
+
+    // A value that failed to deserialize is null too, but carries the failure in a header
+    private static boolean isTombstone(ConsumerRecord<String, Object> record) {
+        return record.value() == null && record.key() != null && record.key().matches("\\d+")
+                && record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) == null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.service.email;
+
+import com.example.demo.exception.EmailException.EmailOperation;
+
+import java.time.Instant;
+
+/**
+ * An email recorded by the mock provider in sink mode. {@code token} is the verification or
+ * reset token the email carried, if any.
+ */
+public record CapturedEmail(long sequence, EmailOperation operation, String to, String username, String token,
+                            String url, Instant capturedAt) {
+}
@@ -0,0 +1,139 @@
+package com.example.demo.service.email;
+
+import com.example.demo.config.ConditionalOnEmailProvider;
+import com.example.demo.exception.EmailException.EmailOperation;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free ring buffer of the emails the mock provider "sent", for load tests. Writers claim
+ * a sequence number and store into its slot, so the newest {@code capacity} emails are kept and
+ * older ones are overwritten; a delayed write never replaces a newer email. Readers are best effort:
+ * a slot being rewritten is skipped. Counts
+ * per operation are exposed as {@code email.mock.captured}.
+ */
+@Component
+@ConditionalOnEmailProvider("mock")
+public class EmailCaptureSink {
+
+    private final AtomicReferenceArray<CapturedEmail> slots;
+    private final int mask;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong drainedUpTo = new AtomicLong();
+    private final Map<EmailOperation, LongAdder> counts = new EnumMap<>(EmailOperation.class);
+
+    public EmailCaptureSink(@Value("${app.email.mock.sink.capacity:65536}") int capacity, MeterRegistry meterRegistry) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        for (EmailOperation operation : EmailOperation.values()) {
+            LongAdder count = new LongAdder();
+            counts.put(operation, count);
+            FunctionCounter.builder("email.mock.captured", count, LongAdder::sum)
+                    .description("Emails captured by the mock provider")
+                    .tag("operation", operation.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    public void capture(EmailOperation operation, String to, String username, String token, String url) {
+        long sequence = written.getAndIncrement();
+        CapturedEmail email = new CapturedEmail(sequence, operation, to, username, token, url, Instant.now());
+        int slot = (int) (sequence & mask);
+        CapturedEmail current;
+        do {
+            current = slots.get(slot);
+            // A writer delayed past a full lap of the ring must not overwrite the newer email
+            if (current != null && current.sequence() > sequence) {
+                break;
+            }
+        } while (!slots.compareAndSet(slot, current, email));
+        counts.get(operation).increment();
+    }
+
+    /**
+     * Up to {@code limit} buffered emails, newest first.
+     */
+    public List<CapturedEmail> recent(int limit) {
+        long end = written.get();
+        long start = Math.max(Math.max(0, end - capacity()), end - limit);
+        List<CapturedEmail> emails = new ArrayList<>((int) (end - start));
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            CapturedEmail email = read(sequence);
+            if (email != null) {
+                emails.add(email);
+            }
+        }
+        return emails;
+    }
+
+    /**
+     * Returns the emails captured since the previous drain, oldest first. Emails overwritten in
+     * between are lost.
+     */
+    public List<CapturedEmail> drain() {
+        long end = written.get();
+        long from;
+        do {
+            from = drainedUpTo.get();
+            if (from >= end) {
+                return Collections.emptyList();
+            }
+        } while (!drainedUpTo.compareAndSet(from, end));
+
+        List<CapturedEmail> emails = new ArrayList<>();
+        for (long sequence = Math.max(from, end - capacity()); sequence < end; sequence++) {
+            CapturedEmail email = read(sequence);
+            if (email != null) {
+                emails.add(email);
+            }
+        }
+        return emails;
+    }
+
+    /**
+     * The newest buffered email of the given operation sent to {@code to}.
+     */
+    public Optional<CapturedEmail> latest(String to, EmailOperation operation) {
+        long end = written.get();
+        for (long sequence = end - 1; sequence >= Math.max(0, end - capacity()); sequence--) {
+            CapturedEmail email = read(sequence);
+            if (email != null && email.operation() == operation && email.to().equalsIgnoreCase(to)) {
+                return Optional.of(email);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Map<EmailOperation, Long> counts() {
+        Map<EmailOperation, Long> snapshot = new EnumMap<>(EmailOperation.class);
+        counts.forEach((operation, count) -> snapshot.put(operation, count.sum()));
+        return snapshot;
+    }
+
+    public long captured() {
+        return written.get();
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    private CapturedEmail read(long sequence) {
+        CapturedEmail email = slots.get((int) (sequence & mask));
+        return email != null && email.sequence() == sequence ? email : null;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.service.email;
+
+import com.example.demo.domain.VerificationToken.TokenType;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the last token email sent per (user, token type) so repeated requests do not each
+ * cost a token rewrite and a provider send. A request within {@code suppress-window-seconds} of
+ * the previous send is dropped; a later one may resend the token issued within the last
+ * {@code reuse-window-minutes} instead of generating a new one, if it is still valid. Holds at
+ * most {@code max-entries} users, evicting the oldest; state is per node.
+ */
+@Component
+@Slf4j
+public class EmailDeduplicator {
+
+    private final Duration suppressWindow;
+    private final Duration reuseWindow;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, Entry> recent;
+
+    @Autowired
+    public EmailDeduplicator(@Value("${app.email.dedup.suppress-window-seconds:120}") long suppressWindowSeconds,
+                             @Value("${app.email.dedup.reuse-window-minutes:30}") long reuseWindowMinutes,
+                             @Value("${app.email.dedup.max-entries:10000}") int maxEntries,
+                             MeterRegistry meterRegistry) {
+        this(Duration.ofSeconds(suppressWindowSeconds), Duration.ofMinutes(reuseWindowMinutes), maxEntries,
+                meterRegistry, Clock.systemUTC());
+    }
+
+    EmailDeduplicator(Duration suppressWindow, Duration reuseWindow, int maxEntries, MeterRegistry meterRegistry,
+                      Clock clock) {
+        this.suppressWindow = suppressWindow;
+        this.reuseWindow = reuseWindow;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Claims the next send for the user and token type. Concurrent claims inside the suppression
+     * window see each other, so only one of them sends.
+     */
+    public Claim claim(Long userId, TokenType type) {
+        Instant now = clock.instant();
+        Key key = new Key(userId, type);
+        synchronized (recent) {
+            Entry entry = recent.get(key);
+            if (entry != null && now.isBefore(entry.sentAt().plus(suppressWindow))) {
+                count(type, "suppressed");
+                return new Claim(true, null);
+            }
+            boolean reusable = entry != null && entry.token() != null
+                    && now.isBefore(entry.issuedAt().plus(reuseWindow));
+            recent.put(key, new Entry(reusable ? entry.token() : null, reusable ? entry.issuedAt() : now, now));
+            if (reusable) {
+                count(type, "reused");
+            }
+            return new Claim(false, reusable ? entry.token() : null);
+        }
+    }
+
+    /**
+     * Records the token that went out for a claim.
+     */
+    public void recordSent(Long userId, TokenType type, String token) {
+        Key key = new Key(userId, type);
+        synchronized (recent) {
+            Entry entry = recent.get(key);
+            Instant now = clock.instant();
+            Instant issuedAt = entry != null && token.equals(entry.token()) ? entry.issuedAt() : now;
+            recent.put(key, new Entry(token, issuedAt, entry != null ? entry.sentAt() : now));
+        }
+    }
+
+    /**
+     * Forgets the user's entry, after a failed send or once the token was used.
+     */
+    public void forget(Long userId, TokenType type) {
+        synchronized (recent) {
+            recent.remove(new Key(userId, type));
+        }
+    }
+
+    private void count(TokenType type, String outcome) {
+        meterRegistry.counter("email.dedup", "type", type.name(), "outcome", outcome).increment();
+    }
+
+    /**
+     * {@code reusableToken} is the previously sent token that may be sent again, if any.
+     */
+    public record Claim(boolean suppressed, String reusableToken) {
+    }
+
+    private record Key(Long userId, TokenType type) {
+    }
+
+    private record Entry(String token, Instant issuedAt, Instant sentAt) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.service.email;
+
+import com.example.demo.exception.EmailDeliveryException.DeliveryFailureReason;
+import com.example.demo.exception.EmailException.EmailOperation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivery metrics, recorded where emails are handed to the configured provider (the outbox relay
+ * and the async email queue) and tagged with {@code operation} and {@code provider}:
+ * {@code email.delivery} times each provider call, with its {@code outcome} and failure
+ * {@code reason}; {@code email.time.to.send} measures from the email being requested until the
+ * provider accepted it, retries included, with histogram buckets at {@code app.email.metrics.slo}
+ * for time-to-inbox objectives; {@code email.abandoned} counts emails given up on, by reason.
+ */
+@Component
+public class EmailMetrics {
+
+    private static final String NO_FAILURE = "none";
+
+    private final String provider;
+    private final Duration[] serviceLevelObjectives;
+    private final MeterRegistry meterRegistry;
+
+    public EmailMetrics(@Value("${app.email.provider:mock}") String provider,
+                        @Value("${app.email.metrics.slo:1s,5s,30s,60s,300s}") List<Duration> serviceLevelObjectives,
+                        MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.serviceLevelObjectives = serviceLevelObjectives.toArray(Duration[]::new);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordDelivered(EmailOperation operation, long durationNanos) {
+        deliveryTimer(operation, "success", NO_FAILURE).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFailed(EmailOperation operation, DeliveryFailureReason reason, long durationNanos) {
+        deliveryTimer(operation, "failure", reason.name()).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTimeToSend(EmailOperation operation, Duration sinceRequested) {
+        Timer.builder("email.time.to.send")
+                .description("Time from an email being requested until the provider accepted it")
+                .tag("operation", operation.name())
+                .tag("provider", provider)
+                .serviceLevelObjectives(serviceLevelObjectives)
+                .register(meterRegistry)
+                .record(sinceRequested);
+    }
+
+    public void recordAbandoned(EmailOperation operation, DeliveryFailureReason reason) {
+        meterRegistry.counter("email.abandoned",
+                "operation", operation.name(), "provider", provider, "reason", reason.name()).increment();
+    }
+
+    private Timer deliveryTimer(EmailOperation operation, String outcome, String reason) {
+        return Timer.builder("email.delivery")
+                .description("Time taken by the email provider to accept or reject an email")
+                .tag("operation", operation.name())
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .tag("reason", reason)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
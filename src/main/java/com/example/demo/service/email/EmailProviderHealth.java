@@ -0,0 +1,164 @@
+package com.example.demo.service.email;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Health of one email provider, judged from its last {@code windowSize} sends. Once at least
+ * {@code minSamples} are recorded, an error rate above {@code maxErrorRate} or a p95 latency above
+ * {@code maxLatency} takes the provider out of rotation for {@code cooldown}. After that a single
+ * trial send decides: success brings it back with a fresh window, failure ejects it again.
+ *
+ * <p>Every send is recorded in the {@code email.provider.latency} timer (tags {@code provider},
+ * {@code outcome}), published as a percentile histogram; {@code email.provider.healthy} is 1
+ * while the provider is in rotation.
+ */
+@Slf4j
+public class EmailProviderHealth {
+
+    private final String provider;
+    private final int minSamples;
+    private final double maxErrorRate;
+    private final long maxLatencyNanos;
+    private final long cooldownNanos;
+    private final boolean[] failed;
+    private final long[] latencies;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+
+    private int next;
+    private int samples;
+    private int failures;
+    private long p95Nanos;
+    private boolean p95Stale;
+    private long ejectedAt;
+    private boolean ejected;
+    private boolean probing;
+
+    public EmailProviderHealth(String provider, int windowSize, int minSamples, double maxErrorRate,
+                               Duration maxLatency, Duration cooldown, MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.minSamples = Math.min(minSamples, windowSize);
+        this.maxErrorRate = maxErrorRate;
+        this.maxLatencyNanos = maxLatency.toNanos();
+        this.cooldownNanos = cooldown.toNanos();
+        this.failed = new boolean[windowSize];
+        this.latencies = new long[windowSize];
+
+        this.successTimer = latencyTimer("success", meterRegistry);
+        this.failureTimer = latencyTimer("failure", meterRegistry);
+        Gauge.builder("email.provider.healthy", this, h -> h.isHealthy() ? 1 : 0)
+                .description("1 while the email provider is in rotation")
+                .tag("provider", provider)
+                .register(meterRegistry);
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    /**
+     * Whether the provider should get the next send. After the cooldown this admits one trial
+     * send and returns false to everyone else until its outcome is recorded.
+     */
+    public synchronized boolean tryAcquire() {
+        if (!ejected) {
+            return true;
+        }
+        if (!probing && System.nanoTime() - ejectedAt >= cooldownNanos) {
+            probing = true;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized boolean isHealthy() {
+        return !ejected;
+    }
+
+    public void recordSuccess(long latencyNanos) {
+        successTimer.record(latencyNanos, TimeUnit.NANOSECONDS);
+        record(false, latencyNanos);
+    }
+
+    public void recordFailure(long latencyNanos) {
+        failureTimer.record(latencyNanos, TimeUnit.NANOSECONDS);
+        record(true, latencyNanos);
+    }
+
+    /**
+     * The 95th percentile latency of the sends in the window, 0 before the first one.
+     */
+    public synchronized long p95Nanos() {
+        if (p95Stale) {
+            long[] sorted = Arrays.copyOf(latencies, samples);
+            Arrays.sort(sorted);
+            p95Nanos = samples > 0 ? sorted[(int) Math.ceil(samples * 0.95) - 1] : 0;
+            p95Stale = false;
+        }
+        return p95Nanos;
+    }
+
+    public synchronized double errorRate() {
+        return samples > 0 ? (double) failures / samples : 0;
+    }
+
+    private synchronized void record(boolean failure, long latencyNanos) {
+        if (probing) {
+            probing = false;
+            if (failure) {
+                ejectedAt = System.nanoTime();
+                log.warn("Email provider {} failed its trial send, keeping it out of rotation", provider);
+                return;
+            }
+            ejected = false;
+            reset();
+            log.info("Email provider {} is back in rotation", provider);
+        }
+
+        if (samples == failed.length) {
+            if (failed[next]) {
+                failures--;
+            }
+        } else {
+            samples++;
+        }
+        failed[next] = failure;
+        latencies[next] = latencyNanos;
+        next = (next + 1) % failed.length;
+        if (failure) {
+            failures++;
+        }
+        p95Stale = true;
+
+        if (!ejected && samples >= minSamples && (errorRate() > maxErrorRate || p95Nanos() > maxLatencyNanos)) {
+            ejected = true;
+            ejectedAt = System.nanoTime();
+            log.warn("Email provider {} taken out of rotation: error rate {}, p95 latency {} ms", provider,
+                    String.format("%.2f", errorRate()), TimeUnit.NANOSECONDS.toMillis(p95Nanos()));
+        }
+    }
+
+    private void reset() {
+        next = 0;
+        samples = 0;
+        failures = 0;
+        p95Nanos = 0;
+        p95Stale = false;
+    }
+
+    private Timer latencyTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("email.provider.latency")
+                .description("Time taken by the email provider to accept a message")
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
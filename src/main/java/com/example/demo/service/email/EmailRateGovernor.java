@@ -0,0 +1,135 @@
+package com.example.demo.service.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Token bucket that paces sends to one provider's quota, configured under
+ * {@code app.email.rate.<provider>.*}. Each concrete provider has its own, applied around it by
+ * {@code RateLimitedEmailService}. Callers reserve a permit and sleep until it is due, so a burst
+ * waits in the email queue or the outbox instead of failing at the provider. The rate adapts AIMD style:
+ * a throttling response halves it (at most once per second, down to {@code min-per-second}) and
+ * every successful send adds back {@code increase-per-second} spread over one second of sends.
+ * A provider without a configured rate is not limited.
+ *
+ * <p>Metrics, tagged with the provider: {@code email.rate.limit} (current permits per second),
+ * {@code email.rate.waiting} (sends waiting for a permit) and {@code email.rate.throttled}.
+ */
+@Slf4j
+public class EmailRateGovernor {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final String provider;
+    private final double maxRate;
+    private final double burst;
+    private final double minRate;
+    private final double decreaseFactor;
+    private final double increasePerSecond;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter throttledCounter;
+
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+    private long lastDecreaseNanos;
+
+    public EmailRateGovernor(String provider, double maxRate, double burst, double minRate,
+                             double decreaseFactor, double increasePerSecond, MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.maxRate = maxRate;
+        this.burst = Math.max(1, burst);
+        this.minRate = Math.min(minRate, maxRate);
+        this.decreaseFactor = decreaseFactor;
+        this.increasePerSecond = increasePerSecond;
+        this.rate = maxRate;
+        this.tokens = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.lastDecreaseNanos = lastRefillNanos - NANOS_PER_SECOND;
+
+        Gauge.builder("email.rate.limit", this, EmailRateGovernor::currentRate)
+                .description("Current email send rate limit in permits per second, 0 when unlimited")
+                .tag("provider", provider)
+                .register(meterRegistry);
+        Gauge.builder("email.rate.waiting", waiting, AtomicInteger::get)
+                .description("Emails waiting for a send permit")
+                .tag("provider", provider)
+                .register(meterRegistry);
+        this.throttledCounter = Counter.builder("email.rate.throttled")
+                .description("Throttling responses received from the email provider")
+                .tag("provider", provider)
+                .register(meterRegistry);
+    }
+
+    public boolean isLimited() {
+        return maxRate > 0;
+    }
+
+    /**
+     * Blocks until the caller may send one email.
+     */
+    public void acquire() throws InterruptedException {
+        if (!isLimited()) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            refill(System.nanoTime());
+            tokens -= 1;
+            waitNanos = tokens >= 0 ? 0 : (long) (-tokens / rate * NANOS_PER_SECOND);
+        }
+        if (waitNanos > 0) {
+            waiting.incrementAndGet();
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+    }
+
+    public void onSuccess() {
+        if (!isLimited()) {
+            return;
+        }
+        synchronized (this) {
+            if (rate < maxRate) {
+                rate = Math.min(maxRate, rate + increasePerSecond / rate);
+            }
+        }
+    }
+
+    public void onThrottled() {
+        throttledCounter.increment();
+        if (!isLimited()) {
+            return;
+        }
+        synchronized (this) {
+            long now = System.nanoTime();
+            // One burst of sends usually yields several throttles; back off once for all of them
+            if (now - lastDecreaseNanos < NANOS_PER_SECOND) {
+                return;
+            }
+            refill(now);
+            lastDecreaseNanos = now;
+            rate = Math.max(minRate, rate * decreaseFactor);
+            tokens = Math.min(tokens, 0);
+            log.warn("{} throttled email sends, lowering send rate to {} per second", provider,
+                    String.format("%.1f", rate));
+        }
+    }
+
+    public synchronized double currentRate() {
+        return isLimited() ? rate : 0;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * rate / NANOS_PER_SECOND);
+        lastRefillNanos = now;
+    }
+}
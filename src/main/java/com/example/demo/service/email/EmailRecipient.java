@@ -0,0 +1,18 @@
+package com.example.demo.service.email;
+
+import com.example.demo.domain.User;
+
+/**
+ * The fields email templates need about a recipient, copied out of the {@link User} entity so
+ * rendering never touches a managed entity or its lazy associations.
+ */
+public record EmailRecipient(String username, String email, String firstName, String lastName) {
+
+    public static EmailRecipient from(User user) {
+        return new EmailRecipient(
+                user.getUsername(),
+                user.getPerson().getEmail(),
+                user.getPerson().getFirstName(),
+                user.getPerson().getLastName());
+    }
+}
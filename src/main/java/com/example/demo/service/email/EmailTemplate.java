@@ -0,0 +1,24 @@
+package com.example.demo.service.email;
+
+import com.example.demo.exception.EmailException.EmailOperation;
+import lombok.Getter;
+
+@Getter
+public enum EmailTemplate {
+    EMAIL_VERIFICATION("email-verification", "verificationUrl", "Please verify your email address",
+            EmailOperation.EMAIL_VERIFICATION),
+    PASSWORD_RESET("password-reset", "resetUrl", "Password Reset Request", EmailOperation.PASSWORD_RESET),
+    WELCOME("welcome", "loginUrl", "Welcome to Informasyx!", EmailOperation.WELCOME_EMAIL);
+
+    private final String templateName;
+    private final String urlVariable;
+    private final String subject;
+    private final EmailOperation operation;
+
+    EmailTemplate(String templateName, String urlVariable, String subject, EmailOperation operation) {
+        this.templateName = templateName;
+        this.urlVariable = urlVariable;
+        this.subject = subject;
+        this.operation = operation;
+    }
+}
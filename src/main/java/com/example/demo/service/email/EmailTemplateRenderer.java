@@ -0,0 +1,137 @@
+package com.example.demo.service.email;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders the email templates without running Thymeleaf per message. Each template is processed
+ * once per locale with placeholder markers as variable values; the output is split into static
+ * segments and variable slots, and a send only concatenates the segments with the escaped values.
+ * Templates may therefore only output variables ({@code th:text}, {@code th:href}), not branch on them.
+ * Render times are recorded in the {@code email.template.render} timer (tags {@code template},
+ * {@code operation}).
+ */
+@Component
+@Slf4j
+public class EmailTemplateRenderer {
+
+    static final String FIRST_NAME = "firstName";
+    static final String LAST_NAME = "lastName";
+    static final String EMAIL = "email";
+    static final String USERNAME = "username";
+
+    private static final Pattern MARKER = Pattern.compile("__EMAILVAR_([A-Za-z]+)__");
+
+    private final TemplateEngine templateEngine;
+    private final Map<CacheKey, CompiledTemplate> cache = new ConcurrentHashMap<>();
+    private final Map<EmailTemplate, Timer> renderTimers = new EnumMap<>(EmailTemplate.class);
+
+    public EmailTemplateRenderer(TemplateEngine templateEngine, MeterRegistry meterRegistry) {
+        this.templateEngine = templateEngine;
+        for (EmailTemplate template : EmailTemplate.values()) {
+            renderTimers.put(template, Timer.builder("email.template.render")
+                    .description("Time taken to render an email for sending")
+                    .tag("template", template.getTemplateName())
+                    .tag("operation", template.getOperation().name())
+                    .register(meterRegistry));
+        }
+    }
+
+    public String render(EmailTemplate template, EmailRecipient recipient, String url, Locale locale) {
+        long start = System.nanoTime();
+        CompiledTemplate compiled = cache.computeIfAbsent(new CacheKey(template, locale), this::compile);
+        String html = compiled.render(template, recipient, url);
+        renderTimers.get(template).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return html;
+    }
+
+    /**
+     * Returns the template output with every variable replaced by {@code placeholder.apply(name)},
+     * for providers that substitute the variables on their side (SES templates).
+     */
+    public String renderPlaceholders(EmailTemplate template, Locale locale, UnaryOperator<String> placeholder) {
+        CompiledTemplate compiled = cache.computeIfAbsent(new CacheKey(template, locale), this::compile);
+        StringBuilder html = new StringBuilder(compiled.staticLength() + 256);
+        for (int i = 0; i < compiled.slots().length; i++) {
+            html.append(compiled.segments()[i]).append(placeholder.apply(compiled.slots()[i]));
+        }
+        return html.append(compiled.segments()[compiled.slots().length]).toString();
+    }
+
+    /**
+     * The unescaped variable values, by name, that {@link #renderPlaceholders} placeholders refer to.
+     */
+    public Map<String, String> variables(EmailTemplate template, EmailRecipient recipient, String url) {
+        Map<String, String> variables = new LinkedHashMap<>();
+        for (String variable : List.of(FIRST_NAME, LAST_NAME, EMAIL, USERNAME, template.getUrlVariable())) {
+            variables.put(variable, CompiledTemplate.value(variable, template, recipient, url));
+        }
+        return variables;
+    }
+
+    private CompiledTemplate compile(CacheKey key) {
+        Context context = new Context(key.locale());
+        for (String variable : List.of(FIRST_NAME, LAST_NAME, EMAIL, USERNAME, key.template().getUrlVariable())) {
+            context.setVariable(variable, "__EMAILVAR_" + variable + "__");
+        }
+        String output = templateEngine.process(key.template().getTemplateName(), context);
+
+        List<String> segments = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        Matcher matcher = MARKER.matcher(output);
+        int position = 0;
+        while (matcher.find()) {
+            segments.add(output.substring(position, matcher.start()));
+            slots.add(matcher.group(1));
+            position = matcher.end();
+        }
+        segments.add(output.substring(position));
+
+        log.debug("Compiled email template {} for locale {} into {} segments",
+                key.template().getTemplateName(), key.locale(), segments.size());
+        return new CompiledTemplate(segments.toArray(String[]::new), slots.toArray(String[]::new), output.length());
+    }
+
+    private record CacheKey(EmailTemplate template, Locale locale) {
+    }
+
+    private record CompiledTemplate(String[] segments, String[] slots, int staticLength) {
+
+        String render(EmailTemplate template, EmailRecipient recipient, String url) {
+            StringBuilder html = new StringBuilder(staticLength + 256);
+            for (int i = 0; i < slots.length; i++) {
+                html.append(segments[i]);
+                html.append(HtmlUtils.htmlEscape(value(slots[i], template, recipient, url)));
+            }
+            return html.append(segments[slots.length]).toString();
+        }
+
+        private static String value(String slot, EmailTemplate template, EmailRecipient recipient, String url) {
+            String value = switch (slot) {
+                case FIRST_NAME -> recipient.firstName();
+                case LAST_NAME -> recipient.lastName();
+                case EMAIL -> recipient.email();
+                case USERNAME -> recipient.username();
+                default -> slot.equals(template.getUrlVariable()) ? url : null;
+            };
+            return value != null ? value : "";
+        }
+    }
+}
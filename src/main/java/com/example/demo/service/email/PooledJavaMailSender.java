@@ -0,0 +1,204 @@
+package com.example.demo.service.email;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link JavaMailSenderImpl} that keeps a fixed number of authenticated SMTP connections open
+ * instead of connecting, handshaking and authenticating for every message. A connection is
+ * re-validated with a NOOP after sitting idle, closed after serving a configured number of
+ * messages, and discarded as soon as a send on it fails. Messages passed to one
+ * {@code send(MimeMessage...)} call go out back to back over a single connection.
+ *
+ * <p>The SMTP transport does its socket I/O inside {@code synchronized} methods, which would pin a
+ * virtual thread to its carrier for the whole exchange. Sends from a virtual thread are therefore
+ * handed to a platform thread, one per pooled connection, while the caller waits unpinned.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private final BlockingDeque<PooledTransport> pool;
+    private final int maxMessagesPerConnection;
+    private final long validateAfterIdleMillis;
+    private final long maxIdleMillis;
+    private final long borrowTimeoutMillis;
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final ExecutorService transportExecutor;
+
+    public PooledJavaMailSender(int poolSize, int maxMessagesPerConnection, long validateAfterIdleMillis,
+                                long maxIdleMillis, long borrowTimeoutMillis) {
+        this.pool = new LinkedBlockingDeque<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            pool.add(new PooledTransport());
+        }
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.validateAfterIdleMillis = validateAfterIdleMillis;
+        this.maxIdleMillis = maxIdleMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        // Threads are only started once a virtual thread sends
+        this.transportExecutor = Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory("smtp-transport-"));
+    }
+
+    public long getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        PooledTransport pooled = borrow();
+        Map<Object, Exception> failedMessages = Thread.currentThread().isVirtual()
+                ? await(submit(pooled, mimeMessages, originalMessages))
+                : sendAndRelease(pooled, mimeMessages, originalMessages);
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    private Future<Map<Object, Exception>> submit(PooledTransport pooled, MimeMessage[] mimeMessages,
+                                                  Object[] originalMessages) {
+        try {
+            return transportExecutor.submit(() -> sendAndRelease(pooled, mimeMessages, originalMessages));
+        } catch (RejectedExecutionException e) {
+            // Never reached the transport thread, so nothing else will hand the connection back
+            pool.offerFirst(pooled);
+            throw new MailSendException("SMTP transport threads are shut down", e);
+        }
+    }
+
+    private Map<Object, Exception> sendAndRelease(PooledTransport pooled, MimeMessage[] mimeMessages,
+                                                  Object[] originalMessages) {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                MimeMessage mimeMessage = mimeMessages[i];
+                Object original = originalMessages != null ? originalMessages[i] : mimeMessage;
+                try {
+                    Transport transport = pooled.ensureConnected();
+                    prepare(mimeMessage);
+                    Address[] addresses = mimeMessage.getAllRecipients();
+                    transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+                    pooled.messagesSent++;
+                    pooled.lastUsed = System.currentTimeMillis();
+                } catch (MessagingException e) {
+                    // The connection state is unknown after a failure, start the next message on a fresh one
+                    pooled.close();
+                    failedMessages.put(original, e);
+                }
+            }
+        } finally {
+            // Most recently used first, so surplus connections go idle and expire under light load
+            pool.offerFirst(pooled);
+        }
+        return failedMessages;
+    }
+
+    @Override
+    public void destroy() {
+        transportExecutor.shutdown();
+        pool.forEach(PooledTransport::close);
+    }
+
+    private PooledTransport borrow() {
+        try {
+            PooledTransport pooled = pool.pollFirst(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+            if (pooled == null) {
+                throw new MailSendException("No SMTP connection available within " + borrowTimeoutMillis + " ms");
+            }
+            return pooled;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+        }
+    }
+
+    private static Map<Object, Exception> await(Future<Map<Object, Exception>> send) {
+        try {
+            return send.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new MailSendException("SMTP send failed", e.getCause());
+        } catch (InterruptedException e) {
+            // The connection goes back to the pool once the transport thread is done with it
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while sending over SMTP", e);
+        }
+    }
+
+    private static void prepare(MimeMessage mimeMessage) throws MessagingException {
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            // Preserve explicitly specified message id...
+            mimeMessage.setHeader("Message-ID", messageId);
+        }
+    }
+
+    private final class PooledTransport {
+
+        private Transport transport;
+        private int messagesSent;
+        private long lastUsed;
+
+        private Transport ensureConnected() throws MessagingException {
+            long idle = System.currentTimeMillis() - lastUsed;
+            if (transport != null && (messagesSent >= maxMessagesPerConnection || idle > maxIdleMillis)) {
+                close();
+            }
+            // isConnected() issues a NOOP on SMTP, so only pay for it after the connection sat idle
+            if (transport != null && idle >= validateAfterIdleMillis && !transport.isConnected()) {
+                log.debug("Pooled SMTP connection failed validation, reconnecting");
+                close();
+            }
+            if (transport == null) {
+                try {
+                    transport = connectTransport();
+                } catch (AuthenticationFailedException e) {
+                    throw new MailAuthenticationException(e);
+                }
+                connectionsOpened.incrementAndGet();
+                messagesSent = 0;
+            }
+            return transport;
+        }
+
+        private void close() {
+            if (transport != null) {
+                try {
+                    transport.close();
+                } catch (MessagingException e) {
+                    log.debug("Failed to close pooled SMTP connection", e);
+                }
+                transport = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.demo.service.email;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.simpleemail.AmazonSimpleEmailServiceAsync;
+import com.amazonaws.services.simpleemail.model.AmazonSimpleEmailServiceException;
+import com.amazonaws.services.simpleemail.model.Body;
+import com.amazonaws.services.simpleemail.model.BulkEmailDestination;
+import com.amazonaws.services.simpleemail.model.BulkEmailDestinationStatus;
+import com.amazonaws.services.simpleemail.model.Content;
+import com.amazonaws.services.simpleemail.model.CreateTemplateRequest;
+import com.amazonaws.services.simpleemail.model.Destination;
+import com.amazonaws.services.simpleemail.model.GetTemplateRequest;
+import com.amazonaws.services.simpleemail.model.Message;
+import com.amazonaws.services.simpleemail.model.SendBulkTemplatedEmailRequest;
+import com.amazonaws.services.simpleemail.model.SendBulkTemplatedEmailResult;
+import com.amazonaws.services.simpleemail.model.SendEmailRequest;
+import com.amazonaws.services.simpleemail.model.SendEmailResult;
+import com.amazonaws.services.simpleemail.model.Template;
+import com.amazonaws.services.simpleemail.model.TemplateDoesNotExistException;
+import com.example.demo.config.ConditionalOnEmailProvider;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Sends SES email without holding a thread per request. Messages queue up for a single
+ * dispatcher thread which waits up to {@code linger-ms} for more, groups them by template and
+ * sends each group as one {@code SendBulkTemplatedEmail} call (at most 50 recipients); a lone
+ * message goes out as a plain {@code SendEmail}. Requests run on the async client and complete
+ * the returned futures from its callbacks.
+ *
+ * <p>The SES templates are generated from the local Thymeleaf templates at startup and named
+ * after a hash of their content, so a changed template is registered alongside the old one
+ * rather than replacing it under a running older version.
+ */
+@Component
+@ConditionalOnEmailProvider("ses")
+@Slf4j
+public class SesBulkEmailSender {
+
+    static final int MAX_BULK_DESTINATIONS = 50;
+    private static final String SUCCESS = "Success";
+
+    private final AmazonSimpleEmailServiceAsync sesClient;
+    private final EmailTemplateRenderer templateRenderer;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<PendingEmail> queue = new LinkedBlockingQueue<>();
+    private final Set<CompletableFuture<String>> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<EmailTemplate, String> sesTemplateNames = new EnumMap<>(EmailTemplate.class);
+
+    @Value("${app.from-email}")
+    private String fromEmail;
+
+    @Value("${app.email.ses.bulk.enabled:true}")
+    private boolean bulkEnabled;
+
+    @Value("${app.email.ses.bulk.max-batch-size:50}")
+    private int maxBatchSize;
+
+    @Value("${app.email.ses.bulk.linger-ms:20}")
+    private long lingerMs;
+
+    @Value("${app.email.ses.template-prefix:informasyx-}")
+    private String templatePrefix;
+
+    @Value("${app.email.ses.drain-timeout-seconds:30}")
+    private long drainTimeoutSeconds;
+
+    private volatile boolean running;
+    // Set once the dispatcher has exited; nothing queued after that would ever be sent
+    private volatile boolean stopped;
+    private Thread dispatcher;
+
+    public SesBulkEmailSender(AmazonSimpleEmailServiceAsync sesClient, EmailTemplateRenderer templateRenderer,
+                              ObjectMapper objectMapper) {
+        this.sesClient = sesClient;
+        this.templateRenderer = templateRenderer;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        maxBatchSize = Math.max(1, Math.min(maxBatchSize, MAX_BULK_DESTINATIONS));
+        if (bulkEnabled) {
+            registerTemplates();
+        }
+        running = true;
+        dispatcher = new CustomizableThreadFactory("ses-dispatcher-").newThread(this::dispatchLoop);
+        dispatcher.start();
+        log.info("SES dispatcher started, bulk sends {} for {} template(s)",
+                bulkEnabled ? "enabled" : "disabled", sesTemplateNames.size());
+    }
+
+    /**
+     * Queues an email and returns a future completed with the SES message id.
+     */
+    public CompletableFuture<String> send(EmailTemplate template, EmailRecipient recipient, String url) {
+        PendingEmail email = new PendingEmail(template, recipient, url, new CompletableFuture<>());
+        if (!running) {
+            email.result().completeExceptionally(new IllegalStateException("SES dispatcher is shut down"));
+            return email.result();
+        }
+        queue.add(email);
+        // Shutdown may have begun after the check above. Once the dispatcher has exited it fails what
+        // it leaves queued, so whichever side takes the email off the queue fails it
+        if (stopped && queue.remove(email)) {
+            email.result().completeExceptionally(new IllegalStateException("SES dispatcher is shut down"));
+        }
+        return email.result();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        dispatcher.join(TimeUnit.SECONDS.toMillis(drainTimeoutSeconds));
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                    .get(drainTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("{} SES sends still in flight at shutdown", inFlight.size());
+        }
+    }
+
+    private void registerTemplates() {
+        for (EmailTemplate template : EmailTemplate.values()) {
+            String html = templateRenderer.renderPlaceholders(template, Locale.getDefault(), name -> "{{" + name + "}}");
+            String name = templatePrefix + template.getTemplateName() + "-"
+                    + DigestUtils.md5DigestAsHex((template.getSubject() + html).getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+            try {
+                try {
+                    sesClient.getTemplate(new GetTemplateRequest().withTemplateName(name));
+                } catch (TemplateDoesNotExistException e) {
+                    sesClient.createTemplate(new CreateTemplateRequest().withTemplate(new Template()
+                            .withTemplateName(name)
+                            .withSubjectPart(template.getSubject())
+                            .withHtmlPart(html)));
+                    log.info("Registered SES template {}", name);
+                }
+                sesTemplateNames.put(template, name);
+            } catch (AmazonClientException e) {
+                log.warn("Could not register SES template {}, {} emails will be sent one by one", name, template, e);
+            }
+        }
+    }
+
+    private void dispatchLoop() {
+        try {
+            dispatchUntilStopped();
+        } finally {
+            stopped = true;
+            PendingEmail left;
+            while ((left = queue.poll()) != null) {
+                left.result().completeExceptionally(new IllegalStateException("SES dispatcher is shut down"));
+            }
+        }
+    }
+
+    private void dispatchUntilStopped() {
+        while (running || !queue.isEmpty()) {
+            List<PendingEmail> batch = new ArrayList<>();
+            try {
+                PendingEmail first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Give concurrent senders a moment to join the batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < maxBatchSize) {
+                    PendingEmail next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(email -> email.result().completeExceptionally(e));
+                return;
+            } catch (RuntimeException e) {
+                log.error("SES dispatch failed for {} email(s)", batch.size(), e);
+                batch.forEach(email -> email.result().completeExceptionally(e));
+            }
+        }
+    }
+
+    private void dispatch(List<PendingEmail> batch) {
+        Map<EmailTemplate, List<PendingEmail>> byTemplate = batch.stream().collect(Collectors.groupingBy(
+                PendingEmail::template, () -> new EnumMap<>(EmailTemplate.class), Collectors.toList()));
+        byTemplate.forEach((template, emails) -> {
+            String sesTemplate = sesTemplateNames.get(template);
+            if (emails.size() > 1 && sesTemplate != null) {
+                sendBulk(sesTemplate, emails);
+            } else {
+                emails.forEach(this::sendSingle);
+            }
+        });
+    }
+
+    private void sendSingle(PendingEmail email) {
+        try {
+            String html = templateRenderer.render(email.template(), email.recipient(), email.url(), Locale.getDefault());
+            SendEmailRequest request = new SendEmailRequest()
+                    .withSource(fromEmail)
+                    .withDestination(new Destination().withToAddresses(email.recipient().email()))
+                    .withMessage(new Message()
+                            .withSubject(new Content().withCharset("UTF-8").withData(email.template().getSubject()))
+                            .withBody(new Body().withHtml(new Content().withCharset("UTF-8").withData(html))));
+
+            track(email.result());
+            sesClient.sendEmailAsync(request, new AsyncHandler<>() {
+                @Override
+                public void onError(Exception exception) {
+                    email.result().completeExceptionally(exception);
+                }
+
+                @Override
+                public void onSuccess(SendEmailRequest request, SendEmailResult result) {
+                    email.result().complete(result.getMessageId());
+                }
+            });
+        } catch (RuntimeException e) {
+            email.result().completeExceptionally(e);
+        }
+    }
+
+    private void sendBulk(String sesTemplate, List<PendingEmail> emails) {
+        List<BulkEmailDestination> destinations = new ArrayList<>(emails.size());
+        for (PendingEmail email : emails) {
+            destinations.add(new BulkEmailDestination()
+                    .withDestination(new Destination().withToAddresses(email.recipient().email()))
+                    .withReplacementTemplateData(templateData(email)));
+        }
+        SendBulkTemplatedEmailRequest request = new SendBulkTemplatedEmailRequest()
+                .withSource(fromEmail)
+                .withTemplate(sesTemplate)
+                .withDefaultTemplateData("{}")
+                .withDestinations(destinations);
+
+        emails.forEach(email -> track(email.result()));
+        sesClient.sendBulkTemplatedEmailAsync(request, new AsyncHandler<>() {
+            @Override
+            public void onError(Exception exception) {
+                emails.forEach(email -> email.result().completeExceptionally(exception));
+            }
+
+            @Override
+            public void onSuccess(SendBulkTemplatedEmailRequest request, SendBulkTemplatedEmailResult result) {
+                List<BulkEmailDestinationStatus> statuses = result.getStatus();
+                for (int i = 0; i < emails.size(); i++) {
+                    CompletableFuture<String> future = emails.get(i).result();
+                    BulkEmailDestinationStatus status = i < statuses.size() ? statuses.get(i) : null;
+                    if (status != null && SUCCESS.equals(status.getStatus())) {
+                        future.complete(status.getMessageId());
+                    } else {
+                        future.completeExceptionally(rejection(status));
+                    }
+                }
+            }
+        });
+        log.debug("Sent {} {} emails as one SES bulk request", emails.size(), emails.get(0).template());
+    }
+
+    private String templateData(PendingEmail email) {
+        try {
+            return objectMapper.writeValueAsString(
+                    templateRenderer.variables(email.template(), email.recipient(), email.url()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize SES template data", e);
+        }
+    }
+
+    private void track(CompletableFuture<String> future) {
+        inFlight.add(future);
+        future.whenComplete((messageId, failure) -> inFlight.remove(future));
+    }
+
+    private static AmazonSimpleEmailServiceException rejection(BulkEmailDestinationStatus status) {
+        AmazonSimpleEmailServiceException exception = new AmazonSimpleEmailServiceException(
+                status != null ? status.getError() : "No status returned for destination");
+        exception.setErrorCode(status != null ? status.getStatus() : "Failed");
+        exception.setServiceName("AmazonSimpleEmailService");
+        return exception;
+    }
+
+    private record PendingEmail(EmailTemplate template, EmailRecipient recipient, String url,
+                                CompletableFuture<String> result) {
+    }
+}
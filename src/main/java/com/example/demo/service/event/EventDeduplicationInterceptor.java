@@ -0,0 +1,90 @@
+package com.example.demo.service.event;
+
+import com.example.demo.event.BaseEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drops events a listener has already processed before they reach it, by their
+ * {@link BaseEvent#getEventId() event id}. Set it on a listener container factory as its record
+ * or batch interceptor. Ids are claimed when the records are handed to the listener and released
+ * again if the listener fails, so the redelivered records are processed. Records that are not
+ * events, or have no event id, always pass.
+ */
+@Slf4j
+public class EventDeduplicationInterceptor
+        implements RecordInterceptor<String, Object>, BatchInterceptor<String, Object> {
+
+    private final EventDeduplicator deduplicator;
+
+    public EventDeduplicationInterceptor(EventDeduplicator deduplicator) {
+        this.deduplicator = deduplicator;
+    }
+
+    @Override
+    public ConsumerRecord<String, Object> intercept(ConsumerRecord<String, Object> record,
+                                                    Consumer<String, Object> consumer) {
+        return isDuplicate(record) ? null : record;
+    }
+
+    @Override
+    public void failure(ConsumerRecord<String, Object> record, Exception exception, Consumer<String, Object> consumer) {
+        release(record);
+    }
+
+    @Override
+    public ConsumerRecords<String, Object> intercept(ConsumerRecords<String, Object> records,
+                                                     Consumer<String, Object> consumer) {
+        Map<TopicPartition, List<ConsumerRecord<String, Object>>> unique = new HashMap<>();
+        int duplicates = 0;
+        for (TopicPartition partition : records.partitions()) {
+            List<ConsumerRecord<String, Object>> kept = new ArrayList<>();
+            for (ConsumerRecord<String, Object> record : records.records(partition)) {
+                if (isDuplicate(record)) {
+                    duplicates++;
+                } else {
+                    kept.add(record);
+                }
+            }
+            if (!kept.isEmpty()) {
+                unique.put(partition, kept);
+            }
+        }
+        if (duplicates == 0) {
+            return records;
+        }
+        log.debug("Skipping {} already processed events of {}", duplicates, records.count());
+        return new ConsumerRecords<>(unique);
+    }
+
+    @Override
+    public void failure(ConsumerRecords<String, Object> records, Exception exception, Consumer<String, Object> consumer) {
+        records.forEach(this::release);
+    }
+
+    private boolean isDuplicate(ConsumerRecord<String, Object> record) {
+        String eventId = eventId(record);
+        return eventId != null && !deduplicator.claim(eventId);
+    }
+
+    private void release(ConsumerRecord<String, Object> record) {
+        String eventId = eventId(record);
+        if (eventId != null) {
+            deduplicator.release(eventId);
+        }
+    }
+
+    private static String eventId(ConsumerRecord<String, Object> record) {
+        return record.value() instanceof BaseEvent event ? event.getEventId() : null;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.demo.service.event;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Remembers the event ids a consumer has recently processed, so a redelivered event (a producer
+ * retry, an outbox relay that sent before it could mark the message processed, a replay after a
+ * rebalance) can be skipped without looking anything up. Ids are kept as their 128 bits in
+ * primitive open-addressing tables, one per time bucket: the {@code window} is split into
+ * {@code buckets}, and each time one elapses the oldest bucket is emptied and reused. An id is
+ * therefore remembered for at least {@code window * (buckets - 1) / buckets}.
+ *
+ * <p>Memory is fixed when the deduplicator is created, 22 to 43 bytes per entry of
+ * {@code maxEntries} as the tables are rounded up to a power of two. When the current bucket
+ * fills up before its time is over the buckets rotate early, which shortens the window rather
+ * than growing the tables. Ids that are not UUIDs are hashed to 128 bits. State is per node and
+ * per consumer.
+ *
+ * <p>Exposes {@code kafka.dedup.entries}, {@code kafka.dedup.events} by {@code outcome} and
+ * {@code kafka.dedup.rotations} by {@code reason}, tagged with the {@code listener}.
+ */
+public class EventDeduplicator {
+
+    private static final double MAX_LOAD = 0.75;
+
+    private final String listener;
+    private final long bucketSpanMillis;
+    private final int bucketCapacity;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final Bucket[] buckets;
+    private int current;
+
+    public EventDeduplicator(String listener, Duration window, int buckets, int maxEntries,
+                             MeterRegistry meterRegistry) {
+        this(listener, window, buckets, maxEntries, meterRegistry, Clock.systemUTC());
+    }
+
+    EventDeduplicator(String listener, Duration window, int buckets, int maxEntries, MeterRegistry meterRegistry,
+                      Clock clock) {
+        if (buckets < 2 || maxEntries < buckets) {
+            throw new IllegalArgumentException("Need at least 2 buckets and one entry per bucket");
+        }
+        this.listener = listener;
+        this.bucketSpanMillis = Math.max(1, window.toMillis() / buckets);
+        this.bucketCapacity = maxEntries / buckets;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.buckets = new Bucket[buckets];
+        int slots = Integer.highestOneBit((int) Math.ceil(bucketCapacity / MAX_LOAD) - 1) << 1;
+        long now = clock.millis();
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new Bucket(Math.max(2, slots), now);
+        }
+        Gauge.builder("kafka.dedup.entries", this, EventDeduplicator::size)
+                .description("Event ids remembered for deduplication")
+                .tag("listener", listener)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Remembers the event id and returns true, or returns false when it was already remembered.
+     * Concurrent claims of the same id see each other, so only one of them gets true.
+     */
+    public synchronized boolean claim(String eventId) {
+        UUID id = asUuid(eventId);
+        long high = id.getMostSignificantBits();
+        long low = low(id);
+        rotateIfDue();
+        for (Bucket bucket : buckets) {
+            if (bucket.indexOf(high, low) >= 0) {
+                count("duplicate");
+                return false;
+            }
+        }
+        if (buckets[current].size >= bucketCapacity) {
+            rotate("full");
+        }
+        buckets[current].insert(high, low);
+        count("unique");
+        return true;
+    }
+
+    /**
+     * Forgets a claimed event id, when processing the event failed and its redelivery must not be
+     * skipped.
+     */
+    public synchronized void release(String eventId) {
+        UUID id = asUuid(eventId);
+        long high = id.getMostSignificantBits();
+        long low = low(id);
+        for (Bucket bucket : buckets) {
+            if (bucket.remove(high, low)) {
+                return;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        long now = clock.millis();
+        for (Bucket bucket : buckets) {
+            bucket.clear(now);
+        }
+    }
+
+    public synchronized int size() {
+        int size = 0;
+        for (Bucket bucket : buckets) {
+            size += bucket.size;
+        }
+        return size;
+    }
+
+    private void rotateIfDue() {
+        long startedAt = buckets[current].startedAt;
+        long elapsed = (clock.millis() - startedAt) / bucketSpanMillis;
+        if (elapsed == 0) {
+            return;
+        }
+        // Catch up on every bucket that expired while nothing was claimed, at most a full turn,
+        // keeping bucket boundaries on the original schedule
+        for (long i = 0; i < Math.min(elapsed, buckets.length); i++) {
+            rotate("expired");
+        }
+        buckets[current].startedAt = startedAt + elapsed * bucketSpanMillis;
+    }
+
+    private void rotate(String reason) {
+        current = (current + 1) % buckets.length;
+        buckets[current].clear(clock.millis());
+        meterRegistry.counter("kafka.dedup.rotations", "listener", listener, "reason", reason).increment();
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("kafka.dedup.events", "listener", listener, "outcome", outcome).increment();
+    }
+
+    private static UUID asUuid(String eventId) {
+        if (eventId.length() == 36) {
+            try {
+                return UUID.fromString(eventId);
+            } catch (IllegalArgumentException e) {
+                // Not a UUID after all, hashed below
+            }
+        }
+        return UUID.nameUUIDFromBytes(eventId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long low(UUID id) {
+        // An all-zero slot marks it empty
+        return id.getMostSignificantBits() == 0 && id.getLeastSignificantBits() == 0 ? 1 : id.getLeastSignificantBits();
+    }
+
+    /**
+     * Linear-probing table of 128-bit keys, stored as consecutive high and low longs.
+     */
+    private static final class Bucket {
+
+        private final long[] keys;
+        private final int mask;
+        private int size;
+        private long startedAt;
+
+        Bucket(int slots, long startedAt) {
+            this.keys = new long[slots * 2];
+            this.mask = slots - 1;
+            this.startedAt = startedAt;
+        }
+
+        int indexOf(long high, long low) {
+            for (int slot = home(high, low); ; slot = (slot + 1) & mask) {
+                long h = keys[slot * 2];
+                long l = keys[slot * 2 + 1];
+                if (h == high && l == low) {
+                    return slot;
+                }
+                if (h == 0 && l == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        void insert(long high, long low) {
+            int slot = home(high, low);
+            while (keys[slot * 2] != 0 || keys[slot * 2 + 1] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot * 2] = high;
+            keys[slot * 2 + 1] = low;
+            size++;
+        }
+
+        boolean remove(long high, long low) {
+            int hole = indexOf(high, low);
+            if (hole < 0) {
+                return false;
+            }
+            // Shift later entries of the probe run back so lookups don't stop at the hole
+            for (int slot = (hole + 1) & mask; keys[slot * 2] != 0 || keys[slot * 2 + 1] != 0; slot = (slot + 1) & mask) {
+                int home = home(keys[slot * 2], keys[slot * 2 + 1]);
+                boolean homeBetweenHoleAndSlot = hole <= slot
+                        ? hole < home && home <= slot
+                        : hole < home || home <= slot;
+                if (!homeBetweenHoleAndSlot) {
+                    keys[hole * 2] = keys[slot * 2];
+                    keys[hole * 2 + 1] = keys[slot * 2 + 1];
+                    hole = slot;
+                }
+            }
+            keys[hole * 2] = 0;
+            keys[hole * 2 + 1] = 0;
+            size--;
+            return true;
+        }
+
+        void clear(long now) {
+            if (size > 0) {
+                Arrays.fill(keys, 0);
+                size = 0;
+            }
+            startedAt = now;
+        }
+
+        private int home(long high, long low) {
+            long hash = (high ^ low) * 0x9E3779B97F4A7C15L;
+            return (int) (hash >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.demo.service.event;
+
+import com.example.demo.event.BaseEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Append-only, memory-mapped file holding events that could not be handed to the Kafka producer
+ * ({@code app.kafka.spool.path}, at most {@code app.kafka.spool.max-size-mb}). Records are
+ * replayed in append order by {@link com.example.demo.job.EventSpoolReplayJob}; once every
+ * record has been replayed the file is reused from the start. When the file is full new events
+ * are dropped, not the oldest ones.
+ *
+ * <p>The file starts with the read and write offsets; each record is its length, the append time
+ * and the topic, key, event class and JSON payload. A record is flushed to disk before the write
+ * offset moves past it, so a crash loses at most the record being appended. A crash after a
+ * replay but before the read offset moved replays that event again.
+ *
+ * <p>Only one process can use the file. If it is locked, or {@code app.kafka.spool.enabled} is
+ * false, the spool stays closed and {@link #append} refuses every event.
+ * Exposes {@code kafka.spool.depth}, {@code kafka.spool.age} (seconds since the oldest
+ * event was spooled), {@code kafka.spool.usage} in bytes and {@code kafka.spool.events} by
+ * {@code outcome}.
+ */
+@Component
+@Slf4j
+public class EventSpool {
+
+    private static final int HEADER_SIZE = 16;
+    private static final int READ_OFFSET = 0;
+    private static final int WRITE_OFFSET = 8;
+    // Body length and append time
+    private static final int RECORD_HEADER_SIZE = 12;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.kafka.spool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.kafka.spool.path:${java.io.tmpdir}/informasyx-event-spool.dat}")
+    private String path;
+
+    @Value("${app.kafka.spool.max-size-mb:64}")
+    private int maxSizeMb;
+
+    private FileChannel channel;
+    private FileLock lock;
+    private MappedByteBuffer buffer;
+    private int readPosition;
+    private int writePosition;
+    private int depth;
+
+    public EventSpool(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Gauge.builder("kafka.spool.depth", this, EventSpool::depth)
+                .description("Events waiting in the local spool for the broker")
+                .register(meterRegistry);
+        Gauge.builder("kafka.spool.age", this, EventSpool::ageSeconds)
+                .description("Seconds since the oldest spooled event was appended")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("kafka.spool.usage", this, EventSpool::usedBytes)
+                .description("Bytes of the spool file holding events")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+
+        Path file = Path.of(path);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            log.warn("Event spool {} is in use by another process, events the broker can't take will be dropped", file);
+            channel.close();
+            channel = null;
+            return;
+        }
+
+        int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(channel.size(), maxSizeMb * 1024L * 1024L));
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        readPosition = (int) buffer.getLong(READ_OFFSET);
+        writePosition = (int) buffer.getLong(WRITE_OFFSET);
+        if (writePosition < HEADER_SIZE || writePosition > capacity
+                || readPosition < HEADER_SIZE || readPosition > writePosition) {
+            readPosition = HEADER_SIZE;
+            writePosition = HEADER_SIZE;
+            writeOffsets();
+        }
+        for (int position = readPosition; position < writePosition; position += RECORD_HEADER_SIZE + buffer.getInt(position)) {
+            depth++;
+        }
+        if (depth > 0) {
+            log.info("Event spool {} holds {} events to replay", file, depth);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+        if (lock != null) {
+            lock.release();
+            lock = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Appends the event after every event already spooled.
+     *
+     * @return false if the spool is closed or full and the event was dropped
+     */
+    public synchronized boolean append(String topic, String key, BaseEvent event) {
+        byte[] body;
+        try {
+            body = encode(topic, key, event);
+        } catch (IOException e) {
+            log.error("Failed to spool event {} for topic {}", event.getEventType(), topic, e);
+            countEvent("dropped");
+            return false;
+        }
+        if (buffer == null || writePosition + RECORD_HEADER_SIZE + body.length > buffer.capacity()) {
+            log.error("Event spool is {}, dropping event {} {} for topic {}", buffer == null ? "closed" : "full",
+                    event.getEventType(), event.getEventId(), topic);
+            countEvent("dropped");
+            return false;
+        }
+
+        int start = writePosition;
+        buffer.putInt(start, body.length);
+        buffer.putLong(start + 4, System.currentTimeMillis());
+        buffer.put(start + RECORD_HEADER_SIZE, body);
+        buffer.force(start, RECORD_HEADER_SIZE + body.length);
+        writePosition = start + RECORD_HEADER_SIZE + body.length;
+        writeOffsets();
+        buffer.force(0, HEADER_SIZE);
+        depth++;
+        countEvent("spooled");
+        return true;
+    }
+
+    /**
+     * The oldest spooled event, left in the spool until {@link #remove} or {@link #discard}.
+     *
+     * @throws IOException if the record can't be read back as an event
+     */
+    public synchronized Optional<SpooledEvent> peek() throws IOException {
+        if (depth == 0 || buffer == null) {
+            return Optional.empty();
+        }
+        int length = buffer.getInt(readPosition);
+        Instant appendedAt = Instant.ofEpochMilli(buffer.getLong(readPosition + 4));
+        byte[] body = new byte[length];
+        buffer.get(readPosition + RECORD_HEADER_SIZE, body);
+        return Optional.of(decode(body, appendedAt));
+    }
+
+    /**
+     * Removes the oldest event once it has been replayed.
+     */
+    public synchronized void remove() {
+        advance();
+        countEvent("replayed");
+    }
+
+    /**
+     * Removes the oldest event without replaying it, when it can never be published.
+     */
+    public synchronized void discard() {
+        advance();
+        countEvent("dropped");
+    }
+
+    /**
+     * Whether events are waiting for the broker; new events go behind them to keep their order.
+     */
+    public synchronized boolean hasBacklog() {
+        return depth > 0;
+    }
+
+    public synchronized int depth() {
+        return depth;
+    }
+
+    synchronized double ageSeconds() {
+        if (depth == 0 || buffer == null) {
+            return 0;
+        }
+        return Math.max(0, System.currentTimeMillis() - buffer.getLong(readPosition + 4)) / 1000.0;
+    }
+
+    synchronized int usedBytes() {
+        return writePosition - readPosition;
+    }
+
+    private void advance() {
+        if (depth == 0 || buffer == null) {
+            return;
+        }
+        readPosition += RECORD_HEADER_SIZE + buffer.getInt(readPosition);
+        if (--depth == 0) {
+            readPosition = HEADER_SIZE;
+            writePosition = HEADER_SIZE;
+        }
+        writeOffsets();
+    }
+
+    private void writeOffsets() {
+        buffer.putLong(READ_OFFSET, readPosition);
+        buffer.putLong(WRITE_OFFSET, writePosition);
+    }
+
+    private void countEvent(String outcome) {
+        meterRegistry.counter("kafka.spool.events", "outcome", outcome).increment();
+    }
+
+    private byte[] encode(String topic, String key, BaseEvent event) throws IOException {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] typeBytes = event.getClass().getName().getBytes(StandardCharsets.UTF_8);
+        byte[] payload = objectMapper.writeValueAsBytes(event);
+        ByteBuffer body = ByteBuffer.allocate(
+                12 + topicBytes.length + keyBytes.length + typeBytes.length + payload.length);
+        body.putInt(topicBytes.length).put(topicBytes);
+        body.putInt(keyBytes.length).put(keyBytes);
+        body.putInt(typeBytes.length).put(typeBytes);
+        body.put(payload);
+        return body.array();
+    }
+
+    private SpooledEvent decode(byte[] bytes, Instant appendedAt) throws IOException {
+        ByteBuffer body = ByteBuffer.wrap(bytes);
+        String topic = readString(body);
+        String key = readString(body);
+        String type = readString(body);
+        try {
+            BaseEvent event = objectMapper.readValue(bytes, body.position(), body.remaining(),
+                    Class.forName(type).asSubclass(BaseEvent.class));
+            return new SpooledEvent(topic, key, event, appendedAt);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unknown spooled event type " + type, e);
+        }
+    }
+
+    private static String readString(ByteBuffer body) {
+        byte[] value = new byte[body.getInt()];
+        body.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    public record SpooledEvent(String topic, String key, BaseEvent event, Instant appendedAt) {
+    }
+}
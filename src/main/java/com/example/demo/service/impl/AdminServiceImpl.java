@@ -13,11 +13,12 @@ import com.example.demo.event.UserCreatedEvent;
 import com.example.demo.event.UserRoleChangedEvent;
 import com.example.demo.security.SecurityUtils;
 import com.example.demo.service.AdminService;
-import com.example.demo.service.EventPublisherService;
+import com.example.demo.service.OutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -31,7 +32,8 @@ public class AdminServiceImpl implements AdminService {
     private final PersonRepository personRepository;
     private final PasswordEncoder passwordEncoder;
     private final SecurityUtils securityUtils;
-    private final EventPublisherService eventPublisherService;
+    private final OutboxService outboxService;
+    private final TransactionOperations transactionOperations;
 
     @Override
     public AuthResponse createUser(AdminCreateUserRequest request) {
@@ -62,59 +64,8 @@ public class AdminServiceImpl implements AdminService {
                 return AuthResponse.failure("Email already exists");
             }
 
-            // Create Person
-            Person person = new Person();
-            person.setFirstName(request.getFirstName());
-            person.setLastName(request.getLastName());
-            person.setEmail(request.getEmail());
-            person.setPhoneNumber(request.getPhoneNumber());
-            person.setAddress(request.getAddress());
-            
-            Person savedPerson = personRepository.save(person);
-
-            // Create User
-            User user = new User();
-            user.setUsername(request.getUsername());
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
-            user.setPerson(savedPerson);
-            user.setActive(true);
-            user.setEmailVerified(true); // Admin-created users are pre-verified
-            user.setRole(request.getRole());
-
-            User savedUser = userRepository.save(user);
-
-            log.info("User {} created with role {} by admin {}", 
-                request.getUsername(), request.getRole(), currentUser.getUsername());
-            
-            // Publish event based on role type
-            if (request.getRole() == Role.ADMIN) {
-                // Publish admin created event
-                AdminCreatedEvent adminEvent = new AdminCreatedEvent(
-                    savedUser.getId(),
-                    savedUser.getUsername(),
-                    savedPerson.getEmail(),
-                    savedPerson.getFirstName(),
-                    savedPerson.getLastName(),
-                    savedUser.getRole(),
-                    currentUser.getUsername(),
-                    currentUser.getRole().getName(),
-                    LocalDateTime.now()
-                );
-                eventPublisherService.publishAdminCreatedEvent(adminEvent);
-            } else {
-                // Publish user created event
-                UserCreatedEvent userEvent = new UserCreatedEvent(
-                    savedUser.getId(),
-                    savedUser.getUsername(),
-                    savedPerson.getEmail(),
-                    savedPerson.getFirstName(),
-                    savedPerson.getLastName(),
-                    savedUser.getRole(),
-                    currentUser.getUsername(),
-                    LocalDateTime.now()
-                );
-                eventPublisherService.publishUserCreatedEvent(userEvent);
-            }
+            // User, person and the outbox event commit together
+            transactionOperations.execute(status -> createUserWithEvent(request, currentUser));
             
             return new AuthResponse(null, request.getUsername(), 
                 "User created successfully with role " + request.getRole(), true);
@@ -125,6 +76,64 @@ public class AdminServiceImpl implements AdminService {
         }
     }
 
+    private User createUserWithEvent(AdminCreateUserRequest request, User currentUser) {
+        // Create Person
+        Person person = new Person();
+        person.setFirstName(request.getFirstName());
+        person.setLastName(request.getLastName());
+        person.setEmail(request.getEmail());
+        person.setPhoneNumber(request.getPhoneNumber());
+        person.setAddress(request.getAddress());
+        
+        Person savedPerson = personRepository.save(person);
+
+        // Create User
+        User user = new User();
+        user.setUsername(request.getUsername());
+        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPerson(savedPerson);
+        user.setActive(true);
+        user.setEmailVerified(true); // Admin-created users are pre-verified
+        user.setRole(request.getRole());
+
+        User savedUser = userRepository.save(user);
+
+        log.info("User {} created with role {} by admin {}", 
+            request.getUsername(), request.getRole(), currentUser.getUsername());
+        
+        // Publish event based on role type
+        if (request.getRole() == Role.ADMIN) {
+            // Publish admin created event
+            AdminCreatedEvent adminEvent = new AdminCreatedEvent(
+                savedUser.getId(),
+                savedUser.getUsername(),
+                savedPerson.getEmail(),
+                savedPerson.getFirstName(),
+                savedPerson.getLastName(),
+                savedUser.getRole(),
+                currentUser.getUsername(),
+                currentUser.getRole().getName(),
+                LocalDateTime.now()
+            );
+            outboxService.publishAdminCreatedEvent(adminEvent);
+        } else {
+            // Publish user created event
+            UserCreatedEvent userEvent = new UserCreatedEvent(
+                savedUser.getId(),
+                savedUser.getUsername(),
+                savedPerson.getEmail(),
+                savedPerson.getFirstName(),
+                savedPerson.getLastName(),
+                savedUser.getRole(),
+                currentUser.getUsername(),
+                LocalDateTime.now()
+            );
+            outboxService.publishUserCreatedEvent(userEvent);
+        }
+        outboxService.publishUserState(savedUser);
+        return savedUser;
+    }
+
     @Override
     public AuthResponse changeUserRole(ChangeRoleRequest request) {
         try {
@@ -157,24 +166,11 @@ public class AdminServiceImpl implements AdminService {
             }
 
             Role oldRole = targetUser.getRole();
-            targetUser.setRole(request.getRole());
-            User updatedUser = userRepository.save(targetUser);
+            transactionOperations.execute(status -> changeRoleWithEvent(targetUser, request.getRole(), currentUser));
 
             log.info("User {} role changed from {} to {} by super admin {}", 
                 request.getUsername(), oldRole, request.getRole(), currentUser.getUsername());
             
-            // Publish role change event
-            UserRoleChangedEvent roleChangeEvent = new UserRoleChangedEvent(
-                updatedUser.getId(),
-                updatedUser.getUsername(),
-                oldRole,
-                updatedUser.getRole(),
-                currentUser.getUsername(),
-                currentUser.getRole().getName(),
-                LocalDateTime.now()
-            );
-            eventPublisherService.publishUserRoleChangedEvent(roleChangeEvent);
-            
             return new AuthResponse(null, request.getUsername(), 
                 String.format("User role changed from %s to %s", oldRole, request.getRole()), true);
 
@@ -183,4 +179,24 @@ public class AdminServiceImpl implements AdminService {
             return AuthResponse.failure("Failed to change user role");
         }
     }
-}
\ No newline at end of file
+
+    private User changeRoleWithEvent(User targetUser, Role newRole, User currentUser) {
+        Role oldRole = targetUser.getRole();
+        targetUser.setRole(newRole);
+        User updatedUser = userRepository.save(targetUser);
+
+        // Publish role change event
+        UserRoleChangedEvent roleChangeEvent = new UserRoleChangedEvent(
+            updatedUser.getId(),
+            updatedUser.getUsername(),
+            oldRole,
+            updatedUser.getRole(),
+            currentUser.getUsername(),
+            currentUser.getRole().getName(),
+            LocalDateTime.now()
+        );
+        outboxService.publishUserRoleChangedEvent(roleChangeEvent);
+        outboxService.publishUserState(updatedUser);
+        return updatedUser;
+    }
+}
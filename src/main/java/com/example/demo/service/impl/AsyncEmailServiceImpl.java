@@ -0,0 +1,237 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.domain.User;
+import com.example.demo.exception.EmailConfigurationException;
+import com.example.demo.exception.EmailDeliveryException;
+import com.example.demo.exception.EmailDeliveryException.DeliveryFailureReason;
+import com.example.demo.exception.EmailException.EmailOperation;
+import com.example.demo.exception.EmailTemplateException;
+import com.example.demo.service.EmailService;
+import com.example.demo.service.email.EmailMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes email delivery off the request path. Messages are handed to a bounded queue served by
+ * a small worker pool which calls the configured provider ({@code emailProvider}); failed
+ * deliveries are retried with exponential backoff unless the failure reason cannot improve on
+ * retry. The provider paces its own sends ({@link RateLimitedEmailService}), so bursts beyond
+ * its quota wait in the queue. Sends are recorded in {@link EmailMetrics}, with the
+ * time to send measured from the first attempt. When the queue is full, or once shutdown has begun,
+ * the calling thread sends the message itself, so mail is never dropped. Queued messages and pending retries are
+ * drained on shutdown.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "app.email.async.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class AsyncEmailServiceImpl implements EmailService {
+
+    private static final Set<DeliveryFailureReason> NON_RETRYABLE_REASONS = EnumSet.of(
+            DeliveryFailureReason.INVALID_EMAIL_ADDRESS,
+            DeliveryFailureReason.AUTHENTICATION_FAILED,
+            DeliveryFailureReason.TEMPLATE_PROCESSING_FAILED);
+
+    private final EmailService delegate;
+    private final EmailMetrics emailMetrics;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.email.async.workers:4}")
+    private int workers;
+
+    @Value("${app.email.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.email.async.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.email.async.initial-backoff-ms:500}")
+    private long initialBackoffMs;
+
+    @Value("${app.email.async.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    @Value("${app.email.async.drain-timeout-seconds:30}")
+    private long drainTimeoutSeconds;
+
+    private ThreadPoolExecutor executor;
+    private ScheduledThreadPoolExecutor retryScheduler;
+
+    public AsyncEmailServiceImpl(@Qualifier("emailProvider") EmailService delegate, EmailMetrics emailMetrics,
+                                 MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.emailMetrics = emailMetrics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("email-sender-"),
+                this::runOnCaller);
+        retryScheduler = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("email-retry-"));
+        retryScheduler.setRemoveOnCancelPolicy(true);
+
+        Gauge.builder("email.queue.size", executor, e -> e.getQueue().size())
+                .description("Emails waiting for a sender thread")
+                .register(meterRegistry);
+        Gauge.builder("email.retry.pending", retryScheduler, s -> s.getQueue().size())
+                .description("Emails waiting for a retry after a failed delivery")
+                .register(meterRegistry);
+        log.info("Async email dispatch started with {} workers and queue capacity {}", workers, queueCapacity);
+    }
+
+    @Override
+    public void sendEmailVerification(User user, String token) {
+        submit(new EmailTask(EmailOperation.EMAIL_VERIFICATION, user,
+                () -> delegate.sendEmailVerification(user, token)));
+    }
+
+    @Override
+    public void sendPasswordResetEmail(User user, String token) {
+        submit(new EmailTask(EmailOperation.PASSWORD_RESET, user,
+                () -> delegate.sendPasswordResetEmail(user, token)));
+    }
+
+    @Override
+    public void sendWelcomeEmail(User user) {
+        submit(new EmailTask(EmailOperation.WELCOME_EMAIL, user, () -> delegate.sendWelcomeEmail(user)));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Pending retries are sent right away instead of waiting out their backoff
+        List<Runnable> pendingRetries = retryScheduler.shutdownNow();
+        pendingRetries.forEach(Runnable::run);
+
+        executor.shutdown();
+        if (!executor.awaitTermination(drainTimeoutSeconds, TimeUnit.SECONDS)) {
+            List<Runnable> dropped = executor.shutdownNow();
+            log.error("Email queue not drained within {}s, {} emails were not sent", drainTimeoutSeconds, dropped.size());
+        } else {
+            log.info("Email queue drained");
+        }
+    }
+
+    private void submit(EmailTask task) {
+        executor.execute(task);
+    }
+
+    // Unlike CallerRunsPolicy, which silently drops the task once the executor is shut down
+    private void runOnCaller(Runnable task, ThreadPoolExecutor rejectedBy) {
+        if (rejectedBy.isShutdown() && task instanceof EmailTask email) {
+            log.warn("Email dispatch is shutting down, sending {} to {} synchronously",
+                    email.operation.getDisplayName(), email.recipient());
+        }
+        task.run();
+    }
+
+    private void scheduleRetry(EmailTask task, DeliveryFailureReason reason) {
+        long delay = backoffMillis(task.attempt, reason);
+        try {
+            retryScheduler.schedule(() -> submit(task.nextAttempt()), delay, TimeUnit.MILLISECONDS);
+            log.warn("{} to {} failed ({}), retry {} of {} in {} ms", task.operation.getDisplayName(),
+                    task.recipient(), reason.getDescription(), task.attempt, maxAttempts - 1, delay);
+        } catch (RejectedExecutionException e) {
+            emailMetrics.recordAbandoned(task.operation, reason);
+            log.error("{} to {} failed ({}) during shutdown and will not be retried",
+                    task.operation.getDisplayName(), task.recipient(), reason.getDescription());
+        }
+    }
+
+    long backoffMillis(int attempt, DeliveryFailureReason reason) {
+        // Throttled providers need noticeably more room than a dropped connection
+        long base = reason == DeliveryFailureReason.RATE_LIMIT_EXCEEDED ? initialBackoffMs * 4 : initialBackoffMs;
+        long delay = base << Math.min(attempt - 1, 20);
+        return Math.min(delay, maxBackoffMs);
+    }
+
+    static boolean isRetryable(DeliveryFailureReason reason) {
+        return !NON_RETRYABLE_REASONS.contains(reason);
+    }
+
+    static DeliveryFailureReason failureReason(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof EmailDeliveryException delivery) {
+                return delivery.getReason();
+            }
+            if (t instanceof EmailTemplateException) {
+                return DeliveryFailureReason.TEMPLATE_PROCESSING_FAILED;
+            }
+            if (t instanceof EmailConfigurationException) {
+                return DeliveryFailureReason.AUTHENTICATION_FAILED;
+            }
+        }
+        return DeliveryFailureReason.UNKNOWN;
+    }
+
+    private final class EmailTask implements Runnable {
+
+        private final EmailOperation operation;
+        private final User user;
+        private final Runnable send;
+        private final int attempt;
+        private final long requestedAt;
+
+        private EmailTask(EmailOperation operation, User user, Runnable send) {
+            this(operation, user, send, 1, System.nanoTime());
+        }
+
+        private EmailTask(EmailOperation operation, User user, Runnable send, int attempt, long requestedAt) {
+            this.operation = operation;
+            this.user = user;
+            this.send = send;
+            this.attempt = attempt;
+            this.requestedAt = requestedAt;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            try {
+                send.run();
+                long sent = System.nanoTime();
+                emailMetrics.recordDelivered(operation, sent - start);
+                emailMetrics.recordTimeToSend(operation, Duration.ofNanos(sent - requestedAt));
+            } catch (RuntimeException e) {
+                DeliveryFailureReason reason = failureReason(e);
+                emailMetrics.recordFailed(operation, reason, System.nanoTime() - start);
+                if (isRetryable(reason) && attempt < maxAttempts) {
+                    scheduleRetry(this, reason);
+                } else {
+                    emailMetrics.recordAbandoned(operation, reason);
+                    log.error("Giving up on {} to {} after {} attempt(s): {}",
+                            operation.getDisplayName(), recipient(), attempt, reason.getDescription(), e);
+                }
+            }
+        }
+
+        private EmailTask nextAttempt() {
+            return new EmailTask(operation, user, send, attempt + 1, requestedAt);
+        }
+
+        private String recipient() {
+            return user.getPerson() != null ? user.getPerson().getEmail() : user.getUsername();
+        }
+    }
+}
@@ -11,10 +11,15 @@ import com.example.demo.domain.dto.ResetPasswordRequest;
 import com.example.demo.domain.dto.SignUpRequest;
 import com.example.demo.domain.repository.PersonRepository;
 import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.event.UserActivityEvent;
+import com.example.demo.event.UserCreatedEvent;
 import com.example.demo.service.AuthService;
 import com.example.demo.domain.VerificationToken;
 import com.example.demo.service.EmailService;
+import com.example.demo.service.EventPublisherService;
+import com.example.demo.service.OutboxService;
 import com.example.demo.service.VerificationTokenService;
+import com.example.demo.service.email.EmailDeduplicator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,8 +31,11 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Service
@@ -41,6 +49,10 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final VerificationTokenService verificationTokenService;
     private final EmailService emailService;
+    private final OutboxService outboxService;
+    private final TransactionOperations transactionOperations;
+    private final EmailDeduplicator emailDeduplicator;
+    private final EventPublisherService eventPublisherService;
     
     private final Map<String, String> tokenStore = new ConcurrentHashMap<>();
 
@@ -60,24 +72,29 @@ public class AuthServiceImpl implements AuthService {
                 .orElseThrow(() -> new BadCredentialsException("User not found"));
 
             if (!user.isActive()) {
+                publishLoginFailed(loginRequest);
                 return AuthResponse.failure("User account is deactivated");
             }
 
             if (!user.isEmailVerified()) {
+                publishLoginFailed(loginRequest);
                 return AuthResponse.failure("Please verify your email address before logging in");
             }
 
             String token = generateSimpleToken(user.getUsername());
             tokenStore.put(token, user.getUsername());
+            eventPublisherService.publishUserActivityEvent(UserActivityEvent.loggedIn(user.getUsername()));
             
             log.info("User {} with role {} logged in successfully", user.getUsername(), user.getRole());
             return AuthResponse.success(user.getUsername(), token, user.getRole());
 
         } catch (DisabledException | LockedException e) {
             log.warn("Login attempt for deactivated user: {}", loginRequest.getUsername());
+            publishLoginFailed(loginRequest);
             return AuthResponse.failure("User account is deactivated");
         } catch (BadCredentialsException e) {
             log.warn("Failed login attempt for username: {}", loginRequest.getUsername());
+            publishLoginFailed(loginRequest);
             return AuthResponse.failure("Invalid username or password");
         } catch (Exception e) {
             log.error("Login error for username: {}", loginRequest.getUsername(), e);
@@ -91,6 +108,7 @@ public class AuthServiceImpl implements AuthService {
             String username = tokenStore.remove(token);
             if (username != null) {
                 SecurityContextHolder.clearContext();
+                eventPublisherService.publishUserActivityEvent(UserActivityEvent.loggedOut(username));
                 log.info("User {} logged out successfully", username);
                 return new AuthResponse(null, username, "Logout successful", true);
             } else {
@@ -102,6 +120,10 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
+    private void publishLoginFailed(LoginRequest loginRequest) {
+        eventPublisherService.publishUserActivityEvent(UserActivityEvent.loginFailed(loginRequest.getUsername()));
+    }
+
     private String generateSimpleToken(String username) {
         return "TOKEN_" + username + "_" + System.currentTimeMillis();
     }
@@ -166,28 +188,8 @@ public class AuthServiceImpl implements AuthService {
                 return AuthResponse.failure("Email already exists");
             }
 
-            Person person = new Person();
-            person.setFirstName(signUpRequest.getFirstName());
-            person.setLastName(signUpRequest.getLastName());
-            person.setEmail(signUpRequest.getEmail());
-            person.setPhoneNumber(signUpRequest.getPhoneNumber());
-            person.setAddress(signUpRequest.getAddress());
-            
-            Person savedPerson = personRepository.save(person);
-
-            User user = new User();
-            user.setUsername(signUpRequest.getUsername());
-            user.setPassword(passwordEncoder.encode(signUpRequest.getPassword()));
-            user.setPerson(savedPerson);
-            user.setActive(true);
-            user.setEmailVerified(false); // Will be verified via email
-            user.setRole(Role.USER);
-
-            User savedUser = userRepository.save(user);
-
-            // Generate email verification token and send verification email
-            String verificationToken = verificationTokenService.generateEmailVerificationToken(savedUser);
-            emailService.sendEmailVerification(savedUser, verificationToken);
+            // Person, user, token and the verification email commit together
+            transactionOperations.execute(status -> registerUser(signUpRequest));
 
             log.info("New user registered: {}", signUpRequest.getUsername());
             return new AuthResponse(null, signUpRequest.getUsername(), 
@@ -199,22 +201,60 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
+    private User registerUser(SignUpRequest signUpRequest) {
+        Person person = new Person();
+        person.setFirstName(signUpRequest.getFirstName());
+        person.setLastName(signUpRequest.getLastName());
+        person.setEmail(signUpRequest.getEmail());
+        person.setPhoneNumber(signUpRequest.getPhoneNumber());
+        person.setAddress(signUpRequest.getAddress());
+        
+        Person savedPerson = personRepository.save(person);
+
+        User user = new User();
+        user.setUsername(signUpRequest.getUsername());
+        user.setPassword(passwordEncoder.encode(signUpRequest.getPassword()));
+        user.setPerson(savedPerson);
+        user.setActive(true);
+        user.setEmailVerified(false); // Will be verified via email
+        user.setRole(Role.USER);
+
+        User savedUser = userRepository.save(user);
+
+        // Generate email verification token and record the verification email
+        String verificationToken = verificationTokenService.generateEmailVerificationToken(savedUser);
+        outboxService.sendEmailVerification(savedUser, verificationToken);
+        outboxService.publishUserCreatedEvent(new UserCreatedEvent(
+            savedUser.getId(),
+            savedUser.getUsername(),
+            savedPerson.getEmail(),
+            savedPerson.getFirstName(),
+            savedPerson.getLastName(),
+            savedUser.getRole(),
+            savedUser.getUsername(), // Self-registered
+            LocalDateTime.now()
+        ));
+        outboxService.publishUserState(savedUser);
+        return savedUser;
+    }
+
     @Override
     public AuthResponse verifyEmail(String token) {
         try {
-            boolean verified = verificationTokenService.verifyEmailToken(token);
-            if (verified) {
-                VerificationToken verificationToken = verificationTokenService.findByToken(token);
-                User user = verificationToken.getUser();
-                
-                // Send welcome email after successful verification
-                emailService.sendWelcomeEmail(user);
-                
-                return new AuthResponse(null, user.getUsername(), 
-                    "Email verified successfully! You can now log in.", true);
-            } else {
+            Optional<Long> userId = verificationTokenService.consumeEmailVerificationToken(token);
+            if (userId.isEmpty()) {
                 return AuthResponse.failure("Invalid or expired verification token");
             }
+
+            User user = userRepository.findById(userId.get())
+                .orElseThrow(() -> new BadCredentialsException("User not found"));
+
+            // Send welcome email after successful verification
+            emailService.sendWelcomeEmail(user);
+
+            log.info("Email verified successfully for user: {}", user.getUsername());
+            return new AuthResponse(null, user.getUsername(), 
+                "Email verified successfully! You can now log in.", true);
         } catch (Exception e) {
             log.error("Email verification error", e);
             return AuthResponse.failure("Email verification failed");
@@ -241,9 +281,27 @@ public class AuthServiceImpl implements AuthService {
                     "If an account with this email exists, you will receive password reset instructions.", true);
             }
 
-            // Generate password reset token and send email
-            String resetToken = verificationTokenService.generatePasswordResetToken(user);
-            emailService.sendPasswordResetEmail(user, resetToken);
+            EmailDeduplicator.Claim claim = emailDeduplicator.claim(user.getId(), VerificationToken.TokenType.PASSWORD_RESET);
+            if (claim.suppressed()) {
+                log.info("Suppressed repeated password reset request for user: {}", user.getUsername());
+                return new AuthResponse(null, null,
+                    "If an account with this email exists, you will receive password reset instructions.", true);
+            }
+
+            // Resend a recent reset token that is still valid, otherwise generate one, and record the email with it
+            try {
+                String resetToken = transactionOperations.execute(status -> {
+                    String token = Optional.ofNullable(claim.reusableToken())
+                        .filter(reusable -> isValidToken(reusable, VerificationToken.TokenType.PASSWORD_RESET))
+                        .orElseGet(() -> verificationTokenService.generatePasswordResetToken(user));
+                    outboxService.sendPasswordResetEmail(user, token);
+                    return token;
+                });
+                emailDeduplicator.recordSent(user.getId(), VerificationToken.TokenType.PASSWORD_RESET, resetToken);
+            } catch (RuntimeException e) {
+                emailDeduplicator.forget(user.getId(), VerificationToken.TokenType.PASSWORD_RESET);
+                throw e;
+            }
 
             log.info("Password reset requested for user: {}", user.getUsername());
             return new AuthResponse(null, null, 
@@ -262,20 +320,24 @@ public class AuthServiceImpl implements AuthService {
                 return AuthResponse.failure("New password and confirm password do not match");
             }
 
-            boolean tokenValid = verificationTokenService.verifyPasswordResetToken(resetPasswordRequest.getToken());
-            if (!tokenValid) {
+            // Encoded up front so the slow hash doesn't run while the token row is locked
+            String encodedPassword = passwordEncoder.encode(resetPasswordRequest.getNewPassword());
+
+            // The token is only used up together with the password change: if the update fails it stays valid
+            Optional<User> resetUser = transactionOperations.execute(status -> verificationTokenService
+                .consumeToken(resetPasswordRequest.getToken(), VerificationToken.TokenType.PASSWORD_RESET)
+                .map(userId -> {
+                    User user = userRepository.findById(userId)
+                        .orElseThrow(() -> new BadCredentialsException("User not found"));
+                    user.setPassword(encodedPassword);
+                    return userRepository.save(user);
+                }));
+            if (resetUser == null || resetUser.isEmpty()) {
                 return AuthResponse.failure("Invalid or expired reset token");
             }
 
-            VerificationToken verificationToken = verificationTokenService.findByToken(resetPasswordRequest.getToken());
-            User user = verificationToken.getUser();
-
-            // Update password
-            user.setPassword(passwordEncoder.encode(resetPasswordRequest.getNewPassword()));
-            userRepository.save(user);
-
-            // Mark token as used
-            verificationTokenService.markTokenAsUsed(verificationToken);
+            User user = resetUser.get();
+            emailDeduplicator.forget(user.getId(), VerificationToken.TokenType.PASSWORD_RESET);
 
             log.info("Password reset successfully for user: {}", user.getUsername());
             return new AuthResponse(null, user.getUsername(), "Password reset successful! You can now log in with your new password.", true);
@@ -285,4 +347,9 @@ public class AuthServiceImpl implements AuthService {
             return AuthResponse.failure("Password reset failed");
         }
     }
-}
\ No newline at end of file
+
+    private boolean isValidToken(String token, VerificationToken.TokenType tokenType) {
+        VerificationToken verificationToken = verificationTokenService.findByToken(token);
+        return verificationToken != null && verificationToken.getTokenType() == tokenType && verificationToken.isValid();
+    }
+}
@@ -1,21 +1,24 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.config.ConditionalOnEmailProvider;
 import com.example.demo.domain.User;
 import com.example.demo.exception.EmailDeliveryException;
 import com.example.demo.exception.EmailException.EmailOperation;
 import com.example.demo.exception.EmailServiceException;
 import com.example.demo.exception.EmailTemplateException;
 import com.example.demo.service.EmailService;
+import com.example.demo.service.email.EmailRecipient;
+import com.example.demo.service.email.EmailTemplate;
+import com.example.demo.service.email.EmailTemplateRenderer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -23,13 +26,13 @@ import org.thymeleaf.exceptions.TemplateEngineException;
 import java.util.Locale;
 
 @Service
-@ConditionalOnProperty(name = "app.email.provider", havingValue = "smtp")
+@ConditionalOnEmailProvider("smtp")
 @RequiredArgsConstructor
 @Slf4j
 public class EmailServiceImpl implements EmailService {
 
     private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    private final EmailTemplateRenderer templateRenderer;
 
     @Value("${app.from-email}")
     private String fromEmail;
@@ -40,22 +43,27 @@ public class EmailServiceImpl implements EmailService {
     @Override
     public void sendEmailVerification(User user, String token) {
         try {
-            Context context = new Context(Locale.getDefault());
-            context.setVariable("user", user);
-            context.setVariable("verificationUrl", baseUrl + "/verify-email?token=" + token);
-            
-            String emailContent = templateEngine.process("email-verification", context);
+            String emailContent = templateRenderer.render(EmailTemplate.EMAIL_VERIFICATION,
+                    EmailRecipient.from(user), baseUrl + "/verify-email?token=" + token, Locale.getDefault());
             
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
             
             helper.setTo(user.getPerson().getEmail());
             helper.setFrom(fromEmail);
-            helper.setSubject("Please verify your email address");
+            helper.setSubject(EmailTemplate.EMAIL_VERIFICATION.getSubject());
             helper.setText(emailContent, true);
             
             mailSender.send(message);
             log.info("Email verification sent to: {}", user.getPerson().getEmail());
+        } catch (MailException e) {
+            log.error("Failed to send email verification to: {}", user.getPerson().getEmail(), e);
+            throw new EmailServiceException(new EmailDeliveryException(
+                "Failed to send email verification via SMTP", 
+                user.getPerson().getEmail(), 
+                EmailOperation.EMAIL_VERIFICATION, 
+                smtpFailureReason(e), 
+                e));
         } catch (RuntimeException e) {
             log.error("Failed to process email verification template for: {}", user.getPerson().getEmail(), e);
             throw new EmailServiceException(new EmailTemplateException(
@@ -78,22 +86,27 @@ public class EmailServiceImpl implements EmailService {
     @Override
     public void sendPasswordResetEmail(User user, String token) {
         try {
-            Context context = new Context(Locale.getDefault());
-            context.setVariable("user", user);
-            context.setVariable("resetUrl", baseUrl + "/reset-password?token=" + token);
-            
-            String emailContent = templateEngine.process("password-reset", context);
+            String emailContent = templateRenderer.render(EmailTemplate.PASSWORD_RESET,
+                    EmailRecipient.from(user), baseUrl + "/reset-password?token=" + token, Locale.getDefault());
             
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
             
             helper.setTo(user.getPerson().getEmail());
             helper.setFrom(fromEmail);
-            helper.setSubject("Password Reset Request");
+            helper.setSubject(EmailTemplate.PASSWORD_RESET.getSubject());
             helper.setText(emailContent, true);
             
             mailSender.send(message);
             log.info("Password reset email sent to: {}", user.getPerson().getEmail());
+        } catch (MailException e) {
+            log.error("Failed to send password reset email to: {}", user.getPerson().getEmail(), e);
+            throw new EmailServiceException(new EmailDeliveryException(
+                "Failed to send password reset email via SMTP", 
+                user.getPerson().getEmail(), 
+                EmailOperation.PASSWORD_RESET, 
+                smtpFailureReason(e), 
+                e));
         } catch (RuntimeException e) {
             log.error("Failed to process password reset template for: {}", user.getPerson().getEmail(), e);
             throw new EmailServiceException(new EmailTemplateException(
@@ -116,18 +129,15 @@ public class EmailServiceImpl implements EmailService {
     @Override
     public void sendWelcomeEmail(User user) {
         try {
-            Context context = new Context(Locale.getDefault());
-            context.setVariable("user", user);
-            context.setVariable("loginUrl", baseUrl + "/login");
-            
-            String emailContent = templateEngine.process("welcome", context);
+            String emailContent = templateRenderer.render(EmailTemplate.WELCOME,
+                    EmailRecipient.from(user), baseUrl + "/login", Locale.getDefault());
             
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
             
             helper.setTo(user.getPerson().getEmail());
             helper.setFrom(fromEmail);
-            helper.setSubject("Welcome to Informasyx!");
+            helper.setSubject(EmailTemplate.WELCOME.getSubject());
             helper.setText(emailContent, true);
             
             mailSender.send(message);
@@ -141,6 +151,12 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
+    private static EmailDeliveryException.DeliveryFailureReason smtpFailureReason(MailException e) {
+        return e instanceof MailAuthenticationException
+                ? EmailDeliveryException.DeliveryFailureReason.AUTHENTICATION_FAILED
+                : EmailDeliveryException.DeliveryFailureReason.SMTP_CONNECTION_FAILED;
+    }
+
     private void sendSimpleEmail(String to, String subject, String text) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
@@ -0,0 +1,32 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.domain.dto.LoginActivityDTO;
+import com.example.demo.service.LoginActivityService;
+import com.example.demo.service.activity.LoginActivityAggregator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Serves login activity from the {@link LoginActivityAggregator}, which only exists when
+ * {@code app.kafka.consumers.enabled} is set. There is no fallback: the figures are never
+ * computed from tables.
+ */
+@Service
+public class LoginActivityServiceImpl implements LoginActivityService {
+
+    private final LoginActivityAggregator loginActivityAggregator;
+
+    public LoginActivityServiceImpl(ObjectProvider<LoginActivityAggregator> loginActivityAggregator) {
+        this.loginActivityAggregator = loginActivityAggregator.getIfAvailable();
+    }
+
+    @Override
+    public Optional<LoginActivityDTO> getLoginActivity(int minutes) {
+        if (loginActivityAggregator == null) {
+            return Optional.empty();
+        }
+        return Optional.of(loginActivityAggregator.summarize(minutes));
+    }
+}
@@ -1,23 +1,43 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.config.ConditionalOnEmailProvider;
 import com.example.demo.domain.User;
+import com.example.demo.exception.EmailException.EmailOperation;
 import com.example.demo.service.EmailService;
+import com.example.demo.service.email.EmailCaptureSink;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+/**
+ * Logs emails instead of sending them. With {@code app.email.mock.mode=sink} the emails are
+ * recorded in {@link EmailCaptureSink} instead, which keeps logging out of load test latencies.
+ */
 @Service
-@ConditionalOnProperty(name = "app.email.provider", havingValue = "mock", matchIfMissing = true)
+@ConditionalOnEmailProvider("mock")
+@RequiredArgsConstructor
 @Slf4j
 public class MockEmailServiceImpl implements EmailService {
 
+    private static final String SINK_MODE = "sink";
+
+    private final EmailCaptureSink captureSink;
+
     @Value("${app.base-url}")
     private String baseUrl;
 
+    @Value("${app.email.mock.mode:log}")
+    private String mode;
+
     @Override
     public void sendEmailVerification(User user, String token) {
         String verificationUrl = baseUrl + "/verify-email?token=" + token;
+        if (SINK_MODE.equals(mode)) {
+            captureSink.capture(EmailOperation.EMAIL_VERIFICATION, user.getPerson().getEmail(), user.getUsername(),
+                    token, verificationUrl);
+            return;
+        }
         
         log.info("=== MOCK EMAIL: Email Verification ===");
         log.info("To: {}", user.getPerson().getEmail());
@@ -32,6 +52,11 @@ public class MockEmailServiceImpl implements EmailService {
     @Override
     public void sendPasswordResetEmail(User user, String token) {
         String resetUrl = baseUrl + "/reset-password?token=" + token;
+        if (SINK_MODE.equals(mode)) {
+            captureSink.capture(EmailOperation.PASSWORD_RESET, user.getPerson().getEmail(), user.getUsername(),
+                    token, resetUrl);
+            return;
+        }
         
         log.info("=== MOCK EMAIL: Password Reset ===");
         log.info("To: {}", user.getPerson().getEmail());
@@ -45,6 +70,12 @@ public class MockEmailServiceImpl implements EmailService {
 
     @Override
     public void sendWelcomeEmail(User user) {
+        if (SINK_MODE.equals(mode)) {
+            captureSink.capture(EmailOperation.WELCOME_EMAIL, user.getPerson().getEmail(), user.getUsername(),
+                    null, baseUrl + "/login");
+            return;
+        }
+
         log.info("=== MOCK EMAIL: Welcome ===");
         log.info("To: {}", user.getPerson().getEmail());
         log.info("Subject: Welcome to Informasyx!");
@@ -54,4 +85,4 @@ public class MockEmailServiceImpl implements EmailService {
         
         // In a real implementation, this would send an actual email
     }
-}
\ No newline at end of file
+}
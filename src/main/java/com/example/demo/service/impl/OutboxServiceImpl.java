@@ -0,0 +1,409 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.domain.OutboxMessage;
+import com.example.demo.domain.OutboxMessage.MessageType;
+import com.example.demo.domain.User;
+import com.example.demo.domain.repository.OutboxMessageRepository;
+import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.event.AdminCreatedEvent;
+import com.example.demo.event.BaseEvent;
+import com.example.demo.event.UserCreatedEvent;
+import com.example.demo.event.UserRoleChangedEvent;
+import com.example.demo.event.UserStateSnapshot;
+import com.example.demo.exception.EmailException.EmailOperation;
+import com.example.demo.service.EmailService;
+import com.example.demo.service.EventPublisherService;
+import com.example.demo.service.OutboxService;
+import com.example.demo.service.email.EmailMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+@Slf4j
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    // Emails still sending after all but this fraction of the lease get their lease extended
+    private static final long LEASE_MARGIN_DIVISOR = 10;
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final UserRepository userRepository;
+    private final EventPublisherService eventPublisherService;
+    private final EmailService emailProvider;
+    private final EmailMetrics emailMetrics;
+    private final ObjectMapper objectMapper;
+    private final TransactionOperations transactionOperations;
+    private final ExecutorService emailExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbox-email-", 0).factory());
+
+    @Value("${app.kafka.topics.user-events:user-events}")
+    private String userEventsTopicName;
+
+    @Value("${app.kafka.topics.admin-events:admin-events}")
+    private String adminEventsTopicName;
+
+    @Value("${app.kafka.topics.user-state:user-state}")
+    private String userStateTopicName;
+
+    @Value("${app.outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.relay.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${app.outbox.relay.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${app.outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${app.outbox.relay.lease-ms:300000}")
+    private long leaseMs;
+
+    public OutboxServiceImpl(OutboxMessageRepository outboxMessageRepository,
+                             UserRepository userRepository,
+                             EventPublisherService eventPublisherService,
+                             @Qualifier("emailProvider") EmailService emailProvider,
+                             EmailMetrics emailMetrics,
+                             ObjectMapper objectMapper,
+                             TransactionOperations transactionOperations) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.userRepository = userRepository;
+        this.eventPublisherService = eventPublisherService;
+        this.emailProvider = emailProvider;
+        this.emailMetrics = emailMetrics;
+        this.objectMapper = objectMapper;
+        this.transactionOperations = transactionOperations;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishUserCreatedEvent(UserCreatedEvent event) {
+        recordEvent(userEventsTopicName, event.getUserId().toString(), event);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAdminCreatedEvent(AdminCreatedEvent event) {
+        recordEvent(adminEventsTopicName, event.getAdminId().toString(), event);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishUserRoleChangedEvent(UserRoleChangedEvent event) {
+        recordEvent(userEventsTopicName, event.getUserId().toString(), event);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishUserState(User user) {
+        recordEvent(userStateTopicName, user.getId().toString(), UserStateSnapshot.of(user));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishUserStates(Collection<UserStateSnapshot> snapshots) {
+        snapshots.forEach(snapshot -> recordEvent(userStateTopicName, snapshot.getUserId().toString(), snapshot));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishUserDeleted(Long userId) {
+        OutboxMessage message = new OutboxMessage();
+        message.setMessageType(MessageType.KAFKA_EVENT);
+        message.setDestination(userStateTopicName);
+        message.setMessageKey(userId.toString());
+        outboxMessageRepository.save(message);
+        log.debug("Recorded tombstone for user {} in outbox", userId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sendEmailVerification(User user, String token) {
+        recordEmail(EmailOperation.EMAIL_VERIFICATION, user, token);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sendPasswordResetEmail(User user, String token) {
+        recordEmail(EmailOperation.PASSWORD_RESET, user, token);
+    }
+
+    /**
+     * Claims a batch in a short transaction and leases it for {@code app.outbox.relay.lease-ms}, then
+     * delivers it without holding row locks or a connection. The batch's emails are handed to the provider
+     * all at once, so a batching provider (SES bulk sends) groups them instead of waiting out its linger
+     * for each; Kafka events are published in order on the relay thread meanwhile. Each message's outcome
+     * is written on its own, so a failure later in the batch never undoes earlier deliveries. Emails still
+     * sending near the end of the lease have it extended rather than being waited on past it. Messages of
+     * a relay that dies mid-batch are picked up again once their lease runs out. Kafka events for a topic
+     * and key go out in the order they were recorded: a failed event holds back the later ones for its key,
+     * here and in {@link OutboxMessageRepository#lockNextBatch}, until it is delivered or given up on.
+     */
+    @Override
+    public int relayPendingMessages(int batchSize) {
+        long claimedAt = System.nanoTime();
+        List<OutboxMessage> batch = claimNextBatch(batchSize);
+        Map<OutboxMessage, CompletableFuture<Exception>> emails = new LinkedHashMap<>();
+        for (OutboxMessage message : batch) {
+            if (message.getMessageType() == MessageType.EMAIL) {
+                emails.put(message, CompletableFuture.supplyAsync(() -> attemptDelivery(message), emailExecutor));
+            }
+        }
+
+        LocalDateTime brokerRetryAt = null;
+        Map<String, LocalDateTime> failedKeys = new HashMap<>();
+        for (OutboxMessage message : batch) {
+            if (message.getMessageType() != MessageType.KAFKA_EVENT) {
+                continue;
+            }
+            String key = message.getDestination() + '/' + message.getMessageKey();
+            if (brokerRetryAt != null) {
+                // The broker just timed out; retry with the failed event rather than wait on it for each one
+                message.setAvailableAt(brokerRetryAt);
+            } else if (failedKeys.containsKey(key)) {
+                // Sending it now would overtake the earlier event for its key that is being retried
+                message.setAvailableAt(failedKeys.get(key));
+            } else {
+                Exception failure = attemptDelivery(message);
+                if (failure != null && message.getProcessedAt() == null) {
+                    failedKeys.put(key, message.getAvailableAt());
+                    if (EventPublisherService.isBrokerUnavailable(failure)) {
+                        brokerRetryAt = message.getAvailableAt();
+                    }
+                }
+            }
+            saveDeliveryState(message);
+        }
+
+        // Waiting past the lease would let another relay claim the emails and send them again
+        long deadline = claimedAt + TimeUnit.MILLISECONDS.toNanos(leaseMs - leaseMs / LEASE_MARGIN_DIVISOR);
+        List<OutboxMessage> stillSending = new ArrayList<>();
+        for (Map.Entry<OutboxMessage, CompletableFuture<Exception>> email : emails.entrySet()) {
+            if (awaitDelivery(email.getValue(), deadline)) {
+                saveDeliveryState(email.getKey());
+            } else {
+                stillSending.add(email.getKey());
+            }
+        }
+        if (!stillSending.isEmpty()) {
+            extendLease(stillSending, emails);
+        }
+        return batch.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> findOldestPendingMessage() {
+        return outboxMessageRepository.findOldestPendingCreatedAt();
+    }
+
+    @Override
+    public int purgeProcessedMessages(LocalDateTime cutoff) {
+        int deleted = outboxMessageRepository.deleteProcessedBefore(cutoff);
+        if (deleted > 0) {
+            log.info("Purged {} processed outbox messages", deleted);
+        }
+        return deleted;
+    }
+
+    private List<OutboxMessage> claimNextBatch(int batchSize) {
+        return transactionOperations.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMessage> batch = outboxMessageRepository.lockNextBatch(now, batchSize);
+            if (!batch.isEmpty()) {
+                LocalDateTime leasedUntil = now.plusNanos(leaseMs * 1_000_000);
+                outboxMessageRepository.lease(batch.stream().map(OutboxMessage::getId).toList(), leasedUntil);
+                batch.forEach(message -> message.setAvailableAt(leasedUntil));
+            }
+            return batch;
+        });
+    }
+
+    private static boolean awaitDelivery(CompletableFuture<Exception> delivery, long deadline) {
+        try {
+            delivery.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return delivery.isDone();
+        } catch (ExecutionException e) {
+            // attemptDelivery records its own failures, so this never completes exceptionally
+            return true;
+        }
+    }
+
+    /**
+     * Leases emails still with the provider for another {@code lease-ms} and records their outcome
+     * whenever it arrives, so the relay can move on without their rows being claimed again meanwhile.
+     */
+    private void extendLease(List<OutboxMessage> stillSending,
+                             Map<OutboxMessage, CompletableFuture<Exception>> emails) {
+        LocalDateTime leasedUntil = LocalDateTime.now().plusNanos(leaseMs * 1_000_000);
+        outboxMessageRepository.lease(stillSending.stream().map(OutboxMessage::getId).toList(), leasedUntil);
+        log.warn("{} outbox email(s) still sending near the end of their lease, extended until {}",
+                stillSending.size(), leasedUntil);
+        for (OutboxMessage message : stillSending) {
+            emails.get(message).thenRun(() -> saveDeliveryState(message));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        emailExecutor.shutdown();
+    }
+
+    /**
+     * Delivers the message and records the outcome on it, returning the failure if there was one.
+     */
+    private Exception attemptDelivery(OutboxMessage message) {
+        try {
+            deliver(message);
+            message.setProcessedAt(LocalDateTime.now());
+            message.setLastError(null);
+            return null;
+        } catch (Exception e) {
+            recordFailure(message, e, LocalDateTime.now());
+            return e;
+        }
+    }
+
+    private void saveDeliveryState(OutboxMessage message) {
+        outboxMessageRepository.updateDeliveryState(message.getId(), message.getAttempts(), message.getLastError(),
+                message.getAvailableAt(), message.getProcessedAt());
+    }
+
+    private void deliver(OutboxMessage message) throws Exception {
+        if (message.getMessageType() == MessageType.KAFKA_EVENT && userStateTopicName.equals(message.getDestination())) {
+            publishCurrentUserState(message.getMessageKey());
+            return;
+        }
+        if (message.getMessageType() == MessageType.KAFKA_EVENT && message.getPayload() == null) {
+            eventPublisherService.publishTombstoneAndWait(message.getDestination(), message.getMessageKey(), sendTimeoutMs);
+            return;
+        }
+        if (message.getMessageType() == MessageType.KAFKA_EVENT) {
+            BaseEvent event = objectMapper.readValue(message.getPayload(),
+                    Class.forName(message.getPayloadType()).asSubclass(BaseEvent.class));
+            eventPublisherService.publishEventAndWait(
+                    message.getDestination(), message.getMessageKey(), event, sendTimeoutMs);
+            return;
+        }
+
+        EmailPayload payload = objectMapper.readValue(message.getPayload(), EmailPayload.class);
+        User user = userRepository.findById(payload.userId())
+                .orElseThrow(() -> new IllegalStateException("User " + payload.userId() + " no longer exists"));
+        EmailOperation operation = EmailOperation.valueOf(message.getDestination());
+        long start = System.nanoTime();
+        try {
+            switch (operation) {
+                case EMAIL_VERIFICATION -> emailProvider.sendEmailVerification(user, payload.token());
+                case PASSWORD_RESET -> emailProvider.sendPasswordResetEmail(user, payload.token());
+                default -> throw new IllegalStateException("Unsupported email operation " + message.getDestination());
+            }
+        } catch (RuntimeException e) {
+            emailMetrics.recordFailed(operation, AsyncEmailServiceImpl.failureReason(e), System.nanoTime() - start);
+            throw e;
+        }
+        emailMetrics.recordDelivered(operation, System.nanoTime() - start);
+        emailMetrics.recordTimeToSend(operation, Duration.between(message.getCreatedAt(), LocalDateTime.now()));
+    }
+
+    /**
+     * Publishes the user's state as it is now rather than as recorded, or a tombstone if the user is gone,
+     * so the latest record for a key on the compacted topic is always current, even when the row was
+     * written from an older read of the user, as by the backfill.
+     */
+    private void publishCurrentUserState(String key) throws Exception {
+        Optional<User> user = userRepository.findById(Long.valueOf(key));
+        if (user.isPresent()) {
+            eventPublisherService.publishEventAndWait(userStateTopicName, key, UserStateSnapshot.of(user.get()),
+                    sendTimeoutMs);
+        } else {
+            eventPublisherService.publishTombstoneAndWait(userStateTopicName, key, sendTimeoutMs);
+        }
+    }
+
+    private void recordFailure(OutboxMessage message, Exception e, LocalDateTime now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        message.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+        if (attempts >= maxAttempts) {
+            // Kept with its last error for inspection, but no longer picked up by the relay
+            message.setProcessedAt(now);
+            if (message.getMessageType() == MessageType.EMAIL) {
+                emailMetrics.recordAbandoned(EmailOperation.valueOf(message.getDestination()),
+                        AsyncEmailServiceImpl.failureReason(e));
+            }
+            log.error("Giving up on outbox message {} ({} to {}) after {} attempts",
+                    message.getId(), message.getMessageType(), message.getDestination(), attempts, e);
+            return;
+        }
+        long backoff = Math.min(initialBackoffMs << Math.min(attempts - 1, 20), maxBackoffMs);
+        message.setAvailableAt(now.plusNanos(backoff * 1_000_000));
+        log.warn("Outbox message {} ({} to {}) failed, attempt {} of {}: {}",
+                message.getId(), message.getMessageType(), message.getDestination(), attempts, maxAttempts, error);
+    }
+
+    private void recordEvent(String topic, String key, BaseEvent event) {
+        OutboxMessage message = new OutboxMessage();
+        message.setMessageType(MessageType.KAFKA_EVENT);
+        message.setDestination(topic);
+        message.setMessageKey(key);
+        message.setPayloadType(event.getClass().getName());
+        message.setPayload(toJson(event));
+        outboxMessageRepository.save(message);
+        log.debug("Recorded {} event for topic {} in outbox", event.getEventType(), topic);
+    }
+
+    private void recordEmail(EmailOperation operation, User user, String token) {
+        OutboxMessage message = new OutboxMessage();
+        message.setMessageType(MessageType.EMAIL);
+        message.setDestination(operation.name());
+        message.setMessageKey(user.getId().toString());
+        message.setPayloadType(EmailPayload.class.getName());
+        message.setPayload(toJson(new EmailPayload(user.getId(), token)));
+        outboxMessageRepository.save(message);
+        log.debug("Recorded {} email for user {} in outbox", operation.getDisplayName(), user.getUsername());
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox payload", e);
+        }
+    }
+
+    record EmailPayload(Long userId, String token) {
+    }
+}
@@ -4,10 +4,13 @@ import com.example.demo.domain.Person;
 import com.example.demo.domain.dto.PersonDTO;
 import com.example.demo.domain.mapper.PersonMapper;
 import com.example.demo.domain.repository.PersonRepository;
+import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.service.OutboxService;
 import com.example.demo.service.PersonService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,6 +21,8 @@ public class PersonServiceImpl implements PersonService {
 
     private final PersonRepository personRepository;
     private final PersonMapper personMapper;
+    private final UserRepository userRepository;
+    private final OutboxService outboxService;
 
     @Override
     public List<PersonDTO> getAllPersons() {
@@ -38,6 +43,7 @@ public class PersonServiceImpl implements PersonService {
     }
 
     @Override
+    @Transactional
     public PersonDTO updatePerson(Long id, PersonDTO personDTO) {
         if (!personRepository.existsById(id)) {
             throw new EntityNotFoundException("Person not found with id: " + id);
@@ -46,6 +52,8 @@ public class PersonServiceImpl implements PersonService {
         Person person = personMapper.toEntity(personDTO);
         person.setId(id);
         Person updatedPerson = personRepository.save(person);
+        // A user's email and name come from their person
+        userRepository.findByPersonId(id).ifPresent(outboxService::publishUserState);
         return personMapper.toDto(updatedPerson);
     }
 
@@ -0,0 +1,59 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.domain.User;
+import com.example.demo.exception.EmailDeliveryException;
+import com.example.demo.exception.EmailDeliveryException.DeliveryFailureReason;
+import com.example.demo.exception.EmailException.EmailOperation;
+import com.example.demo.exception.EmailServiceException;
+import com.example.demo.service.EmailService;
+import com.example.demo.service.email.EmailRateGovernor;
+
+/**
+ * Paces one concrete provider with its own {@link EmailRateGovernor}. Every send waits for a permit
+ * first, and a throttling response lowers the provider's rate before the failure is passed on. It sits
+ * directly around the provider, so the async queue, the outbox relay and routing are all paced alike.
+ */
+public class RateLimitedEmailService implements EmailService {
+
+    private final EmailService delegate;
+    private final EmailRateGovernor rateGovernor;
+
+    public RateLimitedEmailService(EmailService delegate, EmailRateGovernor rateGovernor) {
+        this.delegate = delegate;
+        this.rateGovernor = rateGovernor;
+    }
+
+    @Override
+    public void sendEmailVerification(User user, String token) {
+        send(EmailOperation.EMAIL_VERIFICATION, user, () -> delegate.sendEmailVerification(user, token));
+    }
+
+    @Override
+    public void sendPasswordResetEmail(User user, String token) {
+        send(EmailOperation.PASSWORD_RESET, user, () -> delegate.sendPasswordResetEmail(user, token));
+    }
+
+    @Override
+    public void sendWelcomeEmail(User user) {
+        send(EmailOperation.WELCOME_EMAIL, user, () -> delegate.sendWelcomeEmail(user));
+    }
+
+    private void send(EmailOperation operation, User user, Runnable send) {
+        try {
+            rateGovernor.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EmailServiceException(new EmailDeliveryException("Interrupted while waiting for a send permit",
+                    user.getPerson() != null ? user.getPerson().getEmail() : user.getUsername(), operation, e));
+        }
+        try {
+            send.run();
+        } catch (RuntimeException e) {
+            if (AsyncEmailServiceImpl.failureReason(e) == DeliveryFailureReason.RATE_LIMIT_EXCEEDED) {
+                rateGovernor.onThrottled();
+            }
+            throw e;
+        }
+        rateGovernor.onSuccess();
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.domain.User;
+import com.example.demo.exception.EmailDeliveryException.DeliveryFailureReason;
+import com.example.demo.exception.EmailException.EmailOperation;
+import com.example.demo.service.EmailService;
+import com.example.demo.service.email.EmailProviderHealth;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Spreads email over several providers ({@code app.email.routing.providers}, in order of
+ * preference) when {@code app.email.provider=routing}. Each send goes to the first provider that
+ * its {@link EmailProviderHealth} keeps in rotation; a failure another provider could avoid is
+ * retried on the next one before it reaches the async retry queue. If every provider is out of
+ * rotation the preferred one is tried anyway.
+ *
+ * <p>With {@code app.email.routing.hedge.enabled}, a verification or password reset email the
+ * provider has not accepted after its p95 latency (at least {@code hedge.min-delay-ms}) is also
+ * sent through the next healthy provider, and the send succeeds if either accepts it. The slow
+ * copy is not recalled, so the user may occasionally receive both.
+ *
+ * <p>Created by {@code EmailProviderConfig} over the rate limited providers.
+ */
+@Slf4j
+public class RoutingEmailServiceImpl implements EmailService {
+
+    // Failures that would repeat on any provider, so failing over only adds latency
+    private static final Set<DeliveryFailureReason> PROVIDER_INDEPENDENT_REASONS = EnumSet.of(
+            DeliveryFailureReason.INVALID_EMAIL_ADDRESS,
+            DeliveryFailureReason.TEMPLATE_PROCESSING_FAILED);
+
+    private static final Set<EmailOperation> HEDGED_OPERATIONS = EnumSet.of(
+            EmailOperation.EMAIL_VERIFICATION,
+            EmailOperation.PASSWORD_RESET);
+
+    private final Map<String, EmailService> providers;
+    private final MeterRegistry meterRegistry;
+    private final List<EmailProviderHealth> health = new ArrayList<>();
+
+    @Value("${app.email.routing.health.window-size:100}")
+    private int windowSize;
+
+    @Value("${app.email.routing.health.min-samples:10}")
+    private int minSamples;
+
+    @Value("${app.email.routing.health.max-error-rate:0.5}")
+    private double maxErrorRate;
+
+    @Value("${app.email.routing.health.max-p95-latency-ms:5000}")
+    private long maxP95LatencyMs;
+
+    @Value("${app.email.routing.health.cooldown-seconds:30}")
+    private long cooldownSeconds;
+
+    @Value("${app.email.routing.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${app.email.routing.hedge.min-delay-ms:500}")
+    private long hedgeMinDelayMs;
+
+    @Value("${app.email.routing.hedge.threads:4}")
+    private int hedgeThreads;
+
+    @Value("${app.email.async.drain-timeout-seconds:30}")
+    private long drainTimeoutSeconds;
+
+    private ScheduledThreadPoolExecutor hedgeExecutor;
+
+    public RoutingEmailServiceImpl(Map<String, EmailService> providers, MeterRegistry meterRegistry) {
+        this.providers = providers;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        providers.keySet().forEach(name -> health.add(new EmailProviderHealth(name, windowSize, minSamples,
+                maxErrorRate, Duration.ofMillis(maxP95LatencyMs), Duration.ofSeconds(cooldownSeconds), meterRegistry)));
+        if (hedgeEnabled && providers.size() > 1) {
+            hedgeExecutor = new ScheduledThreadPoolExecutor(hedgeThreads, new CustomizableThreadFactory("email-hedge-"));
+            hedgeExecutor.setRemoveOnCancelPolicy(true);
+        }
+        log.info("Routing email across {}{}", providers.keySet(), hedgeExecutor != null ? " with hedged sends" : "");
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdown();
+            hedgeExecutor.awaitTermination(drainTimeoutSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void sendEmailVerification(User user, String token) {
+        send(EmailOperation.EMAIL_VERIFICATION, provider -> provider.sendEmailVerification(user, token));
+    }
+
+    @Override
+    public void sendPasswordResetEmail(User user, String token) {
+        send(EmailOperation.PASSWORD_RESET, provider -> provider.sendPasswordResetEmail(user, token));
+    }
+
+    @Override
+    public void sendWelcomeEmail(User user) {
+        send(EmailOperation.WELCOME_EMAIL, provider -> provider.sendWelcomeEmail(user));
+    }
+
+    private void send(EmailOperation operation, Consumer<EmailService> send) {
+        List<EmailProviderHealth> tried = new ArrayList<>(health.size());
+        RuntimeException lastFailure = null;
+        EmailProviderHealth provider = next(tried);
+        while (provider != null) {
+            tried.add(provider);
+            EmailProviderHealth hedgeProvider = hedgeExecutor != null && HEDGED_OPERATIONS.contains(operation)
+                    ? nextHealthy(tried) : null;
+            ScheduledFuture<?> hedge = hedgeProvider != null ? scheduleHedge(provider, hedgeProvider, send) : null;
+            try {
+                sendVia(provider, send);
+                if (hedge != null) {
+                    hedge.cancel(false);
+                }
+                return;
+            } catch (RuntimeException e) {
+                lastFailure = e;
+                if (!failoverHelps(e)) {
+                    if (hedge != null) {
+                        hedge.cancel(false);
+                    }
+                    throw e;
+                }
+                if (hedge != null && !hedge.cancel(false)) {
+                    // The hedged send already started, its outcome decides
+                    tried.add(hedgeProvider);
+                    try {
+                        hedge.get();
+                        return;
+                    } catch (ExecutionException hedgeFailure) {
+                        lastFailure = hedgeFailure.getCause() instanceof RuntimeException cause
+                                ? cause : new IllegalStateException(hedgeFailure.getCause());
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        throw e;
+                    }
+                }
+            }
+
+            EmailProviderHealth failed = provider;
+            provider = next(tried);
+            if (provider != null) {
+                meterRegistry.counter("email.routing.failover", "provider", failed.getProvider()).increment();
+                log.warn("{} via {} failed, failing over to {}", operation.getDisplayName(), failed.getProvider(),
+                        provider.getProvider());
+            }
+        }
+        throw lastFailure;
+    }
+
+    private ScheduledFuture<?> scheduleHedge(EmailProviderHealth provider, EmailProviderHealth hedgeProvider,
+                                             Consumer<EmailService> send) {
+        long delayNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(hedgeMinDelayMs), provider.p95Nanos());
+        return hedgeExecutor.schedule(() -> {
+            meterRegistry.counter("email.routing.hedged", "provider", hedgeProvider.getProvider()).increment();
+            log.debug("{} slower than {} ms, hedging via {}", provider.getProvider(),
+                    TimeUnit.NANOSECONDS.toMillis(delayNanos), hedgeProvider.getProvider());
+            sendVia(hedgeProvider, send);
+            return null;
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void sendVia(EmailProviderHealth provider, Consumer<EmailService> send) {
+        long start = System.nanoTime();
+        try {
+            send.accept(providers.get(provider.getProvider()));
+            provider.recordSuccess(System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            if (failoverHelps(e)) {
+                provider.recordFailure(System.nanoTime() - start);
+            } else {
+                // The provider answered, the message itself was at fault
+                provider.recordSuccess(System.nanoTime() - start);
+            }
+            throw e;
+        }
+    }
+
+    private EmailProviderHealth next(List<EmailProviderHealth> tried) {
+        for (EmailProviderHealth candidate : health) {
+            if (!tried.contains(candidate) && candidate.tryAcquire()) {
+                return candidate;
+            }
+        }
+        return tried.isEmpty() ? health.get(0) : null;
+    }
+
+    private EmailProviderHealth nextHealthy(List<EmailProviderHealth> tried) {
+        for (EmailProviderHealth candidate : health) {
+            if (!tried.contains(candidate) && candidate.isHealthy()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    static boolean failoverHelps(Throwable failure) {
+        return !PROVIDER_INDEPENDENT_REASONS.contains(AsyncEmailServiceImpl.failureReason(failure));
+    }
+}
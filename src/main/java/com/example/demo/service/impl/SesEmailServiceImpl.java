@@ -1,91 +1,48 @@
 package com.example.demo.service.impl;
 
-import com.amazonaws.auth.AWSStaticCredentialsProvider;
-import com.amazonaws.auth.BasicAWSCredentials;
-import com.amazonaws.regions.Regions;
-import com.amazonaws.services.simpleemail.AmazonSimpleEmailService;
-import com.amazonaws.services.simpleemail.AmazonSimpleEmailServiceClientBuilder;
-import com.amazonaws.services.simpleemail.model.*;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.retry.RetryUtils;
+import com.example.demo.config.ConditionalOnEmailProvider;
 import com.example.demo.domain.User;
-import com.example.demo.exception.EmailConfigurationException;
 import com.example.demo.exception.EmailDeliveryException;
+import com.example.demo.exception.EmailDeliveryException.DeliveryFailureReason;
 import com.example.demo.exception.EmailException.EmailOperation;
 import com.example.demo.exception.EmailServiceException;
 import com.example.demo.exception.EmailTemplateException;
 import com.example.demo.service.EmailService;
+import com.example.demo.service.email.EmailRecipient;
+import com.example.demo.service.email.EmailTemplate;
+import com.example.demo.service.email.SesBulkEmailSender;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 import org.thymeleaf.exceptions.TemplateEngineException;
 
-import jakarta.annotation.PostConstruct;
-import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Service
-@ConditionalOnProperty(name = "app.email.provider", havingValue = "ses")
+@ConditionalOnEmailProvider("ses")
+@RequiredArgsConstructor
 @Slf4j
 public class SesEmailServiceImpl implements EmailService {
 
-    private final TemplateEngine templateEngine;
+    // Per-recipient status SES returns in bulk sends when the sending rate is exceeded
+    private static final String ACCOUNT_THROTTLED = "AccountThrottled";
 
-    @Value("${app.from-email}")
-    private String fromEmail;
+    private final SesBulkEmailSender sesSender;
 
     @Value("${app.base-url}")
     private String baseUrl;
 
-    @Value("${aws.ses.access-key}")
-    private String accessKey;
-
-    @Value("${aws.ses.secret-key}")
-    private String secretKey;
-
-    @Value("${aws.ses.region:us-east-1}")
-    private String region;
-
-    private AmazonSimpleEmailService sesClient;
-
-    public SesEmailServiceImpl(TemplateEngine templateEngine) {
-        this.templateEngine = templateEngine;
-    }
-
-    @PostConstruct
-    public void initSesClient() {
-        try {
-            BasicAWSCredentials awsCredentials = new BasicAWSCredentials(accessKey, secretKey);
-            
-            this.sesClient = AmazonSimpleEmailServiceClientBuilder.standard()
-                    .withCredentials(new AWSStaticCredentialsProvider(awsCredentials))
-                    .withRegion(Regions.fromName(region))
-                    .build();
-            
-            log.info("AWS SES client initialized for region: {}", region);
-        } catch (Exception e) {
-            log.error("Failed to initialize AWS SES client", e);
-            throw new EmailServiceException(new EmailConfigurationException(
-                "Failed to initialize AWS SES client. Check your AWS credentials and region configuration.", 
-                "aws.ses", 
-                e));
-        }
-    }
+    @Value("${app.email.ses.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
 
     @Override
     public void sendEmailVerification(User user, String token) {
         try {
-            Context context = new Context(Locale.getDefault());
-            context.setVariable("user", user);
-            context.setVariable("verificationUrl", baseUrl + "/verify-email?token=" + token);
-            
-            String emailContent = templateEngine.process("email-verification", context);
-            
-            sendHtmlEmail(
-                user.getPerson().getEmail(),
-                "Please verify your email address",
-                emailContent
-            );
+            send(EmailTemplate.EMAIL_VERIFICATION, user, baseUrl + "/verify-email?token=" + token);
             
             log.info("Email verification sent via SES to: {}", user.getPerson().getEmail());
         } catch (TemplateEngineException e) {
@@ -102,7 +59,7 @@ public class SesEmailServiceImpl implements EmailService {
                 "Failed to send email verification via AWS SES", 
                 user.getPerson().getEmail(), 
                 EmailOperation.EMAIL_VERIFICATION, 
-                EmailDeliveryException.DeliveryFailureReason.AWS_SES_ERROR, 
+                failureReason(e), 
                 e));
         }
     }
@@ -110,17 +67,7 @@ public class SesEmailServiceImpl implements EmailService {
     @Override
     public void sendPasswordResetEmail(User user, String token) {
         try {
-            Context context = new Context(Locale.getDefault());
-            context.setVariable("user", user);
-            context.setVariable("resetUrl", baseUrl + "/reset-password?token=" + token);
-            
-            String emailContent = templateEngine.process("password-reset", context);
-            
-            sendHtmlEmail(
-                user.getPerson().getEmail(),
-                "Password Reset Request",
-                emailContent
-            );
+            send(EmailTemplate.PASSWORD_RESET, user, baseUrl + "/reset-password?token=" + token);
             
             log.info("Password reset email sent via SES to: {}", user.getPerson().getEmail());
         } catch (TemplateEngineException e) {
@@ -137,7 +84,7 @@ public class SesEmailServiceImpl implements EmailService {
                 "Failed to send password reset email via AWS SES", 
                 user.getPerson().getEmail(), 
                 EmailOperation.PASSWORD_RESET, 
-                EmailDeliveryException.DeliveryFailureReason.AWS_SES_ERROR, 
+                failureReason(e), 
                 e));
         }
     }
@@ -145,17 +92,7 @@ public class SesEmailServiceImpl implements EmailService {
     @Override
     public void sendWelcomeEmail(User user) {
         try {
-            Context context = new Context(Locale.getDefault());
-            context.setVariable("user", user);
-            context.setVariable("loginUrl", baseUrl + "/login");
-            
-            String emailContent = templateEngine.process("welcome", context);
-            
-            sendHtmlEmail(
-                user.getPerson().getEmail(),
-                "Welcome to Informasyx!",
-                emailContent
-            );
+            send(EmailTemplate.WELCOME, user, baseUrl + "/login");
             
             log.info("Welcome email sent via SES to: {}", user.getPerson().getEmail());
         } catch (TemplateEngineException e) {
@@ -167,55 +104,23 @@ public class SesEmailServiceImpl implements EmailService {
         }
     }
 
-    private void sendHtmlEmail(String to, String subject, String htmlContent) {
-        try {
-            SendEmailRequest request = new SendEmailRequest()
-                    .withSource(fromEmail)
-                    .withDestination(new Destination().withToAddresses(to))
-                    .withMessage(new Message()
-                            .withSubject(new Content().withCharset("UTF-8").withData(subject))
-                            .withBody(new Body()
-                                    .withHtml(new Content().withCharset("UTF-8").withData(htmlContent))
-                            )
-                    );
-
-            SendEmailResult result = sesClient.sendEmail(request);
-            log.debug("Email sent via SES with message ID: {}", result.getMessageId());
-            
-        } catch (Exception e) {
-            log.error("Failed to send email via SES to: {}", to, e);
-            throw new EmailServiceException(new EmailDeliveryException(
-                "Failed to send HTML email via AWS SES", 
-                to, 
-                EmailOperation.GENERAL, 
-                EmailDeliveryException.DeliveryFailureReason.AWS_SES_ERROR, 
-                e));
+    static DeliveryFailureReason failureReason(Exception e) {
+        if (e instanceof AmazonServiceException serviceException
+                && (RetryUtils.isThrottlingException(serviceException)
+                || ACCOUNT_THROTTLED.equals(serviceException.getErrorCode()))) {
+            return DeliveryFailureReason.RATE_LIMIT_EXCEEDED;
         }
+        return DeliveryFailureReason.AWS_SES_ERROR;
     }
 
-    private void sendTextEmail(String to, String subject, String textContent) {
+    // Waits on the async email worker for the SES outcome so failures still reach the retry logic
+    private void send(EmailTemplate template, User user, String url) throws Exception {
         try {
-            SendEmailRequest request = new SendEmailRequest()
-                    .withSource(fromEmail)
-                    .withDestination(new Destination().withToAddresses(to))
-                    .withMessage(new Message()
-                            .withSubject(new Content().withCharset("UTF-8").withData(subject))
-                            .withBody(new Body()
-                                    .withText(new Content().withCharset("UTF-8").withData(textContent))
-                            )
-                    );
-
-            SendEmailResult result = sesClient.sendEmail(request);
-            log.debug("Text email sent via SES with message ID: {}", result.getMessageId());
-            
-        } catch (Exception e) {
-            log.error("Failed to send text email via SES to: {}", to, e);
-            throw new EmailServiceException(new EmailDeliveryException(
-                "Failed to send text email via AWS SES", 
-                to, 
-                EmailOperation.GENERAL, 
-                EmailDeliveryException.DeliveryFailureReason.AWS_SES_ERROR, 
-                e));
+            String messageId = sesSender.send(template, EmailRecipient.from(user), url)
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            log.debug("Email sent via SES with message ID: {}", messageId);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.domain.Person;
+import com.example.demo.domain.Role;
+import com.example.demo.domain.User;
+import com.example.demo.domain.dto.DirectoryUserDTO;
+import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.service.UserDirectoryService;
+import com.example.demo.service.directory.UserDirectory;
+import com.example.demo.service.directory.UserDirectoryProjector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves the admin user listing and counts from the projected {@link UserDirectory} when
+ * {@code app.kafka.consumers.enabled} is set, and from the user table otherwise. The directory
+ * trails the database by the time it takes events to be relayed and consumed.
+ */
+@Service
+public class UserDirectoryServiceImpl implements UserDirectoryService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final UserDirectory userDirectory;
+    private final UserDirectoryProjector userDirectoryProjector;
+
+    public UserDirectoryServiceImpl(UserRepository userRepository,
+                                    ObjectProvider<UserDirectory> userDirectory,
+                                    ObjectProvider<UserDirectoryProjector> userDirectoryProjector) {
+        this.userRepository = userRepository;
+        this.userDirectory = userDirectory.getIfAvailable();
+        this.userDirectoryProjector = userDirectoryProjector.getIfAvailable();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DirectoryUserDTO> listUsers(Role role, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be at least 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (userDirectory != null) {
+            return userDirectory.list(role, page, size);
+        }
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by("id"));
+        Page<User> users = role != null ? userRepository.findByRole(role, pageRequest) : userRepository.findAll(pageRequest);
+        return users.map(UserDirectoryServiceImpl::toDto).getContent();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Role, Long> countUsersByRole() {
+        if (userDirectory != null) {
+            return userDirectory.countByRole();
+        }
+        Map<Role, Long> counts = new EnumMap<>(Role.class);
+        for (Role role : Role.values()) {
+            counts.put(role, 0L);
+        }
+        for (Object[] row : userRepository.countGroupedByRole()) {
+            if (row[0] != null) {
+                counts.put((Role) row[0], (Long) row[1]);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public boolean rebuild() {
+        if (userDirectoryProjector == null) {
+            return false;
+        }
+        userDirectoryProjector.rebuild();
+        return true;
+    }
+
+    private static DirectoryUserDTO toDto(User user) {
+        Person person = user.getPerson();
+        return new DirectoryUserDTO(user.getId(), user.getUsername(),
+                person != null ? person.getEmail() : null,
+                person != null ? person.getFirstName() : null,
+                person != null ? person.getLastName() : null,
+                user.getRole());
+    }
+}
@@ -8,6 +8,7 @@ import com.example.demo.domain.dto.UserDTO;
 import com.example.demo.domain.mapper.UserMapper;
 import com.example.demo.domain.repository.PersonRepository;
 import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.service.OutboxService;
 import com.example.demo.service.PersonService;
 import com.example.demo.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
@@ -26,6 +27,7 @@ public class UserServiceImpl implements UserService {
     private final PersonRepository personRepository;
     private final PersonService personService;
     private final UserMapper userMapper;
+    private final OutboxService outboxService;
 
     @Override
     public List<UserDTO> getAllUsers() {
@@ -68,6 +70,7 @@ public class UserServiceImpl implements UserService {
         }
         
         User savedUser = userRepository.save(user);
+        outboxService.publishUserState(savedUser);
         return userMapper.toDto(savedUser);
     }
 
@@ -108,15 +111,18 @@ public class UserServiceImpl implements UserService {
         
         User user = userMapper.toEntity(userCreateDTO);
         User updatedUser = userRepository.save(user);
+        outboxService.publishUserState(updatedUser);
         return userMapper.toDto(updatedUser);
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         if (!userRepository.existsById(id)) {
             throw new EntityNotFoundException("User not found with id: " + id);
         }
         userRepository.deleteById(id);
+        outboxService.publishUserDeleted(id);
     }
 
     @Override
@@ -2,24 +2,35 @@ package com.example.demo.service.impl;
 
 import com.example.demo.domain.User;
 import com.example.demo.domain.VerificationToken;
+import com.example.demo.domain.repository.UserRepository;
 import com.example.demo.domain.repository.VerificationTokenRepository;
+import com.example.demo.service.OutboxService;
 import com.example.demo.service.VerificationTokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class VerificationTokenServiceImpl implements VerificationTokenService {
 
+    static final int DEFAULT_PURGE_BATCH_SIZE = 5000;
+
     private final VerificationTokenRepository tokenRepository;
-    private final SecureRandom secureRandom = new SecureRandom();
+    private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    // The default NativePRNG reads /dev/urandom under a JVM-wide lock, shared with every UUID.randomUUID()
+    private final SecureRandom secureRandom = newDrbg();
 
     @Override
     @Transactional
@@ -69,36 +80,34 @@ public class VerificationTokenServiceImpl implements VerificationTokenService {
         return tokenRepository.findByToken(token).orElse(null);
     }
 
+    /**
+     * Marks the token as used only if it has the expected type, is unused and has not expired,
+     * all in a single conditional UPDATE, and returns the owning user's id when it succeeded.
+     */
     @Override
     @Transactional
-    public boolean verifyEmailToken(String token) {
-        VerificationToken verificationToken = findByToken(token);
-        
-        if (verificationToken == null) {
-            log.warn("Email verification attempted with invalid token");
-            return false;
+    public Optional<Long> consumeToken(String token, VerificationToken.TokenType tokenType) {
+        if (token == null || token.trim().isEmpty()) {
+            return Optional.empty();
         }
 
-        if (!verificationToken.getTokenType().equals(VerificationToken.TokenType.EMAIL_VERIFICATION)) {
-            log.warn("Token type mismatch for email verification");
-            return false;
+        if (tokenRepository.consumeToken(token, tokenType, LocalDateTime.now()) == 0) {
+            log.warn("Rejected invalid, expired or already used {} token", tokenType);
+            return Optional.empty();
         }
 
-        if (!verificationToken.isValid()) {
-            log.warn("Email verification attempted with invalid/expired token for user: {}", 
-                verificationToken.getUser().getUsername());
-            return false;
-        }
+        return tokenRepository.findUserIdByToken(token);
+    }
 
-        // Mark token as used
-        markTokenAsUsed(verificationToken);
-        
-        // Mark user as email verified
-        User user = verificationToken.getUser();
-        user.setEmailVerified(true);
-        
-        log.info("Email verified successfully for user: {}", user.getUsername());
-        return true;
+    @Override
+    @Transactional
+    public Optional<Long> consumeEmailVerificationToken(String token) {
+        Optional<Long> userId = consumeToken(token, VerificationToken.TokenType.EMAIL_VERIFICATION);
+        userId.ifPresent(id -> {
+            userRepository.markEmailVerified(id);
+            userRepository.findById(id).ifPresent(outboxService::publishUserState);
+        });
+        return userId;
     }
 
     @Override
@@ -136,10 +145,28 @@ public class VerificationTokenServiceImpl implements VerificationTokenService {
     }
 
     @Override
-    @Transactional
-    public void cleanupExpiredTokens() {
-        tokenRepository.deleteByExpiryDateBeforeAndUsedTrue(LocalDateTime.now());
-        log.info("Cleaned up expired tokens");
+    public int cleanupExpiredTokens() {
+        return purgeExpiredTokens(LocalDateTime.now(), DEFAULT_PURGE_BATCH_SIZE);
+    }
+
+    /**
+     * Deletes every token that expired before the cutoff, used or not, in chunks of at most
+     * {@code batchSize} rows. Intentionally not transactional: each chunk delete commits on its
+     * own so concurrent signups and resets are never blocked behind one long purge.
+     */
+    @Override
+    public int purgeExpiredTokens(LocalDateTime cutoff, int batchSize) {
+        int purged = 0;
+        List<Long> expiredIds;
+        do {
+            expiredIds = tokenRepository.findExpiredTokenIds(cutoff, PageRequest.of(0, batchSize));
+            if (!expiredIds.isEmpty()) {
+                purged += tokenRepository.deleteByIdIn(expiredIds);
+            }
+        } while (expiredIds.size() == batchSize);
+
+        log.info("Cleaned up {} expired tokens", purged);
+        return purged;
     }
 
     private String generateSecureToken() {
@@ -147,4 +174,12 @@ public class VerificationTokenServiceImpl implements VerificationTokenService {
         secureRandom.nextBytes(tokenBytes);
         return Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes);
     }
-}
\ No newline at end of file
+
+    private static SecureRandom newDrbg() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("DRBG SecureRandom not available", e);
+        }
+    }
+}
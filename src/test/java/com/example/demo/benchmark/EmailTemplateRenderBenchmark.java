@@ -0,0 +1,76 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.email.EmailRecipient;
+import com.example.demo.service.email.EmailTemplate;
+import com.example.demo.service.email.EmailTemplateRenderer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders per second of the email templates: a full Thymeleaf pass per message (the previous
+ * behaviour) against {@link EmailTemplateRenderer}'s pre-rendered segments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateRenderBenchmark {
+
+    private static final EmailRecipient RECIPIENT =
+            new EmailRecipient("johndoe", "john.doe@example.com", "John", "Doe");
+    private static final String URL = "http://localhost:8080/verify-email?token=Yk3p0Zq9vR2xW8sT1uJ6nA";
+
+    @Param({"EMAIL_VERIFICATION", "PASSWORD_RESET", "WELCOME"})
+    public EmailTemplate template;
+
+    private TemplateEngine templateEngine;
+    private EmailTemplateRenderer renderer;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        templateEngine = engine;
+        renderer = new EmailTemplateRenderer(engine, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public String thymeleafPerMessage() {
+        Context context = new Context(Locale.ENGLISH);
+        context.setVariable("firstName", RECIPIENT.firstName());
+        context.setVariable("lastName", RECIPIENT.lastName());
+        context.setVariable("email", RECIPIENT.email());
+        context.setVariable("username", RECIPIENT.username());
+        context.setVariable(template.getUrlVariable(), URL);
+        return templateEngine.process(template.getTemplateName(), context);
+    }
+
+    @Benchmark
+    public String precompiledSegments() {
+        return renderer.render(template, RECIPIENT, URL, Locale.ENGLISH);
+    }
+}
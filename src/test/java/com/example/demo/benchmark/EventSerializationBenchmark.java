@@ -0,0 +1,96 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.domain.Role;
+import com.example.demo.event.AdminCreatedEvent;
+import com.example.demo.event.BaseEvent;
+import com.example.demo.event.UserCreatedEvent;
+import com.example.demo.event.UserRoleChangedEvent;
+import com.example.demo.event.serialization.BinaryEventDeserializer;
+import com.example.demo.event.serialization.BinaryEventSerializer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing each event type as JSON ({@link JsonSerializer}, with its type header) and in the
+ * binary layout ({@link BinaryEventSerializer}), and reading it back with
+ * {@link BinaryEventDeserializer}, which takes both. The encoded size of each event is printed
+ * at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    private static final String TOPIC = "user-events";
+
+    @Param({"json", "binary"})
+    private String format;
+
+    @Param({"USER_CREATED", "ADMIN_CREATED", "USER_ROLE_CHANGED"})
+    private String eventType;
+
+    private Serializer<Object> serializer;
+    private Deserializer<Object> deserializer;
+    private BaseEvent event;
+    private RecordHeaders headers;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        serializer = "binary".equals(format) ? new BinaryEventSerializer() : new JsonSerializer<>();
+        deserializer = new BinaryEventDeserializer();
+        deserializer.configure(Map.of(), false);
+
+        LocalDateTime now = LocalDateTime.now();
+        event = switch (eventType) {
+            case "USER_CREATED" -> new UserCreatedEvent(7L, "johndoe", "john.doe@example.com", "John", "Doe",
+                    Role.USER, "superadmin", now);
+            case "ADMIN_CREATED" -> new AdminCreatedEvent(8L, "janeadmin", "jane.admin@example.com", "Jane", "Admin",
+                    Role.ADMIN, "superadmin", "SUPER_ADMIN", now);
+            case "USER_ROLE_CHANGED" -> new UserRoleChangedEvent(7L, "johndoe", Role.USER, Role.ADMIN,
+                    "superadmin", "SUPER_ADMIN", now);
+            default -> throw new IllegalArgumentException("Unknown event type " + eventType);
+        };
+        headers = new RecordHeaders();
+        encoded = serializer.serialize(TOPIC, headers, event);
+        System.out.printf("%n%s %s: %d bytes per event%n", format, eventType, encoded.length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        // The JSON deserializer removes the type header it reads
+        return deserializer.deserialize(TOPIC, new RecordHeaders(headers.toArray()), encoded);
+    }
+}
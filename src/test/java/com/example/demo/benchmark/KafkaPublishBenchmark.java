@@ -0,0 +1,116 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.KafkaConfig;
+import com.example.demo.domain.Role;
+import com.example.demo.event.AdminCreatedEvent;
+import com.example.demo.event.BaseEvent;
+import com.example.demo.event.UserCreatedEvent;
+import com.example.demo.event.UserRoleChangedEvent;
+import com.example.demo.service.EventPublisherService;
+import com.example.demo.service.event.EventSpool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes each event type to an embedded broker from 32 concurrent threads, once per producer
+ * profile: {@code Throughput} gives events per second and {@code SampleTime} the publish latency
+ * percentiles (p99 included). {@code publishAndWait} is one event per call through
+ * {@link EventPublisherService#publishEventAndWait}, as the outbox relay publishes;
+ * {@code publishBurst} sends {@value #BURST} events before waiting for their acknowledgements,
+ * so its latency samples are the burst's time divided by {@value #BURST}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(32)
+@Fork(1)
+public class KafkaPublishBenchmark {
+
+    private static final String TOPIC = "benchmark-events";
+    private static final int BURST = 100;
+
+    @Param({"default", "throughput"})
+    private String profile;
+
+    @Param({"USER_CREATED", "ADMIN_CREATED", "USER_ROLE_CHANGED"})
+    private String eventType;
+
+    private final AtomicLong keys = new AtomicLong();
+
+    private EmbeddedKafkaKraftBroker broker;
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private EventPublisherService publisher;
+    private BaseEvent event;
+
+    @Setup
+    public void setUp() {
+        broker = new EmbeddedKafkaKraftBroker(1, 3, TOPIC);
+        broker.afterPropertiesSet();
+
+        KafkaConfig kafkaConfig = new KafkaConfig();
+        ReflectionTestUtils.setField(kafkaConfig, "bootstrapServers", broker.getBrokersAsString());
+        ReflectionTestUtils.setField(kafkaConfig, "profile", profile);
+        ReflectionTestUtils.setField(kafkaConfig, "maxBlockMs", 1000L);
+        kafkaTemplate = kafkaConfig.kafkaTemplate();
+        // Never opened, so nothing is spooled
+        publisher = new EventPublisherService(kafkaTemplate, kafkaTemplate, kafkaTemplate,
+                new EventSpool(new ObjectMapper(), new SimpleMeterRegistry()), new SimpleMeterRegistry());
+
+        LocalDateTime now = LocalDateTime.now();
+        event = switch (eventType) {
+            case "USER_CREATED" -> new UserCreatedEvent(7L, "johndoe", "john.doe@example.com", "John", "Doe",
+                    Role.USER, "superadmin", now);
+            case "ADMIN_CREATED" -> new AdminCreatedEvent(8L, "janeadmin", "jane.admin@example.com", "Jane", "Admin",
+                    Role.ADMIN, "superadmin", "SUPER_ADMIN", now);
+            case "USER_ROLE_CHANGED" -> new UserRoleChangedEvent(7L, "johndoe", Role.USER, Role.ADMIN,
+                    "superadmin", "SUPER_ADMIN", now);
+            default -> throw new IllegalArgumentException("Unknown event type " + eventType);
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        ((DefaultKafkaProducerFactory<String, Object>) kafkaTemplate.getProducerFactory()).destroy();
+        broker.destroy();
+    }
+
+    @Benchmark
+    public void publishAndWait() throws Exception {
+        publisher.publishEventAndWait(TOPIC, Long.toString(keys.incrementAndGet()), event, 30000);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void publishBurst() {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[BURST];
+        for (int i = 0; i < BURST; i++) {
+            sends[i] = kafkaTemplate.send(TOPIC, Long.toString(keys.incrementAndGet()), event);
+        }
+        CompletableFuture.allOf(sends).join();
+    }
+}
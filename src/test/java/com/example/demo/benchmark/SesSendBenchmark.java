@@ -0,0 +1,104 @@
+package com.example.demo.benchmark;
+
+import com.amazonaws.services.simpleemail.AmazonSimpleEmailServiceAsync;
+import com.amazonaws.services.simpleemail.model.Body;
+import com.amazonaws.services.simpleemail.model.Content;
+import com.amazonaws.services.simpleemail.model.Destination;
+import com.amazonaws.services.simpleemail.model.Message;
+import com.amazonaws.services.simpleemail.model.SendEmailRequest;
+import com.example.demo.config.SesConfig;
+import com.example.demo.service.email.EmailRecipient;
+import com.example.demo.service.email.EmailTemplate;
+import com.example.demo.service.email.EmailTemplateRenderer;
+import com.example.demo.service.email.FakeSesServer;
+import com.example.demo.service.email.SesBulkEmailSender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emails per second against {@link FakeSesServer} with 20 ms of simulated SES latency, from 32
+ * concurrent senders (the {@code ses} profile's async worker count): one synchronous
+ * {@code SendEmail} per message, as before, against {@link SesBulkEmailSender}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class SesSendBenchmark {
+
+    private static final EmailRecipient RECIPIENT =
+            new EmailRecipient("johndoe", "john.doe@example.com", "John", "Doe");
+    private static final String URL = "http://localhost:8080/login";
+
+    private FakeSesServer fakeSes;
+    private AmazonSimpleEmailServiceAsync sesClient;
+    private EmailTemplateRenderer renderer;
+    private SesBulkEmailSender bulkSender;
+
+    @Setup
+    public void setUp() throws Exception {
+        fakeSes = new FakeSesServer(20);
+        sesClient = new SesConfig().sesClient("test", "test", "us-east-1", fakeSes.endpoint(), 50, 2000, 10000, 60000, 0);
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        renderer = new EmailTemplateRenderer(engine, new SimpleMeterRegistry());
+
+        bulkSender = new SesBulkEmailSender(sesClient, renderer, new ObjectMapper());
+        ReflectionTestUtils.setField(bulkSender, "fromEmail", "noreply@informasyx.com");
+        ReflectionTestUtils.setField(bulkSender, "bulkEnabled", true);
+        ReflectionTestUtils.setField(bulkSender, "maxBatchSize", 50);
+        ReflectionTestUtils.setField(bulkSender, "lingerMs", 5L);
+        ReflectionTestUtils.setField(bulkSender, "templatePrefix", "bench-");
+        ReflectionTestUtils.setField(bulkSender, "drainTimeoutSeconds", 5L);
+        bulkSender.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        bulkSender.shutdown();
+        sesClient.shutdown();
+        fakeSes.close();
+    }
+
+    @Benchmark
+    public Object synchronousSendEmail() {
+        String html = renderer.render(EmailTemplate.WELCOME, RECIPIENT, URL, Locale.ENGLISH);
+        return sesClient.sendEmail(new SendEmailRequest()
+                .withSource("noreply@informasyx.com")
+                .withDestination(new Destination().withToAddresses(RECIPIENT.email()))
+                .withMessage(new Message()
+                        .withSubject(new Content().withCharset("UTF-8").withData(EmailTemplate.WELCOME.getSubject()))
+                        .withBody(new Body().withHtml(new Content().withCharset("UTF-8").withData(html)))));
+    }
+
+    @Benchmark
+    public Object bulkSender() {
+        return bulkSender.send(EmailTemplate.WELCOME, RECIPIENT, URL).join();
+    }
+}
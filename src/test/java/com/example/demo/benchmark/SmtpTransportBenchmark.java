@@ -0,0 +1,79 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.email.PooledJavaMailSender;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages per second delivered to a local GreenMail SMTP server: Spring's
+ * {@link JavaMailSenderImpl}, which connects for every send, against {@link PooledJavaMailSender}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class SmtpTransportBenchmark {
+
+    private static final int PORT = 3925;
+
+    private GreenMail greenMail;
+    private JavaMailSenderImpl perMessageSender;
+    private PooledJavaMailSender pooledSender;
+    private SimpleMailMessage message;
+
+    @Setup
+    public void setUp() {
+        greenMail = new GreenMail(new ServerSetup(PORT, "localhost", ServerSetup.PROTOCOL_SMTP));
+        greenMail.start();
+
+        perMessageSender = new JavaMailSenderImpl();
+        perMessageSender.setHost("localhost");
+        perMessageSender.setPort(PORT);
+
+        pooledSender = new PooledJavaMailSender(4, 1000, 5000L, 60_000L, 10_000L);
+        pooledSender.setHost("localhost");
+        pooledSender.setPort(PORT);
+        pooledSender.getJavaMailProperties().setProperty("mail.smtp.quitwait", "false");
+
+        message = new SimpleMailMessage();
+        message.setFrom("noreply@informasyx.com");
+        message.setTo("john.doe@example.com");
+        message.setSubject("Welcome");
+        message.setText("Welcome to Informasyx");
+    }
+
+    @TearDown
+    public void tearDown() {
+        pooledSender.destroy();
+        greenMail.stop();
+    }
+
+    @Benchmark
+    public void perMessageConnection() {
+        perMessageSender.send(message);
+    }
+
+    @Benchmark
+    public void pooledConnection() {
+        pooledSender.send(message);
+    }
+}
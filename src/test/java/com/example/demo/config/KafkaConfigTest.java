@@ -1,6 +1,9 @@
 package com.example.demo.config;
 
+import com.example.demo.event.serialization.BinaryEventSerializer;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,6 +28,8 @@ class KafkaConfigTest {
     void setUp() {
         kafkaConfig = new KafkaConfig();
         ReflectionTestUtils.setField(kafkaConfig, "bootstrapServers", "localhost:9092");
+        ReflectionTestUtils.setField(kafkaConfig, "profile", "default");
+        ReflectionTestUtils.setField(kafkaConfig, "maxBlockMs", 1000L);
     }
 
     @Test
@@ -47,6 +52,24 @@ class KafkaConfigTest {
         assertEquals(1000, configProps.get(ProducerConfig.RETRY_BACKOFF_MS_CONFIG));
         assertEquals(30000, configProps.get(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG));
         assertEquals(true, configProps.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertEquals(1000L, configProps.get(ProducerConfig.MAX_BLOCK_MS_CONFIG));
+    }
+
+    @Test
+    void testUserStateTopic_IsCompacted() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "userStateTopicName", "user-state");
+        ReflectionTestUtils.setField(kafkaConfig, "userStatePartitions", 6);
+        ReflectionTestUtils.setField(kafkaConfig, "userStateReplicas", 3);
+
+        // Act
+        NewTopic topic = kafkaConfig.userStateTopic();
+
+        // Assert
+        assertEquals("user-state", topic.name());
+        assertEquals(6, topic.numPartitions());
+        assertEquals((short) 3, topic.replicationFactor());
+        assertEquals(TopicConfig.CLEANUP_POLICY_COMPACT, topic.configs().get(TopicConfig.CLEANUP_POLICY_CONFIG));
     }
 
     @Test
@@ -158,4 +181,114 @@ class KafkaConfigTest {
         assertTrue(configProps.containsKey(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG));
         assertTrue(configProps.containsKey(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDefaultProfileLeavesBatchingAtClientDefaults() {
+        // Act
+        Map<String, Object> configProps = kafkaConfig.producerFactory().getConfigurationProperties();
+
+        // Assert
+        assertFalse(configProps.containsKey(ProducerConfig.LINGER_MS_CONFIG));
+        assertFalse(configProps.containsKey(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertFalse(configProps.containsKey(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertFalse(configProps.containsKey(ProducerConfig.BUFFER_MEMORY_CONFIG));
+    }
+
+    @Test
+    void testThroughputProfileBatchesAndCompresses() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "profile", "throughput");
+
+        // Act
+        Map<String, Object> configProps = kafkaConfig.producerFactory().getConfigurationProperties();
+
+        // Assert
+        assertEquals(10, configProps.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(128 * 1024, configProps.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals("lz4", configProps.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertEquals(64L * 1024 * 1024, configProps.get(ProducerConfig.BUFFER_MEMORY_CONFIG));
+        assertEquals("all", configProps.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(true, configProps.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+    }
+
+    @Test
+    void testExplicitSettingsOverrideProfile() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "profile", "throughput");
+        ReflectionTestUtils.setField(kafkaConfig, "lingerMs", 5);
+        ReflectionTestUtils.setField(kafkaConfig, "compressionType", "zstd");
+
+        // Act
+        Map<String, Object> configProps = kafkaConfig.producerFactory().getConfigurationProperties();
+
+        // Assert
+        assertEquals(5, configProps.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals("zstd", configProps.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertEquals(128 * 1024, configProps.get(ProducerConfig.BATCH_SIZE_CONFIG));
+    }
+
+    @Test
+    void testUnknownProfileIsRejected() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "profile", "fastest");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> kafkaConfig.producerFactory());
+    }
+
+    @Test
+    void testBinaryFormatUsesBinaryEventSerializer() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "format", "binary");
+
+        // Act
+        Map<String, Object> configProps = kafkaConfig.producerFactory().getConfigurationProperties();
+
+        // Assert
+        assertEquals(BinaryEventSerializer.class, configProps.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+    }
+
+    @Test
+    void testCriticalProducerDoesNotLinger() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "profile", "throughput");
+
+        // Act
+        Map<String, Object> configProps = kafkaConfig.criticalProducerFactory().getConfigurationProperties();
+
+        // Assert
+        assertEquals(0, configProps.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals("all", configProps.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(true, configProps.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertEquals("event-publisher-critical", configProps.get(ProducerConfig.CLIENT_ID_CONFIG));
+    }
+
+    @Test
+    void testBestEffortProducerBatchesAndAcksOnLeaderWithSmallerBuffer() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "bestEffortMaxBlockMs", 50L);
+        ReflectionTestUtils.setField(kafkaConfig, "bestEffortBufferMemory", 8L * 1024 * 1024);
+        ReflectionTestUtils.setField(kafkaConfig, "bestEffortLingerMs", 20);
+
+        // Act
+        Map<String, Object> configProps = kafkaConfig.bestEffortProducerFactory().getConfigurationProperties();
+
+        // Assert
+        assertEquals("1", configProps.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(false, configProps.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertEquals(0, configProps.get(ProducerConfig.RETRIES_CONFIG));
+        assertEquals(50L, configProps.get(ProducerConfig.MAX_BLOCK_MS_CONFIG));
+        assertEquals(8L * 1024 * 1024, configProps.get(ProducerConfig.BUFFER_MEMORY_CONFIG));
+        assertEquals(20, configProps.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals("event-publisher-best-effort", configProps.get(ProducerConfig.CLIENT_ID_CONFIG));
+    }
+
+    @Test
+    void testEachTierHasItsOwnProducer() {
+        // Act & Assert
+        assertNotSame(kafkaConfig.kafkaTemplate().getProducerFactory(),
+                kafkaConfig.criticalKafkaTemplate().getProducerFactory());
+        assertNotSame(kafkaConfig.kafkaTemplate().getProducerFactory(),
+                kafkaConfig.bestEffortKafkaTemplate().getProducerFactory());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveReadServerTest {
+
+    @Test
+    void route_PersonById_IsTaggedWithTemplate() {
+        assertThat(ReactiveReadServer.route("/api/persons/42")).isEqualTo("/api/persons/{id}");
+    }
+
+    @Test
+    void route_KnownRoute_IsTaggedAsIs() {
+        assertThat(ReactiveReadServer.route("/api/persons")).isEqualTo("/api/persons");
+        assertThat(ReactiveReadServer.route("/api/persons/search/email")).isEqualTo("/api/persons/search/email");
+    }
+
+    @Test
+    void route_UnknownPath_IsTaggedUnknown() {
+        assertThat(ReactiveReadServer.route("/api/persons/abc")).isEqualTo("UNKNOWN");
+        assertThat(ReactiveReadServer.route("/wp-admin")).isEqualTo("UNKNOWN");
+    }
+}
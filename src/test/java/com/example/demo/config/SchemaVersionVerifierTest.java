@@ -0,0 +1,90 @@
+package com.example.demo.config;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SchemaVersionVerifierTest {
+
+    private static final String CHANGE_LOG = "classpath:db/changelog/db.changelog-master.xml";
+
+    private JdbcTemplate jdbcTemplate;
+    private DriverManagerDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:schema-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void verify_MigratedDatabase_Passes() throws Exception {
+        migrate();
+
+        SchemaVersionVerifier verifier = new SchemaVersionVerifier(jdbcTemplate, CHANGE_LOG);
+
+        assertThat(verifier.verify()).isEmpty();
+        assertThatCode(verifier::afterPropertiesSet).doesNotThrowAnyException();
+    }
+
+    @Test
+    void verify_PendingChangeSet_FailsStartup() throws Exception {
+        migrate();
+        jdbcTemplate.update("DELETE FROM DATABASECHANGELOG WHERE ID = '05'");
+
+        SchemaVersionVerifier verifier = new SchemaVersionVerifier(jdbcTemplate, CHANGE_LOG);
+
+        assertThat(verifier.verify()).singleElement().asString().contains("has not been applied");
+        assertThatThrownBy(verifier::afterPropertiesSet)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("migrate");
+    }
+
+    @Test
+    void verify_ModifiedChangeSet_FailsStartup() throws Exception {
+        migrate();
+        jdbcTemplate.update("UPDATE DATABASECHANGELOG SET MD5SUM = '9:00000000000000000000000000000000' WHERE ID = '01'");
+
+        SchemaVersionVerifier verifier = new SchemaVersionVerifier(jdbcTemplate, CHANGE_LOG);
+
+        assertThat(verifier.verify()).singleElement().asString().contains("was modified");
+    }
+
+    @Test
+    void verify_UnknownChangeSetFromNewerRelease_Passes() throws Exception {
+        migrate();
+        jdbcTemplate.update("INSERT INTO DATABASECHANGELOG (ID, AUTHOR, FILENAME, DATEEXECUTED, ORDEREXECUTED, EXECTYPE, MD5SUM) " +
+                "VALUES ('99', 'informasyx', 'db/changelog/changes/99-future.xml', CURRENT_TIMESTAMP, 99, 'EXECUTED', NULL)");
+
+        SchemaVersionVerifier verifier = new SchemaVersionVerifier(jdbcTemplate, CHANGE_LOG);
+
+        assertThat(verifier.verify()).isEmpty();
+    }
+
+    @Test
+    void afterPropertiesSet_UnmigratedDatabase_FailsStartup() {
+        SchemaVersionVerifier verifier = new SchemaVersionVerifier(jdbcTemplate, CHANGE_LOG);
+
+        assertThatThrownBy(verifier::afterPropertiesSet)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("DATABASECHANGELOG");
+    }
+
+    private void migrate() throws Exception {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(CHANGE_LOG);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+}
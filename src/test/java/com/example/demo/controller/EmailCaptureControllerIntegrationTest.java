@@ -0,0 +1,82 @@
+package com.example.demo.controller;
+
+import com.example.demo.exception.EmailException.EmailOperation;
+import com.example.demo.service.email.EmailCaptureSink;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureWebMvc
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "app.email.mock.mode=sink",
+        "app.email.mock.capture-endpoint.enabled=true"
+})
+class EmailCaptureControllerIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private EmailCaptureSink captureSink;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // Include the security filter chain: the endpoint must be reachable without a login
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(webApplicationContext.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+        captureSink.drain();
+    }
+
+    @Test
+    void latest_ShouldReturnCapturedVerificationToken() throws Exception {
+        captureSink.capture(EmailOperation.EMAIL_VERIFICATION, "load.user@example.com", "loaduser",
+                "captured-token", "http://localhost:4200/verify-email?token=captured-token");
+
+        mockMvc.perform(get("/api/test/emails/latest").param("to", "load.user@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("captured-token"))
+                .andExpect(jsonPath("$.operation").value("EMAIL_VERIFICATION"));
+    }
+
+    @Test
+    void latest_UnknownRecipient_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/test/emails/latest").param("to", "nobody@example.com"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void drain_ShouldReturnEmailsOnlyOnce() throws Exception {
+        captureSink.capture(EmailOperation.PASSWORD_RESET, "load.user@example.com", "loaduser",
+                "reset-token", "http://localhost:4200/reset-password?token=reset-token");
+
+        mockMvc.perform(post("/api/test/emails/drain"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].token").value("reset-token"));
+        mockMvc.perform(post("/api/test/emails/drain"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void stats_ShouldReportCountsPerOperation() throws Exception {
+        mockMvc.perform(get("/api/test/emails/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.capacity").value(65536))
+                .andExpect(jsonPath("$.byOperation.WELCOME_EMAIL").exists());
+    }
+}
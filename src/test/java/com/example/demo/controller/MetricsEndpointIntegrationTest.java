@@ -0,0 +1,91 @@
+package com.example.demo.controller;
+
+import com.example.demo.domain.Person;
+import com.example.demo.domain.Role;
+import com.example.demo.domain.User;
+import com.example.demo.service.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Real servers, so requests arrive on the public and the management port like in production
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+@TestPropertySource(locations = "classpath:application-test.properties", properties = "management.server.port=0")
+class MetricsEndpointIntegrationTest {
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WebTestClient management;
+    private WebTestClient server;
+
+    @BeforeEach
+    void setUp() {
+        management = WebTestClient.bindToServer().baseUrl("http://localhost:" + managementPort).build();
+        server = WebTestClient.bindToServer().baseUrl("http://localhost:" + serverPort).build();
+    }
+
+    @Test
+    void prometheus_OnManagementPort_ShouldExposeEmailDeliveryMetricsWithoutLogin() throws Exception {
+        Person person = new Person();
+        person.setFirstName("Metrics");
+        person.setEmail("metrics@example.com");
+        User user = new User();
+        user.setUsername("metrics");
+        user.setPerson(person);
+        user.setRole(Role.USER);
+
+        emailService.sendWelcomeEmail(user);
+        awaitTimeToSendRecorded();
+
+        String scrape = management.get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertThat(scrape).contains("email_time_to_send_seconds_bucket", "email_delivery_seconds_count{",
+                "operation=\"WELCOME_EMAIL\",outcome=\"success\",provider=\"mock\",reason=\"none\"");
+    }
+
+    private void awaitTimeToSendRecorded() throws InterruptedException {
+        // The welcome email is sent by an async worker
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.find("email.time.to.send").tag("operation", "WELCOME_EMAIL").timer() == null
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void prometheus_OnPublicPort_ShouldNotBeServedWithoutLogin() {
+        server.get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().is4xxClientError();
+    }
+
+    @Test
+    void metrics_OnManagementPort_ShouldStillRequireAuthentication() {
+        management.get().uri("/actuator/metrics")
+                .exchange()
+                .expectStatus().is4xxClientError();
+    }
+}
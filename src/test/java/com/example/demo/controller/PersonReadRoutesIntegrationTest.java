@@ -0,0 +1,263 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.ReactiveReadServer;
+import com.example.demo.domain.Person;
+import com.example.demo.domain.Role;
+import com.example.demo.domain.User;
+import com.example.demo.domain.dto.LoginRequest;
+import com.example.demo.domain.repository.PersonRepository;
+import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.service.impl.AuthServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureWebMvc
+@TestPropertySource(locations = "classpath:application-integration.properties", properties = {
+        // Own database with the production column names, which the R2DBC queries use
+        "spring.datasource.url=jdbc:h2:mem:reactivereads;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.naming.physical-strategy=org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy",
+        "spring.sql.init.mode=never",
+        "app.reactive.persons.enabled=true",
+        "app.reactive.persons.port=0",
+        "app.reactive.r2dbc.url=r2dbc:h2:mem:///reactivereads",
+        "app.reactive.r2dbc.username=sa"
+})
+class PersonReadRoutesIntegrationTest {
+
+    @Autowired
+    private ReactiveReadServer reactiveReadServer;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthServiceImpl authService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WebTestClient webTestClient;
+    private Person adminPerson;
+    private Person userPerson;
+    private String adminToken;
+    private String userToken;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveReadServer.getPort())
+                .build();
+
+        // Committed, the reactive stack reads over its own connections
+        adminPerson = createUser("admin", "John", "Doe", "John.Doe@example.com", Role.ADMIN);
+        userPerson = createUser("user", "Jane", "Smith", "jane.smith@example.com", Role.USER);
+        adminToken = login("admin");
+        userToken = login("user");
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    void getAllPersons_WithAdminRole_StreamsAllPersons() {
+        webTestClient.get().uri("/api/persons")
+                .header("Authorization", "Bearer " + adminToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].firstName").isEqualTo("John")
+                .jsonPath("$[0].phoneNumber").isEqualTo("555-0100")
+                .jsonPath("$[1].lastName").isEqualTo("Smith");
+    }
+
+    @Test
+    void getAllPersons_WithUserRole_Forbidden() {
+        webTestClient.get().uri("/api/persons")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void getAllPersons_WithoutAuth_Unauthorized() {
+        webTestClient.get().uri("/api/persons")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void getAllPersons_WithUnknownToken_Unauthorized() {
+        webTestClient.get().uri("/api/persons")
+                .header("Authorization", "Bearer not-a-token")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void getPersonById_WithUserRole_Success() {
+        webTestClient.get().uri("/api/persons/{id}", userPerson.getId())
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(userPerson.getId().intValue())
+                .jsonPath("$.email").isEqualTo("jane.smith@example.com");
+    }
+
+    @Test
+    void getPersonById_RecordedUnderRouteTemplate() {
+        webTestClient.get().uri("/api/persons/{id}", userPerson.getId())
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(meterRegistry.find("reactor.netty.http.server.data.sent")
+                .tag("uri", "/api/persons/{id}").meters()).isNotEmpty();
+        assertThat(meterRegistry.find("reactor.netty.http.server.data.sent")
+                .tag("uri", "/api/persons/" + userPerson.getId()).meters()).isEmpty();
+    }
+
+    @Test
+    void getPersonById_NotFound() {
+        webTestClient.get().uri("/api/persons/{id}", Long.MAX_VALUE)
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getPersonById_NotANumber_BadRequest() {
+        webTestClient.get().uri("/api/persons/abc")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void findByLastName_Success() {
+        webTestClient.get().uri("/api/persons/search/lastName?lastName=Smith")
+                .header("Authorization", "Bearer " + adminToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].firstName").isEqualTo("Jane");
+    }
+
+    @Test
+    void findByLastName_MissingParameter_BadRequest() {
+        webTestClient.get().uri("/api/persons/search/lastName")
+                .header("Authorization", "Bearer " + adminToken)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void findByFullName_Success() {
+        webTestClient.get().uri("/api/persons/search/name?firstName=John&lastName=Doe")
+                .header("Authorization", "Bearer " + adminToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(adminPerson.getId().intValue());
+    }
+
+    @Test
+    void findByEmail_IgnoresCase() {
+        webTestClient.get().uri("/api/persons/search/email?email=john.doe")
+                .header("Authorization", "Bearer " + adminToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].email").isEqualTo("John.Doe@example.com");
+    }
+
+    @Test
+    void getPersonById_AnswersLikeMvcEndpoint() throws Exception {
+        String mvcBody = mvcWithSecurity().perform(get("/api/persons/{id}", adminPerson.getId())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        byte[] reactiveBody = webTestClient.get().uri("/api/persons/{id}", adminPerson.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseBody();
+
+        assertThat(new String(reactiveBody)).isEqualTo(mvcBody);
+    }
+
+    @Test
+    void mvcEndpoint_WithoutValidToken_RejectedBySecurity() throws Exception {
+        mvcWithSecurity().perform(get("/api/persons/{id}", adminPerson.getId()))
+                .andExpect(status().isForbidden());
+        mvcWithSecurity().perform(get("/api/persons/{id}", adminPerson.getId())
+                        .header("Authorization", "Bearer unknown-token"))
+                .andExpect(status().isForbidden());
+    }
+
+    private MockMvc mvcWithSecurity() {
+        return MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(webApplicationContext.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+    }
+
+    private Person createUser(String username, String firstName, String lastName, String email, Role role) {
+        Person person = new Person();
+        person.setFirstName(firstName);
+        person.setLastName(lastName);
+        person.setEmail(email);
+        person.setPhoneNumber(role == Role.ADMIN ? "555-0100" : "555-0101");
+        person.setAddress("1 Main St");
+
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(passwordEncoder.encode("password123"));
+        user.setPerson(person);
+        user.setActive(true);
+        user.setEmailVerified(true);
+        user.setRole(role);
+        // Saved with the user through the cascade
+        return userRepository.save(user).getPerson();
+    }
+
+    private String login(String username) {
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setUsername(username);
+        loginRequest.setPassword("password123");
+        return authService.login(loginRequest).getToken();
+    }
+}
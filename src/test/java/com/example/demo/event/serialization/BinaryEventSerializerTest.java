@@ -0,0 +1,169 @@
+package com.example.demo.event.serialization;
+
+import com.example.demo.domain.Role;
+import com.example.demo.event.AdminCreatedEvent;
+import com.example.demo.event.BaseEvent;
+import com.example.demo.event.UserCreatedEvent;
+import com.example.demo.event.UserRoleChangedEvent;
+import com.example.demo.event.UserStateSnapshot;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryEventSerializerTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30, 45, 123_000_000);
+
+    private final BinaryEventSerializer serializer = new BinaryEventSerializer();
+    private final BinaryEventDeserializer deserializer = new BinaryEventDeserializer();
+
+    @AfterEach
+    void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Test
+    void userCreatedEvent_RoundTrips() {
+        UserCreatedEvent event = new UserCreatedEvent(7L, "johndoe", "john.doe@example.com", "John", "Doe",
+                Role.USER, "superadmin", CREATED_AT);
+
+        assertRoundTrip(event);
+    }
+
+    @Test
+    void adminCreatedEvent_RoundTrips() {
+        AdminCreatedEvent event = new AdminCreatedEvent(8L, "janeadmin", "jane.admin@example.com", "Jane", "Admin",
+                Role.ADMIN, "superadmin", "SUPER_ADMIN", CREATED_AT);
+
+        assertRoundTrip(event);
+    }
+
+    @Test
+    void userRoleChangedEvent_RoundTrips() {
+        UserRoleChangedEvent event = new UserRoleChangedEvent(7L, "johndoe", Role.USER, Role.SUPER_ADMIN,
+                "superadmin", "SUPER_ADMIN", CREATED_AT);
+
+        assertRoundTrip(event);
+    }
+
+    @Test
+    void userStateSnapshot_RoundTrips() {
+        assertRoundTrip(new UserStateSnapshot(7L, "johndoe", "john.doe@example.com", "John", "Doe",
+                Role.ADMIN, true, false));
+        assertRoundTrip(new UserStateSnapshot(8L, "janedoe", null, null, null, Role.USER, false, true));
+    }
+
+    @Test
+    void userStateSnapshotWrittenBySchemaV1_IsReadWithoutEmailAndName() {
+        UserStateSnapshot snapshot = new UserStateSnapshot(7L, "johndoe", null, null, null, Role.ADMIN, true, false);
+        byte[] v2 = serializer.serialize("user-state", snapshot);
+        // Schema 2 only adds the email and names after the username, written as 0 when null
+        int afterUsername = indexOf(v2, "johndoe".getBytes(StandardCharsets.UTF_8)) + "johndoe".length();
+        byte[] v1 = new byte[v2.length - 3];
+        System.arraycopy(v2, 0, v1, 0, afterUsername);
+        System.arraycopy(v2, afterUsername + 3, v1, afterUsername, v2.length - afterUsername - 3);
+        v1[1] = BinaryEventCodec.SCHEMA_V1;
+
+        assertThat(v2[1]).isEqualTo((byte) BinaryEventCodec.SCHEMA_V2);
+        assertThat(deserializer.deserialize("user-state", v1)).isEqualTo(snapshot);
+    }
+
+    @Test
+    void nullsAndNonUuidEventId_RoundTrip() {
+        UserCreatedEvent event = new UserCreatedEvent(null, "ünïcode", null, null, null, null, null, null);
+        event.setEventId("outbox-42");
+        event.setSource("backfill-job");
+        event.setTimestamp(null);
+
+        assertRoundTrip(event);
+    }
+
+    @Test
+    void binaryEvent_IsSmallerThanJson() {
+        UserCreatedEvent event = new UserCreatedEvent(7L, "johndoe", "john.doe@example.com", "John", "Doe",
+                Role.USER, "superadmin", CREATED_AT);
+
+        byte[] binary = serializer.serialize("user-events", event);
+        byte[] json;
+        try (JsonSerializer<Object> jsonSerializer = new JsonSerializer<>()) {
+            json = jsonSerializer.serialize("user-events", event);
+        }
+
+        assertThat(binary[0]).isEqualTo(BinaryEventCodec.MAGIC);
+        assertThat(binary.length).isLessThan(json.length / 2);
+    }
+
+    @Test
+    void unknownEventVersion_FallsBackToJson() {
+        UserRoleChangedEvent event = new UserRoleChangedEvent(7L, "johndoe", Role.USER, Role.ADMIN,
+                "superadmin", "SUPER_ADMIN", CREATED_AT);
+        event.setVersion("2.0");
+        RecordHeaders headers = new RecordHeaders();
+
+        byte[] data = serializer.serialize("user-events", headers, event);
+
+        assertThat((char) data[0]).isEqualTo('{');
+        assertThat(deserializer.deserialize("user-events", headers, data)).isEqualTo(event);
+    }
+
+    @Test
+    void jsonRecordsFromJsonProducers_AreRead() {
+        AdminCreatedEvent event = new AdminCreatedEvent(8L, "janeadmin", "jane.admin@example.com", "Jane", "Admin",
+                Role.ADMIN, "superadmin", "SUPER_ADMIN", CREATED_AT);
+        RecordHeaders headers = new RecordHeaders();
+        byte[] json;
+        try (JsonSerializer<Object> jsonSerializer = new JsonSerializer<>()) {
+            json = jsonSerializer.serialize("admin-events", headers, event);
+        }
+        deserializer.configure(Map.of(), false);
+
+        assertThat(deserializer.deserialize("admin-events", headers, json)).isEqualTo(event);
+    }
+
+    @Test
+    void truncatedBinaryEvent_ThrowsSerializationException() {
+        byte[] data = serializer.serialize("user-events", new UserCreatedEvent(7L, "johndoe", "john.doe@example.com",
+                "John", "Doe", Role.USER, "superadmin", CREATED_AT));
+
+        assertThatThrownBy(() -> deserializer.deserialize("user-events", Arrays.copyOf(data, data.length - 3)))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void unknownSchemaVersion_ThrowsSerializationException() {
+        byte[] data = {BinaryEventCodec.MAGIC, 9, 1};
+
+        assertThatThrownBy(() -> deserializer.deserialize("user-events", data))
+                .isInstanceOf(SerializationException.class)
+                .hasRootCauseMessage("Unknown binary event schema version 9");
+    }
+
+    private static int indexOf(byte[] data, byte[] part) {
+        for (int i = 0; i <= data.length - part.length; i++) {
+            if (Arrays.equals(data, i, i + part.length, part, 0, part.length)) {
+                return i;
+            }
+        }
+        throw new AssertionError("Not found");
+    }
+
+    private void assertRoundTrip(BaseEvent event) {
+        BaseEvent read = (BaseEvent) deserializer.deserialize("user-events", serializer.serialize("user-events", event));
+
+        assertThat(read).isEqualTo(event);
+        assertThat(read.getEventId()).isEqualTo(event.getEventId());
+        assertThat(read.getTimestamp()).isEqualTo(event.getTimestamp() == null ? null
+                : event.getTimestamp().withNano(event.getTimestamp().getNano() / 1_000_000 * 1_000_000));
+    }
+}
@@ -12,7 +12,7 @@ import com.example.demo.event.AdminCreatedEvent;
 import com.example.demo.event.UserCreatedEvent;
 import com.example.demo.event.UserRoleChangedEvent;
 import com.example.demo.service.AdminService;
-import com.example.demo.service.EventPublisherService;
+import com.example.demo.service.OutboxService;
 import com.example.demo.security.SecurityUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -48,7 +48,7 @@ import static org.mockito.Mockito.*;
 class AdminServiceKafkaIntegrationTest {
 
     @SpyBean
-    private EventPublisherService eventPublisherService;
+    private OutboxService outboxService;
 
     @MockBean
     private SecurityUtils securityUtils;
@@ -131,7 +131,7 @@ class AdminServiceKafkaIntegrationTest {
         assertTrue(response.isSuccess());
         
         ArgumentCaptor<UserCreatedEvent> eventCaptor = ArgumentCaptor.forClass(UserCreatedEvent.class);
-        verify(eventPublisherService, times(1)).publishUserCreatedEvent(eventCaptor.capture());
+        verify(outboxService, times(1)).publishUserCreatedEvent(eventCaptor.capture());
         
         UserCreatedEvent capturedEvent = eventCaptor.getValue();
         assertNotNull(capturedEvent);
@@ -166,7 +166,7 @@ class AdminServiceKafkaIntegrationTest {
         assertTrue(response.isSuccess());
         
         ArgumentCaptor<AdminCreatedEvent> eventCaptor = ArgumentCaptor.forClass(AdminCreatedEvent.class);
-        verify(eventPublisherService, times(1)).publishAdminCreatedEvent(eventCaptor.capture());
+        verify(outboxService, times(1)).publishAdminCreatedEvent(eventCaptor.capture());
         
         AdminCreatedEvent capturedEvent = eventCaptor.getValue();
         assertNotNull(capturedEvent);
@@ -200,7 +200,7 @@ class AdminServiceKafkaIntegrationTest {
         assertTrue(createResponse.isSuccess());
         
         // Reset the spy to not count the creation event
-        reset(eventPublisherService);
+        reset(outboxService);
         
         // Now change the role
         ChangeRoleRequest changeRequest = new ChangeRoleRequest();
@@ -214,7 +214,7 @@ class AdminServiceKafkaIntegrationTest {
         assertTrue(changeResponse.isSuccess());
         
         ArgumentCaptor<UserRoleChangedEvent> eventCaptor = ArgumentCaptor.forClass(UserRoleChangedEvent.class);
-        verify(eventPublisherService, times(1)).publishUserRoleChangedEvent(eventCaptor.capture());
+        verify(outboxService, times(1)).publishUserRoleChangedEvent(eventCaptor.capture());
         
         UserRoleChangedEvent capturedEvent = eventCaptor.getValue();
         assertNotNull(capturedEvent);
@@ -248,7 +248,7 @@ class AdminServiceKafkaIntegrationTest {
         assertTrue(response.isSuccess());
         
         ArgumentCaptor<UserCreatedEvent> eventCaptor = ArgumentCaptor.forClass(UserCreatedEvent.class);
-        verify(eventPublisherService, times(1)).publishUserCreatedEvent(eventCaptor.capture());
+        verify(outboxService, times(1)).publishUserCreatedEvent(eventCaptor.capture());
         
         UserCreatedEvent capturedEvent = eventCaptor.getValue();
         assertNotNull(capturedEvent);
@@ -278,8 +278,8 @@ class AdminServiceKafkaIntegrationTest {
         assertFalse(response.isSuccess());
         
         // Verify no events were published
-        verify(eventPublisherService, never()).publishUserCreatedEvent(any());
-        verify(eventPublisherService, never()).publishAdminCreatedEvent(any());
+        verify(outboxService, never()).publishUserCreatedEvent(any());
+        verify(outboxService, never()).publishAdminCreatedEvent(any());
     }
 
     @Test
@@ -298,6 +298,6 @@ class AdminServiceKafkaIntegrationTest {
         assertFalse(response.isSuccess());
         
         // Verify no events were published
-        verify(eventPublisherService, never()).publishUserRoleChangedEvent(any());
+        verify(outboxService, never()).publishUserRoleChangedEvent(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.example.demo.integration;
+
+import com.example.demo.domain.Person;
+import com.example.demo.domain.Role;
+import com.example.demo.domain.User;
+import com.example.demo.exception.EmailException.EmailOperation;
+import com.example.demo.service.EmailService;
+import com.example.demo.service.email.EmailCaptureSink;
+import com.example.demo.service.impl.AsyncEmailServiceImpl;
+import com.example.demo.service.impl.EmailServiceImpl;
+import com.example.demo.service.impl.MockEmailServiceImpl;
+import com.example.demo.service.impl.RoutingEmailServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "app.email.provider=routing",
+        "app.email.routing.providers=mock,smtp",
+        "app.email.mock.mode=sink"
+})
+class EmailRoutingIntegrationTest {
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    @Qualifier("emailProvider")
+    private EmailService emailProvider;
+
+    @Autowired
+    private MockEmailServiceImpl mockProvider;
+
+    @Autowired
+    private EmailServiceImpl smtpProvider;
+
+    @Autowired
+    private EmailCaptureSink captureSink;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void routing_WiresRouterBetweenAsyncDispatchAndProviders() {
+        assertThat(emailService).isInstanceOf(AsyncEmailServiceImpl.class);
+        assertThat(emailProvider).isInstanceOf(RoutingEmailServiceImpl.class);
+        assertThat(mockProvider).isNotNull();
+        assertThat(smtpProvider).isNotNull();
+    }
+
+    @Test
+    void routing_PacesEachRoutedProviderOnItsOwn() {
+        assertThat(meterRegistry.find("email.rate.limit").tag("provider", "mock").gauge()).isNotNull();
+        assertThat(meterRegistry.find("email.rate.limit").tag("provider", "smtp").gauge()).isNotNull();
+        assertThat(meterRegistry.find("email.rate.limit").tag("provider", "routing").gauge()).isNull();
+    }
+
+    @Test
+    void routing_SendsThroughPreferredProvider() {
+        Person person = new Person();
+        person.setEmail("routed@example.com");
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("routed");
+        user.setPerson(person);
+        user.setRole(Role.USER);
+
+        emailProvider.sendEmailVerification(user, "routed-token");
+
+        assertThat(captureSink.latest("routed@example.com", EmailOperation.EMAIL_VERIFICATION))
+                .hasValueSatisfying(email -> assertThat(email.token()).isEqualTo("routed-token"));
+    }
+}
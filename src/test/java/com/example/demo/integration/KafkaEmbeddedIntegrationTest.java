@@ -46,7 +46,9 @@ import static org.junit.jupiter.api.Assertions.*;
 @TestPropertySource(locations = "classpath:application-integration.properties", properties = {
     "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
     "app.kafka.topics.user-events=test-user-events",
-    "app.kafka.topics.admin-events=test-admin-events"
+    "app.kafka.topics.admin-events=test-admin-events",
+    // Give the producers time to fetch metadata from the freshly started broker
+    "app.kafka.producer.max-block-ms=10000"
 })
 @DirtiesContext
 class KafkaEmbeddedIntegrationTest {
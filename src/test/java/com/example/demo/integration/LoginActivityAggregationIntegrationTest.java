@@ -0,0 +1,61 @@
+package com.example.demo.integration;
+
+import com.example.demo.domain.dto.LoginActivityDTO;
+import com.example.demo.event.UserActivityEvent;
+import com.example.demo.service.EventPublisherService;
+import com.example.demo.service.LoginActivityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@EmbeddedKafka(partitions = 1, topics = "aggregated-activity-events")
+@TestPropertySource(locations = "classpath:application-integration.properties", properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "app.kafka.topics.activity-events=aggregated-activity-events",
+        "app.kafka.activity-events.enabled=true",
+        // Don't drop the first events while the producer fetches metadata
+        "app.kafka.producer.best-effort.max-block-ms=10000",
+        "app.kafka.consumers.enabled=true"
+})
+@DirtiesContext
+class LoginActivityAggregationIntegrationTest {
+
+    @Autowired
+    private EventPublisherService eventPublisherService;
+
+    @Autowired
+    private LoginActivityService loginActivityService;
+
+    @Test
+    void publishedActivity_IsAggregated() throws Exception {
+        eventPublisherService.publishUserActivityEvent(UserActivityEvent.loggedIn("alice"));
+        eventPublisherService.publishUserActivityEvent(UserActivityEvent.loggedIn("bob"));
+        eventPublisherService.publishUserActivityEvent(UserActivityEvent.loggedIn("alice"));
+        eventPublisherService.publishUserActivityEvent(UserActivityEvent.loginFailed("mallory"));
+        eventPublisherService.publishUserActivityEvent(UserActivityEvent.loggedOut("bob"));
+
+        awaitTrue(() -> loginActivityService.getLoginActivity(5).orElseThrow().getLogouts() == 1);
+        LoginActivityDTO activity = loginActivityService.getLoginActivity(5).orElseThrow();
+        assertThat(activity.getLogins()).isEqualTo(3);
+        assertThat(activity.getFailedLogins()).isEqualTo(1);
+        assertThat(activity.getActiveUsers()).isEqualTo(2);
+        assertThat(activity.getFailureRate()).isEqualTo(0.25);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within 30s").isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+    }
+}
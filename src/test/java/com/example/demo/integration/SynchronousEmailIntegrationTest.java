@@ -0,0 +1,36 @@
+package com.example.demo.integration;
+
+import com.example.demo.service.EmailService;
+import com.example.demo.service.impl.AsyncEmailServiceImpl;
+import com.example.demo.service.impl.RateLimitedEmailService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "app.email.async.enabled=false"
+})
+class SynchronousEmailIntegrationTest {
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    @Qualifier("emailProvider")
+    private EmailService emailProvider;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void asyncDisabled_SendsThroughThePacedEmailProvider() {
+        assertThat(applicationContext.getBeansOfType(AsyncEmailServiceImpl.class)).isEmpty();
+        assertThat(emailService).isSameAs(emailProvider).isInstanceOf(RateLimitedEmailService.class);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.integration;
+
+import com.example.demo.domain.dto.DirectoryUserDTO;
+import com.example.demo.domain.dto.PersonDTO;
+import com.example.demo.domain.dto.UserCreateDTO;
+import com.example.demo.domain.dto.UserDTO;
+import com.example.demo.service.OutboxService;
+import com.example.demo.service.UserDirectoryService;
+import com.example.demo.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Users created, updated and deleted through {@link UserService}, relayed from the outbox to the
+ * user-state topic and projected into the directory.
+ */
+@SpringBootTest
+@EmbeddedKafka(partitions = 1, topics = "directory-user-state")
+@TestPropertySource(locations = "classpath:application-integration.properties", properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "app.kafka.topics.user-state=directory-user-state",
+        // Give the producers time to fetch metadata from the freshly started broker
+        "app.kafka.producer.max-block-ms=10000",
+        "app.kafka.consumers.enabled=true"
+})
+@DirtiesContext
+class UserDirectoryProjectionIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+
+    @Test
+    void userChanges_AreProjectedAndRebuilt() throws Exception {
+        UserDTO created = userService.createUser(user("projected", "projected@example.com"));
+        UserDTO kept = userService.createUser(user("kept", "kept@example.com"));
+        outboxService.relayPendingMessages(100);
+
+        awaitTrue(() -> directoryEntry(created.getId()).isPresent() && directoryEntry(kept.getId()).isPresent());
+        assertThat(directoryEntry(created.getId())).hasValueSatisfying(user -> {
+            assertThat(user.getUsername()).isEqualTo("projected");
+            assertThat(user.getEmail()).isEqualTo("projected@example.com");
+        });
+
+        userService.updateUser(created.getId(), user("renamed", "renamed@example.com"));
+        outboxService.relayPendingMessages(100);
+
+        awaitTrue(() -> directoryEntry(created.getId()).map(user -> "renamed@example.com".equals(user.getEmail()))
+                .orElse(false));
+        assertThat(directoryEntry(created.getId())).hasValueSatisfying(
+                user -> assertThat(user.getUsername()).isEqualTo("renamed"));
+
+        userService.deleteUser(created.getId());
+        outboxService.relayPendingMessages(100);
+
+        awaitTrue(() -> directoryEntry(created.getId()).isEmpty());
+        assertThat(directoryEntry(kept.getId())).isPresent();
+
+        assertThat(userDirectoryService.rebuild()).isTrue();
+
+        awaitTrue(() -> directoryEntry(kept.getId()).isPresent());
+        assertThat(directoryEntry(created.getId())).isEmpty();
+    }
+
+    private Optional<DirectoryUserDTO> directoryEntry(Long id) {
+        return userDirectoryService.listUsers(null, 0, 500).stream()
+                .filter(user -> user.getId().equals(id))
+                .findFirst();
+    }
+
+    private static UserCreateDTO user(String username, String email) {
+        PersonDTO person = new PersonDTO();
+        person.setFirstName("Pro");
+        person.setLastName("Jected");
+        person.setEmail(email);
+        UserCreateDTO user = new UserCreateDTO();
+        user.setUsername(username);
+        user.setPassword("password123");
+        user.setPerson(person);
+        return user;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within 30s").isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.job;
+
+import com.example.demo.domain.Role;
+import com.example.demo.event.UserCreatedEvent;
+import com.example.demo.service.EventPublisherService;
+import com.example.demo.service.event.EventSpool;
+import com.example.demo.service.event.EventSpool.SpooledEvent;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventSpoolReplayJobTest {
+
+    @Mock
+    private EventSpool eventSpool;
+
+    @Mock
+    private EventPublisherService eventPublisherService;
+
+    private EventSpoolReplayJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new EventSpoolReplayJob(eventSpool, eventPublisherService);
+        ReflectionTestUtils.setField(job, "batchSize", 100);
+        ReflectionTestUtils.setField(job, "sendTimeoutMs", 5000L);
+    }
+
+    @Test
+    void replay_PublishesEventsInOrderUntilSpoolIsEmpty() throws Exception {
+        SpooledEvent first = spooled(1L);
+        SpooledEvent second = spooled(2L);
+        when(eventSpool.peek()).thenReturn(Optional.of(first), Optional.of(second), Optional.empty());
+
+        job.replay();
+
+        InOrder inOrder = inOrder(eventPublisherService, eventSpool);
+        inOrder.verify(eventPublisherService).publishEventAndWait("user-events", "1", first.event(), 5000L);
+        inOrder.verify(eventSpool).remove();
+        inOrder.verify(eventPublisherService).publishEventAndWait("user-events", "2", second.event(), 5000L);
+        inOrder.verify(eventSpool).remove();
+    }
+
+    @Test
+    void replay_BrokerStillUnavailable_KeepsEventSpooled() throws Exception {
+        when(eventSpool.peek()).thenReturn(Optional.of(spooled(1L)));
+        doThrow(new TimeoutException("broker unavailable"))
+                .when(eventPublisherService).publishEventAndWait(anyString(), anyString(), any(), anyLong());
+
+        job.replay();
+
+        verify(eventPublisherService, times(1)).publishEventAndWait(anyString(), anyString(), any(), anyLong());
+        verify(eventSpool, never()).remove();
+        verify(eventSpool, never()).discard();
+    }
+
+    @Test
+    void replay_EventRejected_DiscardsItAndContinues() throws Exception {
+        SpooledEvent rejected = spooled(1L);
+        SpooledEvent next = spooled(2L);
+        when(eventSpool.peek()).thenReturn(Optional.of(rejected), Optional.of(next), Optional.empty());
+        doThrow(new ExecutionException(new RecordTooLargeException("too large")))
+                .when(eventPublisherService).publishEventAndWait(eq("user-events"), eq("1"), any(), anyLong());
+
+        job.replay();
+
+        verify(eventSpool).discard();
+        verify(eventPublisherService).publishEventAndWait("user-events", "2", next.event(), 5000L);
+        verify(eventSpool).remove();
+    }
+
+    @Test
+    void replay_UnreadableEvent_DiscardsIt() throws Exception {
+        when(eventSpool.peek()).thenThrow(new IOException("Unknown spooled event type")).thenReturn(Optional.empty());
+
+        job.replay();
+
+        verify(eventSpool).discard();
+        verifyNoInteractions(eventPublisherService);
+    }
+
+    private static SpooledEvent spooled(Long userId) {
+        return new SpooledEvent("user-events", userId.toString(), new UserCreatedEvent(userId, "user" + userId,
+                "user" + userId + "@example.com", "User", "Name", Role.USER, "admin", LocalDateTime.now()),
+                Instant.now());
+    }
+}
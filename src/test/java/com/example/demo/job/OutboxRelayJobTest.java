@@ -0,0 +1,99 @@
+package com.example.demo.job;
+
+import com.example.demo.service.OutboxService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayJobTest {
+
+    @Mock
+    private OutboxService outboxService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelayJob relayJob;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relayJob = new OutboxRelayJob(outboxService, meterRegistry);
+        ReflectionTestUtils.setField(relayJob, "batchSize", 100);
+        ReflectionTestUtils.setField(relayJob, "maxBatchesPerPoll", 5);
+        ReflectionTestUtils.setField(relayJob, "retentionHours", 24);
+    }
+
+    @Test
+    void relay_ShouldKeepPollingWhileBatchesAreFull() {
+        // Arrange
+        when(outboxService.relayPendingMessages(100)).thenReturn(100, 100, 7);
+        when(outboxService.findOldestPendingMessage()).thenReturn(Optional.empty());
+
+        // Act
+        relayJob.relay();
+
+        // Assert
+        verify(outboxService, times(3)).relayPendingMessages(100);
+        assertEquals(207.0, meterRegistry.get("outbox.relay.messages").counter().count());
+        assertEquals(0.0, meterRegistry.get("outbox.relay.lag").gauge().value());
+    }
+
+    @Test
+    void relay_ShouldStopAfterMaxBatchesPerPoll() {
+        // Arrange
+        when(outboxService.relayPendingMessages(100)).thenReturn(100);
+        when(outboxService.findOldestPendingMessage()).thenReturn(Optional.empty());
+
+        // Act
+        relayJob.relay();
+
+        // Assert
+        verify(outboxService, times(5)).relayPendingMessages(100);
+    }
+
+    @Test
+    void relay_ShouldReportAgeOfOldestPendingMessageAsLag() {
+        // Arrange
+        when(outboxService.relayPendingMessages(100)).thenReturn(0);
+        when(outboxService.findOldestPendingMessage()).thenReturn(Optional.of(LocalDateTime.now().minusSeconds(90)));
+
+        // Act
+        relayJob.relay();
+
+        // Assert
+        assertTrue(meterRegistry.get("outbox.relay.lag").gauge().value() >= 90.0);
+    }
+
+    @Test
+    void relay_ShouldNotPropagateFailures() {
+        // Arrange
+        when(outboxService.relayPendingMessages(100)).thenThrow(new RuntimeException("database down"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> relayJob.relay());
+    }
+
+    @Test
+    void purgeProcessedMessages_ShouldUseRetentionWindow() {
+        // Act
+        relayJob.purgeProcessedMessages();
+
+        // Assert
+        verify(outboxService).purgeProcessedMessages(any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.job;
+
+import com.example.demo.domain.Role;
+import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.event.UserStateSnapshot;
+import com.example.demo.service.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStateBackfillJobTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    private UserStateBackfillJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new UserStateBackfillJob(userRepository, outboxService, TransactionOperations.withoutTransaction());
+        ReflectionTestUtils.setField(job, "userStateTopicName", "user-state");
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+    }
+
+    @Test
+    void run_RecordsUsersInBatchesAfterTheLastId() {
+        UserStateSnapshot first = snapshot(1L);
+        UserStateSnapshot second = snapshot(4L);
+        UserStateSnapshot third = snapshot(9L);
+        when(userRepository.findStateSnapshotsAfter(0L, Limit.of(2))).thenReturn(List.of(first, second));
+        when(userRepository.findStateSnapshotsAfter(4L, Limit.of(2))).thenReturn(List.of(third));
+
+        job.run(new DefaultApplicationArguments());
+
+        verify(outboxService).publishUserStates(List.of(first, second));
+        verify(outboxService).publishUserStates(List.of(third));
+        verify(userRepository, never()).findStateSnapshotsAfter(eq(9L), any());
+    }
+
+    @Test
+    void run_RecordFails_StopsWithFailure() {
+        when(userRepository.findStateSnapshotsAfter(0L, Limit.of(2))).thenReturn(List.of(snapshot(1L), snapshot(2L)));
+        doThrow(new IllegalStateException("Failed to serialize outbox payload"))
+                .when(outboxService).publishUserStates(anyList());
+
+        assertThatThrownBy(() -> job.run(new DefaultApplicationArguments())).isInstanceOf(IllegalStateException.class);
+
+        verify(userRepository, never()).findStateSnapshotsAfter(eq(2L), any());
+    }
+
+    private static UserStateSnapshot snapshot(Long id) {
+        return new UserStateSnapshot(id, "user" + id, null, null, null, Role.USER, true, true);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.job;
+
+import com.example.demo.service.VerificationTokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VerificationTokenCleanupJobTest {
+
+    @Mock
+    private VerificationTokenService verificationTokenService;
+
+    @Mock
+    private VerificationTokenPartitionManager partitionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerificationTokenCleanupJob cleanupJob;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cleanupJob = new VerificationTokenCleanupJob(verificationTokenService, partitionManager, meterRegistry);
+        ReflectionTestUtils.setField(cleanupJob, "batchSize", 5000);
+    }
+
+    @Test
+    void purgeExpiredTokens_ShouldUseConfiguredBatchSizeAndRecordMetrics() {
+        // Arrange
+        when(partitionManager.isPartitioned()).thenReturn(false);
+        when(verificationTokenService.purgeExpiredTokens(any(LocalDateTime.class), eq(5000))).thenReturn(42);
+
+        // Act
+        cleanupJob.purgeExpiredTokens();
+
+        // Assert
+        verify(verificationTokenService).purgeExpiredTokens(any(LocalDateTime.class), eq(5000));
+        assertEquals(42.0, meterRegistry.get("verification.tokens.purged").counter().count());
+        assertEquals(1L, meterRegistry.get("verification.tokens.purge.duration").timer().count());
+    }
+
+    @Test
+    void purgeExpiredTokens_PartitionedTable_ShouldDropPartitionsInsteadOfDeletingRows() {
+        // Arrange
+        when(partitionManager.isPartitioned()).thenReturn(true);
+        when(partitionManager.dropExpiredPartitions(any(LocalDateTime.class))).thenReturn(2);
+
+        // Act
+        cleanupJob.purgeExpiredTokens();
+
+        // Assert
+        verify(partitionManager).createFuturePartitions(any(LocalDate.class));
+        verify(partitionManager).dropExpiredPartitions(any(LocalDateTime.class));
+        verify(verificationTokenService, never()).purgeExpiredTokens(any(LocalDateTime.class), anyInt());
+        assertEquals(2.0, meterRegistry.get("verification.tokens.partitions.dropped").counter().count());
+    }
+
+    @Test
+    void purgeExpiredTokens_PartitionCreationFails_ShouldStillDropPartitionsAndPurgeDefault() {
+        // Arrange
+        when(partitionManager.isPartitioned()).thenReturn(true);
+        when(partitionManager.createFuturePartitions(any(LocalDate.class)))
+                .thenThrow(new RuntimeException("Database unavailable"));
+        when(partitionManager.dropExpiredPartitions(any(LocalDateTime.class))).thenReturn(1);
+        when(partitionManager.purgeDefaultPartition(any(LocalDateTime.class), eq(5000))).thenReturn(12);
+
+        // Act
+        cleanupJob.purgeExpiredTokens();
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("verification.tokens.partitions.dropped").counter().count());
+        assertEquals(12.0, meterRegistry.get("verification.tokens.purged").counter().count());
+    }
+
+    @Test
+    void purgeExpiredTokens_ServiceFailure_ShouldNotPropagate() {
+        // Arrange
+        when(partitionManager.isPartitioned()).thenReturn(false);
+        when(verificationTokenService.purgeExpiredTokens(any(LocalDateTime.class), eq(5000)))
+                .thenThrow(new RuntimeException("Database unavailable"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> cleanupJob.purgeExpiredTokens());
+        assertEquals(0.0, meterRegistry.get("verification.tokens.purged").counter().count());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.demo.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerificationTokenPartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private VerificationTokenPartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(partitionManager, "daysAhead", 2);
+        ReflectionTestUtils.setField(partitionManager, "retentionHours", 48);
+    }
+
+    @Test
+    void isPartitioned_NonPostgresDatabase_ShouldReturnFalseWithoutCatalogQuery() {
+        // Arrange
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+
+        // Act & Assert
+        assertFalse(partitionManager.isPartitioned());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Boolean.class), any());
+    }
+
+    @Test
+    void isPartitioned_PartitionedPostgresTable_ShouldReturnTrueAndCacheResult() {
+        // Arrange
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("verification_token"))).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(partitionManager.isPartitioned());
+        assertTrue(partitionManager.isPartitioned());
+        verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    void createFuturePartitions_ShouldOnlyCreateMissingDays() {
+        // Arrange
+        LocalDate today = LocalDate.of(2026, 10, 19);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("verification_token_p20261019"))).thenReturn(1);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("verification_token_p20261020"))).thenReturn(0);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("verification_token_p20261021"))).thenReturn(0);
+
+        // Act
+        int created = partitionManager.createFuturePartitions(today);
+
+        // Assert
+        assertEquals(2, created);
+        verify(jdbcTemplate).execute("CREATE TABLE verification_token_p20261020 PARTITION OF verification_token " +
+                "FOR VALUES FROM ('2026-10-20') TO ('2026-10-21')");
+        verify(jdbcTemplate).execute("CREATE TABLE verification_token_p20261021 PARTITION OF verification_token " +
+                "FOR VALUES FROM ('2026-10-21') TO ('2026-10-22')");
+    }
+
+    @Test
+    void createFuturePartitions_DayAlreadyInDefaultPartition_ShouldSkipItAndCreateTheRest() {
+        // Arrange
+        LocalDate today = LocalDate.of(2026, 10, 19);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), anyString())).thenReturn(0);
+        doThrow(new DataIntegrityViolationException("updated partition constraint for default partition would be violated"))
+                .when(jdbcTemplate).execute(startsWith("CREATE TABLE verification_token_p20261019 "));
+
+        // Act
+        int created = partitionManager.createFuturePartitions(today);
+
+        // Assert
+        assertEquals(2, created);
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE verification_token_p20261020 "));
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE verification_token_p20261021 "));
+    }
+
+    @Test
+    void purgeDefaultPartition_ShouldDeleteExpiredRowsInChunks() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2026, 10, 19, 12, 0);
+        when(jdbcTemplate.update(contains("verification_token_p_default"), eq(Timestamp.valueOf(now)), eq(100)))
+                .thenReturn(100, 100, 7);
+
+        // Act
+        int purged = partitionManager.purgeDefaultPartition(now, 100);
+
+        // Assert
+        assertEquals(207, purged);
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Timestamp.class), eq(100));
+    }
+
+    @Test
+    void dropExpiredPartitions_ShouldDropOnlyPartitionsPastRetention() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq("verification_token"))).thenReturn(List.of(
+                Map.of("name", "verification_token_p_legacy",
+                        "bound", "FOR VALUES FROM (MINVALUE) TO ('2026-10-10 00:00:00')"),
+                Map.of("name", "verification_token_p20261016",
+                        "bound", "FOR VALUES FROM ('2026-10-16 00:00:00') TO ('2026-10-17 00:00:00')"),
+                Map.of("name", "verification_token_p20261018",
+                        "bound", "FOR VALUES FROM ('2026-10-18 00:00:00') TO ('2026-10-19 00:00:00')"),
+                Map.of("name", "verification_token_p_default", "bound", "DEFAULT")));
+
+        // Act
+        int dropped = partitionManager.dropExpiredPartitions(LocalDateTime.of(2026, 10, 19, 12, 0));
+
+        // Assert
+        assertEquals(2, dropped);
+        verify(jdbcTemplate).execute("ALTER TABLE verification_token DETACH PARTITION \"verification_token_p_legacy\"");
+        verify(jdbcTemplate).execute("DROP TABLE \"verification_token_p_legacy\"");
+        verify(jdbcTemplate).execute("ALTER TABLE verification_token DETACH PARTITION \"verification_token_p20261016\"");
+        verify(jdbcTemplate).execute("DROP TABLE \"verification_token_p20261016\"");
+        verify(jdbcTemplate, never()).execute("DROP TABLE \"verification_token_p20261018\"");
+        verify(jdbcTemplate, never()).execute("DROP TABLE \"verification_token_p_default\"");
+    }
+
+    @Test
+    void parseUpperBound_ShouldHandleRangeAndDefaultBounds() {
+        assertEquals(LocalDateTime.of(2026, 10, 20, 0, 0), VerificationTokenPartitionManager.parseUpperBound(
+                "FOR VALUES FROM ('2026-10-19 00:00:00') TO ('2026-10-20 00:00:00')"));
+        assertNull(VerificationTokenPartitionManager.parseUpperBound("DEFAULT"));
+        assertNull(VerificationTokenPartitionManager.parseUpperBound(null));
+    }
+}
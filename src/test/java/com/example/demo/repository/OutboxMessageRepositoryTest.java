@@ -0,0 +1,150 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.OutboxMessage;
+import com.example.demo.domain.repository.OutboxMessageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+class OutboxMessageRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    private int keys;
+
+    @Test
+    void lockNextBatch_ShouldReturnOnlyDueUnprocessedMessagesInOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxMessage first = persist(now.minusMinutes(2), null);
+        OutboxMessage second = persist(now.minusMinutes(1), null);
+        persist(now.plusMinutes(5), null);
+        persist(now.minusMinutes(3), now.minusMinutes(1));
+
+        List<OutboxMessage> batch = outboxMessageRepository.lockNextBatch(now, 10);
+
+        assertThat(batch).extracting(OutboxMessage::getId).containsExactly(first.getId(), second.getId());
+    }
+
+    @Test
+    void lockNextBatch_ShouldRespectLimit() {
+        LocalDateTime now = LocalDateTime.now();
+        persist(now.minusMinutes(1), null);
+        persist(now.minusMinutes(1), null);
+        persist(now.minusMinutes(1), null);
+
+        assertThat(outboxMessageRepository.lockNextBatch(now, 2)).hasSize(2);
+    }
+
+    @Test
+    void lockNextBatch_ShouldHoldBackEventsBehindAPendingEventWithTheSameKey() {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxMessage retrying = persist("7", now.plusMinutes(5), null);
+        persist("7", now.minusMinutes(1), null);
+        OutboxMessage otherKey = persist("8", now.minusMinutes(1), null);
+
+        assertThat(outboxMessageRepository.lockNextBatch(now, 10)).extracting(OutboxMessage::getId)
+                .containsExactly(otherKey.getId());
+
+        outboxMessageRepository.updateDeliveryState(retrying.getId(), 1, null, retrying.getAvailableAt(), now);
+        entityManager.clear();
+
+        assertThat(outboxMessageRepository.lockNextBatch(now, 10)).extracting(OutboxMessage::getMessageKey)
+                .containsExactly("7", "8");
+    }
+
+    @Test
+    void lockNextBatch_ShouldReturnOnlyTheFirstPendingEventPerKey() {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxMessage first = persist("7", now.minusMinutes(2), null);
+        persist("7", now.minusMinutes(1), null);
+
+        assertThat(outboxMessageRepository.lockNextBatch(now, 10)).extracting(OutboxMessage::getId)
+                .containsExactly(first.getId());
+    }
+
+    @Test
+    void lease_ShouldHideClaimedMessagesFromTheNextBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxMessage leased = persist(now.minusMinutes(1), null);
+        OutboxMessage other = persist(now.minusMinutes(1), null);
+
+        outboxMessageRepository.lease(List.of(leased.getId()), now.plusMinutes(5));
+        entityManager.clear();
+
+        assertThat(outboxMessageRepository.lockNextBatch(now, 10)).extracting(OutboxMessage::getId)
+                .containsExactly(other.getId());
+    }
+
+    @Test
+    void updateDeliveryState_ShouldWriteOutcomeOfOneMessage() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        OutboxMessage message = persist(now.plusMinutes(5), null);
+
+        outboxMessageRepository.updateDeliveryState(message.getId(), 2, "TimeoutException: broker unavailable",
+                now.plusSeconds(4), null);
+        entityManager.clear();
+
+        OutboxMessage updated = outboxMessageRepository.findById(message.getId()).orElseThrow();
+        assertThat(updated.getAttempts()).isEqualTo(2);
+        assertThat(updated.getLastError()).isEqualTo("TimeoutException: broker unavailable");
+        assertThat(updated.getAvailableAt()).isEqualTo(now.plusSeconds(4));
+        assertThat(updated.getProcessedAt()).isNull();
+    }
+
+    @Test
+    void findOldestPendingCreatedAt_ShouldIgnoreProcessedMessages() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        OutboxMessage processed = persist(now, now);
+        processed.setCreatedAt(now.minusHours(2));
+        OutboxMessage pending = persist(now, null);
+        pending.setCreatedAt(now.minusMinutes(10));
+        entityManager.flush();
+
+        assertThat(outboxMessageRepository.findOldestPendingCreatedAt()).contains(now.minusMinutes(10));
+    }
+
+    @Test
+    void deleteProcessedBefore_ShouldKeepPendingAndRecentMessages() {
+        LocalDateTime now = LocalDateTime.now();
+        persist(now, now.minusDays(2));
+        OutboxMessage recent = persist(now, now.minusMinutes(5));
+        OutboxMessage pending = persist(now, null);
+
+        int deleted = outboxMessageRepository.deleteProcessedBefore(now.minusDays(1));
+        entityManager.clear();
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(outboxMessageRepository.findAll()).extracting(OutboxMessage::getId)
+                .containsExactlyInAnyOrder(recent.getId(), pending.getId());
+    }
+
+    private OutboxMessage persist(LocalDateTime availableAt, LocalDateTime processedAt) {
+        return persist(String.valueOf(++keys), availableAt, processedAt);
+    }
+
+    private OutboxMessage persist(String key, LocalDateTime availableAt, LocalDateTime processedAt) {
+        OutboxMessage message = new OutboxMessage();
+        message.setMessageType(OutboxMessage.MessageType.KAFKA_EVENT);
+        message.setDestination("test-user-events");
+        message.setMessageKey(key);
+        message.setPayloadType("com.example.demo.event.UserCreatedEvent");
+        message.setPayload("{}");
+        message.setAvailableAt(availableAt);
+        message.setProcessedAt(processedAt);
+        return entityManager.persistAndFlush(message);
+    }
+}
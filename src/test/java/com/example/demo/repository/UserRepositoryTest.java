@@ -5,11 +5,13 @@ import com.example.demo.domain.Role;
 import com.example.demo.domain.User;
 import com.example.demo.domain.repository.PersonRepository;
 import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.event.UserStateSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.TestPropertySource;
 
 import java.util.List;
@@ -296,6 +298,55 @@ class UserRepositoryTest {
         assertThat(foundUser.get().getPerson().getFirstName()).isEqualTo("John");
     }
 
+    @Test
+    void markEmailVerified_ShouldOnlyUpdateGivenUser() {
+        // Arrange
+        User savedUser = entityManager.persistAndFlush(testUser2);
+        User otherUser = entityManager.persistAndFlush(testUser1);
+        otherUser.setEmailVerified(false);
+        entityManager.persistAndFlush(otherUser);
+
+        // Act
+        int updated = userRepository.markEmailVerified(savedUser.getId());
+        entityManager.clear();
+
+        // Assert
+        assertThat(updated).isEqualTo(1);
+        assertThat(userRepository.findById(savedUser.getId()).get().isEmailVerified()).isTrue();
+        assertThat(userRepository.findById(otherUser.getId()).get().isEmailVerified()).isFalse();
+    }
+
+    @Test
+    void findStateSnapshotsAfter_ShouldPageByIdWithStateOnly() {
+        // Arrange
+        User first = userRepository.save(testUser1);
+        User second = userRepository.save(testUser2);
+        entityManager.flush();
+
+        // Act
+        List<UserStateSnapshot> firstPage = userRepository.findStateSnapshotsAfter(0L, Limit.of(1));
+        List<UserStateSnapshot> secondPage = userRepository.findStateSnapshotsAfter(first.getId(), Limit.of(1));
+        List<UserStateSnapshot> lastPage = userRepository.findStateSnapshotsAfter(second.getId(), Limit.of(1));
+
+        // Assert
+        assertThat(firstPage).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.getUserId()).isEqualTo(first.getId());
+            assertThat(snapshot.getUsername()).isEqualTo("johndoe");
+            assertThat(snapshot.getEmail()).isEqualTo("john.doe@example.com");
+            assertThat(snapshot.getFirstName()).isEqualTo("John");
+            assertThat(snapshot.getRole()).isEqualTo(Role.USER);
+            assertThat(snapshot.isActive()).isTrue();
+            assertThat(snapshot.isEmailVerified()).isTrue();
+            assertThat(snapshot.getEventType()).isEqualTo("USER_STATE");
+        });
+        assertThat(secondPage).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.getUserId()).isEqualTo(second.getId());
+            assertThat(snapshot.getRole()).isEqualTo(Role.ADMIN);
+            assertThat(snapshot.isEmailVerified()).isFalse();
+        });
+        assertThat(lastPage).isEmpty();
+    }
+
     @Test
     void defaultValues_ShouldBeSetCorrectly() {
         // Arrange
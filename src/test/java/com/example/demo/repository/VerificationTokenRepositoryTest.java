@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDateTime;
@@ -279,6 +280,99 @@ class VerificationTokenRepositoryTest {
         assertThat(remainingEmailToken2).isPresent();
     }
 
+    @Test
+    void consumeToken_ValidToken_ShouldSucceedExactlyOnce() {
+        // Arrange
+        entityManager.persistAndFlush(testUser1);
+        entityManager.persistAndFlush(emailToken1);
+
+        // Act
+        int first = verificationTokenRepository.consumeToken(emailToken1.getToken(),
+                VerificationToken.TokenType.EMAIL_VERIFICATION, LocalDateTime.now());
+        int second = verificationTokenRepository.consumeToken(emailToken1.getToken(),
+                VerificationToken.TokenType.EMAIL_VERIFICATION, LocalDateTime.now());
+        entityManager.clear();
+
+        // Assert
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(verificationTokenRepository.findByToken(emailToken1.getToken()))
+                .hasValueSatisfying(token -> assertThat(token.isUsed()).isTrue());
+        assertThat(verificationTokenRepository.findUserIdByToken(emailToken1.getToken()))
+                .contains(testUser1.getId());
+    }
+
+    @Test
+    void consumeToken_WrongTypeOrExpired_ShouldNotConsume() {
+        // Arrange
+        entityManager.persistAndFlush(testUser1);
+        passwordToken1.setExpiryDate(LocalDateTime.now().minusMinutes(1));
+        entityManager.persistAndFlush(emailToken1);
+        entityManager.persistAndFlush(passwordToken1);
+
+        // Act
+        int wrongType = verificationTokenRepository.consumeToken(emailToken1.getToken(),
+                VerificationToken.TokenType.PASSWORD_RESET, LocalDateTime.now());
+        int expired = verificationTokenRepository.consumeToken(passwordToken1.getToken(),
+                VerificationToken.TokenType.PASSWORD_RESET, LocalDateTime.now());
+
+        // Assert
+        assertThat(wrongType).isZero();
+        assertThat(expired).isZero();
+    }
+
+    @Test
+    void findExpiredTokenIds_ShouldReturnExpiredTokensRegardlessOfUsedFlag() {
+        // Arrange
+        entityManager.persistAndFlush(testUser1);
+
+        VerificationToken expiredUsedToken = new VerificationToken();
+        expiredUsedToken.setToken("expired-used-token-" + UUID.randomUUID());
+        expiredUsedToken.setUser(testUser1);
+        expiredUsedToken.setTokenType(VerificationToken.TokenType.EMAIL_VERIFICATION);
+        expiredUsedToken.setExpiryDate(LocalDateTime.now().minusHours(1));
+        expiredUsedToken.setUsed(true);
+        expiredUsedToken.setCreatedDate(LocalDateTime.now().minusHours(2));
+
+        VerificationToken expiredUnusedToken = new VerificationToken();
+        expiredUnusedToken.setToken("expired-unused-token-" + UUID.randomUUID());
+        expiredUnusedToken.setUser(testUser1);
+        expiredUnusedToken.setTokenType(VerificationToken.TokenType.PASSWORD_RESET);
+        expiredUnusedToken.setExpiryDate(LocalDateTime.now().minusHours(1));
+        expiredUnusedToken.setUsed(false);
+        expiredUnusedToken.setCreatedDate(LocalDateTime.now().minusHours(2));
+
+        entityManager.persistAndFlush(expiredUsedToken);
+        entityManager.persistAndFlush(expiredUnusedToken);
+        entityManager.persistAndFlush(emailToken1); // Valid token
+
+        // Act
+        List<Long> expiredIds = verificationTokenRepository.findExpiredTokenIds(
+                LocalDateTime.now(), PageRequest.of(0, 10));
+        List<Long> firstChunk = verificationTokenRepository.findExpiredTokenIds(
+                LocalDateTime.now(), PageRequest.of(0, 1));
+
+        // Assert
+        assertThat(expiredIds).containsExactlyInAnyOrder(expiredUsedToken.getId(), expiredUnusedToken.getId());
+        assertThat(firstChunk).hasSize(1);
+    }
+
+    @Test
+    void deleteByIdIn_ShouldRemoveOnlyGivenTokens() {
+        // Arrange
+        entityManager.persistAndFlush(testUser1);
+        entityManager.persistAndFlush(emailToken1);
+        entityManager.persistAndFlush(passwordToken1);
+
+        // Act
+        int deleted = verificationTokenRepository.deleteByIdIn(List.of(emailToken1.getId()));
+
+        // Assert
+        assertThat(deleted).isEqualTo(1);
+        assertThat(verificationTokenRepository.findByToken(emailToken1.getToken())).isEmpty();
+        assertThat(verificationTokenRepository.findByToken(passwordToken1.getToken())).isPresent();
+    }
+
     @Test
     void tokenValidation_ShouldWorkCorrectly() {
         // Arrange
@@ -2,10 +2,11 @@ package com.example.demo.service;
 
 import com.example.demo.domain.Role;
 import com.example.demo.event.UserCreatedEvent;
+import com.example.demo.service.event.EventSpool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -30,11 +31,15 @@ class EventPublisherServiceErrorHandlingTest {
     @Mock
     private CompletableFuture<SendResult<String, Object>> mockFuture;
 
-    @InjectMocks
+    @Mock
+    private EventSpool eventSpool;
+
     private EventPublisherService eventPublisherService;
 
     @BeforeEach
     void setUp() {
+        eventPublisherService = new EventPublisherService(kafkaTemplate, kafkaTemplate, kafkaTemplate, eventSpool,
+                new SimpleMeterRegistry());
         ReflectionTestUtils.setField(eventPublisherService, "userEventsTopicName", "user-events");
         ReflectionTestUtils.setField(eventPublisherService, "adminEventsTopicName", "admin-events");
     }
@@ -3,8 +3,13 @@ package com.example.demo.service;
 import com.example.demo.domain.Role;
 import com.example.demo.event.AdminCreatedEvent;
 import com.example.demo.event.BaseEvent;
+import com.example.demo.event.DeliveryTier;
+import com.example.demo.event.UserActivityEvent;
 import com.example.demo.event.UserCreatedEvent;
 import com.example.demo.event.UserRoleChangedEvent;
+import com.example.demo.event.UserStateSnapshot;
+import com.example.demo.service.event.EventSpool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.TopicPartition;
@@ -19,6 +24,7 @@ import org.springframework.kafka.support.SendResult;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
@@ -34,19 +40,31 @@ class EventPublisherServiceTest {
     @Mock
     private KafkaTemplate<String, Object> kafkaTemplate;
 
+    @Mock
+    private KafkaTemplate<String, Object> criticalKafkaTemplate;
+
+    @Mock
+    private KafkaTemplate<String, Object> bestEffortKafkaTemplate;
+
     @Mock
     private SendResult<String, Object> sendResult;
 
     @Mock
     private RecordMetadata recordMetadata;
 
+    @Mock
+    private EventSpool eventSpool;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     private EventPublisherService eventPublisherService;
 
     @BeforeEach
     void setUp() {
-        eventPublisherService = new EventPublisherService(kafkaTemplate);
+        eventPublisherService = new EventPublisherService(kafkaTemplate, criticalKafkaTemplate, bestEffortKafkaTemplate,
+                eventSpool, meterRegistry);
         ReflectionTestUtils.setField(eventPublisherService, "userEventsTopicName", "user-events");
         ReflectionTestUtils.setField(eventPublisherService, "adminEventsTopicName", "admin-events");
+        ReflectionTestUtils.setField(eventPublisherService, "activityEventsTopicName", "activity-events");
     }
 
     @Test
@@ -411,4 +429,210 @@ class EventPublisherServiceTest {
         verify(kafkaTemplate).send("custom-user-topic", "1", userEvent);
         verify(kafkaTemplate).send("custom-admin-topic", "2", adminEvent);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPublishEvent_BrokerUnavailable_SpoolsEvent() {
+        // Arrange
+        UserCreatedEvent event = new UserCreatedEvent(
+                1L, "user", "user@example.com", "User", "Name",
+                Role.USER, "admin", LocalDateTime.now()
+        );
+        when(kafkaTemplate.send("user-events", "1", event)).thenReturn(CompletableFuture.failedFuture(
+                new org.apache.kafka.common.errors.TimeoutException("Topic user-events not present in metadata")));
+
+        // Act
+        eventPublisherService.publishUserCreatedEvent(event);
+
+        // Assert
+        verify(eventSpool).append("user-events", "1", event);
+    }
+
+    @Test
+    void testPublishEvent_BrokerRejects_DoesNotSpool() {
+        // Arrange
+        UserCreatedEvent event = new UserCreatedEvent(
+                1L, "user", "user@example.com", "User", "Name",
+                Role.USER, "admin", LocalDateTime.now()
+        );
+        when(kafkaTemplate.send("user-events", "1", event)).thenReturn(CompletableFuture.failedFuture(
+                new org.apache.kafka.common.errors.RecordTooLargeException("too large")));
+
+        // Act
+        eventPublisherService.publishUserCreatedEvent(event);
+
+        // Assert
+        verify(eventSpool, never()).append(any(), any(), any());
+    }
+
+    @Test
+    void testPublishEvent_SpoolBacklog_SpoolsWithoutSending() {
+        // Arrange
+        UserRoleChangedEvent event = new UserRoleChangedEvent(
+                7L, "roleuser", Role.USER, Role.ADMIN, "superadmin", "SUPER_ADMIN", LocalDateTime.now()
+        );
+        when(eventSpool.hasBacklog()).thenReturn(true);
+
+        // Act
+        eventPublisherService.publishUserRoleChangedEvent(event);
+        eventPublisherService.publishEventAsync("user-events", "7", event);
+
+        // Assert
+        verify(eventSpool, times(2)).append("user-events", "7", event);
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void testPublishTombstoneAndWait() throws Exception {
+        // Arrange
+        when(sendResult.getRecordMetadata()).thenReturn(recordMetadata);
+        when(kafkaTemplate.send("user-state", "7", null)).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        // Act
+        eventPublisherService.publishTombstoneAndWait("user-state", "7", 1000);
+
+        // Assert
+        verify(kafkaTemplate).send("user-state", "7", null);
+    }
+
+    @Test
+    void testTierOf_FollowsConfiguredEventTypes() {
+        // Arrange
+        ReflectionTestUtils.setField(eventPublisherService, "criticalEventTypes", Set.of("ADMIN_CREATED"));
+        ReflectionTestUtils.setField(eventPublisherService, "bestEffortEventTypes", Set.of("USER_CREATED"));
+
+        // Act & Assert
+        assertEquals(DeliveryTier.CRITICAL, eventPublisherService.tierOf(adminCreatedEvent()));
+        assertEquals(DeliveryTier.BEST_EFFORT, eventPublisherService.tierOf(userCreatedEvent()));
+        assertEquals(DeliveryTier.STANDARD, eventPublisherService.tierOf(
+                new UserStateSnapshot(1L, "john", null, null, null, Role.USER, true, true)));
+    }
+
+    @Test
+    void testPublishEvent_Critical_SendsOnCriticalProducerWithoutWaiting() {
+        // Arrange
+        ReflectionTestUtils.setField(eventPublisherService, "criticalEventTypes", Set.of("ADMIN_CREATED"));
+        AdminCreatedEvent event = adminCreatedEvent();
+        when(criticalKafkaTemplate.send("admin-events", "2", event)).thenReturn(new CompletableFuture<>());
+
+        // Act
+        eventPublisherService.publishAdminCreatedEvent(event);
+
+        // Assert
+        verify(criticalKafkaTemplate).send("admin-events", "2", event);
+        verifyNoInteractions(kafkaTemplate, bestEffortKafkaTemplate);
+    }
+
+    @Test
+    void testPublishEvent_CriticalBrokerUnavailable_SpoolsEvent() {
+        // Arrange
+        ReflectionTestUtils.setField(eventPublisherService, "criticalEventTypes", Set.of("ADMIN_CREATED"));
+        AdminCreatedEvent event = adminCreatedEvent();
+        when(criticalKafkaTemplate.send("admin-events", "2", event)).thenThrow(
+                new org.apache.kafka.common.errors.TimeoutException("Topic admin-events not present in metadata"));
+
+        // Act
+        assertDoesNotThrow(() -> eventPublisherService.publishAdminCreatedEvent(event));
+
+        // Assert
+        verify(eventSpool).append("admin-events", "2", event);
+        assertEquals(1, meterRegistry.get("kafka.events.published")
+                .tag("tier", "CRITICAL").tag("outcome", "spooled").counter().count());
+    }
+
+    @Test
+    void testPublishEvent_BestEffortBufferFull_DropsEvent() {
+        // Arrange
+        ReflectionTestUtils.setField(eventPublisherService, "bestEffortEventTypes", Set.of("USER_CREATED"));
+        UserCreatedEvent event = userCreatedEvent();
+        when(bestEffortKafkaTemplate.send("user-events", "1", event)).thenThrow(
+                new org.apache.kafka.common.errors.TimeoutException("Failed to allocate memory within 50 ms"));
+
+        // Act
+        assertDoesNotThrow(() -> eventPublisherService.publishUserCreatedEvent(event));
+
+        // Assert
+        verify(eventSpool, never()).append(any(), any(), any());
+        verifyNoInteractions(kafkaTemplate);
+        assertEquals(1, meterRegistry.get("kafka.events.published")
+                .tag("tier", "BEST_EFFORT").tag("outcome", "dropped").counter().count());
+    }
+
+    @Test
+    void testPublishEvent_BestEffortWithSpoolBacklog_DropsWithoutSending() {
+        // Arrange
+        ReflectionTestUtils.setField(eventPublisherService, "bestEffortEventTypes", Set.of("USER_CREATED"));
+        UserCreatedEvent event = userCreatedEvent();
+        when(eventSpool.hasBacklog()).thenReturn(true);
+
+        // Act
+        eventPublisherService.publishEventAsync("user-events", "1", event);
+
+        // Assert
+        verifyNoInteractions(bestEffortKafkaTemplate);
+        verify(eventSpool, never()).append(any(), any(), any());
+    }
+
+    @Test
+    void testPublishEventAndWait_UsesTierProducer() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(eventPublisherService, "criticalEventTypes", Set.of("ADMIN_CREATED"));
+        AdminCreatedEvent event = adminCreatedEvent();
+        when(sendResult.getRecordMetadata()).thenReturn(recordMetadata);
+        when(criticalKafkaTemplate.send("admin-events", "2", event)).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        // Act
+        eventPublisherService.publishEventAndWait("admin-events", "2", event, 1000);
+
+        // Assert
+        verify(criticalKafkaTemplate).send("admin-events", "2", event);
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void testPublishUserActivityEvent_GoesBestEffortKeyedByUsername() {
+        // Arrange
+        ReflectionTestUtils.setField(eventPublisherService, "bestEffortEventTypes", Set.of(UserActivityEvent.LOGGED_IN));
+        UserActivityEvent event = UserActivityEvent.loggedIn("johndoe");
+        when(bestEffortKafkaTemplate.send("activity-events", "johndoe", event))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        // Act
+        eventPublisherService.publishUserActivityEvent(event);
+
+        // Assert
+        verifyNoInteractions(kafkaTemplate);
+        assertEquals(1, meterRegistry.get("kafka.events.published")
+                .tag("tier", "BEST_EFFORT").tag("outcome", "acked").counter().count());
+    }
+
+    @Test
+    void testPublishUserActivityEvent_Disabled_PublishesNothing() {
+        // Arrange
+        ReflectionTestUtils.setField(eventPublisherService, "activityEventsEnabled", false);
+
+        // Act
+        eventPublisherService.publishUserActivityEvent(UserActivityEvent.loginFailed("johndoe"));
+
+        // Assert
+        verifyNoInteractions(kafkaTemplate, bestEffortKafkaTemplate, eventSpool);
+    }
+
+    @Test
+    void testIsBrokerUnavailable() {
+        assertTrue(EventPublisherService.isBrokerUnavailable(new ExecutionException(
+                new org.apache.kafka.common.errors.TimeoutException("metadata"))));
+        assertTrue(EventPublisherService.isBrokerUnavailable(new java.util.concurrent.TimeoutException()));
+        assertFalse(EventPublisherService.isBrokerUnavailable(new ExecutionException(
+                new org.apache.kafka.common.errors.RecordTooLargeException("too large"))));
+    }
+
+    private static UserCreatedEvent userCreatedEvent() {
+        return new UserCreatedEvent(1L, "user", "user@example.com", "User", "Name", Role.USER, "admin",
+                LocalDateTime.now());
+    }
+
+    private static AdminCreatedEvent adminCreatedEvent() {
+        return new AdminCreatedEvent(2L, "testadmin", "admin@example.com", "Test", "Admin", Role.ADMIN,
+                "superadmin", "SUPER_ADMIN", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.service.activity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimate_SmallCardinality_IsExact() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int i = 0; i < 3; i++) {
+            sketch.add("alice");
+            sketch.add("bob");
+            sketch.add("carol");
+        }
+
+        assertThat(sketch.estimate()).isEqualTo(3);
+    }
+
+    @Test
+    void estimate_LargeCardinality_IsWithinExpectedError() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add("user" + i);
+        }
+
+        // Standard error is 1.6% at precision 12
+        assertThat((double) sketch.estimate()).isCloseTo(100_000, within(5_000.0));
+    }
+
+    @Test
+    void merge_EstimatesUnion() {
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+        for (int i = 0; i < 6_000; i++) {
+            first.add("user" + i);
+        }
+        for (int i = 4_000; i < 10_000; i++) {
+            second.add("user" + i);
+        }
+
+        first.merge(second);
+
+        assertThat((double) first.estimate()).isCloseTo(10_000, within(500.0));
+    }
+
+    @Test
+    void clear_ForgetsValues() {
+        HyperLogLog sketch = new HyperLogLog(10);
+        sketch.add("alice");
+
+        sketch.clear();
+
+        assertThat(sketch.estimate()).isZero();
+    }
+
+    @Test
+    void merge_DifferentPrecision_IsRejected() {
+        assertThatThrownBy(() -> new HyperLogLog(12).merge(new HyperLogLog(10)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(3)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.service.activity;
+
+import com.example.demo.domain.dto.LoginActivityDTO;
+import com.example.demo.domain.dto.LoginActivityMinuteDTO;
+import com.example.demo.event.UserActivityEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LoginActivityAggregatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-01T10:00:30Z"));
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    };
+    private final LoginActivityAggregator aggregator = new LoginActivityAggregator(10, meterRegistry, clock);
+
+    @Test
+    void summarize_CountsPerMinuteAndDistinctUsersAcrossWindow() {
+        apply(UserActivityEvent.loggedIn("alice"), "2026-01-01T09:59:10");
+        apply(UserActivityEvent.loggedIn("bob"), "2026-01-01T09:59:20");
+        apply(UserActivityEvent.loginFailed("mallory"), "2026-01-01T09:59:40");
+        apply(UserActivityEvent.loggedIn("alice"), "2026-01-01T10:00:05");
+        apply(UserActivityEvent.loggedOut("bob"), "2026-01-01T10:00:10");
+
+        LoginActivityDTO activity = aggregator.summarize(2);
+
+        assertThat(activity.getLogins()).isEqualTo(3);
+        assertThat(activity.getFailedLogins()).isEqualTo(1);
+        assertThat(activity.getLogouts()).isEqualTo(1);
+        assertThat(activity.getFailureRate()).isEqualTo(0.25);
+        assertThat(activity.getActiveUsers()).isEqualTo(2);
+        assertThat(activity.getPerMinute()).extracting(LoginActivityMinuteDTO::getMinute).containsExactly(
+                LocalDateTime.parse("2026-01-01T09:59:00"), LocalDateTime.parse("2026-01-01T10:00:00"));
+        assertThat(activity.getPerMinute()).extracting(LoginActivityMinuteDTO::getLogins).containsExactly(2L, 1L);
+        assertThat(activity.getPerMinute().get(0).getFailureRate()).isCloseTo(1 / 3.0, within(1e-9));
+        assertThat(meterRegistry.get("login.activity.events").tag("type", UserActivityEvent.LOGGED_IN)
+                .counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void summarize_MinutesOutsideWindowAreLeftOut() {
+        apply(UserActivityEvent.loggedIn("alice"), "2026-01-01T09:57:00");
+        apply(UserActivityEvent.loggedIn("bob"), "2026-01-01T10:00:00");
+
+        LoginActivityDTO activity = aggregator.summarize(1);
+
+        assertThat(activity.getLogins()).isEqualTo(1);
+        assertThat(activity.getActiveUsers()).isEqualTo(1);
+        assertThat(aggregator.summarize(10).getLogins()).isEqualTo(2);
+    }
+
+    @Test
+    void apply_MinuteReusedAfterRetention_StartsAfresh() {
+        apply(UserActivityEvent.loggedIn("alice"), "2026-01-01T10:00:00");
+
+        advance(Duration.ofMinutes(10));
+        apply(UserActivityEvent.loggedIn("bob"), "2026-01-01T10:10:00");
+        // Older than the ring, ignored
+        apply(UserActivityEvent.loggedIn("carol"), "2026-01-01T10:00:30");
+
+        LoginActivityDTO activity = aggregator.summarize(10);
+        assertThat(activity.getLogins()).isEqualTo(1);
+        assertThat(activity.getActiveUsers()).isEqualTo(1);
+    }
+
+    @Test
+    void apply_EventFromClockAhead_CountsTowardsCurrentMinute() {
+        apply(UserActivityEvent.loggedIn("alice"), "2026-01-01T10:03:00");
+
+        assertThat(aggregator.summarize(1).getLogins()).isEqualTo(1);
+    }
+
+    @Test
+    void windowStartMillis_IsStartOfOldestRetainedMinute() {
+        assertThat(aggregator.windowStartMillis()).isEqualTo(Instant.parse("2026-01-01T09:51:00Z").toEpochMilli());
+    }
+
+    @Test
+    void summarize_WindowBeyondRetention_IsRejected() {
+        assertThatThrownBy(() -> aggregator.summarize(11)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> aggregator.summarize(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void apply(UserActivityEvent event, String timestamp) {
+        event.setTimestamp(LocalDateTime.parse(timestamp));
+        aggregator.apply(event);
+    }
+
+    private void advance(Duration duration) {
+        now.updateAndGet(instant -> instant.plus(duration));
+    }
+}
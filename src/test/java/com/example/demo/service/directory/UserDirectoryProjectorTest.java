@@ -0,0 +1,75 @@
+package com.example.demo.service.directory;
+
+import com.example.demo.domain.Role;
+import com.example.demo.event.UserStateSnapshot;
+import com.example.demo.service.event.EventDeduplicator;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDirectoryProjectorTest {
+
+    @Mock
+    private UserDirectory userDirectory;
+
+    @Mock
+    private EventDeduplicator deduplicator;
+
+    @Test
+    void project_AppliesSnapshotsAndTombstonesInOrder() {
+        UserDirectoryProjector projector = new UserDirectoryProjector(userDirectory, deduplicator);
+        UserStateSnapshot created = new UserStateSnapshot(1L, "john", "john@example.com", "John", "Doe",
+                Role.USER, true, false);
+        UserStateSnapshot updated = new UserStateSnapshot(1L, "john", "john.doe@example.com", "John", "Doe",
+                Role.USER, true, true);
+
+        projector.project(List.of(record(0, "1", created), record(1, "1", updated), record(2, "1", null)));
+
+        InOrder inOrder = inOrder(userDirectory);
+        inOrder.verify(userDirectory).apply(created);
+        inOrder.verify(userDirectory).apply(updated);
+        inOrder.verify(userDirectory).remove(1L);
+    }
+
+    @Test
+    void project_UnreadableRecord_IsSkippedRatherThanTakenForATombstone() {
+        UserDirectoryProjector projector = new UserDirectoryProjector(userDirectory, deduplicator);
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, new byte[0]);
+        ConsumerRecord<String, Object> unreadable = new ConsumerRecord<>("user-state", 0, 0, 0L,
+                TimestampType.CREATE_TIME, 0, 0, "1", null, headers, Optional.empty());
+
+        projector.project(List.of(unreadable, record(1, "not-a-user-id", null)));
+
+        verify(userDirectory, never()).apply(any());
+        verify(userDirectory, never()).remove(any());
+    }
+
+    @Test
+    void rebuild_ClearsDirectoryThenForgetsAppliedEvents() {
+        UserDirectoryProjector projector = new UserDirectoryProjector(userDirectory, deduplicator);
+
+        projector.rebuild();
+
+        InOrder inOrder = inOrder(userDirectory, deduplicator);
+        inOrder.verify(userDirectory).clear();
+        inOrder.verify(deduplicator).clear();
+    }
+
+    private static ConsumerRecord<String, Object> record(long offset, String key, Object value) {
+        return new ConsumerRecord<>("user-state", 0, offset, key, value);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.service.directory;
+
+import com.example.demo.domain.Role;
+import com.example.demo.domain.dto.DirectoryUserDTO;
+import com.example.demo.event.UserStateSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDirectoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserDirectory userDirectory = new UserDirectory(meterRegistry);
+
+    @Test
+    void apply_Snapshots_IndexesUsersByRole() {
+        userDirectory.apply(snapshot(2L, "jane", Role.USER));
+        userDirectory.apply(snapshot(1L, "john", Role.USER));
+        userDirectory.apply(snapshot(3L, "admin", Role.ADMIN));
+
+        assertThat(userDirectory.list(null, 0, 10)).extracting(DirectoryUserDTO::getUsername)
+                .containsExactly("john", "jane", "admin");
+        assertThat(userDirectory.list(Role.USER, 0, 10)).extracting(DirectoryUserDTO::getId)
+                .containsExactly(1L, 2L);
+        assertThat(userDirectory.countByRole())
+                .containsEntry(Role.USER, 2L)
+                .containsEntry(Role.ADMIN, 1L)
+                .containsEntry(Role.SUPER_ADMIN, 0L);
+        assertThat(meterRegistry.get("user.directory.users").tag("role", "USER").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("user.directory.events").tag("type", "USER_STATE").counter().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void list_Pages() {
+        for (long id = 1; id <= 5; id++) {
+            userDirectory.apply(snapshot(id, "user" + id, Role.USER));
+        }
+
+        assertThat(userDirectory.list(Role.USER, 1, 2)).extracting(DirectoryUserDTO::getId)
+                .containsExactly(3L, 4L);
+        assertThat(userDirectory.list(Role.USER, 3, 2)).isEmpty();
+    }
+
+    @Test
+    void apply_UpdatedUser_ReplacesDetailsAndMovesBetweenRoles() {
+        userDirectory.apply(snapshot(1L, "john", Role.USER));
+
+        userDirectory.apply(new UserStateSnapshot(1L, "johnny", "johnny@example.com", "Johnny", "Doe",
+                Role.ADMIN, true, true));
+
+        assertThat(userDirectory.list(Role.USER, 0, 10)).isEmpty();
+        assertThat(userDirectory.list(Role.ADMIN, 0, 10)).singleElement()
+                .satisfies(user -> {
+                    assertThat(user.getUsername()).isEqualTo("johnny");
+                    assertThat(user.getEmail()).isEqualTo("johnny@example.com");
+                    assertThat(user.getFirstName()).isEqualTo("Johnny");
+                });
+        assertThat(userDirectory.countByRole()).containsEntry(Role.USER, 0L).containsEntry(Role.ADMIN, 1L);
+    }
+
+    @Test
+    void remove_DeletedUser_DropsItFromListingsAndCounts() {
+        userDirectory.apply(snapshot(1L, "john", Role.USER));
+        userDirectory.apply(snapshot(2L, "jane", Role.ADMIN));
+
+        userDirectory.remove(2L);
+
+        assertThat(userDirectory.list(null, 0, 10)).extracting(DirectoryUserDTO::getId).containsExactly(1L);
+        assertThat(userDirectory.list(Role.ADMIN, 0, 10)).isEmpty();
+        assertThat(userDirectory.countByRole()).containsEntry(Role.USER, 1L).containsEntry(Role.ADMIN, 0L);
+        assertThat(meterRegistry.get("user.directory.events").tag("type", "TOMBSTONE").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void remove_UnknownUser_LeavesDirectoryUnchanged() {
+        userDirectory.apply(snapshot(1L, "john", Role.USER));
+
+        userDirectory.remove(9L);
+
+        assertThat(userDirectory.countByRole()).containsEntry(Role.USER, 1L);
+    }
+
+    @Test
+    void apply_Replayed_LeavesDirectoryUnchanged() {
+        UserStateSnapshot created = snapshot(1L, "john", Role.USER);
+        UserStateSnapshot promoted = snapshot(1L, "john", Role.ADMIN);
+
+        userDirectory.apply(created);
+        userDirectory.apply(promoted);
+        userDirectory.apply(created);
+        userDirectory.apply(promoted);
+
+        assertThat(userDirectory.list(null, 0, 10)).hasSize(1);
+        assertThat(userDirectory.countByRole()).containsEntry(Role.USER, 0L).containsEntry(Role.ADMIN, 1L);
+    }
+
+    @Test
+    void clear_EmptiesDirectory() {
+        userDirectory.apply(snapshot(1L, "john", Role.USER));
+
+        userDirectory.clear();
+
+        assertThat(userDirectory.list(null, 0, 10)).isEmpty();
+        assertThat(userDirectory.countByRole()).containsEntry(Role.USER, 0L);
+        assertThat(meterRegistry.get("user.directory.users").tag("role", "USER").gauge().value()).isZero();
+    }
+
+    private static UserStateSnapshot snapshot(Long id, String username, Role role) {
+        return new UserStateSnapshot(id, username, username + "@example.com", "First", "Last", role, true, true);
+    }
+}
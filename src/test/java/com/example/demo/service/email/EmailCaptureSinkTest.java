@@ -0,0 +1,79 @@
+package com.example.demo.service.email;
+
+import com.example.demo.exception.EmailException.EmailOperation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailCaptureSinkTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void recent_ReturnsNewestFirstAndKeepsOnlyCapacity() {
+        EmailCaptureSink sink = new EmailCaptureSink(4, meterRegistry);
+
+        for (int i = 0; i < 6; i++) {
+            sink.capture(EmailOperation.WELCOME_EMAIL, "user" + i + "@example.com", "user" + i, null, "http://a/login");
+        }
+
+        assertThat(sink.capacity()).isEqualTo(4);
+        assertThat(sink.recent(10)).extracting(CapturedEmail::to)
+                .containsExactly("user5@example.com", "user4@example.com", "user3@example.com", "user2@example.com");
+        assertThat(sink.recent(2)).hasSize(2);
+    }
+
+    @Test
+    void drain_ReturnsEachEmailOnce() {
+        EmailCaptureSink sink = new EmailCaptureSink(16, meterRegistry);
+        sink.capture(EmailOperation.EMAIL_VERIFICATION, "a@example.com", "a", "token-a", "http://a/verify-email?token=token-a");
+        sink.capture(EmailOperation.PASSWORD_RESET, "b@example.com", "b", "token-b", "http://a/reset-password?token=token-b");
+
+        List<CapturedEmail> first = sink.drain();
+        sink.capture(EmailOperation.WELCOME_EMAIL, "a@example.com", "a", null, "http://a/login");
+        List<CapturedEmail> second = sink.drain();
+
+        assertThat(first).extracting(CapturedEmail::token).containsExactly("token-a", "token-b");
+        assertThat(second).extracting(CapturedEmail::operation).containsExactly(EmailOperation.WELCOME_EMAIL);
+        assertThat(sink.drain()).isEmpty();
+    }
+
+    @Test
+    void latest_FindsNewestTokenForRecipientAndOperation() {
+        EmailCaptureSink sink = new EmailCaptureSink(16, meterRegistry);
+        sink.capture(EmailOperation.EMAIL_VERIFICATION, "a@example.com", "a", "old", "http://a/verify-email?token=old");
+        sink.capture(EmailOperation.EMAIL_VERIFICATION, "a@example.com", "a", "new", "http://a/verify-email?token=new");
+        sink.capture(EmailOperation.PASSWORD_RESET, "a@example.com", "a", "reset", "http://a/reset-password?token=reset");
+
+        assertThat(sink.latest("A@example.com", EmailOperation.EMAIL_VERIFICATION))
+                .map(CapturedEmail::token).contains("new");
+        assertThat(sink.latest("b@example.com", EmailOperation.EMAIL_VERIFICATION)).isEmpty();
+    }
+
+    @Test
+    void capture_ConcurrentWriters_CountsEveryEmail() throws InterruptedException {
+        EmailCaptureSink sink = new EmailCaptureSink(1024, meterRegistry);
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            writers.execute(() -> {
+                for (int n = 0; n < 10_000; n++) {
+                    sink.capture(EmailOperation.EMAIL_VERIFICATION, "user@example.com", "user", "t" + n, "http://a");
+                }
+            });
+        }
+        writers.shutdown();
+        assertThat(writers.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(sink.captured()).isEqualTo(80_000);
+        assertThat(sink.counts()).containsEntry(EmailOperation.EMAIL_VERIFICATION, 80_000L);
+        assertThat(sink.recent(2048)).hasSize(1024);
+        assertThat(meterRegistry.get("email.mock.captured").tag("operation", "EMAIL_VERIFICATION")
+                .functionCounter().count()).isEqualTo(80_000.0);
+    }
+}
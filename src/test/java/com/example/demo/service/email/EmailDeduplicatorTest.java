@@ -0,0 +1,114 @@
+package com.example.demo.service.email;
+
+import com.example.demo.domain.VerificationToken.TokenType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailDeduplicatorTest {
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-01T10:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EmailDeduplicator deduplicator = new EmailDeduplicator(Duration.ofMinutes(2), Duration.ofMinutes(30),
+            3, meterRegistry, new Clock() {
+                @Override
+                public ZoneOffset getZone() {
+                    return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(ZoneId zone) {
+                    return this;
+                }
+
+                @Override
+                public Instant instant() {
+                    return now.get();
+                }
+            });
+
+    @Test
+    void claim_WithinSuppressWindow_IsSuppressed() {
+        assertThat(deduplicator.claim(1L, TokenType.PASSWORD_RESET).suppressed()).isFalse();
+        deduplicator.recordSent(1L, TokenType.PASSWORD_RESET, "token-1");
+        advance(Duration.ofSeconds(90));
+
+        assertThat(deduplicator.claim(1L, TokenType.PASSWORD_RESET).suppressed()).isTrue();
+        assertThat(deduplicator.claim(1L, TokenType.EMAIL_VERIFICATION).suppressed()).isFalse();
+        assertThat(deduplicator.claim(2L, TokenType.PASSWORD_RESET).suppressed()).isFalse();
+        assertThat(meterRegistry.get("email.dedup").tag("outcome", "suppressed").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void claim_AfterSuppressWindow_OffersTokenUntilReuseWindowEnds() {
+        deduplicator.claim(1L, TokenType.PASSWORD_RESET);
+        deduplicator.recordSent(1L, TokenType.PASSWORD_RESET, "token-1");
+
+        advance(Duration.ofMinutes(5));
+        EmailDeduplicator.Claim reuse = deduplicator.claim(1L, TokenType.PASSWORD_RESET);
+        deduplicator.recordSent(1L, TokenType.PASSWORD_RESET, "token-1");
+
+        advance(Duration.ofMinutes(26));
+        EmailDeduplicator.Claim expired = deduplicator.claim(1L, TokenType.PASSWORD_RESET);
+
+        assertThat(reuse.suppressed()).isFalse();
+        assertThat(reuse.reusableToken()).isEqualTo("token-1");
+        assertThat(expired.suppressed()).isFalse();
+        assertThat(expired.reusableToken()).isNull();
+    }
+
+    @Test
+    void forget_AllowsImmediateNewSend() {
+        deduplicator.claim(1L, TokenType.PASSWORD_RESET);
+        deduplicator.recordSent(1L, TokenType.PASSWORD_RESET, "token-1");
+
+        deduplicator.forget(1L, TokenType.PASSWORD_RESET);
+
+        EmailDeduplicator.Claim claim = deduplicator.claim(1L, TokenType.PASSWORD_RESET);
+        assertThat(claim.suppressed()).isFalse();
+        assertThat(claim.reusableToken()).isNull();
+    }
+
+    @Test
+    void claim_BeyondMaxEntries_EvictsLeastRecentlyUsed() {
+        for (long userId = 1; userId <= 4; userId++) {
+            deduplicator.claim(userId, TokenType.PASSWORD_RESET);
+        }
+
+        assertThat(deduplicator.claim(1L, TokenType.PASSWORD_RESET).suppressed()).isFalse();
+        assertThat(deduplicator.claim(4L, TokenType.PASSWORD_RESET).suppressed()).isTrue();
+    }
+
+    @Test
+    void claim_ConcurrentRequests_OnlyOneProceeds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<EmailDeduplicator.Claim>> claims = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            claims.add(executor.submit(() -> deduplicator.claim(1L, TokenType.PASSWORD_RESET)));
+        }
+        executor.shutdown();
+
+        int proceeded = 0;
+        for (Future<EmailDeduplicator.Claim> claim : claims) {
+            proceeded += claim.get().suppressed() ? 0 : 1;
+        }
+        assertThat(proceeded).isEqualTo(1);
+    }
+
+    private void advance(Duration duration) {
+        now.updateAndGet(instant -> instant.plus(duration));
+    }
+}
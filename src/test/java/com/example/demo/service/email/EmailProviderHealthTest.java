@@ -0,0 +1,102 @@
+package com.example.demo.service.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailProviderHealthTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(8);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void errorRateAboveLimit_TakesProviderOutOfRotation() {
+        EmailProviderHealth health = health(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 4; i++) {
+            health.recordSuccess(FAST);
+            health.recordFailure(FAST);
+        }
+        assertThat(health.tryAcquire()).isTrue();
+
+        health.recordFailure(FAST);
+        health.recordFailure(FAST);
+
+        assertThat(health.errorRate()).isEqualTo(0.6);
+        assertThat(health.isHealthy()).isFalse();
+        assertThat(health.tryAcquire()).isFalse();
+        assertThat(meterRegistry.get("email.provider.healthy").tag("provider", "ses").gauge().value()).isZero();
+    }
+
+    @Test
+    void p95LatencyAboveLimit_TakesProviderOutOfRotation() {
+        EmailProviderHealth health = health(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 9; i++) {
+            health.recordSuccess(FAST);
+        }
+        health.recordSuccess(SLOW);
+
+        assertThat(health.p95Nanos()).isEqualTo(SLOW);
+        assertThat(health.isHealthy()).isFalse();
+        assertThat(meterRegistry.get("email.provider.latency").tag("outcome", "success").timer().count())
+                .isEqualTo(10);
+    }
+
+    @Test
+    void fewerThanMinSamples_StaysInRotation() {
+        EmailProviderHealth health = health(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 9; i++) {
+            health.recordFailure(SLOW);
+        }
+
+        assertThat(health.isHealthy()).isTrue();
+    }
+
+    @Test
+    void afterCooldown_AdmitsOneTrialSend() {
+        EmailProviderHealth health = health(Duration.ZERO);
+        for (int i = 0; i < 10; i++) {
+            health.recordFailure(FAST);
+        }
+
+        assertThat(health.tryAcquire()).isTrue();
+        assertThat(health.tryAcquire()).isFalse();
+
+        health.recordFailure(FAST);
+        assertThat(health.isHealthy()).isFalse();
+
+        assertThat(health.tryAcquire()).isTrue();
+        health.recordSuccess(FAST);
+
+        assertThat(health.isHealthy()).isTrue();
+        assertThat(health.errorRate()).isZero();
+        assertThat(health.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void window_ForgetsOldestSends() {
+        EmailProviderHealth health = health(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 5; i++) {
+            health.recordFailure(FAST);
+        }
+        for (int i = 0; i < 20; i++) {
+            health.recordSuccess(FAST);
+        }
+
+        assertThat(health.errorRate()).isZero();
+        assertThat(health.isHealthy()).isTrue();
+    }
+
+    private EmailProviderHealth health(Duration cooldown) {
+        return new EmailProviderHealth("ses", 20, 10, 0.5, Duration.ofSeconds(5), cooldown, meterRegistry);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.service.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailRateGovernorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void acquire_Unlimited_NeverWaits() throws InterruptedException {
+        EmailRateGovernor governor = governor(0, 0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            governor.acquire();
+        }
+
+        assertThat(governor.isLimited()).isFalse();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500);
+    }
+
+    @Test
+    void acquire_BeyondBurst_PacesToConfiguredRate() throws InterruptedException {
+        EmailRateGovernor governor = governor(20, 2);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 8; i++) {
+            governor.acquire();
+        }
+
+        // 2 permits from the burst, the remaining 6 at 20 per second
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isBetween(270L, 1000L);
+    }
+
+    @Test
+    void onThrottled_HalvesRateOncePerSecondDownToMinimum() {
+        EmailRateGovernor governor = governor(14, 14);
+
+        governor.onThrottled();
+        governor.onThrottled();
+
+        assertThat(governor.currentRate()).isEqualTo(7.0);
+        assertThat(meterRegistry.get("email.rate.throttled").tag("provider", "ses").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("email.rate.limit").gauge().value()).isEqualTo(7.0);
+    }
+
+    @Test
+    void onSuccess_RecoversRateUpToMaximum() {
+        EmailRateGovernor governor = governor(14, 14);
+        governor.onThrottled();
+
+        for (int i = 0; i < 1_000; i++) {
+            governor.onSuccess();
+        }
+
+        assertThat(governor.currentRate()).isEqualTo(14.0);
+    }
+
+    private EmailRateGovernor governor(double maxPerSecond, double burst) {
+        return new EmailRateGovernor("ses", maxPerSecond, burst, 1, 0.5, 1, meterRegistry);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.service.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class EmailTemplateRendererTest {
+
+    private static final EmailRecipient RECIPIENT =
+            new EmailRecipient("johndoe", "john.doe@example.com", "John", "O'Brien <Jr>");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TemplateEngine templateEngine;
+    private EmailTemplateRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        templateEngine = spy(engine);
+        renderer = new EmailTemplateRenderer(templateEngine, meterRegistry);
+    }
+
+    @Test
+    void render_ShouldMatchDirectThymeleafOutputForEveryTemplate() {
+        String url = "http://localhost:8080/verify-email?token=abc&x=\"1\"";
+
+        for (EmailTemplate template : EmailTemplate.values()) {
+            assertThat(renderer.render(template, RECIPIENT, url, Locale.ENGLISH))
+                    .as(template.getTemplateName())
+                    .isEqualTo(renderDirectly(template, url));
+        }
+    }
+
+    @Test
+    void render_ShouldRecordRenderTimePerTemplate() {
+        renderer.render(EmailTemplate.PASSWORD_RESET, RECIPIENT, "http://a/reset-password?token=1", Locale.ENGLISH);
+        renderer.render(EmailTemplate.PASSWORD_RESET, RECIPIENT, "http://a/reset-password?token=2", Locale.ENGLISH);
+
+        assertThat(meterRegistry.get("email.template.render")
+                .tag("template", "password-reset").tag("operation", "PASSWORD_RESET").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void render_ShouldEscapeRecipientValues() {
+        EmailRecipient recipient = new EmailRecipient("eve", "eve@example.com", "<script>alert(1)</script>", "X");
+
+        String html = renderer.render(EmailTemplate.WELCOME, recipient, "http://localhost/login", Locale.ENGLISH);
+
+        assertThat(html).doesNotContain("<script>").contains("&lt;script&gt;alert(1)&lt;/script&gt;");
+    }
+
+    @Test
+    void render_ShouldProcessEachTemplateOncePerLocale() {
+        renderer.render(EmailTemplate.PASSWORD_RESET, RECIPIENT, "http://a/reset-password?token=1", Locale.ENGLISH);
+        renderer.render(EmailTemplate.PASSWORD_RESET, RECIPIENT, "http://a/reset-password?token=2", Locale.ENGLISH);
+        renderer.render(EmailTemplate.PASSWORD_RESET, RECIPIENT, "http://a/reset-password?token=3", Locale.FRENCH);
+
+        verify(templateEngine, times(2)).process(eq("password-reset"), any(Context.class));
+    }
+
+    @Test
+    void render_ShouldSubstituteValuesPerSend() {
+        String first = renderer.render(EmailTemplate.EMAIL_VERIFICATION, RECIPIENT, "http://a/verify-email?token=one", Locale.ENGLISH);
+        String second = renderer.render(EmailTemplate.EMAIL_VERIFICATION,
+                new EmailRecipient("jane", "jane@example.com", "Jane", "Smith"), "http://a/verify-email?token=two", Locale.ENGLISH);
+
+        assertThat(first).contains("John").contains("token=one").doesNotContain("token=two");
+        assertThat(second).contains("Jane").contains("token=two").doesNotContain("John");
+    }
+
+    @Test
+    void renderPlaceholders_FilledWithEscapedVariables_ShouldMatchRender() {
+        String url = "http://a/reset-password?token=abc&x=1";
+        Map<String, String> variables = renderer.variables(EmailTemplate.PASSWORD_RESET, RECIPIENT, url);
+
+        String template = renderer.renderPlaceholders(EmailTemplate.PASSWORD_RESET, Locale.ENGLISH, name -> "{{" + name + "}}");
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            template = template.replace("{{" + variable.getKey() + "}}", HtmlUtils.htmlEscape(variable.getValue()));
+        }
+
+        assertThat(template).isEqualTo(renderer.render(EmailTemplate.PASSWORD_RESET, RECIPIENT, url, Locale.ENGLISH));
+        assertThat(variables).containsEntry("resetUrl", url).containsEntry("lastName", "O'Brien <Jr>");
+    }
+
+    private String renderDirectly(EmailTemplate template, String url) {
+        Context context = new Context(Locale.ENGLISH);
+        context.setVariable("firstName", RECIPIENT.firstName());
+        context.setVariable("lastName", RECIPIENT.lastName());
+        context.setVariable("email", RECIPIENT.email());
+        context.setVariable("username", RECIPIENT.username());
+        context.setVariable(template.getUrlVariable(), url);
+        return templateEngine.process(template.getTemplateName(), context);
+    }
+}
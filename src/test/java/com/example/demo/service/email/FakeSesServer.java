@@ -0,0 +1,171 @@
+package com.example.demo.service.email;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal SES query API endpoint for tests and load tests: answers {@code SendEmail},
+ * {@code SendBulkTemplatedEmail}, {@code GetTemplate} and {@code CreateTemplate} after an optional
+ * fixed latency, and records what it received. Recipients added to {@link #reject} get a
+ * {@code MessageRejected} status.
+ */
+public class FakeSesServer implements AutoCloseable {
+
+    private static final String NAMESPACE = "http://ses.amazonaws.com/doc/2010-12-01/";
+
+    static {
+        // Without it the JDK server's separate header and body writes stall on delayed ACKs
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(64);
+    private final long latencyMillis;
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final Map<String, String> templates = new ConcurrentHashMap<>();
+    private final Queue<String> recipients = new ConcurrentLinkedQueue<>();
+    private final Set<String> rejected = ConcurrentHashMap.newKeySet();
+
+    public FakeSesServer(long latencyMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String endpoint() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public int requests(String action) {
+        AtomicInteger count = requests.get(action);
+        return count != null ? count.get() : 0;
+    }
+
+    public Queue<String> recipients() {
+        return recipients;
+    }
+
+    public Map<String, String> templates() {
+        return templates;
+    }
+
+    public void reject(String email) {
+        rejected.add(email);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Map<String, String> params = parse(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String action = params.getOrDefault("Action", "");
+        requests.computeIfAbsent(action, a -> new AtomicInteger()).incrementAndGet();
+        pause();
+
+        switch (action) {
+            case "SendEmail" -> {
+                String to = params.get("Destination.ToAddresses.member.1");
+                recipients.add(to);
+                if (rejected.contains(to)) {
+                    respond(exchange, 400, error("MessageRejected", "Email address is not verified."));
+                } else {
+                    respond(exchange, 200, result(action, "<MessageId>" + UUID.randomUUID() + "</MessageId>"));
+                }
+            }
+            case "SendBulkTemplatedEmail" -> {
+                StringBuilder statuses = new StringBuilder("<Status>");
+                for (int i = 1; params.containsKey(destination(i)); i++) {
+                    String to = params.get(destination(i));
+                    recipients.add(to);
+                    statuses.append(rejected.contains(to)
+                            ? "<member><Status>MessageRejected</Status><Error>Email address is not verified.</Error></member>"
+                            : "<member><Status>Success</Status><MessageId>" + UUID.randomUUID() + "</MessageId></member>");
+                }
+                respond(exchange, 200, result(action, statuses.append("</Status>").toString()));
+            }
+            case "GetTemplate" -> {
+                String html = templates.get(params.get("TemplateName"));
+                if (html == null) {
+                    respond(exchange, 400, error("TemplateDoesNotExist", "Template does not exist"));
+                } else {
+                    respond(exchange, 200, result(action, "<Template><TemplateName>" + params.get("TemplateName")
+                            + "</TemplateName></Template>"));
+                }
+            }
+            case "CreateTemplate" -> {
+                templates.put(params.get("Template.TemplateName"), params.get("Template.HtmlPart"));
+                respond(exchange, 200, result(action, ""));
+            }
+            default -> respond(exchange, 400, error("InvalidAction", "Unsupported action " + action));
+        }
+    }
+
+    private void pause() {
+        if (latencyMillis > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static String destination(int index) {
+        return "Destinations.member." + index + ".Destination.ToAddresses.member.1";
+    }
+
+    private static String result(String action, String body) {
+        return "<" + action + "Response xmlns=\"" + NAMESPACE + "\"><" + action + "Result>" + body + "</" + action
+                + "Result><ResponseMetadata><RequestId>" + UUID.randomUUID() + "</RequestId></ResponseMetadata></"
+                + action + "Response>";
+    }
+
+    private static String error(String code, String message) {
+        return "<ErrorResponse xmlns=\"" + NAMESPACE + "\"><Error><Type>Sender</Type><Code>" + code
+                + "</Code><Message>" + message + "</Message></Error><RequestId>" + UUID.randomUUID()
+                + "</RequestId></ErrorResponse>";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String xml) throws IOException {
+        byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/xml");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> parse(String form) {
+        Map<String, String> params = new HashMap<>();
+        for (String pair : form.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+}
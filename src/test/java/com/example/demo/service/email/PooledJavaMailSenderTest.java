@@ -0,0 +1,175 @@
+package com.example.demo.service.email;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PooledJavaMailSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private PooledJavaMailSender mailSender;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = newSender(2, 100, 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mailSender.destroy();
+    }
+
+    @Test
+    void send_ReusesConnectionAcrossMessages() {
+        for (int i = 0; i < 10; i++) {
+            mailSender.send(message(i));
+        }
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(10);
+        assertThat(mailSender.getConnectionsOpened()).isEqualTo(1);
+    }
+
+    @Test
+    void send_Batch_GoesOutOverOneConnection() {
+        SimpleMailMessage[] batch = new SimpleMailMessage[20];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = message(i);
+        }
+
+        mailSender.send(batch);
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(20);
+        assertThat(mailSender.getConnectionsOpened()).isEqualTo(1);
+    }
+
+    @Test
+    void send_MaxMessagesPerConnectionReached_OpensNewConnection() {
+        mailSender.destroy();
+        mailSender = newSender(1, 3, 0L);
+
+        for (int i = 0; i < 7; i++) {
+            mailSender.send(message(i));
+        }
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(7);
+        assertThat(mailSender.getConnectionsOpened()).isEqualTo(3);
+    }
+
+    @Test
+    void send_ConcurrentCallers_NeverOpenMoreConnectionsThanPoolSize() throws InterruptedException {
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 40; i++) {
+            int n = i;
+            callers.execute(() -> mailSender.send(message(n)));
+        }
+        callers.shutdown();
+        assertThat(callers.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(40);
+        assertThat(mailSender.getConnectionsOpened()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void send_FromVirtualThreads_SendsOnTransportThreadsWithinPoolSize() throws InterruptedException {
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 40; i++) {
+                int n = i;
+                callers.execute(() -> mailSender.send(message(n)));
+            }
+        }
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(40);
+        assertThat(mailSender.getConnectionsOpened()).isLessThanOrEqualTo(2);
+        assertThat(Thread.getAllStackTraces().keySet())
+                .anyMatch(thread -> thread.getName().startsWith("smtp-transport-"));
+    }
+
+    @Test
+    void send_FromVirtualThreadServerDown_ThrowsMailSendException() throws InterruptedException {
+        greenMail.stop();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread.ofVirtual().start(() -> {
+            try {
+                mailSender.send(message(0));
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+        }).join();
+
+        assertThat(failure.get()).isInstanceOf(MailSendException.class);
+    }
+
+    @Test
+    void send_FromVirtualThreadAfterDestroy_ReturnsConnectionToPool() throws InterruptedException {
+        mailSender.destroy();
+        mailSender = newSender(1, 100, 0L);
+        mailSender.destroy();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread.ofVirtual().start(() -> {
+            try {
+                mailSender.send(message(0));
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+        }).join();
+
+        assertThat(failure.get()).isInstanceOf(MailSendException.class);
+        // The single connection is back, so a platform thread still gets one
+        mailSender.send(message(1));
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+
+    @Test
+    void send_ServerRestarted_ReconnectsAfterValidation() {
+        mailSender.send(message(0));
+
+        greenMail.reset();
+        mailSender.send(message(1));
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(mailSender.getConnectionsOpened()).isEqualTo(2);
+    }
+
+    @Test
+    void send_ServerDown_ThrowsMailSendException() {
+        greenMail.stop();
+
+        assertThatThrownBy(() -> mailSender.send(message(0))).isInstanceOf(MailSendException.class);
+    }
+
+    private PooledJavaMailSender newSender(int poolSize, int maxMessagesPerConnection, long validateAfterIdleMs) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(poolSize, maxMessagesPerConnection,
+                validateAfterIdleMs, 60_000L, 5_000L);
+        sender.setHost("localhost");
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+        return sender;
+    }
+
+    private SimpleMailMessage message(int n) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@informasyx.com");
+        message.setTo("user" + n + "@example.com");
+        message.setSubject("Message " + n);
+        message.setText("Body " + n);
+        return message;
+    }
+}
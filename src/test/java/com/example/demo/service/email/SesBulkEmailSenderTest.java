@@ -0,0 +1,154 @@
+package com.example.demo.service.email;
+
+import com.amazonaws.services.simpleemail.AmazonSimpleEmailServiceAsync;
+import com.amazonaws.services.simpleemail.model.AmazonSimpleEmailServiceException;
+import com.example.demo.config.SesConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SesBulkEmailSenderTest {
+
+    private FakeSesServer fakeSes;
+    private AmazonSimpleEmailServiceAsync sesClient;
+    private EmailTemplateRenderer renderer;
+    private SesBulkEmailSender sender;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fakeSes = new FakeSesServer(0);
+        sesClient = new SesConfig().sesClient("test", "test", "us-east-1", fakeSes.endpoint(), 8, 2000, 5000, 60000, 0);
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        renderer = new EmailTemplateRenderer(engine, new SimpleMeterRegistry());
+
+        sender = newSender(true);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        sender.shutdown();
+        sesClient.shutdown();
+        fakeSes.close();
+    }
+
+    @Test
+    void start_RegistersOneSesTemplatePerEmailTemplateOnlyOnce() throws InterruptedException {
+        newSender(true).shutdown();
+
+        assertThat(fakeSes.requests("CreateTemplate")).isEqualTo(EmailTemplate.values().length);
+        assertThat(fakeSes.templates().keySet()).allMatch(name -> name.startsWith("test-"));
+        assertThat(fakeSes.templates().values()).allMatch(html -> html.contains("{{firstName}}"));
+    }
+
+    @Test
+    void send_ConcurrentEmailsForSameTemplate_AreCoalescedIntoOneBulkRequest() throws Exception {
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(sender.send(EmailTemplate.WELCOME, recipient(i), "http://localhost/login"));
+        }
+
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(fakeSes.requests("SendBulkTemplatedEmail")).isEqualTo(1);
+        assertThat(fakeSes.requests("SendEmail")).isZero();
+        assertThat(fakeSes.recipients()).hasSize(10).contains("user0@example.com", "user9@example.com");
+        assertThat(results).allMatch(result -> result.join() != null);
+    }
+
+    @Test
+    void send_SingleEmail_UsesPlainSendEmail() throws Exception {
+        String messageId = sender.send(EmailTemplate.PASSWORD_RESET, recipient(1), "http://localhost/reset-password?token=t")
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(messageId).isNotBlank();
+        assertThat(fakeSes.requests("SendEmail")).isEqualTo(1);
+        assertThat(fakeSes.requests("SendBulkTemplatedEmail")).isZero();
+    }
+
+    @Test
+    void send_RejectedRecipientInBulk_FailsOnlyThatEmail() throws Exception {
+        fakeSes.reject("user1@example.com");
+
+        CompletableFuture<String> accepted = sender.send(EmailTemplate.WELCOME, recipient(0), "http://localhost/login");
+        CompletableFuture<String> rejected = sender.send(EmailTemplate.WELCOME, recipient(1), "http://localhost/login");
+
+        assertThat(accepted.get(5, TimeUnit.SECONDS)).isNotBlank();
+        assertThatThrownBy(() -> rejected.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(AmazonSimpleEmailServiceException.class)
+                .hasMessageContaining("not verified");
+    }
+
+    @Test
+    void send_BulkDisabled_SendsEachEmailIndividually() throws Exception {
+        sender.shutdown();
+        sender = newSender(false);
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(sender.send(EmailTemplate.WELCOME, recipient(i), "http://localhost/login"));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(fakeSes.requests("SendEmail")).isEqualTo(3);
+        assertThat(fakeSes.requests("SendBulkTemplatedEmail")).isZero();
+    }
+
+    @Test
+    void shutdown_SendsEmailsStillQueued() throws InterruptedException {
+        CompletableFuture<String> result = sender.send(EmailTemplate.WELCOME, recipient(0), "http://localhost/login");
+
+        sender.shutdown();
+
+        assertThat(result).isCompleted();
+        assertThat(fakeSes.recipients()).containsExactly("user0@example.com");
+    }
+
+    @Test
+    void send_RacingShutdownAfterDispatcherExited_FailsTheEmail() throws InterruptedException {
+        sender.shutdown();
+        // As if the send had passed its running check just before shutdown
+        ReflectionTestUtils.setField(sender, "running", true);
+
+        CompletableFuture<String> result = sender.send(EmailTemplate.WELCOME, recipient(0), "http://localhost/login");
+
+        assertThat(result).isCompletedExceptionally();
+        assertThat(fakeSes.recipients()).isEmpty();
+    }
+
+    private SesBulkEmailSender newSender(boolean bulkEnabled) {
+        SesBulkEmailSender newSender = new SesBulkEmailSender(sesClient, renderer, new ObjectMapper());
+        ReflectionTestUtils.setField(newSender, "fromEmail", "noreply@informasyx.com");
+        ReflectionTestUtils.setField(newSender, "bulkEnabled", bulkEnabled);
+        ReflectionTestUtils.setField(newSender, "maxBatchSize", 50);
+        ReflectionTestUtils.setField(newSender, "lingerMs", 200L);
+        ReflectionTestUtils.setField(newSender, "templatePrefix", "test-");
+        ReflectionTestUtils.setField(newSender, "drainTimeoutSeconds", 5L);
+        newSender.start();
+        return newSender;
+    }
+
+    private EmailRecipient recipient(int n) {
+        return new EmailRecipient("user" + n, "user" + n + "@example.com", "User", String.valueOf(n));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.service.event;
+
+import com.example.demo.domain.Role;
+import com.example.demo.event.UserCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventDeduplicationInterceptorTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("user-events", 0);
+
+    private final EventDeduplicator deduplicator = new EventDeduplicator("test", Duration.ofMinutes(60), 4, 1000,
+            new SimpleMeterRegistry());
+    private final EventDeduplicationInterceptor interceptor = new EventDeduplicationInterceptor(deduplicator);
+
+    @Test
+    void interceptBatch_DropsEventsAlreadyProcessed() {
+        UserCreatedEvent event = event(1L);
+        UserCreatedEvent redelivered = event(1L);
+        redelivered.setEventId(event.getEventId());
+
+        ConsumerRecords<String, Object> first = interceptor.intercept(batch(record(0, event), record(1, null)), null);
+        ConsumerRecords<String, Object> second = interceptor.intercept(
+                batch(record(2, redelivered), record(3, event(2L))), null);
+
+        assertThat(first.count()).isEqualTo(2);
+        assertThat(second.records(PARTITION)).extracting(ConsumerRecord::offset).containsExactly(3L);
+    }
+
+    @Test
+    void interceptBatch_DuplicateWithinBatch_IsDropped() {
+        UserCreatedEvent event = event(1L);
+
+        ConsumerRecords<String, Object> records = interceptor.intercept(batch(record(0, event), record(1, event)), null);
+
+        assertThat(records.records(PARTITION)).extracting(ConsumerRecord::offset).containsExactly(0L);
+    }
+
+    @Test
+    void failedBatch_IsProcessedAgainWhenRedelivered() {
+        ConsumerRecords<String, Object> batch = batch(record(0, event(1L)));
+        ConsumerRecords<String, Object> intercepted = interceptor.intercept(batch, null);
+
+        interceptor.failure(intercepted, new IllegalStateException("listener failed"), null);
+
+        assertThat(interceptor.intercept(batch, null).count()).isEqualTo(1);
+    }
+
+    @Test
+    void interceptRecord_DropsDuplicateAndReleasesOnFailure() {
+        ConsumerRecord<String, Object> record = record(0, event(1L));
+
+        assertThat(interceptor.intercept(record, null)).isSameAs(record);
+        assertThat(interceptor.intercept(record, null)).isNull();
+
+        interceptor.failure(record, new IllegalStateException("listener failed"), null);
+
+        assertThat(interceptor.intercept(record, null)).isSameAs(record);
+    }
+
+    private static UserCreatedEvent event(Long userId) {
+        return new UserCreatedEvent(userId, "user" + userId, "user" + userId + "@example.com", "First", "Last",
+                Role.USER, "admin", LocalDateTime.now());
+    }
+
+    private static ConsumerRecord<String, Object> record(long offset, Object value) {
+        return new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, "key", value);
+    }
+
+    @SafeVarargs
+    private static ConsumerRecords<String, Object> batch(ConsumerRecord<String, Object>... records) {
+        return new ConsumerRecords<>(Map.of(PARTITION, List.of(records)));
+    }
+}
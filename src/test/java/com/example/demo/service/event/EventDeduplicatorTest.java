@@ -0,0 +1,140 @@
+package com.example.demo.service.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventDeduplicatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-01T10:00:00Z"));
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    };
+
+    @Test
+    void claim_SecondClaimOfSameId_IsDuplicate() {
+        EventDeduplicator deduplicator = deduplicator(1000);
+        String eventId = UUID.randomUUID().toString();
+
+        assertThat(deduplicator.claim(eventId)).isTrue();
+        assertThat(deduplicator.claim(eventId)).isFalse();
+        assertThat(deduplicator.claim(UUID.randomUUID().toString())).isTrue();
+
+        assertThat(deduplicator.size()).isEqualTo(2);
+        assertThat(meterRegistry.get("kafka.dedup.events").tag("outcome", "duplicate").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("kafka.dedup.entries").tag("listener", "test").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void claim_NonUuidIds_AreHashed() {
+        EventDeduplicator deduplicator = deduplicator(1000);
+
+        assertThat(deduplicator.claim("outbox-42")).isTrue();
+        assertThat(deduplicator.claim("outbox-42")).isFalse();
+        assertThat(deduplicator.claim("outbox-43")).isTrue();
+        assertThat(deduplicator.claim("00000000-0000-0000-0000-000000000000")).isTrue();
+        assertThat(deduplicator.claim("00000000-0000-0000-0000-000000000000")).isFalse();
+    }
+
+    @Test
+    void claim_AfterWindow_IsForgotten() {
+        EventDeduplicator deduplicator = deduplicator(1000);
+        String eventId = UUID.randomUUID().toString();
+        deduplicator.claim(eventId);
+
+        // Still remembered until its bucket comes round again
+        advance(Duration.ofMinutes(40));
+        assertThat(deduplicator.claim(eventId)).isFalse();
+
+        advance(Duration.ofMinutes(20));
+        assertThat(deduplicator.claim(eventId)).isTrue();
+        assertThat(meterRegistry.get("kafka.dedup.rotations").tag("reason", "expired").counter().count())
+                .isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void claim_FullBucket_RotatesEarlyWithinFixedMemory() {
+        EventDeduplicator deduplicator = deduplicator(40);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String eventId = UUID.randomUUID().toString();
+            ids.add(eventId);
+            assertThat(deduplicator.claim(eventId)).isTrue();
+        }
+
+        assertThat(deduplicator.size()).isLessThanOrEqualTo(40);
+        assertThat(deduplicator.claim(ids.get(199))).isFalse();
+        assertThat(deduplicator.claim(ids.get(0))).isTrue();
+        assertThat(meterRegistry.get("kafka.dedup.rotations").tag("reason", "full").counter().count()).isPositive();
+    }
+
+    @Test
+    void release_ForgetsIdAndKeepsOthersFindable() {
+        EventDeduplicator deduplicator = deduplicator(4000);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ids.add(UUID.randomUUID().toString());
+            deduplicator.claim(ids.get(i));
+        }
+
+        for (int i = 0; i < ids.size(); i += 2) {
+            deduplicator.release(ids.get(i));
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            // Odd ids are still there; released ones are claimed afresh
+            assertThat(deduplicator.claim(ids.get(i))).isEqualTo(i % 2 == 0);
+        }
+    }
+
+    @Test
+    void clear_ForgetsEverything() {
+        EventDeduplicator deduplicator = deduplicator(1000);
+        deduplicator.claim("event-1");
+
+        deduplicator.clear();
+
+        assertThat(deduplicator.size()).isZero();
+        assertThat(deduplicator.claim("event-1")).isTrue();
+    }
+
+    @Test
+    void constructor_TooFewBuckets_Throws() {
+        assertThatThrownBy(() -> new EventDeduplicator("test", Duration.ofMinutes(1), 1, 100, meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void advance(Duration duration) {
+        now.updateAndGet(instant -> instant.plus(duration));
+    }
+
+    private EventDeduplicator deduplicator(int maxEntries) {
+        return new EventDeduplicator("test", Duration.ofMinutes(60), 4, maxEntries, meterRegistry, clock);
+    }
+}
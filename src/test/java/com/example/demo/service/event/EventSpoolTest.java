@@ -0,0 +1,132 @@
+package com.example.demo.service.event;
+
+import com.example.demo.domain.Role;
+import com.example.demo.event.AdminCreatedEvent;
+import com.example.demo.event.UserCreatedEvent;
+import com.example.demo.event.UserRoleChangedEvent;
+import com.example.demo.service.event.EventSpool.SpooledEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventSpoolTest {
+
+    // The JSON payload keeps millisecond precision
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30, 45, 123_000_000);
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EventSpool spool;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        spool.close();
+    }
+
+    @Test
+    void append_ThenPeekAndRemove_ReturnsEventsInOrder() throws IOException {
+        spool = open(1);
+        UserCreatedEvent created = userCreatedEvent();
+        UserRoleChangedEvent changed = new UserRoleChangedEvent(7L, "johndoe", Role.USER, Role.ADMIN,
+                "superadmin", "SUPER_ADMIN", CREATED_AT);
+
+        assertThat(spool.append("user-events", "7", created)).isTrue();
+        assertThat(spool.append("user-events", "7", changed)).isTrue();
+
+        assertThat(spool.hasBacklog()).isTrue();
+        assertThat(spool.depth()).isEqualTo(2);
+        SpooledEvent first = spool.peek().orElseThrow();
+        assertThat(first.topic()).isEqualTo("user-events");
+        assertThat(first.key()).isEqualTo("7");
+        assertThat(first.event()).isEqualTo(created);
+        assertThat(first.event().getEventId()).isEqualTo(created.getEventId());
+
+        spool.remove();
+        assertThat(spool.peek().orElseThrow().event()).isEqualTo(changed);
+        spool.remove();
+
+        assertThat(spool.hasBacklog()).isFalse();
+        assertThat(spool.peek()).isEmpty();
+        assertThat(meterRegistry.get("kafka.spool.events").tag("outcome", "replayed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void reopen_KeepsEventsNotYetReplayed() throws IOException {
+        spool = open(1);
+        AdminCreatedEvent admin = new AdminCreatedEvent(8L, "janeadmin", "jane.admin@example.com", "Jane", "Admin",
+                Role.ADMIN, "superadmin", "SUPER_ADMIN", CREATED_AT);
+        spool.append("user-events", "7", userCreatedEvent());
+        spool.append("admin-events", "8", admin);
+        spool.remove();
+        spool.close();
+
+        spool = open(1);
+
+        assertThat(spool.depth()).isEqualTo(1);
+        SpooledEvent remaining = spool.peek().orElseThrow();
+        assertThat(remaining.topic()).isEqualTo("admin-events");
+        assertThat(remaining.event()).isEqualTo(admin);
+    }
+
+    @Test
+    void append_WhenFull_DropsNewEvent() throws IOException {
+        spool = open(1);
+        int appended = 0;
+        while (spool.append("user-events", "7", userCreatedEvent())) {
+            appended++;
+        }
+
+        assertThat(appended).isGreaterThan(1000);
+        assertThat(spool.depth()).isEqualTo(appended);
+        assertThat(meterRegistry.get("kafka.spool.events").tag("outcome", "dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void drained_ReusesFileFromStart() throws IOException {
+        spool = open(1);
+        spool.append("user-events", "7", userCreatedEvent());
+        assertThat(meterRegistry.get("kafka.spool.usage").gauge().value()).isPositive();
+
+        spool.remove();
+
+        assertThat(meterRegistry.get("kafka.spool.usage").gauge().value()).isZero();
+        assertThat(meterRegistry.get("kafka.spool.depth").gauge().value()).isZero();
+        assertThat(meterRegistry.get("kafka.spool.age").gauge().value()).isZero();
+    }
+
+    @Test
+    void disabled_RefusesEvents() throws IOException {
+        spool = new EventSpool(objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(spool, "enabled", false);
+        spool.open();
+
+        assertThat(spool.append("user-events", "7", userCreatedEvent())).isFalse();
+        assertThat(spool.hasBacklog()).isFalse();
+    }
+
+    private EventSpool open(int maxSizeMb) throws IOException {
+        EventSpool eventSpool = new EventSpool(objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(eventSpool, "enabled", true);
+        ReflectionTestUtils.setField(eventSpool, "path", tempDir.resolve("spool.dat").toString());
+        ReflectionTestUtils.setField(eventSpool, "maxSizeMb", maxSizeMb);
+        eventSpool.open();
+        return eventSpool;
+    }
+
+    private static UserCreatedEvent userCreatedEvent() {
+        return new UserCreatedEvent(7L, "johndoe", "john.doe@example.com", "John", "Doe",
+                Role.USER, "superadmin", CREATED_AT);
+    }
+}
@@ -12,15 +12,17 @@ import com.example.demo.event.AdminCreatedEvent;
 import com.example.demo.event.UserCreatedEvent;
 import com.example.demo.event.UserRoleChangedEvent;
 import com.example.demo.security.SecurityUtils;
-import com.example.demo.service.EventPublisherService;
+import com.example.demo.service.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -46,7 +48,10 @@ class AdminServiceImplKafkaTest {
     private SecurityUtils securityUtils;
 
     @Mock
-    private EventPublisherService eventPublisherService;
+    private OutboxService outboxService;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
 
     @InjectMocks
     private AdminServiceImpl adminService;
@@ -128,11 +133,12 @@ class AdminServiceImplKafkaTest {
         assertTrue(response.isSuccess());
         
         ArgumentCaptor<UserCreatedEvent> eventCaptor = ArgumentCaptor.forClass(UserCreatedEvent.class);
-        verify(eventPublisherService, times(1)).publishUserCreatedEvent(eventCaptor.capture());
+        verify(outboxService, times(1)).publishUserCreatedEvent(eventCaptor.capture());
         
         UserCreatedEvent capturedEvent = eventCaptor.getValue();
         assertEquals(10L, capturedEvent.getUserId());
         assertEquals("testuser", capturedEvent.getUsername());
+        verify(outboxService).publishUserState(any(User.class));
         assertEquals("testuser@example.com", capturedEvent.getEmail());
         assertEquals("Test", capturedEvent.getFirstName());
         assertEquals("User", capturedEvent.getLastName());
@@ -178,7 +184,7 @@ class AdminServiceImplKafkaTest {
         assertTrue(response.isSuccess());
         
         ArgumentCaptor<AdminCreatedEvent> eventCaptor = ArgumentCaptor.forClass(AdminCreatedEvent.class);
-        verify(eventPublisherService, times(1)).publishAdminCreatedEvent(eventCaptor.capture());
+        verify(outboxService, times(1)).publishAdminCreatedEvent(eventCaptor.capture());
         
         AdminCreatedEvent capturedEvent = eventCaptor.getValue();
         assertEquals(11L, capturedEvent.getAdminId());
@@ -220,7 +226,7 @@ class AdminServiceImplKafkaTest {
         assertTrue(response.isSuccess());
         
         ArgumentCaptor<UserRoleChangedEvent> eventCaptor = ArgumentCaptor.forClass(UserRoleChangedEvent.class);
-        verify(eventPublisherService, times(1)).publishUserRoleChangedEvent(eventCaptor.capture());
+        verify(outboxService, times(1)).publishUserRoleChangedEvent(eventCaptor.capture());
         
         UserRoleChangedEvent capturedEvent = eventCaptor.getValue();
         assertEquals(12L, capturedEvent.getUserId());
@@ -230,6 +236,10 @@ class AdminServiceImplKafkaTest {
         assertEquals("superadmin", capturedEvent.getChangedBy());
         assertEquals("SUPER_ADMIN", capturedEvent.getChangedByRole());
         assertNotNull(capturedEvent.getChangedAt());
+
+        ArgumentCaptor<User> stateCaptor = ArgumentCaptor.forClass(User.class);
+        verify(outboxService).publishUserState(stateCaptor.capture());
+        assertEquals(Role.ADMIN, stateCaptor.getValue().getRole());
     }
 
     @Test
@@ -263,7 +273,7 @@ class AdminServiceImplKafkaTest {
         assertTrue(response.isSuccess());
         
         ArgumentCaptor<UserCreatedEvent> eventCaptor = ArgumentCaptor.forClass(UserCreatedEvent.class);
-        verify(eventPublisherService, times(1)).publishUserCreatedEvent(eventCaptor.capture());
+        verify(outboxService, times(1)).publishUserCreatedEvent(eventCaptor.capture());
         
         UserCreatedEvent capturedEvent = eventCaptor.getValue();
         assertEquals("admin", capturedEvent.getCreatedBy());
@@ -288,8 +298,8 @@ class AdminServiceImplKafkaTest {
 
         // Assert
         assertFalse(response.isSuccess());
-        verify(eventPublisherService, never()).publishUserCreatedEvent(any());
-        verify(eventPublisherService, never()).publishAdminCreatedEvent(any());
+        verify(outboxService, never()).publishUserCreatedEvent(any());
+        verify(outboxService, never()).publishAdminCreatedEvent(any());
     }
 
     @Test
@@ -307,7 +317,7 @@ class AdminServiceImplKafkaTest {
 
         // Assert
         assertFalse(response.isSuccess());
-        verify(eventPublisherService, never()).publishUserRoleChangedEvent(any());
+        verify(outboxService, never()).publishUserRoleChangedEvent(any());
     }
 
     @Test
@@ -328,8 +338,8 @@ class AdminServiceImplKafkaTest {
 
         // Assert
         assertFalse(response.isSuccess());
-        verify(eventPublisherService, never()).publishUserCreatedEvent(any());
-        verify(eventPublisherService, never()).publishAdminCreatedEvent(any());
+        verify(outboxService, never()).publishUserCreatedEvent(any());
+        verify(outboxService, never()).publishAdminCreatedEvent(any());
     }
 
     @Test
@@ -353,8 +363,8 @@ class AdminServiceImplKafkaTest {
 
         // Assert
         assertFalse(response.isSuccess());
-        verify(eventPublisherService, never()).publishUserCreatedEvent(any());
-        verify(eventPublisherService, never()).publishAdminCreatedEvent(any());
+        verify(outboxService, never()).publishUserCreatedEvent(any());
+        verify(outboxService, never()).publishAdminCreatedEvent(any());
     }
 
     @Test
@@ -376,8 +386,8 @@ class AdminServiceImplKafkaTest {
         // Assert
         assertFalse(response.isSuccess());
         assertEquals("Cannot create Super Admin users", response.getMessage());
-        verify(eventPublisherService, never()).publishUserCreatedEvent(any());
-        verify(eventPublisherService, never()).publishAdminCreatedEvent(any());
+        verify(outboxService, never()).publishUserCreatedEvent(any());
+        verify(outboxService, never()).publishAdminCreatedEvent(any());
     }
 
     @Test
@@ -399,8 +409,8 @@ class AdminServiceImplKafkaTest {
         // Assert
         assertFalse(response.isSuccess());
         assertEquals("Only Super Admin can create Admin users", response.getMessage());
-        verify(eventPublisherService, never()).publishUserCreatedEvent(any());
-        verify(eventPublisherService, never()).publishAdminCreatedEvent(any());
+        verify(outboxService, never()).publishUserCreatedEvent(any());
+        verify(outboxService, never()).publishAdminCreatedEvent(any());
     }
 
     @Test
@@ -419,8 +429,8 @@ class AdminServiceImplKafkaTest {
         savedUser.setPerson(mockPerson);
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
 
-        // Mock event publisher to throw exception
-        doThrow(new RuntimeException("Kafka failure")).when(eventPublisherService).publishUserCreatedEvent(any());
+        // Mock outbox to throw exception
+        doThrow(new RuntimeException("Kafka failure")).when(outboxService).publishUserCreatedEvent(any());
 
         AdminCreateUserRequest request = new AdminCreateUserRequest();
         request.setUsername("eventfailuser");
@@ -437,7 +447,7 @@ class AdminServiceImplKafkaTest {
         assertFalse(response.isSuccess());
         assertEquals("Failed to create user", response.getMessage());
         
-        // Verify the event publisher was called
-        verify(eventPublisherService, times(1)).publishUserCreatedEvent(any());
+        // Verify the event was recorded
+        verify(outboxService, times(1)).publishUserCreatedEvent(any());
     }
 }
\ No newline at end of file
@@ -9,14 +9,16 @@ import com.example.demo.domain.dto.ChangeRoleRequest;
 import com.example.demo.domain.repository.PersonRepository;
 import com.example.demo.domain.repository.UserRepository;
 import com.example.demo.security.SecurityUtils;
-import com.example.demo.service.EventPublisherService;
+import com.example.demo.service.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.util.Optional;
 
@@ -41,7 +43,10 @@ class AdminServiceImplTest {
     private SecurityUtils securityUtils;
 
     @Mock
-    private EventPublisherService eventPublisherService;
+    private OutboxService outboxService;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
 
     @InjectMocks
     private AdminServiceImpl adminService;
@@ -0,0 +1,194 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.domain.Person;
+import com.example.demo.domain.Role;
+import com.example.demo.domain.User;
+import com.example.demo.exception.EmailDeliveryException;
+import com.example.demo.exception.EmailDeliveryException.DeliveryFailureReason;
+import com.example.demo.exception.EmailException.EmailOperation;
+import com.example.demo.exception.EmailServiceException;
+import com.example.demo.exception.EmailTemplateException;
+import com.example.demo.service.EmailService;
+import com.example.demo.service.email.EmailMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncEmailServiceImplTest {
+
+    @Mock
+    private EmailService delegate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AsyncEmailServiceImpl asyncEmailService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        asyncEmailService = new AsyncEmailServiceImpl(delegate,
+                new EmailMetrics("smtp", List.of(Duration.ofSeconds(1)), meterRegistry), meterRegistry);
+        ReflectionTestUtils.setField(asyncEmailService, "workers", 2);
+        ReflectionTestUtils.setField(asyncEmailService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(asyncEmailService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(asyncEmailService, "initialBackoffMs", 1L);
+        ReflectionTestUtils.setField(asyncEmailService, "maxBackoffMs", 10L);
+        ReflectionTestUtils.setField(asyncEmailService, "drainTimeoutSeconds", 5L);
+        asyncEmailService.start();
+
+        Person person = new Person();
+        person.setId(1L);
+        person.setFirstName("John");
+        person.setLastName("Doe");
+        person.setEmail("john.doe@example.com");
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("johndoe");
+        testUser.setPerson(person);
+        testUser.setRole(Role.USER);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncEmailService.shutdown();
+    }
+
+    @Test
+    void sendEmailVerification_ReturnsBeforeDeliveryCompletes() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(delegate).sendEmailVerification(testUser, "token");
+
+        asyncEmailService.sendEmailVerification(testUser, "token");
+
+        verify(delegate, timeout(1000)).sendEmailVerification(testUser, "token");
+        release.countDown();
+    }
+
+    @Test
+    void sendPasswordResetEmail_RetryableFailure_RetriesUntilDelivered() {
+        doThrow(deliveryFailure(DeliveryFailureReason.SMTP_CONNECTION_FAILED))
+                .doNothing()
+                .when(delegate).sendPasswordResetEmail(testUser, "token");
+
+        asyncEmailService.sendPasswordResetEmail(testUser, "token");
+
+        verify(delegate, timeout(1000).times(2)).sendPasswordResetEmail(testUser, "token");
+    }
+
+    @Test
+    void sendPasswordResetEmail_InvalidAddress_IsNotRetried() throws InterruptedException {
+        doThrow(deliveryFailure(DeliveryFailureReason.INVALID_EMAIL_ADDRESS))
+                .when(delegate).sendPasswordResetEmail(testUser, "token");
+
+        asyncEmailService.sendPasswordResetEmail(testUser, "token");
+        asyncEmailService.shutdown();
+
+        verify(delegate, times(1)).sendPasswordResetEmail(testUser, "token");
+    }
+
+    @Test
+    void sendWelcomeEmail_PersistentFailure_GivesUpAfterMaxAttempts() {
+        doThrow(deliveryFailure(DeliveryFailureReason.SERVICE_UNAVAILABLE))
+                .when(delegate).sendWelcomeEmail(testUser);
+
+        asyncEmailService.sendWelcomeEmail(testUser);
+
+        verify(delegate, timeout(1000).times(3)).sendWelcomeEmail(testUser);
+        verify(delegate, after(100).times(3)).sendWelcomeEmail(testUser);
+    }
+
+    @Test
+    void sendPasswordResetEmail_RecordsDeliveryOutcomesAndTimeToSend() throws InterruptedException {
+        doThrow(deliveryFailure(DeliveryFailureReason.SERVICE_UNAVAILABLE))
+                .doNothing()
+                .when(delegate).sendPasswordResetEmail(testUser, "token");
+
+        asyncEmailService.sendPasswordResetEmail(testUser, "token");
+        verify(delegate, timeout(1000).times(2)).sendPasswordResetEmail(testUser, "token");
+        asyncEmailService.shutdown();
+
+        assertThat(meterRegistry.get("email.delivery").tag("operation", "PASSWORD_RESET").tag("provider", "smtp")
+                .tag("outcome", "failure").tag("reason", "SERVICE_UNAVAILABLE").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("email.delivery").tag("outcome", "success").tag("reason", "none")
+                .timer().count()).isEqualTo(1);
+        // Measured from the first attempt, so it includes the retry backoff
+        assertThat(meterRegistry.get("email.time.to.send").timer().totalTime(TimeUnit.NANOSECONDS))
+                .isGreaterThanOrEqualTo(meterRegistry.get("email.delivery").tag("outcome", "success").timer()
+                        .totalTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void shutdown_DrainsQueuedEmails() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            asyncEmailService.sendWelcomeEmail(testUser);
+        }
+
+        asyncEmailService.shutdown();
+
+        verify(delegate, times(5)).sendWelcomeEmail(testUser);
+    }
+
+    @Test
+    void sendWelcomeEmail_AfterShutdown_SendsOnCallingThread() throws InterruptedException {
+        asyncEmailService.shutdown();
+        Thread caller = Thread.currentThread();
+        doAnswer(invocation -> {
+            assertThat(Thread.currentThread()).isSameAs(caller);
+            return null;
+        }).when(delegate).sendWelcomeEmail(testUser);
+
+        asyncEmailService.sendWelcomeEmail(testUser);
+
+        verify(delegate).sendWelcomeEmail(testUser);
+        assertThat(meterRegistry.get("email.delivery").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void backoffMillis_DoublesPerAttemptAndIsCapped() {
+        ReflectionTestUtils.setField(asyncEmailService, "initialBackoffMs", 500L);
+        ReflectionTestUtils.setField(asyncEmailService, "maxBackoffMs", 30000L);
+
+        assertThat(asyncEmailService.backoffMillis(1, DeliveryFailureReason.SMTP_CONNECTION_FAILED)).isEqualTo(500L);
+        assertThat(asyncEmailService.backoffMillis(2, DeliveryFailureReason.SMTP_CONNECTION_FAILED)).isEqualTo(1000L);
+        assertThat(asyncEmailService.backoffMillis(3, DeliveryFailureReason.RATE_LIMIT_EXCEEDED)).isEqualTo(8000L);
+        assertThat(asyncEmailService.backoffMillis(10, DeliveryFailureReason.SMTP_CONNECTION_FAILED)).isEqualTo(30000L);
+    }
+
+    @Test
+    void failureReason_UnwrapsEmailServiceException() {
+        EmailServiceException template = new EmailServiceException(new EmailTemplateException(
+                "Template failed", "john.doe@example.com", EmailOperation.WELCOME_EMAIL, "welcome",
+                new RuntimeException()));
+
+        assertThat(AsyncEmailServiceImpl.failureReason(deliveryFailure(DeliveryFailureReason.RATE_LIMIT_EXCEEDED)))
+                .isEqualTo(DeliveryFailureReason.RATE_LIMIT_EXCEEDED);
+        assertThat(AsyncEmailServiceImpl.failureReason(template))
+                .isEqualTo(DeliveryFailureReason.TEMPLATE_PROCESSING_FAILED);
+        assertThat(AsyncEmailServiceImpl.failureReason(new IllegalStateException()))
+                .isEqualTo(DeliveryFailureReason.UNKNOWN);
+        assertThat(AsyncEmailServiceImpl.isRetryable(DeliveryFailureReason.AUTHENTICATION_FAILED)).isFalse();
+        assertThat(AsyncEmailServiceImpl.isRetryable(DeliveryFailureReason.AWS_SES_ERROR)).isTrue();
+    }
+
+    private EmailServiceException deliveryFailure(DeliveryFailureReason reason) {
+        return new EmailServiceException(new EmailDeliveryException(
+                "Delivery failed", "john.doe@example.com", EmailOperation.GENERAL, reason));
+    }
+}
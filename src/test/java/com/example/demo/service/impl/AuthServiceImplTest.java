@@ -7,23 +7,33 @@ import com.example.demo.domain.VerificationToken;
 import com.example.demo.domain.dto.*;
 import com.example.demo.domain.repository.PersonRepository;
 import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.event.UserActivityEvent;
+import com.example.demo.event.UserCreatedEvent;
 import com.example.demo.service.EmailService;
+import com.example.demo.service.EventPublisherService;
+import com.example.demo.service.OutboxService;
 import com.example.demo.service.VerificationTokenService;
+import com.example.demo.service.email.EmailDeduplicator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -50,6 +60,18 @@ class AuthServiceImplTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private EventPublisherService eventPublisherService;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+    @Spy
+    private EmailDeduplicator emailDeduplicator = new EmailDeduplicator(120, 30, 100, new SimpleMeterRegistry());
+
     @Mock
     private Authentication authentication;
 
@@ -137,6 +159,8 @@ class AuthServiceImplTest {
         assertEquals("Login successful", response.getMessage());
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(userRepository).findByUsername("johndoe");
+        verify(eventPublisherService).publishUserActivityEvent(argThat(event ->
+                UserActivityEvent.LOGGED_IN.equals(event.getEventType()) && "johndoe".equals(event.getUsername())));
     }
 
     @Test
@@ -154,6 +178,8 @@ class AuthServiceImplTest {
         assertFalse(response.isSuccess());
         assertEquals("User account is deactivated", response.getMessage());
         assertNull(response.getToken());
+        verify(eventPublisherService).publishUserActivityEvent(argThat(event ->
+                UserActivityEvent.LOGIN_FAILED.equals(event.getEventType())));
     }
 
     @Test
@@ -186,6 +212,8 @@ class AuthServiceImplTest {
         assertFalse(response.isSuccess());
         assertEquals("Invalid username or password", response.getMessage());
         assertNull(response.getToken());
+        verify(eventPublisherService).publishUserActivityEvent(argThat(event ->
+                UserActivityEvent.LOGIN_FAILED.equals(event.getEventType()) && "johndoe".equals(event.getUsername())));
     }
 
     @Test
@@ -220,6 +248,8 @@ class AuthServiceImplTest {
         assertEquals("johndoe", response.getUsername());
         assertEquals("Logout successful", response.getMessage());
         assertFalse(authService.isValidToken(token)); // Token should be invalidated
+        verify(eventPublisherService).publishUserActivityEvent(argThat(event ->
+                UserActivityEvent.LOGGED_OUT.equals(event.getEventType()) && "johndoe".equals(event.getUsername())));
     }
 
     @Test
@@ -230,6 +260,7 @@ class AuthServiceImplTest {
         // Assert
         assertFalse(response.isSuccess());
         assertEquals("Invalid token", response.getMessage());
+        verifyNoInteractions(eventPublisherService);
     }
 
     @Test
@@ -249,7 +280,7 @@ class AuthServiceImplTest {
         
         when(verificationTokenService.generateEmailVerificationToken(any(User.class)))
                 .thenReturn("verification-token");
-        doNothing().when(emailService).sendEmailVerification(any(User.class), anyString());
+        doNothing().when(outboxService).sendEmailVerification(any(User.class), anyString());
 
         // Act
         AuthResponse response = authService.signUp(signUpRequest);
@@ -261,7 +292,9 @@ class AuthServiceImplTest {
         verify(personRepository).save(any(Person.class));
         verify(userRepository).save(any(User.class));
         verify(verificationTokenService).generateEmailVerificationToken(any(User.class));
-        verify(emailService).sendEmailVerification(any(User.class), eq("verification-token"));
+        verify(outboxService).sendEmailVerification(any(User.class), eq("verification-token"));
+        verify(outboxService).publishUserCreatedEvent(any(UserCreatedEvent.class));
+        verify(outboxService).publishUserState(any(User.class));
     }
 
     @Test
@@ -389,8 +422,9 @@ class AuthServiceImplTest {
     @Test
     void verifyEmail_Success() {
         // Arrange
-        when(verificationTokenService.verifyEmailToken("verification-token-123")).thenReturn(true);
-        when(verificationTokenService.findByToken("verification-token-123")).thenReturn(verificationToken);
+        when(verificationTokenService.consumeEmailVerificationToken("verification-token-123"))
+                .thenReturn(Optional.of(1L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         doNothing().when(emailService).sendWelcomeEmail(any(User.class));
 
         // Act
@@ -400,14 +434,16 @@ class AuthServiceImplTest {
         assertTrue(response.isSuccess());
         assertEquals("johndoe", response.getUsername());
         assertTrue(response.getMessage().contains("Email verified successfully"));
-        verify(verificationTokenService).verifyEmailToken("verification-token-123");
+        verify(verificationTokenService).consumeEmailVerificationToken("verification-token-123");
+        verify(verificationTokenService, never()).findByToken(anyString());
         verify(emailService).sendWelcomeEmail(testUser);
     }
 
     @Test
     void verifyEmail_InvalidToken() {
         // Arrange
-        when(verificationTokenService.verifyEmailToken("invalid-token")).thenReturn(false);
+        when(verificationTokenService.consumeEmailVerificationToken("invalid-token"))
+                .thenReturn(Optional.empty());
 
         // Act
         AuthResponse response = authService.verifyEmail("invalid-token");
@@ -415,6 +451,7 @@ class AuthServiceImplTest {
         // Assert
         assertFalse(response.isSuccess());
         assertEquals("Invalid or expired verification token", response.getMessage());
+        verify(userRepository, never()).findById(anyLong());
         verify(emailService, never()).sendWelcomeEmail(any());
     }
 
@@ -424,7 +461,7 @@ class AuthServiceImplTest {
         when(personRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(testPerson));
         when(userRepository.findByUsername("johndoe")).thenReturn(Optional.of(testUser));
         when(verificationTokenService.generatePasswordResetToken(testUser)).thenReturn("reset-token");
-        doNothing().when(emailService).sendPasswordResetEmail(any(User.class), anyString());
+        doNothing().when(outboxService).sendPasswordResetEmail(any(User.class), anyString());
 
         // Act
         AuthResponse response = authService.forgotPassword(forgotPasswordRequest);
@@ -433,7 +470,47 @@ class AuthServiceImplTest {
         assertTrue(response.isSuccess());
         assertTrue(response.getMessage().contains("If an account with this email exists"));
         verify(verificationTokenService).generatePasswordResetToken(testUser);
-        verify(emailService).sendPasswordResetEmail(testUser, "reset-token");
+        verify(outboxService).sendPasswordResetEmail(testUser, "reset-token");
+    }
+
+    @Test
+    void forgotPassword_RepeatedWithinWindow_SendsOnlyOnce() {
+        // Arrange
+        when(personRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(testPerson));
+        when(userRepository.findByUsername("johndoe")).thenReturn(Optional.of(testUser));
+        when(verificationTokenService.generatePasswordResetToken(testUser)).thenReturn("reset-token");
+
+        // Act
+        AuthResponse first = authService.forgotPassword(forgotPasswordRequest);
+        AuthResponse second = authService.forgotPassword(forgotPasswordRequest);
+
+        // Assert
+        assertTrue(first.isSuccess());
+        assertEquals(first.getMessage(), second.getMessage());
+        verify(verificationTokenService, times(1)).generatePasswordResetToken(testUser);
+        verify(outboxService, times(1)).sendPasswordResetEmail(testUser, "reset-token");
+    }
+
+    @Test
+    void forgotPassword_RecentTokenStillValid_ResendsItWithoutNewToken() {
+        // Arrange
+        VerificationToken recentToken = new VerificationToken();
+        recentToken.setToken("recent-token");
+        recentToken.setTokenType(VerificationToken.TokenType.PASSWORD_RESET);
+        recentToken.setExpiryDate(LocalDateTime.now().plusMinutes(30));
+        when(personRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(testPerson));
+        when(userRepository.findByUsername("johndoe")).thenReturn(Optional.of(testUser));
+        doReturn(new EmailDeduplicator.Claim(false, "recent-token"))
+            .when(emailDeduplicator).claim(testUser.getId(), VerificationToken.TokenType.PASSWORD_RESET);
+        when(verificationTokenService.findByToken("recent-token")).thenReturn(recentToken);
+
+        // Act
+        AuthResponse response = authService.forgotPassword(forgotPasswordRequest);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        verify(verificationTokenService, never()).generatePasswordResetToken(any());
+        verify(outboxService).sendPasswordResetEmail(testUser, "recent-token");
     }
 
     @Test
@@ -449,7 +526,7 @@ class AuthServiceImplTest {
         assertTrue(response.isSuccess()); // Always returns success for security
         assertTrue(response.getMessage().contains("If an account with this email exists"));
         verify(verificationTokenService, never()).generatePasswordResetToken(any());
-        verify(emailService, never()).sendPasswordResetEmail(any(), any());
+        verify(outboxService, never()).sendPasswordResetEmail(any(), any());
     }
 
     @Test
@@ -466,17 +543,17 @@ class AuthServiceImplTest {
         assertTrue(response.isSuccess()); // Always returns success for security
         assertTrue(response.getMessage().contains("If an account with this email exists"));
         verify(verificationTokenService, never()).generatePasswordResetToken(any());
-        verify(emailService, never()).sendPasswordResetEmail(any(), any());
+        verify(outboxService, never()).sendPasswordResetEmail(any(), any());
     }
 
     @Test
     void resetPassword_Success() {
         // Arrange
-        when(verificationTokenService.verifyPasswordResetToken("reset-token-123")).thenReturn(true);
-        when(verificationTokenService.findByToken("reset-token-123")).thenReturn(verificationToken);
+        when(verificationTokenService.consumeToken("reset-token-123",
+                VerificationToken.TokenType.PASSWORD_RESET)).thenReturn(Optional.of(1L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(passwordEncoder.encode("resetpass123")).thenReturn("encodedResetPass123");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        doNothing().when(verificationTokenService).markTokenAsUsed(verificationToken);
 
         // Act
         AuthResponse response = authService.resetPassword(resetPasswordRequest);
@@ -485,10 +562,45 @@ class AuthServiceImplTest {
         assertTrue(response.isSuccess());
         assertEquals("johndoe", response.getUsername());
         assertTrue(response.getMessage().contains("Password reset successful"));
-        verify(verificationTokenService).verifyPasswordResetToken("reset-token-123");
+        assertEquals("encodedResetPass123", testUser.getPassword());
+        verify(verificationTokenService).consumeToken("reset-token-123",
+                VerificationToken.TokenType.PASSWORD_RESET);
         verify(passwordEncoder).encode("resetpass123");
         verify(userRepository).save(testUser);
-        verify(verificationTokenService).markTokenAsUsed(verificationToken);
+        verify(verificationTokenService, never()).findByToken(anyString());
+        verify(verificationTokenService, never()).markTokenAsUsed(any());
+    }
+
+    @Test
+    void resetPassword_SaveFails_ConsumesTokenInSameTransaction() {
+        // Arrange
+        AtomicBoolean inTransaction = new AtomicBoolean();
+        AtomicBoolean consumedInTransaction = new AtomicBoolean();
+        doAnswer(invocation -> {
+            inTransaction.set(true);
+            try {
+                return invocation.callRealMethod();
+            } finally {
+                inTransaction.set(false);
+            }
+        }).when(transactionOperations).execute(any());
+        when(verificationTokenService.consumeToken("reset-token-123",
+                VerificationToken.TokenType.PASSWORD_RESET)).thenAnswer(invocation -> {
+                    consumedInTransaction.set(inTransaction.get());
+                    return Optional.of(1L);
+                });
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.encode("resetpass123")).thenReturn("encodedResetPass123");
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("Update failed"));
+
+        // Act
+        AuthResponse response = authService.resetPassword(resetPasswordRequest);
+
+        // Assert
+        assertFalse(response.isSuccess());
+        assertEquals("Password reset failed", response.getMessage());
+        assertTrue(consumedInTransaction.get());
+        verify(emailDeduplicator, never()).forget(anyLong(), any());
     }
 
     @Test
@@ -508,7 +620,8 @@ class AuthServiceImplTest {
     @Test
     void resetPassword_InvalidToken() {
         // Arrange
-        when(verificationTokenService.verifyPasswordResetToken("reset-token-123")).thenReturn(false);
+        when(verificationTokenService.consumeToken("reset-token-123",
+                VerificationToken.TokenType.PASSWORD_RESET)).thenReturn(Optional.empty());
 
         // Act
         AuthResponse response = authService.resetPassword(resetPasswordRequest);
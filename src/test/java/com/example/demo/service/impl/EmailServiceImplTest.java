@@ -3,7 +3,12 @@ package com.example.demo.service.impl;
 import com.example.demo.domain.Person;
 import com.example.demo.domain.Role;
 import com.example.demo.domain.User;
+import com.example.demo.exception.EmailDeliveryException;
+import com.example.demo.exception.EmailDeliveryException.DeliveryFailureReason;
 import com.example.demo.exception.EmailServiceException;
+import com.example.demo.service.email.EmailRecipient;
+import com.example.demo.service.email.EmailTemplate;
+import com.example.demo.service.email.EmailTemplateRenderer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,15 +17,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 import org.thymeleaf.exceptions.TemplateEngineException;
 
+import java.util.Locale;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -31,7 +38,7 @@ class EmailServiceImplTest {
     private JavaMailSender mailSender;
 
     @Mock
-    private TemplateEngine templateEngine;
+    private EmailTemplateRenderer templateRenderer;
 
     @Mock
     private MimeMessage mimeMessage;
@@ -73,7 +80,7 @@ class EmailServiceImplTest {
         String token = "verification-token-123";
         String expectedContent = "<html>Email verification content</html>";
         
-        when(templateEngine.process(eq("email-verification"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenReturn(expectedContent);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
         doNothing().when(mailSender).send(any(MimeMessage.class));
@@ -84,7 +91,7 @@ class EmailServiceImplTest {
         });
 
         // Assert
-        verify(templateEngine).process(eq("email-verification"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class));
         verify(mailSender).createMimeMessage();
         verify(mailSender).send(mimeMessage);
     }
@@ -95,7 +102,7 @@ class EmailServiceImplTest {
         String token = "verification-token-123";
         RuntimeException templateException = new RuntimeException("Template not found");
         
-        when(templateEngine.process(eq("email-verification"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenThrow(templateException);
 
         // Act & Assert
@@ -104,7 +111,7 @@ class EmailServiceImplTest {
         });
 
         assertNotNull(exception.getCause());
-        verify(templateEngine).process(eq("email-verification"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class));
         verify(mailSender, never()).send(any(MimeMessage.class));
     }
 
@@ -115,7 +122,7 @@ class EmailServiceImplTest {
         String expectedContent = "<html>Email verification content</html>";
         MessagingException messagingException = new MessagingException("SMTP server unavailable");
         
-        when(templateEngine.process(eq("email-verification"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenReturn(expectedContent);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
         doAnswer(invocation -> { throw messagingException; }).when(mailSender).send(any(MimeMessage.class));
@@ -126,17 +133,36 @@ class EmailServiceImplTest {
         });
 
         assertNotNull(exception.getCause());
-        verify(templateEngine).process(eq("email-verification"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class));
         verify(mailSender).send(mimeMessage);
     }
 
+    @Test
+    void sendEmailVerification_MailSendException_ShouldReportSmtpFailure() {
+        // Arrange
+        String token = "verification-token-123";
+        
+        when(templateRenderer.render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class)))
+                .thenReturn("<html>Email verification content</html>");
+        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(MimeMessage.class));
+
+        // Act & Assert
+        EmailServiceException exception = assertThrows(EmailServiceException.class, () -> {
+            emailService.sendEmailVerification(testUser, token);
+        });
+
+        EmailDeliveryException cause = assertInstanceOf(EmailDeliveryException.class, exception.getCause());
+        assertEquals(DeliveryFailureReason.SMTP_CONNECTION_FAILED, cause.getReason());
+    }
+
     @Test
     void sendPasswordResetEmail_Success() throws Exception {
         // Arrange
         String token = "reset-token-123";
         String expectedContent = "<html>Password reset content</html>";
         
-        when(templateEngine.process(eq("password-reset"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.PASSWORD_RESET), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenReturn(expectedContent);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
         doNothing().when(mailSender).send(any(MimeMessage.class));
@@ -147,7 +173,7 @@ class EmailServiceImplTest {
         });
 
         // Assert
-        verify(templateEngine).process(eq("password-reset"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.PASSWORD_RESET), any(EmailRecipient.class), anyString(), any(Locale.class));
         verify(mailSender).createMimeMessage();
         verify(mailSender).send(mimeMessage);
     }
@@ -158,7 +184,7 @@ class EmailServiceImplTest {
         String token = "reset-token-123";
         RuntimeException templateException = new RuntimeException("Template processing failed");
         
-        when(templateEngine.process(eq("password-reset"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.PASSWORD_RESET), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenThrow(templateException);
 
         // Act & Assert
@@ -167,7 +193,7 @@ class EmailServiceImplTest {
         });
 
         assertNotNull(exception.getCause());
-        verify(templateEngine).process(eq("password-reset"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.PASSWORD_RESET), any(EmailRecipient.class), anyString(), any(Locale.class));
         verify(mailSender, never()).send(any(MimeMessage.class));
     }
 
@@ -178,7 +204,7 @@ class EmailServiceImplTest {
         String expectedContent = "<html>Password reset content</html>";
         MessagingException messagingException = new MessagingException("Connection refused");
         
-        when(templateEngine.process(eq("password-reset"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.PASSWORD_RESET), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenReturn(expectedContent);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
         doAnswer(invocation -> { throw messagingException; }).when(mailSender).send(any(MimeMessage.class));
@@ -189,7 +215,7 @@ class EmailServiceImplTest {
         });
 
         assertNotNull(exception.getCause());
-        verify(templateEngine).process(eq("password-reset"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.PASSWORD_RESET), any(EmailRecipient.class), anyString(), any(Locale.class));
         verify(mailSender).send(mimeMessage);
     }
 
@@ -198,7 +224,7 @@ class EmailServiceImplTest {
         // Arrange
         String expectedContent = "<html>Welcome email content</html>";
         
-        when(templateEngine.process(eq("welcome"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.WELCOME), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenReturn(expectedContent);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
         doNothing().when(mailSender).send(any(MimeMessage.class));
@@ -209,7 +235,7 @@ class EmailServiceImplTest {
         });
 
         // Assert
-        verify(templateEngine).process(eq("welcome"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.WELCOME), any(EmailRecipient.class), anyString(), any(Locale.class));
         verify(mailSender).createMimeMessage();
         verify(mailSender).send(mimeMessage);
     }
@@ -219,7 +245,7 @@ class EmailServiceImplTest {
         // Arrange
         RuntimeException templateException = new RuntimeException("Template not found");
         
-        when(templateEngine.process(eq("welcome"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.WELCOME), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenThrow(templateException);
 
         // Act & Assert - Welcome email failures should not throw exceptions
@@ -227,7 +253,7 @@ class EmailServiceImplTest {
             emailService.sendWelcomeEmail(testUser);
         });
 
-        verify(templateEngine).process(eq("welcome"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.WELCOME), any(EmailRecipient.class), anyString(), any(Locale.class));
         verify(mailSender, never()).send(any(MimeMessage.class));
     }
 
@@ -237,7 +263,7 @@ class EmailServiceImplTest {
         String expectedContent = "<html>Welcome email content</html>";
         MessagingException messagingException = new MessagingException("SMTP timeout");
         
-        when(templateEngine.process(eq("welcome"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.WELCOME), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenReturn(expectedContent);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
         doAnswer(invocation -> { throw messagingException; }).when(mailSender).send(any(MimeMessage.class));
@@ -247,7 +273,7 @@ class EmailServiceImplTest {
             emailService.sendWelcomeEmail(testUser);
         });
 
-        verify(templateEngine).process(eq("welcome"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.WELCOME), any(EmailRecipient.class), anyString(), any(Locale.class));
         verify(mailSender).send(mimeMessage);
     }
 
@@ -256,7 +282,7 @@ class EmailServiceImplTest {
         // Arrange
         String expectedContent = "<html>Email verification content</html>";
         
-        when(templateEngine.process(eq("email-verification"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenReturn(expectedContent);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
         doNothing().when(mailSender).send(any(MimeMessage.class));
@@ -267,7 +293,7 @@ class EmailServiceImplTest {
         });
 
         // Assert
-        verify(templateEngine).process(eq("email-verification"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class));
     }
 
     @Test
@@ -275,7 +301,7 @@ class EmailServiceImplTest {
         // Arrange
         String expectedContent = "<html>Email verification content</html>";
         
-        when(templateEngine.process(eq("email-verification"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenReturn(expectedContent);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
         doNothing().when(mailSender).send(any(MimeMessage.class));
@@ -286,7 +312,7 @@ class EmailServiceImplTest {
         });
 
         // Assert
-        verify(templateEngine).process(eq("email-verification"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class));
     }
 
     @Test
@@ -295,7 +321,7 @@ class EmailServiceImplTest {
         String specialToken = "token!@#$%^&*()+={}[]|\\:;\"'<>,.?/~`";
         String expectedContent = "<html>Email verification content</html>";
         
-        when(templateEngine.process(eq("email-verification"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenReturn(expectedContent);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
         doNothing().when(mailSender).send(any(MimeMessage.class));
@@ -306,7 +332,7 @@ class EmailServiceImplTest {
         });
 
         // Assert
-        verify(templateEngine).process(eq("email-verification"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class));
     }
 
     @Test
@@ -315,14 +341,14 @@ class EmailServiceImplTest {
         String token = "test-token";
         String expectedContent = "<html>Content</html>";
         
-        when(templateEngine.process(eq("email-verification"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenAnswer(invocation -> {
-                    Context context = invocation.getArgument(1);
-                    // Verify context variables are set
-                    assertTrue(context.containsVariable("user"));
-                    assertTrue(context.containsVariable("verificationUrl"));
-                    assertEquals(testUser, context.getVariable("user"));
-                    String verificationUrl = (String) context.getVariable("verificationUrl");
+                    EmailRecipient recipient = invocation.getArgument(1);
+                    // Verify the recipient view model and URL are passed
+                    assertEquals("johndoe", recipient.username());
+                    assertEquals("John", recipient.firstName());
+                    assertEquals("john.doe@example.com", recipient.email());
+                    String verificationUrl = invocation.getArgument(2);
                     assertTrue(verificationUrl.contains(token));
                     return expectedContent;
                 });
@@ -334,7 +360,7 @@ class EmailServiceImplTest {
         emailService.sendEmailVerification(testUser, token);
 
         // Assert
-        verify(templateEngine).process(eq("email-verification"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class));
     }
 
     @Test
@@ -343,14 +369,14 @@ class EmailServiceImplTest {
         String token = "reset-token";
         String expectedContent = "<html>Content</html>";
         
-        when(templateEngine.process(eq("password-reset"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.PASSWORD_RESET), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenAnswer(invocation -> {
-                    Context context = invocation.getArgument(1);
-                    // Verify context variables are set
-                    assertTrue(context.containsVariable("user"));
-                    assertTrue(context.containsVariable("resetUrl"));
-                    assertEquals(testUser, context.getVariable("user"));
-                    String resetUrl = (String) context.getVariable("resetUrl");
+                    EmailRecipient recipient = invocation.getArgument(1);
+                    // Verify the recipient view model and URL are passed
+                    assertEquals("johndoe", recipient.username());
+                    assertEquals("John", recipient.firstName());
+                    assertEquals("john.doe@example.com", recipient.email());
+                    String resetUrl = invocation.getArgument(2);
                     assertTrue(resetUrl.contains(token));
                     return expectedContent;
                 });
@@ -362,7 +388,7 @@ class EmailServiceImplTest {
         emailService.sendPasswordResetEmail(testUser, token);
 
         // Assert
-        verify(templateEngine).process(eq("password-reset"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.PASSWORD_RESET), any(EmailRecipient.class), anyString(), any(Locale.class));
     }
 
     @Test
@@ -370,14 +396,14 @@ class EmailServiceImplTest {
         // Arrange
         String expectedContent = "<html>Content</html>";
         
-        when(templateEngine.process(eq("welcome"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.WELCOME), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenAnswer(invocation -> {
-                    Context context = invocation.getArgument(1);
-                    // Verify context variables are set
-                    assertTrue(context.containsVariable("user"));
-                    assertTrue(context.containsVariable("loginUrl"));
-                    assertEquals(testUser, context.getVariable("user"));
-                    String loginUrl = (String) context.getVariable("loginUrl");
+                    EmailRecipient recipient = invocation.getArgument(1);
+                    // Verify the recipient view model and URL are passed
+                    assertEquals("johndoe", recipient.username());
+                    assertEquals("John", recipient.firstName());
+                    assertEquals("john.doe@example.com", recipient.email());
+                    String loginUrl = invocation.getArgument(2);
                     assertTrue(loginUrl.contains("/login"));
                     return expectedContent;
                 });
@@ -389,7 +415,7 @@ class EmailServiceImplTest {
         emailService.sendWelcomeEmail(testUser);
 
         // Assert
-        verify(templateEngine).process(eq("welcome"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.WELCOME), any(EmailRecipient.class), anyString(), any(Locale.class));
     }
 
     @Test
@@ -398,7 +424,7 @@ class EmailServiceImplTest {
         ReflectionTestUtils.setField(emailService, "fromEmail", "different@company.com");
         String expectedContent = "<html>Content</html>";
         
-        when(templateEngine.process(eq("email-verification"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenReturn(expectedContent);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
         doNothing().when(mailSender).send(any(MimeMessage.class));
@@ -409,7 +435,7 @@ class EmailServiceImplTest {
         });
 
         // Assert
-        verify(templateEngine).process(eq("email-verification"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class));
         verify(mailSender).send(mimeMessage);
     }
 
@@ -419,7 +445,7 @@ class EmailServiceImplTest {
         ReflectionTestUtils.setField(emailService, "baseUrl", "https://prod.example.com");
         String expectedContent = "<html>Content</html>";
         
-        when(templateEngine.process(eq("email-verification"), any(Context.class)))
+        when(templateRenderer.render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class)))
                 .thenReturn(expectedContent);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
         doNothing().when(mailSender).send(any(MimeMessage.class));
@@ -430,7 +456,7 @@ class EmailServiceImplTest {
         });
 
         // Assert
-        verify(templateEngine).process(eq("email-verification"), any(Context.class));
+        verify(templateRenderer).render(eq(EmailTemplate.EMAIL_VERIFICATION), any(EmailRecipient.class), anyString(), any(Locale.class));
         verify(mailSender).send(mimeMessage);
     }
 }
\ No newline at end of file
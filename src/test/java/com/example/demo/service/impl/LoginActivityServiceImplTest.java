@@ -0,0 +1,40 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.domain.dto.LoginActivityDTO;
+import com.example.demo.service.activity.LoginActivityAggregator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LoginActivityServiceImplTest {
+
+    @Mock
+    private LoginActivityAggregator loginActivityAggregator;
+
+    @Mock
+    private ObjectProvider<LoginActivityAggregator> aggregatorProvider;
+
+    @Test
+    void getLoginActivity_ConsumersEnabled_SummarizesAggregator() {
+        LoginActivityDTO activity = new LoginActivityDTO(15, 10, 2, 3, 2 / 12.0, 8, List.of());
+        when(aggregatorProvider.getIfAvailable()).thenReturn(loginActivityAggregator);
+        when(loginActivityAggregator.summarize(15)).thenReturn(activity);
+
+        assertThat(new LoginActivityServiceImpl(aggregatorProvider).getLoginActivity(15)).contains(activity);
+    }
+
+    @Test
+    void getLoginActivity_ConsumersDisabled_IsEmpty() {
+        when(aggregatorProvider.getIfAvailable()).thenReturn(null);
+
+        assertThat(new LoginActivityServiceImpl(aggregatorProvider).getLoginActivity(15)).isEmpty();
+    }
+}
@@ -3,18 +3,26 @@ package com.example.demo.service.impl;
 import com.example.demo.domain.Person;
 import com.example.demo.domain.Role;
 import com.example.demo.domain.User;
+import com.example.demo.exception.EmailException.EmailOperation;
+import com.example.demo.service.email.EmailCaptureSink;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class MockEmailServiceImplTest {
 
+    @Mock
+    private EmailCaptureSink captureSink;
+
     @InjectMocks
     private MockEmailServiceImpl mockEmailService;
 
@@ -247,4 +255,29 @@ class MockEmailServiceImplTest {
             mockEmailService.sendWelcomeEmail(testUser);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void sinkMode_ShouldCaptureEmailsInsteadOfLogging() {
+        // Arrange
+        ReflectionTestUtils.setField(mockEmailService, "mode", "sink");
+
+        // Act
+        mockEmailService.sendEmailVerification(testUser, "verification-token");
+        mockEmailService.sendWelcomeEmail(testUser);
+
+        // Assert
+        verify(captureSink).capture(EmailOperation.EMAIL_VERIFICATION, "john.doe@example.com", "johndoe",
+            "verification-token", "http://localhost:8080/verify-email?token=verification-token");
+        verify(captureSink).capture(EmailOperation.WELCOME_EMAIL, "john.doe@example.com", "johndoe",
+            null, "http://localhost:8080/login");
+    }
+
+    @Test
+    void logMode_ShouldNotCaptureEmails() {
+        // Act
+        mockEmailService.sendPasswordResetEmail(testUser, "reset-token");
+
+        // Assert
+        verify(captureSink, never()).capture(any(), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,463 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.domain.OutboxMessage;
+import com.example.demo.domain.Person;
+import com.example.demo.domain.Role;
+import com.example.demo.domain.User;
+import com.example.demo.domain.repository.OutboxMessageRepository;
+import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.event.UserCreatedEvent;
+import com.example.demo.event.UserStateSnapshot;
+import com.example.demo.exception.EmailDeliveryException;
+import com.example.demo.exception.EmailDeliveryException.DeliveryFailureReason;
+import com.example.demo.exception.EmailException.EmailOperation;
+import com.example.demo.exception.EmailServiceException;
+import com.example.demo.service.EmailService;
+import com.example.demo.service.EventPublisherService;
+import com.example.demo.service.email.EmailMetrics;
+import com.example.demo.service.email.EmailRateGovernor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceImplTest {
+
+    @Mock
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EventPublisherService eventPublisherService;
+
+    @Mock
+    private EmailService emailProvider;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EmailMetrics emailMetrics = new EmailMetrics("ses", List.of(Duration.ofSeconds(5)), meterRegistry);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+    private final TransactionOperations transactionOperations = new TransactionOperations() {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            inTransaction.set(true);
+            try {
+                return action.doInTransaction(null);
+            } finally {
+                inTransaction.set(false);
+            }
+        }
+    };
+
+    private OutboxServiceImpl outboxService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new OutboxServiceImpl(outboxMessageRepository, userRepository,
+                eventPublisherService, emailProvider, emailMetrics, objectMapper, transactionOperations);
+        ReflectionTestUtils.setField(outboxService, "userEventsTopicName", "test-user-events");
+        ReflectionTestUtils.setField(outboxService, "adminEventsTopicName", "test-admin-events");
+        ReflectionTestUtils.setField(outboxService, "userStateTopicName", "test-user-state");
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxService, "initialBackoffMs", 1000L);
+        ReflectionTestUtils.setField(outboxService, "maxBackoffMs", 60000L);
+        ReflectionTestUtils.setField(outboxService, "sendTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(outboxService, "leaseMs", 60000L);
+
+        Person person = new Person();
+        person.setId(1L);
+        person.setFirstName("John");
+        person.setLastName("Doe");
+        person.setEmail("john.doe@example.com");
+
+        testUser = new User();
+        testUser.setId(7L);
+        testUser.setUsername("johndoe");
+        testUser.setPerson(person);
+        testUser.setRole(Role.USER);
+    }
+
+    @Test
+    void publishUserCreatedEvent_ShouldRecordEventForUserTopic() {
+        // Act
+        outboxService.publishUserCreatedEvent(userCreatedEvent());
+
+        // Assert
+        ArgumentCaptor<OutboxMessage> captor = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(outboxMessageRepository).save(captor.capture());
+        OutboxMessage message = captor.getValue();
+        assertEquals(OutboxMessage.MessageType.KAFKA_EVENT, message.getMessageType());
+        assertEquals("test-user-events", message.getDestination());
+        assertEquals("7", message.getMessageKey());
+        assertEquals(UserCreatedEvent.class.getName(), message.getPayloadType());
+        assertTrue(message.getPayload().contains("\"username\":\"johndoe\""));
+        assertNull(message.getProcessedAt());
+        verifyNoInteractions(eventPublisherService);
+    }
+
+    @Test
+    void publishUserState_ShouldRecordSnapshotKeyedByUserId() {
+        // Arrange
+        testUser.setEmailVerified(true);
+
+        // Act
+        OutboxMessage message = recorded(() -> outboxService.publishUserState(testUser));
+
+        // Assert
+        assertEquals(OutboxMessage.MessageType.KAFKA_EVENT, message.getMessageType());
+        assertEquals("test-user-state", message.getDestination());
+        assertEquals("7", message.getMessageKey());
+        assertEquals(UserStateSnapshot.class.getName(), message.getPayloadType());
+        assertTrue(message.getPayload().contains("\"emailVerified\":true"));
+    }
+
+    @Test
+    void relayPendingMessages_UserDeleted_ShouldPublishTombstone() throws Exception {
+        // Arrange
+        OutboxMessage tombstone = recorded(() -> outboxService.publishUserDeleted(7L));
+        when(outboxMessageRepository.lockNextBatch(any(LocalDateTime.class), eq(50))).thenReturn(List.of(tombstone));
+        when(userRepository.findById(7L)).thenReturn(Optional.empty());
+
+        // Act
+        outboxService.relayPendingMessages(50);
+
+        // Assert
+        assertEquals("test-user-state", tombstone.getDestination());
+        assertNull(tombstone.getPayload());
+        verify(eventPublisherService).publishTombstoneAndWait("test-user-state", "7", 5000L);
+        verify(eventPublisherService, never()).publishEventAndWait(anyString(), anyString(), any(), anyLong());
+        assertNotNull(tombstone.getProcessedAt());
+    }
+
+    @Test
+    void sendEmailVerification_ShouldRecordEmailWithoutSending() {
+        // Act
+        outboxService.sendEmailVerification(testUser, "verification-token");
+
+        // Assert
+        ArgumentCaptor<OutboxMessage> captor = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(outboxMessageRepository).save(captor.capture());
+        assertEquals(OutboxMessage.MessageType.EMAIL, captor.getValue().getMessageType());
+        assertEquals("EMAIL_VERIFICATION", captor.getValue().getDestination());
+        verifyNoInteractions(emailProvider);
+    }
+
+    @Test
+    void relayPendingMessages_ShouldDeliverEventsAndEmailsAndMarkThemProcessed() throws Exception {
+        // Arrange
+        OutboxMessage event = recorded(() -> outboxService.publishUserCreatedEvent(userCreatedEvent()));
+        OutboxMessage email = recorded(() -> outboxService.sendPasswordResetEmail(testUser, "reset-token"));
+        when(outboxMessageRepository.lockNextBatch(any(LocalDateTime.class), eq(50))).thenReturn(List.of(event, email));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(testUser));
+
+        // Act
+        int relayed = outboxService.relayPendingMessages(50);
+
+        // Assert
+        assertEquals(2, relayed);
+        verify(eventPublisherService).publishEventAndWait(eq("test-user-events"), eq("7"),
+                any(UserCreatedEvent.class), eq(5000L));
+        verify(emailProvider).sendPasswordResetEmail(testUser, "reset-token");
+        assertNotNull(event.getProcessedAt());
+        assertNotNull(email.getProcessedAt());
+        assertEquals(1, meterRegistry.get("email.delivery").tag("operation", "PASSWORD_RESET")
+                .tag("provider", "ses").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("email.time.to.send").tag("operation", "PASSWORD_RESET").timer().count());
+    }
+
+    @Test
+    void relayPendingMessages_ShouldLeaseBatchAndDeliverOutsideTheClaimTransaction() throws Exception {
+        // Arrange
+        OutboxMessage event = recorded(() -> outboxService.publishUserCreatedEvent(userCreatedEvent()));
+        event.setId(11L);
+        AtomicBoolean deliveredInTransaction = new AtomicBoolean();
+        when(outboxMessageRepository.lockNextBatch(any(LocalDateTime.class), eq(50))).thenAnswer(invocation -> {
+            assertTrue(inTransaction.get());
+            return List.of(event);
+        });
+        doAnswer(invocation -> {
+            deliveredInTransaction.set(inTransaction.get());
+            return null;
+        }).when(eventPublisherService).publishEventAndWait(anyString(), anyString(), any(), anyLong());
+
+        // Act
+        outboxService.relayPendingMessages(50);
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> leasedUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxMessageRepository).lease(eq(List.of(11L)), leasedUntil.capture());
+        assertTrue(leasedUntil.getValue().isAfter(LocalDateTime.now().plusSeconds(50)));
+        assertFalse(deliveredInTransaction.get());
+        verify(outboxMessageRepository).updateDeliveryState(eq(11L), eq(0), isNull(), any(LocalDateTime.class),
+                eq(event.getProcessedAt()));
+    }
+
+    @Test
+    void relayPendingMessages_LaterFailure_ShouldKeepEarlierDeliveriesRecorded() throws Exception {
+        // Arrange
+        OutboxMessage first = recorded(() -> outboxService.publishUserCreatedEvent(userCreatedEvent()));
+        first.setId(1L);
+        OutboxMessage second = recorded(() -> outboxService.sendPasswordResetEmail(testUser, "reset-token"));
+        second.setId(2L);
+        when(outboxMessageRepository.lockNextBatch(any(LocalDateTime.class), anyInt())).thenReturn(List.of(first, second));
+        when(userRepository.findById(7L)).thenThrow(new IllegalStateException("Database unavailable"));
+
+        // Act
+        outboxService.relayPendingMessages(50);
+
+        // Assert
+        InOrder inOrder = inOrder(eventPublisherService, outboxMessageRepository);
+        inOrder.verify(eventPublisherService).publishEventAndWait(anyString(), anyString(), any(), anyLong());
+        inOrder.verify(outboxMessageRepository).updateDeliveryState(eq(1L), eq(0), isNull(), any(),
+                any(LocalDateTime.class));
+        inOrder.verify(outboxMessageRepository).updateDeliveryState(eq(2L), eq(1), contains("Database unavailable"),
+                any(LocalDateTime.class), isNull());
+    }
+
+    @Test
+    void relayPendingMessages_ShouldHandTheBatchsEmailsToTheProviderTogether() {
+        // Arrange
+        List<OutboxMessage> emails = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String token = "token-" + i;
+            emails.add(recorded(() -> outboxService.sendEmailVerification(testUser, token)));
+        }
+        when(outboxMessageRepository.lockNextBatch(any(LocalDateTime.class), anyInt())).thenReturn(emails);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(testUser));
+        // Each send only returns once all three are in flight, as a batching provider's would
+        CountDownLatch inFlight = new CountDownLatch(3);
+        doAnswer(invocation -> {
+            inFlight.countDown();
+            if (!inFlight.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Emails were sent one at a time");
+            }
+            return null;
+        }).when(emailProvider).sendEmailVerification(eq(testUser), anyString());
+
+        // Act
+        outboxService.relayPendingMessages(50);
+
+        // Assert
+        assertTrue(emails.stream().allMatch(email -> email.getProcessedAt() != null && email.getLastError() == null));
+        verify(outboxMessageRepository, times(3)).updateDeliveryState(any(), eq(0), isNull(), any(), notNull());
+    }
+
+    @Test
+    void relayPendingMessages_EmailOutlastingTheLease_ShouldExtendItAndRecordTheOutcomeLater() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(outboxService, "leaseMs", 500L);
+        OutboxMessage email = recorded(() -> outboxService.sendEmailVerification(testUser, "token"));
+        email.setId(21L);
+        when(outboxMessageRepository.lockNextBatch(any(LocalDateTime.class), anyInt())).thenReturn(List.of(email));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(testUser));
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS))
+                .when(emailProvider).sendEmailVerification(testUser, "token");
+
+        // Act
+        long start = System.nanoTime();
+        outboxService.relayPendingMessages(50);
+
+        // Assert
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+        verify(outboxMessageRepository, times(2)).lease(eq(List.of(21L)), any(LocalDateTime.class));
+        verify(outboxMessageRepository, never()).updateDeliveryState(any(), anyInt(), any(), any(), any());
+
+        release.countDown();
+        verify(outboxMessageRepository, timeout(5000)).updateDeliveryState(eq(21L), eq(0), isNull(), any(), notNull());
+    }
+
+    @Test
+    void relayPendingMessages_DeliveryFailure_ShouldBackOffAndKeepMessagePending() throws Exception {
+        // Arrange
+        OutboxMessage event = recorded(() -> outboxService.publishUserCreatedEvent(userCreatedEvent()));
+        when(outboxMessageRepository.lockNextBatch(any(LocalDateTime.class), anyInt())).thenReturn(List.of(event));
+        doThrow(new TimeoutException("broker unavailable"))
+                .when(eventPublisherService).publishEventAndWait(anyString(), anyString(), any(), anyLong());
+
+        // Act
+        outboxService.relayPendingMessages(50);
+
+        // Assert
+        assertNull(event.getProcessedAt());
+        assertEquals(1, event.getAttempts());
+        assertTrue(event.getLastError().contains("broker unavailable"));
+        assertTrue(event.getAvailableAt().isAfter(LocalDateTime.now().plusNanos(500_000_000)));
+    }
+
+    @Test
+    void relayPendingMessages_BrokerUnavailable_ShouldDeferRemainingEventsWithoutSending() throws Exception {
+        // Arrange
+        OutboxMessage first = recorded(() -> outboxService.publishUserCreatedEvent(userCreatedEvent()));
+        OutboxMessage second = recorded(() -> outboxService.publishUserCreatedEvent(userCreatedEvent()));
+        OutboxMessage email = recorded(() -> outboxService.sendEmailVerification(testUser, "verification-token"));
+        when(outboxMessageRepository.lockNextBatch(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(first, second, email));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(testUser));
+        doThrow(new TimeoutException("broker unavailable"))
+                .when(eventPublisherService).publishEventAndWait(anyString(), anyString(), any(), anyLong());
+
+        // Act
+        outboxService.relayPendingMessages(50);
+
+        // Assert
+        verify(eventPublisherService, times(1)).publishEventAndWait(anyString(), anyString(), any(), anyLong());
+        assertEquals(1, first.getAttempts());
+        assertEquals(0, second.getAttempts());
+        assertNull(second.getProcessedAt());
+        assertEquals(first.getAvailableAt(), second.getAvailableAt());
+        verify(emailProvider).sendEmailVerification(testUser, "verification-token");
+        assertNotNull(email.getProcessedAt());
+    }
+
+    @Test
+    void relayPendingMessages_EventFails_ShouldHoldBackLaterEventsForItsKey() throws Exception {
+        // Arrange
+        OutboxMessage first = recorded(() -> outboxService.publishUserCreatedEvent(userCreatedEvent()));
+        OutboxMessage second = recorded(() -> outboxService.publishUserCreatedEvent(userCreatedEvent()));
+        OutboxMessage otherUser = recorded(() -> outboxService.publishUserCreatedEvent(new UserCreatedEvent(8L,
+                "janedoe", "jane.doe@example.com", "Jane", "Doe", Role.USER, "superadmin", LocalDateTime.now())));
+        when(outboxMessageRepository.lockNextBatch(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(first, second, otherUser));
+        doThrow(new IllegalStateException("Record too large"))
+                .when(eventPublisherService).publishEventAndWait(eq("test-user-events"), eq("7"), any(), anyLong());
+
+        // Act
+        outboxService.relayPendingMessages(50);
+
+        // Assert
+        verify(eventPublisherService, times(1)).publishEventAndWait(eq("test-user-events"), eq("7"), any(), anyLong());
+        assertEquals(1, first.getAttempts());
+        assertEquals(0, second.getAttempts());
+        assertNull(second.getProcessedAt());
+        assertEquals(first.getAvailableAt(), second.getAvailableAt());
+        verify(eventPublisherService).publishEventAndWait(eq("test-user-events"), eq("8"), any(), anyLong());
+        assertNotNull(otherUser.getProcessedAt());
+    }
+
+    @Test
+    void relayPendingMessages_UserState_ShouldPublishTheUserAsItIsNow() throws Exception {
+        // Arrange
+        OutboxMessage state = recorded(() -> outboxService.publishUserState(testUser));
+        testUser.setEmailVerified(true);
+        when(outboxMessageRepository.lockNextBatch(any(LocalDateTime.class), anyInt())).thenReturn(List.of(state));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(testUser));
+
+        // Act
+        outboxService.relayPendingMessages(50);
+
+        // Assert
+        ArgumentCaptor<UserStateSnapshot> published = ArgumentCaptor.forClass(UserStateSnapshot.class);
+        verify(eventPublisherService).publishEventAndWait(eq("test-user-state"), eq("7"), published.capture(), eq(5000L));
+        assertTrue(published.getValue().isEmailVerified());
+        assertNotNull(state.getProcessedAt());
+    }
+
+    @Test
+    void relayPendingMessages_LastAttemptFails_ShouldStopRetrying() throws Exception {
+        // Arrange
+        OutboxMessage event = recorded(() -> outboxService.publishUserCreatedEvent(userCreatedEvent()));
+        event.setAttempts(2);
+        when(outboxMessageRepository.lockNextBatch(any(LocalDateTime.class), anyInt())).thenReturn(List.of(event));
+        doThrow(new TimeoutException("broker unavailable"))
+                .when(eventPublisherService).publishEventAndWait(anyString(), anyString(), any(), anyLong());
+
+        // Act
+        outboxService.relayPendingMessages(50);
+
+        // Assert
+        assertEquals(3, event.getAttempts());
+        assertNotNull(event.getProcessedAt());
+        assertNotNull(event.getLastError());
+    }
+
+    @Test
+    void relayPendingMessages_LastEmailAttemptFails_ShouldRecordAbandonedEmail() {
+        // Arrange
+        OutboxMessage email = recorded(() -> outboxService.sendEmailVerification(testUser, "verify-token"));
+        email.setAttempts(2);
+        when(outboxMessageRepository.lockNextBatch(any(LocalDateTime.class), anyInt())).thenReturn(List.of(email));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(testUser));
+        doThrow(new EmailServiceException(new EmailDeliveryException("Throttled", "john.doe@example.com",
+                EmailOperation.EMAIL_VERIFICATION, DeliveryFailureReason.RATE_LIMIT_EXCEEDED)))
+                .when(emailProvider).sendEmailVerification(testUser, "verify-token");
+
+        // Act
+        outboxService.relayPendingMessages(50);
+
+        // Assert
+        assertNotNull(email.getProcessedAt());
+        assertEquals(1, meterRegistry.get("email.delivery").tag("outcome", "failure")
+                .tag("reason", "RATE_LIMIT_EXCEEDED").timer().count());
+        assertEquals(1, meterRegistry.get("email.abandoned").tag("operation", "EMAIL_VERIFICATION")
+                .tag("reason", "RATE_LIMIT_EXCEEDED").counter().count());
+    }
+
+    @Test
+    void relayPendingMessages_ThrottledVerificationEmail_LowersProviderRate() {
+        // Arrange
+        EmailRateGovernor sesGovernor = new EmailRateGovernor("ses", 14, 14, 1, 0.5, 1, meterRegistry);
+        outboxService = new OutboxServiceImpl(outboxMessageRepository, userRepository, eventPublisherService,
+                new RateLimitedEmailService(emailProvider, sesGovernor), emailMetrics, objectMapper,
+                transactionOperations);
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxService, "initialBackoffMs", 1000L);
+        ReflectionTestUtils.setField(outboxService, "maxBackoffMs", 60000L);
+        ReflectionTestUtils.setField(outboxService, "leaseMs", 60000L);
+        OutboxMessage email = recorded(() -> outboxService.sendEmailVerification(testUser, "verify-token"));
+        when(outboxMessageRepository.lockNextBatch(any(LocalDateTime.class), anyInt())).thenReturn(List.of(email));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(testUser));
+        doThrow(new EmailServiceException(new EmailDeliveryException("Throttled", "john.doe@example.com",
+                EmailOperation.EMAIL_VERIFICATION, DeliveryFailureReason.RATE_LIMIT_EXCEEDED)))
+                .when(emailProvider).sendEmailVerification(testUser, "verify-token");
+
+        // Act
+        outboxService.relayPendingMessages(50);
+
+        // Assert
+        assertEquals(7.0, sesGovernor.currentRate());
+        assertEquals(1, meterRegistry.get("email.rate.throttled").tag("provider", "ses").counter().count());
+        assertEquals(1, email.getAttempts());
+        assertNull(email.getProcessedAt());
+    }
+
+    private OutboxMessage recorded(Runnable record) {
+        reset(outboxMessageRepository);
+        record.run();
+        ArgumentCaptor<OutboxMessage> captor = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(outboxMessageRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private UserCreatedEvent userCreatedEvent() {
+        return new UserCreatedEvent(7L, "johndoe", "john.doe@example.com", "John", "Doe",
+                Role.USER, "superadmin", LocalDateTime.now());
+    }
+}
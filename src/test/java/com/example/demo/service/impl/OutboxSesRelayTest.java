@@ -0,0 +1,137 @@
+package com.example.demo.service.impl;
+
+import com.amazonaws.services.simpleemail.AmazonSimpleEmailServiceAsync;
+import com.example.demo.config.SesConfig;
+import com.example.demo.domain.OutboxMessage;
+import com.example.demo.domain.Person;
+import com.example.demo.domain.Role;
+import com.example.demo.domain.User;
+import com.example.demo.domain.repository.OutboxMessageRepository;
+import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.service.EventPublisherService;
+import com.example.demo.service.email.EmailMetrics;
+import com.example.demo.service.email.EmailTemplateRenderer;
+import com.example.demo.service.email.FakeSesServer;
+import com.example.demo.service.email.SesBulkEmailSender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The outbox relay in front of the real SES provider, against {@link FakeSesServer}: emails claimed in
+ * one batch must reach SES as bulk requests rather than one {@code SendEmail} per relayed message.
+ */
+class OutboxSesRelayTest {
+
+    private final OutboxMessageRepository outboxMessageRepository = mock(OutboxMessageRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private FakeSesServer fakeSes;
+    private AmazonSimpleEmailServiceAsync sesClient;
+    private SesBulkEmailSender sesSender;
+    private OutboxServiceImpl outboxService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fakeSes = new FakeSesServer(0);
+        sesClient = new SesConfig().sesClient("test", "test", "us-east-1", fakeSes.endpoint(), 8, 2000, 5000, 60000, 0);
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+
+        sesSender = new SesBulkEmailSender(sesClient, new EmailTemplateRenderer(engine, new SimpleMeterRegistry()),
+                new ObjectMapper());
+        ReflectionTestUtils.setField(sesSender, "fromEmail", "noreply@informasyx.com");
+        ReflectionTestUtils.setField(sesSender, "bulkEnabled", true);
+        ReflectionTestUtils.setField(sesSender, "maxBatchSize", 50);
+        ReflectionTestUtils.setField(sesSender, "lingerMs", 200L);
+        ReflectionTestUtils.setField(sesSender, "templatePrefix", "test-");
+        ReflectionTestUtils.setField(sesSender, "drainTimeoutSeconds", 5L);
+        sesSender.start();
+
+        SesEmailServiceImpl sesProvider = new SesEmailServiceImpl(sesSender);
+        ReflectionTestUtils.setField(sesProvider, "baseUrl", "http://localhost:8080");
+        ReflectionTestUtils.setField(sesProvider, "sendTimeoutMs", 5000L);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        outboxService = new OutboxServiceImpl(outboxMessageRepository, userRepository, mock(EventPublisherService.class),
+                sesProvider, new EmailMetrics("ses", List.of(Duration.ofSeconds(5)), meterRegistry),
+                new ObjectMapper().findAndRegisterModules(), TransactionOperations.withoutTransaction());
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxService, "leaseMs", 60000L);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        outboxService.shutdown();
+        sesSender.shutdown();
+        sesClient.shutdown();
+        fakeSes.close();
+    }
+
+    @Test
+    void relayPendingMessages_VerificationEmailsInOneBatch_ReachSesAsOneBulkRequest() {
+        List<OutboxMessage> batch = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            batch.add(recordVerificationEmail(user(id)));
+        }
+        when(outboxMessageRepository.lockNextBatch(any(LocalDateTime.class), anyInt())).thenReturn(batch);
+
+        outboxService.relayPendingMessages(50);
+
+        assertThat(fakeSes.requests("SendBulkTemplatedEmail")).isEqualTo(1);
+        assertThat(fakeSes.requests("SendEmail")).isZero();
+        assertThat(fakeSes.recipients()).hasSize(10).contains("user1@example.com", "user10@example.com");
+        assertThat(batch).allMatch(message -> message.getProcessedAt() != null && message.getLastError() == null);
+    }
+
+    private OutboxMessage recordVerificationEmail(User user) {
+        ArgumentCaptor<OutboxMessage> captor = ArgumentCaptor.forClass(OutboxMessage.class);
+        outboxService.sendEmailVerification(user, "token-" + user.getId());
+        verify(outboxMessageRepository, atLeastOnce()).save(captor.capture());
+        OutboxMessage message = captor.getValue();
+        message.setId(user.getId());
+        return message;
+    }
+
+    private User user(long id) {
+        Person person = new Person();
+        person.setId(id);
+        person.setFirstName("User");
+        person.setLastName(String.valueOf(id));
+        person.setEmail("user" + id + "@example.com");
+
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setPerson(person);
+        user.setRole(Role.USER);
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        return user;
+    }
+}
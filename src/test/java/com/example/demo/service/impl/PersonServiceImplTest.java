@@ -1,9 +1,12 @@
 package com.example.demo.service.impl;
 
 import com.example.demo.domain.Person;
+import com.example.demo.domain.User;
 import com.example.demo.domain.dto.PersonDTO;
 import com.example.demo.domain.mapper.PersonMapper;
 import com.example.demo.domain.repository.PersonRepository;
+import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.service.OutboxService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,6 +32,12 @@ class PersonServiceImplTest {
     @Mock
     private PersonMapper personMapper;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
     @InjectMocks
     private PersonServiceImpl personService;
 
@@ -136,6 +145,25 @@ class PersonServiceImplTest {
         verify(personMapper, times(1)).toEntity(testPersonDTO);
         verify(personRepository, times(1)).save(testPerson);
         verify(personMapper, times(1)).toDto(testPerson);
+        verify(outboxService, never()).publishUserState(any());
+    }
+
+    @Test
+    void updatePerson_OfUser_PublishesUserState() {
+        // Arrange
+        User user = new User();
+        user.setId(5L);
+        user.setPerson(testPerson);
+        when(personRepository.existsById(1L)).thenReturn(true);
+        when(personMapper.toEntity(testPersonDTO)).thenReturn(testPerson);
+        when(personRepository.save(testPerson)).thenReturn(testPerson);
+        when(userRepository.findByPersonId(1L)).thenReturn(Optional.of(user));
+
+        // Act
+        personService.updatePerson(1L, testPersonDTO);
+
+        // Assert
+        verify(outboxService).publishUserState(user);
     }
 
     @Test
@@ -0,0 +1,87 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.domain.Person;
+import com.example.demo.domain.Role;
+import com.example.demo.domain.User;
+import com.example.demo.exception.EmailDeliveryException;
+import com.example.demo.exception.EmailDeliveryException.DeliveryFailureReason;
+import com.example.demo.exception.EmailException.EmailOperation;
+import com.example.demo.exception.EmailServiceException;
+import com.example.demo.service.EmailService;
+import com.example.demo.service.email.EmailRateGovernor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitedEmailServiceTest {
+
+    @Mock
+    private EmailService provider;
+
+    @Mock
+    private EmailRateGovernor rateGovernor;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        Person person = new Person();
+        person.setId(1L);
+        person.setEmail("john.doe@example.com");
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("johndoe");
+        testUser.setPerson(person);
+        testUser.setRole(Role.USER);
+    }
+
+    @Test
+    void sendEmailVerification_TakesPermitBeforeSending() throws InterruptedException {
+        new RateLimitedEmailService(provider, rateGovernor).sendEmailVerification(testUser, "token");
+
+        InOrder inOrder = inOrder(rateGovernor, provider);
+        inOrder.verify(rateGovernor).acquire();
+        inOrder.verify(provider).sendEmailVerification(testUser, "token");
+        inOrder.verify(rateGovernor).onSuccess();
+        verify(rateGovernor, never()).onThrottled();
+    }
+
+    @Test
+    void sendPasswordResetEmail_Throttled_LowersProviderRate() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EmailRateGovernor sesGovernor = new EmailRateGovernor("ses", 14, 14, 1, 0.5, 1, meterRegistry);
+        doThrow(failure(DeliveryFailureReason.RATE_LIMIT_EXCEEDED)).when(provider).sendPasswordResetEmail(testUser, "token");
+
+        assertThatThrownBy(() -> new RateLimitedEmailService(provider, sesGovernor).sendPasswordResetEmail(testUser, "token"))
+                .isInstanceOf(EmailServiceException.class);
+
+        assertThat(sesGovernor.currentRate()).isEqualTo(7.0);
+        assertThat(meterRegistry.get("email.rate.throttled").tag("provider", "ses").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void sendWelcomeEmail_OtherFailure_DoesNotLowerRate() {
+        doThrow(failure(DeliveryFailureReason.SMTP_CONNECTION_FAILED)).when(provider).sendWelcomeEmail(testUser);
+
+        assertThatThrownBy(() -> new RateLimitedEmailService(provider, rateGovernor).sendWelcomeEmail(testUser))
+                .isInstanceOf(EmailServiceException.class);
+
+        verify(rateGovernor, never()).onThrottled();
+        verify(rateGovernor, never()).onSuccess();
+    }
+
+    private EmailServiceException failure(DeliveryFailureReason reason) {
+        return new EmailServiceException(new EmailDeliveryException("Send failed", "john.doe@example.com",
+                EmailOperation.PASSWORD_RESET, reason));
+    }
+}
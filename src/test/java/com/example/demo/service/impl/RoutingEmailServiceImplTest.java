@@ -0,0 +1,183 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.domain.Person;
+import com.example.demo.domain.Role;
+import com.example.demo.domain.User;
+import com.example.demo.exception.EmailDeliveryException;
+import com.example.demo.exception.EmailDeliveryException.DeliveryFailureReason;
+import com.example.demo.exception.EmailException.EmailOperation;
+import com.example.demo.exception.EmailServiceException;
+import com.example.demo.service.EmailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoutingEmailServiceImplTest {
+
+    @Mock
+    private EmailService ses;
+
+    @Mock
+    private EmailService smtp;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RoutingEmailServiceImpl routingEmailService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        Person person = new Person();
+        person.setId(1L);
+        person.setFirstName("John");
+        person.setLastName("Doe");
+        person.setEmail("john.doe@example.com");
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("johndoe");
+        testUser.setPerson(person);
+        testUser.setRole(Role.USER);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        routingEmailService.shutdown();
+    }
+
+    @Test
+    void send_UsesPreferredProvider() {
+        start(false);
+
+        routingEmailService.sendEmailVerification(testUser, "token");
+
+        verify(ses).sendEmailVerification(testUser, "token");
+        verifyNoInteractions(smtp);
+        assertThat(meterRegistry.get("email.provider.latency").tag("provider", "ses").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void send_ProviderFailure_FailsOverToNextProvider() {
+        start(false);
+        doThrow(deliveryFailure(DeliveryFailureReason.RATE_LIMIT_EXCEEDED))
+                .when(ses).sendPasswordResetEmail(testUser, "token");
+
+        routingEmailService.sendPasswordResetEmail(testUser, "token");
+
+        verify(smtp).sendPasswordResetEmail(testUser, "token");
+        assertThat(meterRegistry.get("email.routing.failover").tag("provider", "ses").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void send_InvalidAddress_DoesNotFailOver() {
+        start(false);
+        EmailServiceException failure = deliveryFailure(DeliveryFailureReason.INVALID_EMAIL_ADDRESS);
+        doThrow(failure).when(ses).sendEmailVerification(testUser, "token");
+
+        assertThatThrownBy(() -> routingEmailService.sendEmailVerification(testUser, "token")).isSameAs(failure);
+
+        verifyNoInteractions(smtp);
+    }
+
+    @Test
+    void send_AllProvidersFail_ThrowsLastFailure() {
+        start(false);
+        doThrow(deliveryFailure(DeliveryFailureReason.AWS_SES_ERROR)).when(ses).sendEmailVerification(testUser, "token");
+        EmailServiceException smtpFailure = deliveryFailure(DeliveryFailureReason.SMTP_CONNECTION_FAILED);
+        doThrow(smtpFailure).when(smtp).sendEmailVerification(testUser, "token");
+
+        assertThatThrownBy(() -> routingEmailService.sendEmailVerification(testUser, "token")).isSameAs(smtpFailure);
+    }
+
+    @Test
+    void send_UnhealthyProvider_IsSkipped() {
+        start(false);
+        doThrow(deliveryFailure(DeliveryFailureReason.AWS_SES_ERROR)).when(ses).sendWelcomeEmail(testUser);
+        for (int i = 0; i < 3; i++) {
+            routingEmailService.sendWelcomeEmail(testUser);
+        }
+        clearInvocations(ses, smtp);
+
+        routingEmailService.sendWelcomeEmail(testUser);
+
+        verifyNoInteractions(ses);
+        verify(smtp).sendWelcomeEmail(testUser);
+        assertThat(meterRegistry.get("email.provider.healthy").tag("provider", "ses").gauge().value()).isZero();
+    }
+
+    @Test
+    void send_SlowProvider_HedgesVerificationToNextProvider() throws InterruptedException {
+        start(true);
+        CountDownLatch hedged = new CountDownLatch(1);
+        doAnswer(invocation -> hedged.await(5, TimeUnit.SECONDS)).when(ses).sendEmailVerification(testUser, "token");
+        doAnswer(invocation -> {
+            hedged.countDown();
+            return null;
+        }).when(smtp).sendEmailVerification(testUser, "token");
+
+        routingEmailService.sendEmailVerification(testUser, "token");
+
+        assertThat(hedged.getCount()).isZero();
+        assertThat(meterRegistry.get("email.routing.hedged").tag("provider", "smtp").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void send_FastProvider_DoesNotHedge() throws InterruptedException {
+        start(true);
+
+        routingEmailService.sendPasswordResetEmail(testUser, "token");
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        verify(ses).sendPasswordResetEmail(testUser, "token");
+        verifyNoInteractions(smtp);
+    }
+
+    @Test
+    void send_Welcome_IsNeverHedged() throws InterruptedException {
+        start(true);
+        doAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(100);
+            return null;
+        }).when(ses).sendWelcomeEmail(testUser);
+
+        routingEmailService.sendWelcomeEmail(testUser);
+
+        verifyNoInteractions(smtp);
+    }
+
+    private void start(boolean hedge) {
+        Map<String, EmailService> providers = new LinkedHashMap<>();
+        providers.put("ses", ses);
+        providers.put("smtp", smtp);
+        routingEmailService = new RoutingEmailServiceImpl(providers, meterRegistry);
+        ReflectionTestUtils.setField(routingEmailService, "windowSize", 10);
+        ReflectionTestUtils.setField(routingEmailService, "minSamples", 3);
+        ReflectionTestUtils.setField(routingEmailService, "maxErrorRate", 0.5);
+        ReflectionTestUtils.setField(routingEmailService, "maxP95LatencyMs", 5000L);
+        ReflectionTestUtils.setField(routingEmailService, "cooldownSeconds", 60L);
+        ReflectionTestUtils.setField(routingEmailService, "hedgeEnabled", hedge);
+        ReflectionTestUtils.setField(routingEmailService, "hedgeMinDelayMs", 20L);
+        ReflectionTestUtils.setField(routingEmailService, "hedgeThreads", 1);
+        ReflectionTestUtils.setField(routingEmailService, "drainTimeoutSeconds", 5L);
+        routingEmailService.start();
+    }
+
+    private static EmailServiceException deliveryFailure(DeliveryFailureReason reason) {
+        return new EmailServiceException(new EmailDeliveryException("Send failed", "john.doe@example.com",
+                EmailOperation.EMAIL_VERIFICATION, reason));
+    }
+}
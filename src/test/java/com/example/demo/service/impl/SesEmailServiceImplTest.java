@@ -0,0 +1,94 @@
+package com.example.demo.service.impl;
+
+import com.amazonaws.services.simpleemail.model.AmazonSimpleEmailServiceException;
+import com.example.demo.domain.Person;
+import com.example.demo.domain.Role;
+import com.example.demo.domain.User;
+import com.example.demo.exception.EmailDeliveryException;
+import com.example.demo.exception.EmailDeliveryException.DeliveryFailureReason;
+import com.example.demo.exception.EmailServiceException;
+import com.example.demo.service.email.EmailRecipient;
+import com.example.demo.service.email.EmailTemplate;
+import com.example.demo.service.email.SesBulkEmailSender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SesEmailServiceImplTest {
+
+    @Mock
+    private SesBulkEmailSender sesSender;
+
+    @InjectMocks
+    private SesEmailServiceImpl sesEmailService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sesEmailService, "baseUrl", "http://localhost:8080");
+        ReflectionTestUtils.setField(sesEmailService, "sendTimeoutMs", 5000L);
+
+        Person person = new Person();
+        person.setId(1L);
+        person.setFirstName("John");
+        person.setLastName("Doe");
+        person.setEmail("john.doe@example.com");
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("johndoe");
+        testUser.setPerson(person);
+        testUser.setRole(Role.USER);
+    }
+
+    @Test
+    void sendPasswordResetEmail_ShouldQueueResetLinkWithSesSender() {
+        when(sesSender.send(any(), any(), any())).thenReturn(CompletableFuture.completedFuture("message-id"));
+
+        sesEmailService.sendPasswordResetEmail(testUser, "reset-token");
+
+        verify(sesSender).send(eq(EmailTemplate.PASSWORD_RESET), eq(EmailRecipient.from(testUser)),
+                eq("http://localhost:8080/reset-password?token=reset-token"));
+    }
+
+    @Test
+    void sendEmailVerification_Throttled_ShouldReportRateLimitExceeded() {
+        when(sesSender.send(any(), any(), any())).thenReturn(CompletableFuture.failedFuture(
+                sesError("Throttling", "Maximum sending rate exceeded.")));
+
+        EmailServiceException exception = assertThrows(EmailServiceException.class,
+                () -> sesEmailService.sendEmailVerification(testUser, "token"));
+
+        EmailDeliveryException delivery = (EmailDeliveryException) exception.getCause();
+        assertEquals(DeliveryFailureReason.RATE_LIMIT_EXCEEDED, delivery.getReason());
+    }
+
+    @Test
+    void failureReason_ShouldOnlyTreatThrottlingAsRateLimit() {
+        assertEquals(DeliveryFailureReason.RATE_LIMIT_EXCEEDED,
+                SesEmailServiceImpl.failureReason(sesError("AccountThrottled", "Rate exceeded")));
+        assertEquals(DeliveryFailureReason.AWS_SES_ERROR,
+                SesEmailServiceImpl.failureReason(sesError("MessageRejected", "Email address is not verified.")));
+        assertEquals(DeliveryFailureReason.AWS_SES_ERROR,
+                SesEmailServiceImpl.failureReason(new IllegalStateException("boom")));
+    }
+
+    private AmazonSimpleEmailServiceException sesError(String code, String message) {
+        AmazonSimpleEmailServiceException exception = new AmazonSimpleEmailServiceException(message);
+        exception.setErrorCode(code);
+        return exception;
+    }
+}
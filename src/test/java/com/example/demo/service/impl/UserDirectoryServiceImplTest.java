@@ -0,0 +1,110 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.domain.Person;
+import com.example.demo.domain.Role;
+import com.example.demo.domain.User;
+import com.example.demo.domain.dto.DirectoryUserDTO;
+import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.service.directory.UserDirectory;
+import com.example.demo.service.directory.UserDirectoryProjector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDirectoryServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserDirectory userDirectory;
+
+    @Mock
+    private UserDirectoryProjector userDirectoryProjector;
+
+    @Mock
+    private ObjectProvider<UserDirectory> userDirectoryProvider;
+
+    @Mock
+    private ObjectProvider<UserDirectoryProjector> projectorProvider;
+
+    @Test
+    void listUsers_DirectoryDisabled_ReadsUserTable() {
+        UserDirectoryServiceImpl service = service(false);
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("john");
+        user.setRole(Role.USER);
+        Person person = new Person();
+        person.setEmail("john@example.com");
+        user.setPerson(person);
+        when(userRepository.findByRole(Role.USER, PageRequest.of(0, 20, Sort.by("id"))))
+                .thenReturn(new PageImpl<>(List.of(user)));
+
+        List<DirectoryUserDTO> users = service.listUsers(Role.USER, 0, 20);
+
+        assertThat(users).containsExactly(
+                new DirectoryUserDTO(1L, "john", "john@example.com", null, null, Role.USER));
+    }
+
+    @Test
+    void countUsersByRole_DirectoryDisabled_FillsMissingRoles() {
+        UserDirectoryServiceImpl service = service(false);
+        when(userRepository.countGroupedByRole()).thenReturn(List.<Object[]>of(new Object[]{Role.USER, 3L}));
+
+        Map<Role, Long> counts = service.countUsersByRole();
+
+        assertThat(counts).containsEntry(Role.USER, 3L)
+                .containsEntry(Role.ADMIN, 0L)
+                .containsEntry(Role.SUPER_ADMIN, 0L);
+    }
+
+    @Test
+    void listUsers_DirectoryEnabled_ReadsDirectory() {
+        UserDirectoryServiceImpl service = service(true);
+        List<DirectoryUserDTO> users = List.of(new DirectoryUserDTO(1L, "john", null, null, null, Role.USER));
+        when(userDirectory.list(null, 1, 10)).thenReturn(users);
+
+        assertThat(service.listUsers(null, 1, 10)).isSameAs(users);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void listUsers_InvalidPage_Throws() {
+        UserDirectoryServiceImpl service = service(false);
+
+        assertThatThrownBy(() -> service.listUsers(null, -1, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.listUsers(null, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.listUsers(null, 0, 501)).isInstanceOf(IllegalArgumentException.class);
+        verify(userRepository, never()).findAll(any(PageRequest.class));
+    }
+
+    @Test
+    void rebuild_DelegatesToProjectorWhenEnabled() {
+        assertThat(service(false).rebuild()).isFalse();
+
+        assertThat(service(true).rebuild()).isTrue();
+        verify(userDirectoryProjector).rebuild();
+    }
+
+    private UserDirectoryServiceImpl service(boolean directoryEnabled) {
+        lenient().when(userDirectoryProvider.getIfAvailable()).thenReturn(directoryEnabled ? userDirectory : null);
+        lenient().when(projectorProvider.getIfAvailable())
+                .thenReturn(directoryEnabled ? userDirectoryProjector : null);
+        return new UserDirectoryServiceImpl(userRepository, userDirectoryProvider, projectorProvider);
+    }
+}
@@ -9,6 +9,7 @@ import com.example.demo.domain.dto.UserDTO;
 import com.example.demo.domain.mapper.UserMapper;
 import com.example.demo.domain.repository.PersonRepository;
 import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.service.OutboxService;
 import com.example.demo.service.PersonService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -42,6 +43,9 @@ class UserServiceImplTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private OutboxService outboxService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -173,6 +177,7 @@ class UserServiceImplTest {
         verify(userMapper, times(1)).toEntity(testUserCreateDTO);
         verify(userRepository, times(1)).save(any(User.class));
         verify(userMapper, times(1)).toDto(testUser);
+        verify(outboxService).publishUserState(testUser);
     }
 
     @Test
@@ -214,6 +219,7 @@ class UserServiceImplTest {
         verify(userMapper, times(1)).toEntity(testUserCreateDTO);
         verify(userRepository, times(1)).save(any(User.class));
         verify(userMapper, times(1)).toDto(testUser);
+        verify(outboxService).publishUserState(testUser);
     }
 
     @Test
@@ -262,6 +268,7 @@ class UserServiceImplTest {
         // Assert
         verify(userRepository, times(1)).existsById(1L);
         verify(userRepository, times(1)).deleteById(1L);
+        verify(outboxService).publishUserDeleted(1L);
     }
 
     @Test
@@ -275,6 +282,7 @@ class UserServiceImplTest {
         });
         verify(userRepository, times(1)).existsById(99L);
         verify(userRepository, never()).deleteById(any());
+        verifyNoInteractions(outboxService);
     }
 
     @Test
@@ -4,13 +4,18 @@ import com.example.demo.domain.Person;
 import com.example.demo.domain.Role;
 import com.example.demo.domain.User;
 import com.example.demo.domain.VerificationToken;
+import com.example.demo.domain.repository.UserRepository;
 import com.example.demo.domain.repository.VerificationTokenRepository;
+import com.example.demo.service.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,6 +24,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -28,6 +35,12 @@ class VerificationTokenServiceImplTest {
     @Mock
     private VerificationTokenRepository verificationTokenRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
     @InjectMocks
     private VerificationTokenServiceImpl verificationTokenService;
 
@@ -96,78 +109,78 @@ class VerificationTokenServiceImplTest {
     }
 
     @Test
-    void verifyEmailToken_ValidUnusedToken_ShouldReturnTrueAndUpdateUser() {
+    void consumeToken_ValidToken_ShouldReturnOwningUserId() {
         // Arrange
-        when(verificationTokenRepository.findByToken("test-token-123"))
-                .thenReturn(Optional.of(testToken));
+        when(verificationTokenRepository.consumeToken(eq("test-token-123"),
+                eq(VerificationToken.TokenType.EMAIL_VERIFICATION), any(LocalDateTime.class))).thenReturn(1);
+        when(verificationTokenRepository.findUserIdByToken("test-token-123")).thenReturn(Optional.of(1L));
 
         // Act
-        boolean result = verificationTokenService.verifyEmailToken("test-token-123");
+        Optional<Long> userId = verificationTokenService.consumeToken(
+                "test-token-123", VerificationToken.TokenType.EMAIL_VERIFICATION);
 
         // Assert
-        assertTrue(result);
-        assertTrue(testUser.isEmailVerified());
-        assertTrue(testToken.isUsed());
-        verify(verificationTokenRepository).save(testToken);
+        assertThat(userId).contains(1L);
+        verify(verificationTokenRepository, never()).findByToken(anyString());
+        verify(verificationTokenRepository, never()).save(any());
     }
 
     @Test
-    void verifyEmailToken_TokenNotFound_ShouldReturnFalse() {
+    void consumeToken_InvalidExpiredOrUsedToken_ShouldReturnEmpty() {
         // Arrange
-        when(verificationTokenRepository.findByToken("non-existent-token"))
-                .thenReturn(Optional.empty());
+        when(verificationTokenRepository.consumeToken(eq("test-token-123"),
+                eq(VerificationToken.TokenType.PASSWORD_RESET), any(LocalDateTime.class))).thenReturn(0);
 
         // Act
-        boolean result = verificationTokenService.verifyEmailToken("non-existent-token");
+        Optional<Long> userId = verificationTokenService.consumeToken(
+                "test-token-123", VerificationToken.TokenType.PASSWORD_RESET);
 
         // Assert
-        assertFalse(result);
-        verify(verificationTokenRepository, never()).save(any());
+        assertThat(userId).isEmpty();
+        verify(verificationTokenRepository, never()).findUserIdByToken(anyString());
     }
 
     @Test
-    void verifyEmailToken_ExpiredToken_ShouldReturnFalse() {
+    void consumeEmailVerificationToken_ValidToken_ShouldMarkUserVerified() {
         // Arrange
-        testToken.setExpiryDate(LocalDateTime.now().minusHours(1)); // Expired
-        when(verificationTokenRepository.findByToken("test-token-123"))
-                .thenReturn(Optional.of(testToken));
+        when(verificationTokenRepository.consumeToken(eq("test-token-123"),
+                eq(VerificationToken.TokenType.EMAIL_VERIFICATION), any(LocalDateTime.class))).thenReturn(1);
+        when(verificationTokenRepository.findUserIdByToken("test-token-123")).thenReturn(Optional.of(1L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
         // Act
-        boolean result = verificationTokenService.verifyEmailToken("test-token-123");
+        Optional<Long> userId = verificationTokenService.consumeEmailVerificationToken("test-token-123");
 
         // Assert
-        assertFalse(result);
-        verify(verificationTokenRepository, never()).save(any());
+        assertThat(userId).contains(1L);
+        InOrder inOrder = inOrder(userRepository, outboxService);
+        inOrder.verify(userRepository).markEmailVerified(1L);
+        inOrder.verify(outboxService).publishUserState(testUser);
     }
 
     @Test
-    void verifyEmailToken_AlreadyUsedToken_ShouldReturnFalse() {
+    void consumeEmailVerificationToken_InvalidToken_ShouldNotTouchUser() {
         // Arrange
-        testToken.setUsed(true);
-        when(verificationTokenRepository.findByToken("test-token-123"))
-                .thenReturn(Optional.of(testToken));
+        when(verificationTokenRepository.consumeToken(eq("test-token-123"),
+                eq(VerificationToken.TokenType.EMAIL_VERIFICATION), any(LocalDateTime.class))).thenReturn(0);
 
         // Act
-        boolean result = verificationTokenService.verifyEmailToken("test-token-123");
+        Optional<Long> userId = verificationTokenService.consumeEmailVerificationToken("test-token-123");
 
         // Assert
-        assertFalse(result);
-        verify(verificationTokenRepository, never()).save(any());
+        assertThat(userId).isEmpty();
+        verifyNoInteractions(userRepository, outboxService);
     }
 
     @Test
-    void verifyEmailToken_WrongTokenType_ShouldReturnFalse() {
-        // Arrange
-        testToken.setTokenType(VerificationToken.TokenType.PASSWORD_RESET);
-        when(verificationTokenRepository.findByToken("test-token-123"))
-                .thenReturn(Optional.of(testToken));
-
+    void consumeToken_BlankToken_ShouldNotHitRepository() {
         // Act
-        boolean result = verificationTokenService.verifyEmailToken("test-token-123");
+        Optional<Long> userId = verificationTokenService.consumeToken(
+                "  ", VerificationToken.TokenType.EMAIL_VERIFICATION);
 
         // Assert
-        assertFalse(result);
-        verify(verificationTokenRepository, never()).save(any());
+        assertThat(userId).isEmpty();
+        verifyNoInteractions(verificationTokenRepository);
     }
 
     @Test
@@ -280,12 +293,51 @@ class VerificationTokenServiceImplTest {
     }
 
     @Test
-    void cleanupExpiredTokens_ShouldDeleteExpiredUsedTokens() {
+    void cleanupExpiredTokens_ShouldDeleteAllExpiredTokens() {
+        // Arrange
+        when(verificationTokenRepository.findExpiredTokenIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(verificationTokenRepository.deleteByIdIn(List.of(1L, 2L))).thenReturn(2);
+
+        // Act
+        int purged = verificationTokenService.cleanupExpiredTokens();
+
+        // Assert
+        assertEquals(2, purged);
+        verify(verificationTokenRepository).deleteByIdIn(List.of(1L, 2L));
+        verify(verificationTokenRepository, never()).deleteByExpiryDateBeforeAndUsedTrue(any(LocalDateTime.class));
+    }
+
+    @Test
+    void purgeExpiredTokens_ShouldDeleteInBoundedChunksUntilExhausted() {
+        // Arrange
+        LocalDateTime cutoff = LocalDateTime.now();
+        when(verificationTokenRepository.findExpiredTokenIds(eq(cutoff), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        when(verificationTokenRepository.deleteByIdIn(anyList()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        // Act
+        int purged = verificationTokenService.purgeExpiredTokens(cutoff, 2);
+
+        // Assert
+        assertEquals(5, purged);
+        verify(verificationTokenRepository, times(3)).findExpiredTokenIds(eq(cutoff), any(Pageable.class));
+        verify(verificationTokenRepository, times(3)).deleteByIdIn(anyList());
+    }
+
+    @Test
+    void purgeExpiredTokens_NothingExpired_ShouldNotDelete() {
+        // Arrange
+        when(verificationTokenRepository.findExpiredTokenIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
         // Act
-        verificationTokenService.cleanupExpiredTokens();
+        int purged = verificationTokenService.purgeExpiredTokens(LocalDateTime.now(), 100);
 
         // Assert
-        verify(verificationTokenRepository).deleteByExpiryDateBeforeAndUsedTrue(any(LocalDateTime.class));
+        assertEquals(0, purged);
+        verify(verificationTokenRepository, never()).deleteByIdIn(anyList());
     }
 
     @Test
@@ -378,16 +430,6 @@ class VerificationTokenServiceImplTest {
         assertThat(token2).isNotEmpty();
     }
 
-    @Test
-    void verifyEmailToken_NullToken_ShouldReturnFalse() {
-        // Act
-        boolean result = verificationTokenService.verifyEmailToken(null);
-
-        // Assert
-        assertFalse(result);
-        verify(verificationTokenRepository, never()).findByToken(any());
-    }
-
     @Test
     void verifyPasswordResetToken_EmptyToken_ShouldReturnFalse() {
         // Act